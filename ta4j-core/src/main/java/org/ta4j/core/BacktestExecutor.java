@@ -23,6 +23,7 @@
  */
 package org.ta4j.core;
 
+import org.ta4j.core.metrics.JmxBacktestMetrics;
 import org.ta4j.core.num.Num;
 import org.ta4j.core.tradereport.TradingStatement;
 import org.ta4j.core.tradereport.TradingStatementGenerator;
@@ -39,6 +40,7 @@ public class BacktestExecutor {
 
     private final TradingStatementGenerator tradingStatementGenerator;
     private final BarSeriesManager seriesManager;
+    private JmxBacktestMetrics jmxMetrics;
 
     public BacktestExecutor(BarSeries series) {
         this(series, new TradingStatementGenerator());
@@ -68,13 +70,82 @@ public class BacktestExecutor {
      * @param orderType the {@link Order.OrderType} used to open the trades
      */
     public List<TradingStatement> execute(List<Strategy> strategies, Num amount, Order.OrderType orderType) {
+        return execute(strategies, amount, orderType, null);
+    }
+
+    /**
+     * Execute given strategies with specified order type to open trades and return
+     * trading statements. Runs aborted by the pruner return statements of their
+     * partial results, flagged as pruned.
+     *
+     * @param amount    - The amount used to open/close the trades
+     * @param orderType the {@link Order.OrderType} used to open the trades
+     * @param pruner    the {@link BacktestPruner} shared by the runs (null for
+     *                  none)
+     */
+    public List<TradingStatement> execute(List<Strategy> strategies, Num amount, Order.OrderType orderType,
+            BacktestPruner pruner) {
+        final BarSeries series = seriesManager.getBarSeries();
         final List<TradingStatement> tradingStatements = new ArrayList<>(strategies.size());
         for (Strategy strategy : strategies) {
-            final TradingRecord tradingRecord = seriesManager.run(strategy, orderType, amount);
-            final TradingStatement tradingStatement = tradingStatementGenerator.generate(strategy, tradingRecord,
-                    seriesManager.getBarSeries());
-            tradingStatements.add(tradingStatement);
+            final BacktestResult result = seriesManager.run(strategy,
+                    new BaseTradingRecord(orderType), amount, series.getBeginIndex(), series.getEndIndex(), pruner);
+            tradingStatements.add(generateStatement(strategy, result));
         }
         return tradingStatements;
     }
+
+    /**
+     * Execute given strategies like
+     * {@link #execute(List, Num, Order.OrderType, BacktestPruner)} and measure
+     * the runs: throughput, time split between rule evaluation, trading record
+     * updates and statement generation, peak indicator cache size and per-bar
+     * evaluation latencies. The metrics are also recorded in the
+     * {@link #setJmxMetrics(JmxBacktestMetrics) JMX metrics} (if any).
+     *
+     * @param amount    - The amount used to open/close the trades
+     * @param orderType the {@link Order.OrderType} used to open the trades
+     * @param pruner    the {@link BacktestPruner} shared by the runs (null for
+     *                  none)
+     * @return the trading statements and the metrics of the execution
+     */
+    public BacktestExecution executeWithMetrics(List<Strategy> strategies, Num amount, Order.OrderType orderType,
+            BacktestPruner pruner) {
+        final long start = System.nanoTime();
+        final BarSeries series = seriesManager.getBarSeries();
+        final List<TradingStatement> tradingStatements = new ArrayList<>(strategies.size());
+        final List<BacktestRunMetrics> runs = new ArrayList<>(strategies.size());
+        for (Strategy strategy : strategies) {
+            final BacktestRunMetrics runMetrics = new BacktestRunMetrics(strategy);
+            final BacktestResult result = seriesManager.run(strategy, new BaseTradingRecord(orderType), amount,
+                    series.getBeginIndex(), series.getEndIndex(), pruner, runMetrics);
+            final long reportStart = System.nanoTime();
+            tradingStatements.add(generateStatement(strategy, result));
+            runMetrics.recordReport(System.nanoTime() - reportStart);
+            runs.add(runMetrics);
+        }
+        final BacktestMetrics metrics = new BacktestMetrics(runs, System.nanoTime() - start);
+        if (jmxMetrics != null) {
+            jmxMetrics.record(metrics);
+        }
+        return new BacktestExecution(tradingStatements, metrics);
+    }
+
+    /**
+     * @param jmxMetrics the JMX metrics cumulating the metrics of the executions
+     *                   (null for none)
+     */
+    public void setJmxMetrics(JmxBacktestMetrics jmxMetrics) {
+        this.jmxMetrics = jmxMetrics;
+    }
+
+    private TradingStatement generateStatement(Strategy strategy, BacktestResult result) {
+        final TradingStatement tradingStatement = tradingStatementGenerator.generate(strategy,
+                result.getTradingRecord(), seriesManager.getBarSeries());
+        if (result.isPruned()) {
+            return new TradingStatement(strategy, tradingStatement.getTradeStatsReport(),
+                    tradingStatement.getPerformanceReport(), true);
+        }
+        return tradingStatement;
+    }
 }
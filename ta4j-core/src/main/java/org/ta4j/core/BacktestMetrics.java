@@ -0,0 +1,142 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import org.ta4j.core.metrics.LatencyHistogram;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Timing metrics of a {@link BacktestExecutor backtest execution} of several
+ * strategies.
+ *
+ * 多策略回测执行的计时度量。
+ */
+public class BacktestMetrics {
+
+    private final List<BacktestRunMetrics> runs;
+
+    private final long wallNanos;
+
+    private final LatencyHistogram evaluationLatency = new LatencyHistogram();
+
+    /**
+     * Constructor.
+     *
+     * @param runs      the metrics of the runs of the strategies
+     * @param wallNanos the elapsed time of the execution (in nanoseconds)
+     */
+    public BacktestMetrics(List<BacktestRunMetrics> runs, long wallNanos) {
+        this.runs = Collections.unmodifiableList(runs);
+        this.wallNanos = wallNanos;
+        for (BacktestRunMetrics run : runs) {
+            evaluationLatency.add(run.getEvaluationLatency());
+        }
+    }
+
+    /**
+     * @return the metrics of the runs, in the order of the strategies
+     */
+    public List<BacktestRunMetrics> getRuns() {
+        return runs;
+    }
+
+    /**
+     * @return the elapsed time of the execution (in nanoseconds)
+     */
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    /**
+     * @return the number of bars processed by all the runs
+     */
+    public long getBarCount() {
+        return runs.stream().mapToLong(BacktestRunMetrics::getBarCount).sum();
+    }
+
+    /**
+     * @return the number of bars processed per second (over the elapsed time)
+     */
+    public double getBarsPerSecond() {
+        return wallNanos == 0 ? 0 : getBarCount() * 1e9 / wallNanos;
+    }
+
+    /**
+     * @return the time spent in the evaluation of the strategy rules (in
+     *         nanoseconds)
+     */
+    public long getEvaluationNanos() {
+        return runs.stream().mapToLong(BacktestRunMetrics::getEvaluationNanos).sum();
+    }
+
+    /**
+     * @return the time spent in the updates of the trading records (in
+     *         nanoseconds)
+     */
+    public long getTradingRecordNanos() {
+        return runs.stream().mapToLong(BacktestRunMetrics::getTradingRecordNanos).sum();
+    }
+
+    /**
+     * @return the time spent in the generation of the trading statements (in
+     *         nanoseconds)
+     */
+    public long getReportNanos() {
+        return runs.stream().mapToLong(BacktestRunMetrics::getReportNanos).sum();
+    }
+
+    /**
+     * @return the highest peak number of cached results among the runs
+     */
+    public int getPeakCachedResultCount() {
+        return runs.stream().mapToInt(BacktestRunMetrics::getPeakCachedResultCount).max().orElse(0);
+    }
+
+    /**
+     * @return the highest peak cache memory usage among the runs (in bytes)
+     */
+    public long getPeakCacheMemoryUsage() {
+        return runs.stream().mapToLong(BacktestRunMetrics::getPeakCacheMemoryUsage).max().orElse(0);
+    }
+
+    /**
+     * @return the histogram of the per-bar evaluation latencies of all the runs
+     */
+    public LatencyHistogram getEvaluationLatency() {
+        return evaluationLatency;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%d runs, %d bars in %.3f ms (%.0f bars/s)%n", runs.size(), getBarCount(),
+                wallNanos / 1e6, getBarsPerSecond()));
+        for (BacktestRunMetrics run : runs) {
+            sb.append("  ").append(run).append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+/**
+ * A pruning hook for backtests.
+ *
+ * A pruner is consulted by the {@link BarSeriesManager} after each bar of a run.
+ * If it decides that the run cannot produce an interesting result anymore, the
+ * run is aborted and its partial {@link BacktestResult result} is flagged as
+ * pruned. This allows to cut large parameter sweeps short for obviously bad
+ * candidates.
+ *
+ * 回测剪枝钩子。用于在大规模参数扫描中提前终止明显较差的回测。
+ */
+public interface BacktestPruner {
+
+    /**
+     * @param series        the bar series of the run
+     * @param tradingRecord the (partial) trading record of the run
+     * @param index         the index of the last processed bar
+     * @return true if the run should be aborted, false otherwise
+     */
+    boolean shouldPrune(BarSeries series, TradingRecord tradingRecord, int index);
+
+    /**
+     * Called when a run has been completed without being pruned.
+     *
+     * @param series        the bar series of the run
+     * @param tradingRecord the final trading record of the run
+     */
+    default void runCompleted(BarSeries series, TradingRecord tradingRecord) {
+    }
+
+    /**
+     * @param pruner another pruner
+     * @return a pruner which aborts a run if this pruner or the provided one does
+     */
+    default BacktestPruner or(BacktestPruner pruner) {
+        BacktestPruner self = this;
+        return new BacktestPruner() {
+
+            @Override
+            public boolean shouldPrune(BarSeries series, TradingRecord tradingRecord, int index) {
+                return self.shouldPrune(series, tradingRecord, index)
+                        || pruner.shouldPrune(series, tradingRecord, index);
+            }
+
+            @Override
+            public void runCompleted(BarSeries series, TradingRecord tradingRecord) {
+                self.runCompleted(series, tradingRecord);
+                pruner.runCompleted(series, tradingRecord);
+            }
+        };
+    }
+}
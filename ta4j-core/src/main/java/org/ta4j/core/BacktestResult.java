@@ -0,0 +1,80 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+/**
+ * The result of a backtest run.
+ *
+ * Holds the trading record coming from the run, the index of the last bar
+ * which has been processed and whether the run has been aborted by a
+ * {@link BacktestPruner pruner}. The trading record of a pruned run is partial.
+ *
+ * 回测运行结果。
+ */
+public class BacktestResult {
+
+    private final TradingRecord tradingRecord;
+    private final int lastIndex;
+    private final boolean pruned;
+
+    /**
+     * Constructor.
+     *
+     * @param tradingRecord the trading record coming from the run
+     * @param lastIndex     the index of the last processed bar
+     * @param pruned        true if the run has been aborted, false otherwise
+     */
+    public BacktestResult(TradingRecord tradingRecord, int lastIndex, boolean pruned) {
+        this.tradingRecord = tradingRecord;
+        this.lastIndex = lastIndex;
+        this.pruned = pruned;
+    }
+
+    /**
+     * @return the trading record coming from the run (partial if pruned)
+     */
+    public TradingRecord getTradingRecord() {
+        return tradingRecord;
+    }
+
+    /**
+     * @return the index of the last processed bar
+     */
+    public int getLastIndex() {
+        return lastIndex;
+    }
+
+    /**
+     * @return true if the run has been aborted by a pruner, false otherwise
+     */
+    public boolean isPruned() {
+        return pruned;
+    }
+
+    @Override
+    public String toString() {
+        return "BacktestResult{lastIndex=" + lastIndex + ", pruned=" + pruned + ", trades="
+                + tradingRecord.getTradeCount() + '}';
+    }
+}
@@ -0,0 +1,199 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import org.ta4j.core.indicators.CachedIndicator;
+import org.ta4j.core.indicators.IndicatorGraph;
+import org.ta4j.core.metrics.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Timing metrics of the run of a strategy.
+ *
+ * Filled by the {@link BarSeriesManager} and the {@link BacktestExecutor}. The
+ * time of a run is split between the evaluation of the strategy rules, the
+ * updates of the trading record and the generation of the trading statement.
+ * The size of the indicator caches of the strategy is sampled every
+ * {@value #CACHE_SAMPLING_INTERVAL} bars and at the end of the run.
+ *
+ * 策略运行的计时度量。
+ */
+public class BacktestRunMetrics {
+
+    /**
+     * Number of bars between two samples of the indicator caches
+     */
+    static final int CACHE_SAMPLING_INTERVAL = 1024;
+
+    private final Strategy strategy;
+
+    private final List<CachedIndicator<?>> cachedIndicators = new ArrayList<>();
+
+    private final LatencyHistogram evaluationLatency = new LatencyHistogram();
+
+    private int barCount;
+    private long runNanos;
+    private long evaluationNanos;
+    private long tradingRecordNanos;
+    private long reportNanos;
+    private int peakCachedResultCount;
+    private long peakCacheMemoryUsage;
+
+    /**
+     * Constructor.
+     *
+     * @param strategy the strategy to be run
+     */
+    public BacktestRunMetrics(Strategy strategy) {
+        this.strategy = strategy;
+        for (Indicator<?> indicator : IndicatorGraph.of(strategy).getIndicators()) {
+            if (indicator instanceof CachedIndicator) {
+                cachedIndicators.add((CachedIndicator<?>) indicator);
+            }
+        }
+    }
+
+    void recordBar(long evaluation, long tradingRecordUpdate) {
+        barCount++;
+        evaluationNanos += evaluation;
+        tradingRecordNanos += tradingRecordUpdate;
+        evaluationLatency.record(evaluation);
+        if (barCount % CACHE_SAMPLING_INTERVAL == 0) {
+            sampleCaches();
+        }
+    }
+
+    void recordRun(long nanos) {
+        runNanos += nanos;
+        sampleCaches();
+    }
+
+    void recordReport(long nanos) {
+        reportNanos += nanos;
+    }
+
+    private void sampleCaches() {
+        int resultCount = 0;
+        long memoryUsage = 0;
+        for (CachedIndicator<?> indicator : cachedIndicators) {
+            resultCount += indicator.getCachedResultCount();
+            memoryUsage += indicator.getCacheMemoryUsage();
+        }
+        peakCachedResultCount = Math.max(peakCachedResultCount, resultCount);
+        peakCacheMemoryUsage = Math.max(peakCacheMemoryUsage, memoryUsage);
+    }
+
+    /**
+     * @return the strategy
+     */
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * @return the number of bars the strategy has been evaluated on
+     */
+    public int getBarCount() {
+        return barCount;
+    }
+
+    /**
+     * @return the time spent in the run over the bars (in nanoseconds)
+     */
+    public long getRunNanos() {
+        return runNanos;
+    }
+
+    /**
+     * @return the time spent in the evaluation of the strategy rules (in
+     *         nanoseconds)
+     */
+    public long getEvaluationNanos() {
+        return evaluationNanos;
+    }
+
+    /**
+     * @return the time spent in the updates of the trading record (in
+     *         nanoseconds)
+     */
+    public long getTradingRecordNanos() {
+        return tradingRecordNanos;
+    }
+
+    /**
+     * @return the time spent in the generation of the trading statement (in
+     *         nanoseconds)
+     */
+    public long getReportNanos() {
+        return reportNanos;
+    }
+
+    /**
+     * @return the total time of the run and of the report (in nanoseconds)
+     */
+    public long getTotalNanos() {
+        return runNanos + reportNanos;
+    }
+
+    /**
+     * @return the number of bars processed per second (over the total time)
+     */
+    public double getBarsPerSecond() {
+        long totalNanos = getTotalNanos();
+        return totalNanos == 0 ? 0 : barCount * 1e9 / totalNanos;
+    }
+
+    /**
+     * @return the histogram of the per-bar evaluation latencies of the strategy
+     */
+    public LatencyHistogram getEvaluationLatency() {
+        return evaluationLatency;
+    }
+
+    /**
+     * @return the highest sampled number of cached results of the strategy
+     *         indicators
+     */
+    public int getPeakCachedResultCount() {
+        return peakCachedResultCount;
+    }
+
+    /**
+     * @return the highest sampled memory usage of the strategy indicator caches
+     *         (in bytes)
+     */
+    public long getPeakCacheMemoryUsage() {
+        return peakCacheMemoryUsage;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "%s: %d bars, %.0f bars/s, evaluation %.3f ms, trading record %.3f ms, report %.3f ms, peak cache %d results (%d bytes), latency [%s]",
+                strategy.getName(), barCount, getBarsPerSecond(), evaluationNanos / 1e6, tradingRecordNanos / 1e6,
+                reportNanos / 1e6, peakCachedResultCount, peakCacheMemoryUsage, evaluationLatency);
+    }
+}
@@ -0,0 +1,185 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import org.ta4j.core.Order.OrderType;
+import org.ta4j.core.analysis.CriterionAccumulator;
+import org.ta4j.core.num.Num;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A resumable backtest of a {@link Strategy strategy} over a growing
+ * {@link BarSeries bar series}.
+ *
+ * The session keeps the trading record, the strategy (and therefore the caches
+ * of its indicators) and some {@link CriterionAccumulator criterion
+ * accumulators} between two calls to {@link #advance()}. Each call only
+ * processes the bars appended to the series since the previous one.
+ *
+ * Unlike {@link BarSeriesManager#run(Strategy)}, an opened trade is kept opened
+ * at the end of the series: it may be closed by the next bars.
+ *
+ * 可恢复的回测会话。每次调用advance()只处理自上次调用以来新添加的柱。
+ */
+public class BacktestSession {
+
+    private final BarSeries series;
+
+    private final Strategy strategy;
+
+    private final TradingRecord tradingRecord;
+
+    private final Num amount;
+
+    private final List<CriterionAccumulator> accumulators = new ArrayList<>();
+
+    /**
+     * The index of the last processed bar
+     */
+    private int lastIndex;
+
+    /**
+     * The number of closed trades fed to the accumulators
+     */
+    private int accumulatedTradeCount;
+
+    /**
+     * Constructor.
+     *
+     * Opens the trades with a BUY order of amount 1.
+     *
+     * @param series   the bar series
+     * @param strategy the trading strategy
+     */
+    public BacktestSession(BarSeries series, Strategy strategy) {
+        this(series, strategy, new BaseTradingRecord(OrderType.BUY), series.numOf(1));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param series        the bar series
+     * @param strategy      the trading strategy
+     * @param tradingRecord the (empty) trading record to be filled
+     * @param amount        the amount used to open/close the trades
+     */
+    public BacktestSession(BarSeries series, Strategy strategy, TradingRecord tradingRecord, Num amount) {
+        if (series == null || strategy == null || tradingRecord == null) {
+            throw new IllegalArgumentException("Series, strategy and trading record cannot be null");
+        }
+        this.series = series;
+        this.strategy = strategy;
+        this.tradingRecord = tradingRecord;
+        this.amount = amount;
+        this.lastIndex = Math.max(series.getBeginIndex(), 0) - 1;
+    }
+
+    /**
+     * Adds a criterion accumulator, fed with all the trades closed so far.
+     *
+     * @param accumulator the criterion accumulator
+     * @return this session
+     */
+    public BacktestSession addAccumulator(CriterionAccumulator accumulator) {
+        List<Trade> trades = tradingRecord.getTrades();
+        for (int i = 0; i < accumulatedTradeCount; i++) {
+            accumulator.accept(series, trades.get(i));
+        }
+        accumulators.add(accumulator);
+        return this;
+    }
+
+    /**
+     * Runs the strategy over the bars appended since the last call.
+     *
+     * @return the number of processed bars
+     */
+    public int advance() {
+        int beginIndex = Math.max(lastIndex + 1, Math.max(series.getBeginIndex(), 0));
+        int endIndex = series.getEndIndex();
+        for (int i = beginIndex; i <= endIndex; i++) {
+            if (strategy.shouldOperate(i, tradingRecord)) {
+                tradingRecord.operate(i, series.getBar(i).getClosePrice(), amount);
+            }
+        }
+        lastIndex = Math.max(lastIndex, endIndex);
+        accumulateClosedTrades();
+        return Math.max(0, endIndex - beginIndex + 1);
+    }
+
+    /**
+     * Feeds the newly closed trades to the accumulators.
+     */
+    private void accumulateClosedTrades() {
+        int tradeCount = tradingRecord.getTradeCount();
+        if (tradeCount > accumulatedTradeCount) {
+            List<Trade> trades = tradingRecord.getTrades();
+            for (int i = accumulatedTradeCount; i < tradeCount; i++) {
+                Trade trade = trades.get(i);
+                for (CriterionAccumulator accumulator : accumulators) {
+                    accumulator.accept(series, trade);
+                }
+            }
+            accumulatedTradeCount = tradeCount;
+        }
+    }
+
+    /**
+     * @return the index of the last processed bar
+     */
+    public int getLastIndex() {
+        return lastIndex;
+    }
+
+    /**
+     * @return the bar series
+     */
+    public BarSeries getBarSeries() {
+        return series;
+    }
+
+    /**
+     * @return the trading strategy
+     */
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * @return the trading record of the session
+     */
+    public TradingRecord getTradingRecord() {
+        return tradingRecord;
+    }
+
+    /**
+     * @return the criterion accumulators of the session
+     */
+    public List<CriterionAccumulator> getAccumulators() {
+        return Collections.unmodifiableList(accumulators);
+    }
+}
@@ -91,6 +91,21 @@ public interface Bar extends Serializable {
      */
     ZonedDateTime getEndTime();
 
+    /**
+     * @return the end time of the bar period as epoch nanoseconds (see
+     *         {@link BarSeriesTimeIndex#toEpochNanos(java.time.Instant)})
+     */
+    default long getEndTimeNanos() {
+        return BarSeriesTimeIndex.toEpochNanos(getEndTime().toInstant());
+    }
+
+    /**
+     * @return the begin time of the bar period as epoch nanoseconds
+     */
+    default long getBeginTimeNanos() {
+        return getEndTimeNanos() - getTimePeriod().toNanos();
+    }
+
     /**
      * @param timestamp a timestamp
      * @return true if the provided timestamp is between the begin time and the end
@@ -28,6 +28,7 @@ import org.ta4j.core.num.Num;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.time.Duration;
+import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -350,6 +351,106 @@ public interface BarSeries extends Serializable {
      */
     BarSeries getSubSeries(int startIndex, int endIndex);
 
+    /**
+     * Returns a new {@link BarSeries} instance holding a copy of the
+     * {@link Bar bars} ending between <tt>from</tt> (inclusive) and <tt>to</tt>
+     * (exclusive).
+     *
+     * @param from the begin time (inclusive)
+     * @param to   the end time (exclusive)
+     * @return a new BarSeries with the bars ending in [from, to), empty if none
+     */
+    default BarSeries getSubSeries(Instant from, Instant to) {
+        int startIndex = getTimeIndex().ceilIndex(from);
+        int endIndex = getTimeIndex().ceilIndex(to);
+        if (endIndex < 0) {
+            endIndex = getEndIndex() + 1;
+        }
+        if (startIndex < 0 || startIndex >= endIndex) {
+            return new BaseBarSeries(getName(), function());
+        }
+        return getSubSeries(startIndex, endIndex);
+    }
+
+    /**
+     * Returns the modification count of the series, incremented each time
+     * existing bars are replaced or corrected (appending bars does not count).
+     * Cached values of dependent indicators are invalidated from the lowest
+     * changed index.
+     *
+     * @return the modification count of the series (0 if modifications are not
+     *         tracked)
+     * @see #getLowestChangedIndex(long)
+     */
+    default long getModificationCount() {
+        return 0;
+    }
+
+    /**
+     * @param modificationCount a previous {@link #getModificationCount()
+     *                          modification count}
+     * @return the lowest index of the bars changed since modificationCount
+     *         (Integer.MAX_VALUE if none)
+     */
+    default int getLowestChangedIndex(long modificationCount) {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Returns the time index of the series. The default implementation builds a
+     * new index on each call; implementations should keep it across calls.
+     *
+     * @return the time index of the series
+     */
+    default BarSeriesTimeIndex getTimeIndex() {
+        return new BarSeriesTimeIndex(this);
+    }
+
+    /**
+     * @param time a time
+     * @return the index of the bar ending exactly at time, or -1
+     * @see BarSeriesTimeIndex#indexOf(Instant)
+     */
+    default int indexOf(Instant time) {
+        return getTimeIndex().indexOf(time);
+    }
+
+    /**
+     * @param time a time
+     * @return the index of the last bar ending at or before time, or -1
+     * @see BarSeriesTimeIndex#floorIndex(Instant)
+     */
+    default int floorIndex(Instant time) {
+        return getTimeIndex().floorIndex(time);
+    }
+
+    /**
+     * @param time a time
+     * @return the index of the first bar ending at or after time, or -1
+     * @see BarSeriesTimeIndex#ceilIndex(Instant)
+     */
+    default int ceilIndex(Instant time) {
+        return getTimeIndex().ceilIndex(time);
+    }
+
+    /**
+     * @param time a time (epoch nanoseconds)
+     * @return the index of the last bar ending at or before time, or -1
+     * @see BarSeriesTimeIndex#floorIndex(long)
+     */
+    default int floorIndex(long time) {
+        return getTimeIndex().floorIndex(time);
+    }
+
+    /**
+     * @param time a time (epoch nanoseconds)
+     * @return the index of the first bar ending at or after time, or -1
+     * @see BarSeriesTimeIndex#ceilIndex(long)
+     */
+    default int ceilIndex(long time) {
+        return getTimeIndex().ceilIndex(time);
+    }
+
     /**
      * Transforms a {@link Number} into the {@link Num implementation} used by this
      * bar series
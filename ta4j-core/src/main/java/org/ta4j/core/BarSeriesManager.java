@@ -93,6 +93,20 @@ public class BarSeriesManager {
         return barSeries;
     }
 
+    /**
+     * Starts a resumable {@link BacktestSession session} of the provided strategy
+     * over the managed series, using the cost models of this manager.
+     *
+     * @param strategy  the trading strategy
+     * @param orderType the {@link OrderType} used to open the trades
+     * @param amount    the amount used to open/close the trades
+     * @return a new session, nothing processed yet
+     */
+    public BacktestSession startSession(Strategy strategy, OrderType orderType, Num amount) {
+        return new BacktestSession(barSeries, strategy,
+                new BaseTradingRecord(orderType, transactionCostModel, holdingCostModel), amount);
+    }
+
     /**
      * Runs the provided strategy over the managed series.
      *
@@ -172,17 +186,81 @@ public class BarSeriesManager {
      * @return the trading record coming from the run
      */
     public TradingRecord run(Strategy strategy, OrderType orderType, Num amount, int startIndex, int finishIndex) {
+        TradingRecord tradingRecord = new BaseTradingRecord(orderType, transactionCostModel, holdingCostModel);
+        return run(strategy, tradingRecord, amount, startIndex, finishIndex);
+    }
+
+    /**
+     * Runs the provided strategy over the managed series (from startIndex to
+     * finishIndex) and records the orders in the provided trading record.
+     *
+     * This allows to use another {@link TradingRecord} implementation (e.g. a
+     * {@link CompactTradingRecord} for mass backtesting). The order type used to
+     * open the trades and the cost models are the ones of the trading record.
+     *
+     * @param strategy      the trading strategy
+     * @param tradingRecord the (empty) trading record to be filled
+     * @param amount        the amount used to open/close the trades
+     * @param startIndex    the start index for the run (included)
+     * @param finishIndex   the finish index for the run (included)
+     * @return the provided trading record
+     */
+    public TradingRecord run(Strategy strategy, TradingRecord tradingRecord, Num amount, int startIndex,
+            int finishIndex) {
+        return run(strategy, tradingRecord, amount, startIndex, finishIndex, null).getTradingRecord();
+    }
+
+    /**
+     * Runs the provided strategy over the managed series (from startIndex to
+     * finishIndex) and records the orders in the provided trading record.
+     *
+     * The provided {@link BacktestPruner pruner} is consulted after each bar. If it
+     * aborts the run, the partial result is flagged as pruned.
+     *
+     * @param strategy      the trading strategy
+     * @param tradingRecord the (empty) trading record to be filled
+     * @param amount        the amount used to open/close the trades
+     * @param startIndex    the start index for the run (included)
+     * @param finishIndex   the finish index for the run (included)
+     * @param pruner        the pruner of the run (null for none)
+     * @return the result of the run
+     */
+    public BacktestResult run(Strategy strategy, TradingRecord tradingRecord, Num amount, int startIndex,
+            int finishIndex, BacktestPruner pruner) {
+        return run(strategy, tradingRecord, amount, startIndex, finishIndex, pruner, null);
+    }
+
+    /**
+     * Runs the provided strategy over the managed series (from startIndex to
+     * finishIndex), records the orders in the provided trading record and the
+     * timings of the run in the provided metrics.
+     *
+     * @param strategy      the trading strategy
+     * @param tradingRecord the (empty) trading record to be filled
+     * @param amount        the amount used to open/close the trades
+     * @param startIndex    the start index for the run (included)
+     * @param finishIndex   the finish index for the run (included)
+     * @param pruner        the pruner of the run (null for none)
+     * @param metrics       the metrics of the run to be filled (null for none)
+     * @return the result of the run
+     */
+    public BacktestResult run(Strategy strategy, TradingRecord tradingRecord, Num amount, int startIndex,
+            int finishIndex, BacktestPruner pruner, BacktestRunMetrics metrics) {
+        final long runStart = metrics == null ? 0 : System.nanoTime();
 
         int runBeginIndex = Math.max(startIndex, barSeries.getBeginIndex());
         int runEndIndex = Math.min(finishIndex, barSeries.getEndIndex());
 
-        log.trace("Running strategy (indexes: {} -> {}): {} (starting with {})", runBeginIndex, runEndIndex, strategy,
-                orderType);
-        TradingRecord tradingRecord = new BaseTradingRecord(orderType, transactionCostModel, holdingCostModel);
+        log.trace("Running strategy (indexes: {} -> {}): {}", runBeginIndex, runEndIndex, strategy);
         for (int i = runBeginIndex; i <= runEndIndex; i++) {
             // For each bar between both indexes...
-            if (strategy.shouldOperate(i, tradingRecord)) {
-                tradingRecord.operate(i, barSeries.getBar(i).getClosePrice(), amount);
+            operate(strategy, tradingRecord, amount, i, metrics);
+            if (pruner != null && i < runEndIndex && pruner.shouldPrune(barSeries, tradingRecord, i)) {
+                log.trace("Strategy {} pruned at index {}", strategy, i);
+                if (metrics != null) {
+                    metrics.recordRun(System.nanoTime() - runStart);
+                }
+                return new BacktestResult(tradingRecord, i, true);
             }
         }
 
@@ -194,13 +272,44 @@ public class BarSeriesManager {
             for (int i = runEndIndex + 1; i < seriesMaxSize; i++) {
                 // For each bar after the end index of this run...
                 // --> Trying to close the last trade
-                if (strategy.shouldOperate(i, tradingRecord)) {
-                    tradingRecord.operate(i, barSeries.getBar(i).getClosePrice(), amount);
+                if (operate(strategy, tradingRecord, amount, i, metrics)) {
                     break;
                 }
             }
         }
-        return tradingRecord;
+        if (pruner != null) {
+            pruner.runCompleted(barSeries, tradingRecord);
+        }
+        if (metrics != null) {
+            metrics.recordRun(System.nanoTime() - runStart);
+        }
+        return new BacktestResult(tradingRecord, runEndIndex, false);
+    }
+
+    /**
+     * Evaluates the strategy at index and operates the trading record if needed.
+     *
+     * @return true if the trading record has been operated
+     */
+    private boolean operate(Strategy strategy, TradingRecord tradingRecord, Num amount, int index,
+            BacktestRunMetrics metrics) {
+        if (metrics == null) {
+            if (strategy.shouldOperate(index, tradingRecord)) {
+                tradingRecord.operate(index, barSeries.getBar(index).getClosePrice(), amount);
+                return true;
+            }
+            return false;
+        }
+        final long start = System.nanoTime();
+        final boolean shouldOperate = strategy.shouldOperate(index, tradingRecord);
+        final long evaluated = System.nanoTime();
+        long operated = evaluated;
+        if (shouldOperate) {
+            tradingRecord.operate(index, barSeries.getBar(index).getClosePrice(), amount);
+            operated = System.nanoTime();
+        }
+        metrics.recordBar(evaluated - start, operated - evaluated);
+        return shouldOperate;
     }
 
 }
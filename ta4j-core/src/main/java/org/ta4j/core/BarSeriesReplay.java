@@ -0,0 +1,191 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import org.ta4j.core.Order.OrderType;
+import org.ta4j.core.num.Num;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Replays the bars of several {@link BarSeries bar series} in global time
+ * order.
+ *
+ * The replay is a streaming k-way merge: a priority queue holds one cursor per
+ * series, ordered by the end time of its next bar (ties are broken by the order
+ * of the series). No merged timeline is materialized; the memory used by the
+ * replay is proportional to the number of series.
+ *
+ * 按全局时间顺序回放多个柱序列的柱（流式k路归并）。
+ */
+public class BarSeriesReplay {
+
+    /**
+     * Receives the bars of a replay.
+     */
+    @FunctionalInterface
+    public interface Listener {
+
+        /**
+         * @param series the series of the bar
+         * @param index  the index of the bar in the series
+         */
+        void onBar(BarSeries series, int index);
+    }
+
+    /**
+     * The position of the replay in a series.
+     */
+    private static final class Cursor implements Comparable<Cursor> {
+
+        private final BarSeries series;
+        private final int ordinal;
+        private int index;
+        private Bar bar;
+
+        private Cursor(BarSeries series, int ordinal) {
+            this.series = series;
+            this.ordinal = ordinal;
+            // Removed bars (maximum bar count) are not replayed
+            this.index = Math.max(series.getBeginIndex(), series.getRemovedBarsCount());
+            this.bar = series.getBar(index);
+        }
+
+        /**
+         * @return true if the cursor has been moved to the next bar, false at the end
+         *         of the series
+         */
+        private boolean moveToNext() {
+            if (index >= series.getEndIndex()) {
+                return false;
+            }
+            index++;
+            bar = series.getBar(index);
+            return true;
+        }
+
+        @Override
+        public int compareTo(Cursor other) {
+            int cmp = BarSeriesTimeIndex.compareEndTimes(bar, other.bar);
+            return cmp != 0 ? cmp : Integer.compare(ordinal, other.ordinal);
+        }
+    }
+
+    private final List<BarSeries> seriesList;
+
+    /**
+     * Constructor.
+     *
+     * @param seriesList the bar series to be replayed
+     */
+    public BarSeriesReplay(List<BarSeries> seriesList) {
+        this.seriesList = new ArrayList<>(seriesList);
+    }
+
+    /**
+     * Replays all (available) bars of the series in global time order.
+     *
+     * @param listener the listener of the bars
+     * @return the number of replayed bars
+     */
+    public long replay(Listener listener) {
+        return replay((ordinal, series, index) -> listener.onBar(series, index));
+    }
+
+    /**
+     * Runs a strategy per series while replaying the bars in global time order.
+     *
+     * Opened trades are left opened at the end of the replay.
+     *
+     * @param strategies the strategy of each series (same order as the series,
+     *                   whose names must be unique)
+     * @param orderType  the {@link OrderType} used to open the trades
+     * @param amount     the amount used to open/close the trades
+     * @return the trading records, by series name
+     */
+    public Map<String, TradingRecord> run(List<Strategy> strategies, OrderType orderType, Number amount) {
+        if (strategies.size() != seriesList.size()) {
+            throw new IllegalArgumentException("One strategy per series is required");
+        }
+        final Set<String> names = new HashSet<>();
+        for (BarSeries series : seriesList) {
+            if (!names.add(series.getName())) {
+                throw new IllegalArgumentException("Duplicate series name: " + series.getName());
+            }
+        }
+        final TradingRecord[] records = new TradingRecord[seriesList.size()];
+        final Num[] amounts = new Num[seriesList.size()];
+        for (int i = 0; i < seriesList.size(); i++) {
+            records[i] = new BaseTradingRecord(orderType);
+            amounts[i] = seriesList.get(i).numOf(amount);
+        }
+
+        replay((ordinal, series, index) -> {
+            if (strategies.get(ordinal).shouldOperate(index, records[ordinal])) {
+                records[ordinal].operate(index, series.getBar(index).getClosePrice(), amounts[ordinal]);
+            }
+        });
+
+        final Map<String, TradingRecord> recordsByName = new LinkedHashMap<>();
+        for (int i = 0; i < seriesList.size(); i++) {
+            recordsByName.put(seriesList.get(i).getName(), records[i]);
+        }
+        return recordsByName;
+    }
+
+    /**
+     * Receives the bars of a replay, with the position of their series.
+     */
+    @FunctionalInterface
+    private interface OrdinalListener {
+
+        void onBar(int ordinal, BarSeries series, int index);
+    }
+
+    private long replay(OrdinalListener listener) {
+        final PriorityQueue<Cursor> cursors = new PriorityQueue<>(Math.max(1, seriesList.size()));
+        for (int i = 0; i < seriesList.size(); i++) {
+            BarSeries series = seriesList.get(i);
+            if (!series.isEmpty()) {
+                cursors.add(new Cursor(series, i));
+            }
+        }
+        long barCount = 0;
+        while (!cursors.isEmpty()) {
+            Cursor cursor = cursors.poll();
+            listener.onBar(cursor.ordinal, cursor.series, cursor.index);
+            barCount++;
+            if (cursor.moveToNext()) {
+                cursors.add(cursor);
+            }
+        }
+        return barCount;
+    }
+}
@@ -0,0 +1,252 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Time index of a {@link BarSeries}.
+ *
+ * Keeps the end times of the bars as epoch nanoseconds in a primitive array and
+ * answers time queries by binary search instead of scanning the bars and
+ * comparing {@link java.time.ZonedDateTime}s. The index follows the series
+ * lazily: bars appended (or removed because of the maximum bar count) since the
+ * last query are taken into account on the next query, and the last bar is
+ * always re-read in case it has been replaced.
+ *
+ * All queries are based on the {@link Bar#getEndTime() end time} of the bars
+ * and return series indexes, or -1 if no bar matches.
+ *
+ * 柱序列的时间索引。以纪元纳秒保存各柱的结束时间，并使用二分查找回答时间查询。
+ */
+public class BarSeriesTimeIndex implements Serializable {
+
+    private static final long serialVersionUID = 4410472613581358416L;
+
+    private final BarSeries series;
+
+    /**
+     * End times (epoch nanoseconds) of the indexed bars; endTimes[p] is the end
+     * time of the bar at index offset + p
+     */
+    private long[] endTimes = new long[16];
+
+    private int offset;
+
+    private int size;
+
+    /**
+     * Constructor.
+     *
+     * @param series the bar series to be indexed
+     */
+    public BarSeriesTimeIndex(BarSeries series) {
+        if (series == null) {
+            throw new IllegalArgumentException("Series must not be null");
+        }
+        this.series = series;
+    }
+
+    /**
+     * @param time a time
+     * @return the index of the bar ending exactly at time, or -1
+     */
+    public int indexOf(Instant time) {
+        int index = ceilIndex(time);
+        return index >= 0 && endTimes[index - offset] == toEpochNanos(time) ? index : -1;
+    }
+
+    /**
+     * @param time a time
+     * @return the index of the last bar ending at or before time, or -1
+     */
+    public int floorIndex(Instant time) {
+        return floorIndex(toEpochNanos(time));
+    }
+
+    /**
+     * @param time a time (epoch nanoseconds)
+     * @return the index of the last bar ending at or before time, or -1
+     */
+    public int floorIndex(long time) {
+        sync();
+        return toIndex(upperBound(time) - 1);
+    }
+
+    /**
+     * @param time a time
+     * @return the index of the first bar ending at or after time, or -1
+     */
+    public int ceilIndex(Instant time) {
+        return ceilIndex(toEpochNanos(time));
+    }
+
+    /**
+     * @param time a time (epoch nanoseconds)
+     * @return the index of the first bar ending at or after time, or -1
+     */
+    public int ceilIndex(long time) {
+        sync();
+        return toIndex(lowerBound(time));
+    }
+
+    /**
+     * @param time a time
+     * @return the index of the last bar ending strictly before time, or -1
+     */
+    public int lowerIndex(Instant time) {
+        sync();
+        return toIndex(lowerBound(toEpochNanos(time)) - 1);
+    }
+
+    /**
+     * @param time a time
+     * @return the index of the first bar ending strictly after time, or -1
+     */
+    public int higherIndex(Instant time) {
+        sync();
+        return toIndex(upperBound(toEpochNanos(time)));
+    }
+
+    /**
+     * @param from the begin time (inclusive)
+     * @param to   the end time (exclusive)
+     * @return the number of bars ending in [from, to)
+     */
+    public int count(Instant from, Instant to) {
+        sync();
+        return Math.max(0, lowerBound(toEpochNanos(to)) - lowerBound(toEpochNanos(from)));
+    }
+
+    /**
+     * @return the indexed bar series
+     */
+    public BarSeries getBarSeries() {
+        return series;
+    }
+
+    /**
+     * Appends the new bars, drops the removed ones and refreshes the last one.
+     */
+    private void sync() {
+        int endIndex = series.getEndIndex();
+        if (endIndex < 0) {
+            size = 0;
+            return;
+        }
+        int firstIndex = Math.max(Math.max(series.getBeginIndex(), series.getRemovedBarsCount()), 0);
+        int lastIndexed = offset + size - 1;
+        if (size == 0 || firstIndex > lastIndexed || endIndex < lastIndexed) {
+            offset = firstIndex;
+            size = 0;
+        } else if (firstIndex > offset) {
+            int removed = firstIndex - offset;
+            System.arraycopy(endTimes, removed, endTimes, 0, size - removed);
+            offset = firstIndex;
+            size -= removed;
+        }
+        if (size > 0) {
+            // The last bar may have been replaced
+            endTimes[size - 1] = series.getBar(offset + size - 1).getEndTimeNanos();
+        }
+        int count = endIndex - offset + 1;
+        if (count > endTimes.length) {
+            endTimes = Arrays.copyOf(endTimes, Math.max(count, endTimes.length * 2));
+        }
+        for (int p = size; p < count; p++) {
+            endTimes[p] = series.getBar(offset + p).getEndTimeNanos();
+        }
+        size = count;
+    }
+
+    /**
+     * @return the first position whose end time is >= key (size if none)
+     */
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (endTimes[middle] < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return the first position whose end time is > key (size if none)
+     */
+    private int upperBound(long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (endTimes[middle] <= key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int toIndex(int position) {
+        return position < 0 || position >= size ? -1 : offset + position;
+    }
+
+    /**
+     * @param time a time
+     * @return the epoch nanoseconds of time, saturated to the long range
+     */
+    public static long toEpochNanos(Instant time) {
+        try {
+            return Math.addExact(Math.multiplyExact(time.getEpochSecond(), 1_000_000_000L), time.getNano());
+        } catch (ArithmeticException e) {
+            return time.getEpochSecond() < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Compares the end times of two bars, as epoch nanoseconds unless both are
+     * out of their range (before 1677 or after 2262).
+     *
+     * @param bar1 a bar
+     * @param bar2 another bar
+     * @return a negative integer, zero, or a positive integer as bar1 ends before,
+     *         at or after bar2
+     */
+    public static int compareEndTimes(Bar bar1, Bar bar2) {
+        long time1 = bar1.getEndTimeNanos();
+        long time2 = bar2.getEndTimeNanos();
+        if (time1 != time2 || (time1 != Long.MAX_VALUE && time1 != Long.MIN_VALUE)) {
+            return Long.compare(time1, time2);
+        }
+        return bar1.getEndTime().toInstant().compareTo(bar2.getEndTime().toInstant());
+    }
+}
@@ -30,6 +30,7 @@ import org.ta4j.core.num.PrecisionNum;
 
 import java.math.BigDecimal;
 import java.time.Duration;
+import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -54,6 +55,11 @@ public class BaseBarSeries implements BarSeries {
      * 未命名序列名
      */
     private static final String UNNAMED_SERIES_NAME = "unnamed_series";
+
+    /**
+     * Number of changes remembered to invalidate indicator caches partially
+     */
+    private static final int CHANGE_LOG_SIZE = 64;
     /**
      * Num type function
      **/
@@ -92,6 +98,28 @@ public class BaseBarSeries implements BarSeries {
      */
     private boolean constrained;
 
+    /**
+     * The number of changes of existing bars (replacements and corrections)
+     */
+    private long modificationCount;
+
+    /**
+     * The lowest changed index of the last changes, in a ring indexed by
+     * modification count (created on first change)
+     */
+    private int[] changedIndexes;
+
+    /**
+     * The time index of the series (created on first use)
+     */
+    private transient BarSeriesTimeIndex timeIndex;
+
+    /**
+     * The zone of the {@link EpochBar epoch bars} created by the series (null to
+     * create {@link BaseBar}s)
+     */
+    private ZoneId epochTimeZone;
+
     /**
      * Constructor of an unnamed series.
      */
@@ -258,15 +286,27 @@ public class BaseBarSeries implements BarSeries {
             throw new IllegalArgumentException(
                     String.format("the endIndex: %s must be greater than startIndex: %s", endIndex, startIndex));
         }
+        BaseBarSeries subSeries;
         if (!bars.isEmpty()) {
             int start = Math.max(startIndex - getRemovedBarsCount(), this.getBeginIndex());
             int end = Math.min(endIndex - getRemovedBarsCount(), this.getEndIndex() + 1);
-            return new BaseBarSeries(getName(), cut(bars, start, end), numFunction);
+            subSeries = new BaseBarSeries(getName(), cut(bars, start, end), numFunction);
+        } else {
+            subSeries = new BaseBarSeries(name, numFunction);
         }
-        return new BaseBarSeries(name, numFunction);
+        subSeries.setEpochTimeZone(epochTimeZone);
+        return subSeries;
 
     }
 
+    @Override
+    public BarSeriesTimeIndex getTimeIndex() {
+        if (timeIndex == null) {
+            timeIndex = new BarSeriesTimeIndex(this);
+        }
+        return timeIndex;
+    }
+
     @Override
     public Num numOf(Number number) {
         return this.numFunction.apply(number);
@@ -385,6 +425,23 @@ public class BaseBarSeries implements BarSeries {
         return removedBarsCount;
     }
 
+    /**
+     * Declares the first bars of the series as already removed (e.g. for a series
+     * restored from the tail of a {@link StateSnapshot snapshot}): the bars of the
+     * series are then indexed from the removed bars count.
+     *
+     * @param seriesBeginIndex the begin index of the series
+     * @param removedBarsCount the number of removed bars
+     */
+    void setRemovedBarsCount(int seriesBeginIndex, int removedBarsCount) {
+        if (bars.isEmpty() || removedBarsCount < seriesBeginIndex) {
+            throw new IllegalArgumentException("Removed bars count must be >= begin index of a non-empty series");
+        }
+        this.seriesBeginIndex = seriesBeginIndex;
+        this.removedBarsCount = removedBarsCount;
+        this.seriesEndIndex = removedBarsCount + bars.size() - 1;
+    }
+
     /**
      * @param bar the <code>Bar</code> to be added
      * @apiNote to add bar data directly use #addBar(Duration, ZonedDateTime, Num,
@@ -401,14 +458,15 @@ public class BaseBarSeries implements BarSeries {
         if (!bars.isEmpty()) {
             if (replace) {
                 bars.set(bars.size() - 1, bar);
+                recordChange(seriesEndIndex);
                 return;
             }
             final int lastBarIndex = bars.size() - 1;
-            ZonedDateTime seriesEndTime = bars.get(lastBarIndex).getEndTime();
-            if (!bar.getEndTime().isAfter(seriesEndTime)) {
+            Bar seriesLastBar = bars.get(lastBarIndex);
+            if (BarSeriesTimeIndex.compareEndTimes(bar, seriesLastBar) <= 0) {
                 throw new IllegalArgumentException(
                         String.format("Cannot add a bar with end time:%s that is <= to series end time: %s",
-                                bar.getEndTime(), seriesEndTime));
+                                bar.getEndTime(), seriesLastBar.getEndTime()));
             }
         }
 
@@ -421,34 +479,138 @@ public class BaseBarSeries implements BarSeries {
         removeExceedingBars();
     }
 
+    /**
+     * Replaces a bar of the series (e.g. a late data correction). Cached values
+     * of dependent indicators are invalidated from the index of the bar.
+     *
+     * @param index the index of the bar to be replaced
+     * @param bar   the new bar, with the same end time as the replaced one
+     * @throws IllegalArgumentException if the end time or the Num implementation
+     *                                  of the bar differs
+     */
+    public void replaceBar(int index, Bar bar) {
+        Objects.requireNonNull(bar);
+        if (!checkBar(bar)) {
+            throw new IllegalArgumentException(
+                    String.format("Cannot add Bar with data type: %s to series with data" + "type: %s",
+                            bar.getClosePrice().getClass(), numOf(1).getClass()));
+        }
+        int innerIndex = index - removedBarsCount;
+        if (index < 0 || innerIndex < 0 || innerIndex >= bars.size()) {
+            throw new IndexOutOfBoundsException(buildOutOfBoundsMessage(this, index));
+        }
+        Bar replacedBar = bars.get(innerIndex);
+        if (BarSeriesTimeIndex.compareEndTimes(bar, replacedBar) != 0) {
+            throw new IllegalArgumentException(
+                    String.format("Cannot replace a bar ending at %s with a bar ending at %s",
+                            replacedBar.getEndTime(), bar.getEndTime()));
+        }
+        bars.set(innerIndex, bar);
+        recordChange(index);
+    }
+
+    /**
+     * Notifies that a bar of the series has been modified in place (e.g. through
+     * {@link Bar#addPrice(Num)}). Cached values of dependent indicators are
+     * invalidated from the index of the bar.
+     *
+     * @param index the index of the modified bar
+     */
+    public void barChanged(int index) {
+        recordChange(index);
+    }
+
+    @Override
+    public long getModificationCount() {
+        return modificationCount;
+    }
+
+    @Override
+    public int getLowestChangedIndex(long modificationCount) {
+        long changes = this.modificationCount - modificationCount;
+        if (changes <= 0) {
+            return Integer.MAX_VALUE;
+        }
+        if (changes > CHANGE_LOG_SIZE) {
+            // Changes forgotten: everything may have changed
+            return 0;
+        }
+        int lowestIndex = Integer.MAX_VALUE;
+        for (long count = modificationCount; count < this.modificationCount; count++) {
+            lowestIndex = Math.min(lowestIndex, changedIndexes[(int) (count % CHANGE_LOG_SIZE)]);
+        }
+        return lowestIndex;
+    }
+
+    private void recordChange(int index) {
+        if (changedIndexes == null) {
+            changedIndexes = new int[CHANGE_LOG_SIZE];
+        }
+        changedIndexes[(int) (modificationCount % CHANGE_LOG_SIZE)] = index;
+        modificationCount++;
+    }
+
+    /**
+     * Sets the zone of the bars created by the series: the
+     * <code>addBar(..., ZonedDateTime endTime, ...)</code> methods then create
+     * {@link EpochBar}s instead of {@link BaseBar}s.
+     *
+     * @param zone the zone of the times (null to create {@link BaseBar}s)
+     */
+    void setEpochTimeZone(ZoneId zone) {
+        this.epochTimeZone = zone;
+    }
+
+    /**
+     * @return the zone of the {@link EpochBar}s created by the series, null if it
+     *         creates {@link BaseBar}s
+     */
+    public ZoneId getEpochTimeZone() {
+        return epochTimeZone;
+    }
+
     @Override
     public void addBar(Duration timePeriod, ZonedDateTime endTime) {
-        this.addBar(new BaseBar(timePeriod, endTime, function()));
+        if (epochTimeZone != null) {
+            this.addBar(new EpochBar(timePeriod, BarSeriesTimeIndex.toEpochNanos(endTime.toInstant()), epochTimeZone,
+                    function()));
+        } else {
+            this.addBar(new BaseBar(timePeriod, endTime, function()));
+        }
     }
 
     @Override
     public void addBar(ZonedDateTime endTime, Num openPrice, Num highPrice, Num lowPrice, Num closePrice, Num volume) {
-        this.addBar(
-                new BaseBar(Duration.ofDays(1), endTime, openPrice, highPrice, lowPrice, closePrice, volume, numOf(0)));
+        this.addBar(createBar(Duration.ofDays(1), endTime, openPrice, highPrice, lowPrice, closePrice, volume,
+                numOf(0)));
     }
 
     @Override
     public void addBar(ZonedDateTime endTime, Num openPrice, Num highPrice, Num lowPrice, Num closePrice, Num volume,
             Num amount) {
         this.addBar(
-                new BaseBar(Duration.ofDays(1), endTime, openPrice, highPrice, lowPrice, closePrice, volume, amount));
+                createBar(Duration.ofDays(1), endTime, openPrice, highPrice, lowPrice, closePrice, volume, amount));
     }
 
     @Override
     public void addBar(Duration timePeriod, ZonedDateTime endTime, Num openPrice, Num highPrice, Num lowPrice,
             Num closePrice, Num volume) {
-        this.addBar(new BaseBar(timePeriod, endTime, openPrice, highPrice, lowPrice, closePrice, volume, numOf(0)));
+        this.addBar(createBar(timePeriod, endTime, openPrice, highPrice, lowPrice, closePrice, volume, numOf(0)));
     }
 
     @Override
     public void addBar(Duration timePeriod, ZonedDateTime endTime, Num openPrice, Num highPrice, Num lowPrice,
             Num closePrice, Num volume, Num amount) {
-        this.addBar(new BaseBar(timePeriod, endTime, openPrice, highPrice, lowPrice, closePrice, volume, amount));
+        this.addBar(createBar(timePeriod, endTime, openPrice, highPrice, lowPrice, closePrice, volume, amount));
+    }
+
+    private Bar createBar(Duration timePeriod, ZonedDateTime endTime, Num openPrice, Num highPrice, Num lowPrice,
+            Num closePrice, Num volume, Num amount) {
+        if (epochTimeZone != null) {
+            return new EpochBar(timePeriod, BarSeriesTimeIndex.toEpochNanos(endTime.toInstant()), epochTimeZone,
+                    openPrice, highPrice, lowPrice, closePrice, volume, amount, 0);
+        }
+        return new BaseBar(timePeriod, endTime, openPrice, highPrice, lowPrice, closePrice, volume, amount);
     }
 
     @Override
@@ -27,6 +27,7 @@ import org.ta4j.core.num.DoubleNum;
 import org.ta4j.core.num.Num;
 import org.ta4j.core.num.PrecisionNum;
 
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Function;
@@ -43,6 +44,7 @@ public class BaseBarSeriesBuilder implements BarSeriesBuilder {
     private Function<Number, Num> numFunction;
     private boolean constrained;
     private int maxBarCount;
+    private ZoneId epochTimeZone;
 
     public BaseBarSeriesBuilder() {
         initValues();
@@ -58,6 +60,7 @@ public class BaseBarSeriesBuilder implements BarSeriesBuilder {
         this.numFunction = BaseBarSeriesBuilder.defaultFunction;
         this.constrained = false;
         this.maxBarCount = Integer.MAX_VALUE;
+        this.epochTimeZone = null;
     }
 
     @Override
@@ -70,6 +73,7 @@ public class BaseBarSeriesBuilder implements BarSeriesBuilder {
         }
         BaseBarSeries series = new BaseBarSeries(name, bars, beginIndex, endIndex, constrained, numFunction);
         series.setMaximumBarCount(maxBarCount);
+        series.setEpochTimeZone(epochTimeZone);
         initValues(); // reinitialize values for next series
         return series;
     }
@@ -94,6 +98,18 @@ public class BaseBarSeriesBuilder implements BarSeriesBuilder {
         return this;
     }
 
+    /**
+     * Makes the series create {@link EpochBar}s (times kept as epoch nanoseconds)
+     * instead of {@link BaseBar}s.
+     *
+     * @param zone the zone of the times of the bars
+     * @return the builder
+     */
+    public BaseBarSeriesBuilder withEpochTime(ZoneId zone) {
+        this.epochTimeZone = zone;
+        return this;
+    }
+
     public BaseBarSeriesBuilder withNumTypeOf(Num type) {
         numFunction = type.function();
         return this;
@@ -23,8 +23,9 @@
  */
 package org.ta4j.core;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.ta4j.core.events.DecisionEvent;
+import org.ta4j.core.events.DecisionEvents;
+import org.ta4j.core.events.DecisionListener;
 
 /**
  * Base implementation of a {@link Strategy}.
@@ -32,12 +33,6 @@ import org.slf4j.LoggerFactory;
  */
 public class BaseStrategy implements Strategy {
 
-    /** The logger */
-    protected final Logger log = LoggerFactory.getLogger(getClass());
-
-    /** The class name */
-    private final String className = getClass().getSimpleName();
-
     /** Name of the strategy */
     // 策略名称
     private String name;
@@ -192,22 +187,30 @@ public class BaseStrategy implements Strategy {
     }
 
     /**
-     * Traces the shouldEnter() method calls.
+     * Traces the shouldEnter() method calls to the {@link DecisionEvents decision
+     * listener} (if enabled).
      * 
      * @param index the bar index
      * @param enter true if the strategy should enter, false otherwise
      */
     protected void traceShouldEnter(int index, boolean enter) {
-        log.trace(">>> {}#shouldEnter({}): {}", className, index, enter);
+        DecisionListener listener = DecisionEvents.getListener();
+        if (listener != DecisionListener.NONE) {
+            listener.onDecision(new DecisionEvent(this, DecisionEvent.Type.ENTRY, index, enter, null));
+        }
     }
 
     /**
-     * Traces the shouldExit() method calls.
+     * Traces the shouldExit() method calls to the {@link DecisionEvents decision
+     * listener} (if enabled).
      * 
      * @param index the bar index
      * @param exit  true if the strategy should exit, false otherwise
      */
     protected void traceShouldExit(int index, boolean exit) {
-        log.trace(">>> {}#shouldExit({}): {}", className, index, exit);
+        DecisionListener listener = DecisionEvents.getListener();
+        if (listener != DecisionListener.NONE) {
+            listener.onDecision(new DecisionEvent(this, DecisionEvent.Type.EXIT, index, exit, null));
+        }
     }
 }
@@ -0,0 +1,377 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import org.ta4j.core.Order.OrderType;
+import org.ta4j.core.cost.CostModel;
+import org.ta4j.core.cost.ZeroCostModel;
+import org.ta4j.core.num.Num;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.ta4j.core.num.NaN.NaN;
+
+/**
+ * Compact implementation of a {@link TradingRecord}.
+ *
+ * Orders are stored in primitive arrays (index, price, amount and a BUY/SELL
+ * bit) instead of {@link Order} objects. {@link Order orders} and
+ * {@link Trade trades} are only materialized as views when they are requested
+ * (e.g. by an {@link AnalysisCriterion}). Only the current trade is kept as an
+ * object.
+ *
+ * Prices and amounts are stored as doubles and converted back with the
+ * {@link Num} implementation of the first recorded price. This record is
+ * therefore meant for mass backtesting on {@link org.ta4j.core.num.DoubleNum}
+ * series; with {@link org.ta4j.core.num.PrecisionNum} the values are rounded to
+ * double precision.
+ *
+ * 交易记录的紧凑实现。订单保存在原始数组中，只有在被请求时才创建订单和交易视图。
+ */
+public class CompactTradingRecord implements TradingRecord {
+
+    private static final long serialVersionUID = 2650390567853711235L;
+
+    /**
+     * Default initial capacity (number of orders)
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * The indexes of the recorded orders
+     */
+    private int[] indexes;
+
+    /**
+     * The prices of the recorded orders
+     */
+    private double[] prices;
+
+    /**
+     * The amounts of the recorded orders
+     */
+    private double[] amounts;
+
+    /**
+     * Set bits mark BUY orders, cleared bits SELL orders
+     */
+    private final BitSet buyFlags = new BitSet();
+
+    /**
+     * The number of recorded orders
+     */
+    private int orderCount;
+
+    /**
+     * Positions of the last BUY and SELL orders (-1 if none)
+     */
+    private int lastBuyPosition = -1;
+    private int lastSellPosition = -1;
+
+    /**
+     * A {@link Num} of the recorded prices, used to convert stored doubles back
+     */
+    private Num numPrototype;
+
+    /**
+     * The entry type (BUY or SELL) in the trading session
+     */
+    private final OrderType startingType;
+
+    /**
+     * The current non-closed trade (there's always one)
+     */
+    private Trade currentTrade;
+
+    /**
+     * Trading cost models
+     */
+    private final CostModel transactionCostModel;
+    private final CostModel holdingCostModel;
+
+    /**
+     * Constructor.
+     */
+    public CompactTradingRecord() {
+        this(OrderType.BUY);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param entryOrderType the {@link OrderType order type} of entries in the
+     *                       trading session
+     */
+    public CompactTradingRecord(OrderType entryOrderType) {
+        this(entryOrderType, new ZeroCostModel(), new ZeroCostModel());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param entryOrderType       the {@link OrderType order type} of entries in
+     *                             the trading session
+     * @param transactionCostModel the cost model for transactions of the asset
+     * @param holdingCostModel     the cost model for holding asset (e.g.
+     *                             borrowing)
+     */
+    public CompactTradingRecord(OrderType entryOrderType, CostModel transactionCostModel,
+            CostModel holdingCostModel) {
+        this(entryOrderType, transactionCostModel, holdingCostModel, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param entryOrderType       the {@link OrderType order type} of entries in
+     *                             the trading session
+     * @param transactionCostModel the cost model for transactions of the asset
+     * @param holdingCostModel     the cost model for holding asset (e.g.
+     *                             borrowing)
+     * @param initialCapacity      the expected number of orders
+     */
+    public CompactTradingRecord(OrderType entryOrderType, CostModel transactionCostModel, CostModel holdingCostModel,
+            int initialCapacity) {
+        if (entryOrderType == null) {
+            throw new IllegalArgumentException("Starting type must not be null");
+        }
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Initial capacity must be >= 0");
+        }
+        this.startingType = entryOrderType;
+        this.transactionCostModel = transactionCostModel;
+        this.holdingCostModel = holdingCostModel;
+        this.indexes = new int[initialCapacity];
+        this.prices = new double[initialCapacity];
+        this.amounts = new double[initialCapacity];
+        this.currentTrade = new Trade(entryOrderType, transactionCostModel, holdingCostModel);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param orders the orders to be recorded (cannot be empty)
+     */
+    public CompactTradingRecord(Order... orders) {
+        this(orders[0].getType(), new ZeroCostModel(), new ZeroCostModel(), orders.length);
+        for (Order o : orders) {
+            if (currentTrade.isNew() && o.getType() != startingType) {
+                // Special case for entry/exit types reversal
+                currentTrade = new Trade(o.getType(), transactionCostModel, holdingCostModel);
+            }
+            operate(o.getIndex(), o.getPricePerAsset(), o.getAmount());
+        }
+    }
+
+    @Override
+    public Trade getCurrentTrade() {
+        return currentTrade;
+    }
+
+    @Override
+    public void operate(int index, Num price, Num amount) {
+        if (currentTrade.isClosed()) {
+            // Current trade closed, should not occur
+            throw new IllegalStateException("Current trade should not be closed");
+        }
+        Order newOrder = currentTrade.operate(index, price, amount);
+        recordOrder(newOrder);
+    }
+
+    @Override
+    public boolean enter(int index, Num price, Num amount) {
+        if (currentTrade.isNew()) {
+            operate(index, price, amount);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean exit(int index, Num price, Num amount) {
+        if (currentTrade.isOpened()) {
+            operate(index, price, amount);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public List<Trade> getTrades() {
+        return new TradeView();
+    }
+
+    @Override
+    public int getTradeCount() {
+        return orderCount / 2;
+    }
+
+    @Override
+    public Trade getLastTrade() {
+        int tradeCount = getTradeCount();
+        return tradeCount == 0 ? null : tradeAt(tradeCount - 1);
+    }
+
+    @Override
+    public Order getLastOrder() {
+        return orderCount == 0 ? null : orderAt(orderCount - 1);
+    }
+
+    @Override
+    public Order getLastOrder(OrderType orderType) {
+        if (OrderType.BUY.equals(orderType) && lastBuyPosition >= 0) {
+            return orderAt(lastBuyPosition);
+        } else if (OrderType.SELL.equals(orderType) && lastSellPosition >= 0) {
+            return orderAt(lastSellPosition);
+        }
+        return null;
+    }
+
+    @Override
+    public Order getLastEntry() {
+        if (orderCount == 0) {
+            return null;
+        }
+        // Entries are always at even positions
+        int lastPosition = orderCount - 1;
+        return orderAt(lastPosition % 2 == 0 ? lastPosition : lastPosition - 1);
+    }
+
+    @Override
+    public Order getLastExit() {
+        if (orderCount < 2) {
+            return null;
+        }
+        // Exits are always at odd positions
+        int lastPosition = orderCount - 1;
+        return orderAt(lastPosition % 2 == 1 ? lastPosition : lastPosition - 1);
+    }
+
+    /**
+     * @return the number of recorded orders
+     */
+    public int getOrderCount() {
+        return orderCount;
+    }
+
+    /**
+     * Records an order and stores the trade view (if closed).
+     *
+     * @param order the order to be recorded
+     */
+    private void recordOrder(Order order) {
+        if (order == null) {
+            throw new IllegalArgumentException("Order should not be null");
+        }
+        ensureCapacity(orderCount + 1);
+        indexes[orderCount] = order.getIndex();
+        prices[orderCount] = toDouble(order.getPricePerAsset());
+        amounts[orderCount] = toDouble(order.getAmount());
+        if (numPrototype == null && !order.getPricePerAsset().isNaN()) {
+            numPrototype = order.getPricePerAsset();
+        }
+        if (order.isBuy()) {
+            buyFlags.set(orderCount);
+            lastBuyPosition = orderCount;
+        } else {
+            lastSellPosition = orderCount;
+        }
+        orderCount++;
+
+        if (currentTrade.isClosed()) {
+            currentTrade = new Trade(startingType, transactionCostModel, holdingCostModel);
+        }
+    }
+
+    /**
+     * @param position the position of the order in the record
+     * @return a view of the order at the position
+     */
+    private Order orderAt(int position) {
+        OrderType type = buyFlags.get(position) ? OrderType.BUY : OrderType.SELL;
+        return new Order(indexes[position], type, toNum(prices[position]), toNum(amounts[position]),
+                transactionCostModel);
+    }
+
+    /**
+     * @param tradeIndex the index of the closed trade
+     * @return a view of the closed trade
+     */
+    private Trade tradeAt(int tradeIndex) {
+        return new Trade(orderAt(2 * tradeIndex), orderAt(2 * tradeIndex + 1), transactionCostModel,
+                holdingCostModel);
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity > indexes.length) {
+            int newCapacity = Math.max(minCapacity, Math.max(DEFAULT_CAPACITY, indexes.length * 2));
+            indexes = Arrays.copyOf(indexes, newCapacity);
+            prices = Arrays.copyOf(prices, newCapacity);
+            amounts = Arrays.copyOf(amounts, newCapacity);
+        }
+    }
+
+    private static double toDouble(Num value) {
+        return value.isNaN() ? Double.NaN : value.doubleValue();
+    }
+
+    private Num toNum(double value) {
+        if (Double.isNaN(value) || numPrototype == null) {
+            return NaN;
+        }
+        return numPrototype.numOf(value);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("CompactTradingRecord:\n");
+        for (int i = 0; i < orderCount; i++) {
+            sb.append(orderAt(i).toString()).append("\n");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Read-only list of the closed trades, created on access.
+     */
+    private class TradeView extends AbstractList<Trade> {
+
+        @Override
+        public Trade get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Trade index: " + index + ", trade count: " + size());
+            }
+            return tradeAt(index);
+        }
+
+        @Override
+        public int size() {
+            return getTradeCount();
+        }
+    }
+}
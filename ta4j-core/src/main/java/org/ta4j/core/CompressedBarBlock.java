@@ -0,0 +1,350 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import org.ta4j.core.num.Num;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.ta4j.core.num.NaN.NaN;
+
+/**
+ * Block of bars of a {@link CompressedBarSeries}, encoded in a bit stream.
+ *
+ * The fields of the bars are stored one bar after the other, each field
+ * compressed against the same field of the previous bar (Gorilla-style): the
+ * end times, time periods and trade counts as deltas of deltas, the prices,
+ * volumes and amounts as the XOR of their double bits. The first bar of a
+ * block is stored in full, so that each block is decoded on its own.
+ *
+ * 压缩柱序列的柱块，以位流编码（时间为二阶差分，价格为双精度位的异或）。
+ */
+final class CompressedBarBlock implements Serializable {
+
+    private static final long serialVersionUID = -2906317547113683725L;
+
+    /**
+     * Bits of a null num (a NaN distinct from {@link Double#NaN})
+     */
+    private static final long NULL_BITS = 0x7ff0000000000001L;
+
+    private final long[] words;
+
+    private final int barCount;
+
+    private CompressedBarBlock(long[] words, int barCount) {
+        this.words = words;
+        this.barCount = barCount;
+    }
+
+    /**
+     * @param bars the bars to be encoded
+     * @return the block of the bars
+     */
+    static CompressedBarBlock encode(List<Bar> bars) {
+        BitWriter out = new BitWriter();
+        DeltaColumn endTimes = new DeltaColumn();
+        DeltaColumn timePeriods = new DeltaColumn();
+        DeltaColumn trades = new DeltaColumn();
+        XorColumn[] prices = newXorColumns();
+        boolean first = true;
+        for (Bar bar : bars) {
+            long[] fields = { bits(bar.getOpenPrice()), bits(bar.getHighPrice()), bits(bar.getLowPrice()),
+                    bits(bar.getClosePrice()), bits(bar.getVolume()), bits(bar.getAmount()) };
+            long endTime = toEpochNanos(bar.getEndTime().toInstant());
+            long timePeriod = bar.getTimePeriod().toNanos();
+            if (first) {
+                out.write(endTime, 64);
+                out.write(timePeriod, 64);
+                out.write(bar.getTrades(), 32);
+                for (int f = 0; f < fields.length; f++) {
+                    out.write(fields[f], 64);
+                    prices[f].previous = fields[f];
+                }
+                endTimes.previous = endTime;
+                timePeriods.previous = timePeriod;
+                trades.previous = bar.getTrades();
+                first = false;
+            } else {
+                endTimes.write(out, endTime);
+                timePeriods.write(out, timePeriod);
+                trades.write(out, bar.getTrades());
+                for (int f = 0; f < fields.length; f++) {
+                    prices[f].write(out, fields[f]);
+                }
+            }
+        }
+        return new CompressedBarBlock(out.toArray(), bars.size());
+    }
+
+    /**
+     * @param zone        the zone of the bar times
+     * @param numFunction the function converting the values to nums
+     * @return the decoded bars
+     */
+    Bar[] decode(ZoneId zone, Function<Number, Num> numFunction) {
+        BitReader in = new BitReader(words);
+        DeltaColumn endTimes = new DeltaColumn();
+        DeltaColumn timePeriods = new DeltaColumn();
+        DeltaColumn trades = new DeltaColumn();
+        XorColumn[] prices = newXorColumns();
+        Num[] values = new Num[prices.length];
+        Bar[] bars = new Bar[barCount];
+        for (int i = 0; i < barCount; i++) {
+            long endTime;
+            long timePeriod;
+            int tradeCount;
+            if (i == 0) {
+                endTime = endTimes.previous = in.read(64);
+                timePeriod = timePeriods.previous = in.read(64);
+                tradeCount = (int) (trades.previous = (int) in.read(32));
+                for (int f = 0; f < prices.length; f++) {
+                    prices[f].previous = in.read(64);
+                    values[f] = toNum(prices[f].previous, numFunction);
+                }
+            } else {
+                endTime = endTimes.read(in);
+                timePeriod = timePeriods.read(in);
+                tradeCount = (int) trades.read(in);
+                for (int f = 0; f < prices.length; f++) {
+                    values[f] = toNum(prices[f].read(in), numFunction);
+                }
+            }
+            bars[i] = new EpochBar(Duration.ofNanos(timePeriod), endTime, zone, values[0], values[1], values[2],
+                    values[3], values[4], values[5], tradeCount);
+        }
+        return bars;
+    }
+
+    /**
+     * @return the number of bars of the block
+     */
+    int getBarCount() {
+        return barCount;
+    }
+
+    /**
+     * @return the estimated memory used by the block (bytes)
+     */
+    long getMemoryUsage() {
+        // Block and array headers, fields and reference
+        return 48 + words.length * (long) Long.BYTES;
+    }
+
+    private static XorColumn[] newXorColumns() {
+        XorColumn[] columns = new XorColumn[6];
+        for (int f = 0; f < columns.length; f++) {
+            columns[f] = new XorColumn();
+        }
+        return columns;
+    }
+
+    private static long bits(Num num) {
+        if (num == null) {
+            return NULL_BITS;
+        }
+        return Double.doubleToRawLongBits(num.isNaN() ? Double.NaN : num.doubleValue());
+    }
+
+    private static Num toNum(long bits, Function<Number, Num> numFunction) {
+        if (bits == NULL_BITS) {
+            return null;
+        }
+        double value = Double.longBitsToDouble(bits);
+        return Double.isNaN(value) ? NaN : numFunction.apply(value);
+    }
+
+    private static long toEpochNanos(Instant time) {
+        return Math.addExact(Math.multiplyExact(time.getEpochSecond(), 1_000_000_000L), time.getNano());
+    }
+
+    /**
+     * Column encoded as deltas of deltas: 1 bit when the delta does not change.
+     */
+    private static final class DeltaColumn {
+
+        private long previous;
+        private long previousDelta;
+
+        void write(BitWriter out, long value) {
+            long delta = value - previous;
+            long deltaOfDelta = delta - previousDelta;
+            if (deltaOfDelta == 0) {
+                out.write(0, 1);
+            } else if (fits(deltaOfDelta, 7)) {
+                out.write(0b10, 2);
+                out.write(deltaOfDelta, 7);
+            } else if (fits(deltaOfDelta, 9)) {
+                out.write(0b110, 3);
+                out.write(deltaOfDelta, 9);
+            } else if (fits(deltaOfDelta, 12)) {
+                out.write(0b1110, 4);
+                out.write(deltaOfDelta, 12);
+            } else {
+                out.write(0b1111, 4);
+                out.write(deltaOfDelta, 64);
+            }
+            previous = value;
+            previousDelta = delta;
+        }
+
+        long read(BitReader in) {
+            long deltaOfDelta;
+            if (!in.readBit()) {
+                deltaOfDelta = 0;
+            } else if (!in.readBit()) {
+                deltaOfDelta = in.readSigned(7);
+            } else if (!in.readBit()) {
+                deltaOfDelta = in.readSigned(9);
+            } else if (!in.readBit()) {
+                deltaOfDelta = in.readSigned(12);
+            } else {
+                deltaOfDelta = in.read(64);
+            }
+            previousDelta += deltaOfDelta;
+            previous += previousDelta;
+            return previous;
+        }
+
+        private static boolean fits(long value, int bits) {
+            return value >= -(1L << (bits - 1)) && value < (1L << (bits - 1));
+        }
+    }
+
+    /**
+     * Column encoded as the XOR with the previous value: 1 bit when the value
+     * does not change, else the meaningful bits of the XOR.
+     */
+    private static final class XorColumn {
+
+        private long previous;
+        private int leading = -1;
+        private int trailing;
+
+        void write(BitWriter out, long value) {
+            long xor = value ^ previous;
+            if (xor == 0) {
+                out.write(0, 1);
+            } else {
+                int valueLeading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+                int valueTrailing = Long.numberOfTrailingZeros(xor);
+                if (leading >= 0 && valueLeading >= leading && valueTrailing >= trailing) {
+                    // Meaningful bits within the previous window
+                    out.write(0b10, 2);
+                    out.write(xor >>> trailing, 64 - leading - trailing);
+                } else {
+                    int significant = 64 - valueLeading - valueTrailing;
+                    out.write(0b11, 2);
+                    out.write(valueLeading, 5);
+                    out.write(significant - 1, 6);
+                    out.write(xor >>> valueTrailing, significant);
+                    leading = valueLeading;
+                    trailing = valueTrailing;
+                }
+            }
+            previous = value;
+        }
+
+        long read(BitReader in) {
+            if (!in.readBit()) {
+                return previous;
+            }
+            if (in.readBit()) {
+                leading = (int) in.read(5);
+                trailing = 64 - leading - ((int) in.read(6) + 1);
+            }
+            previous ^= in.read(64 - leading - trailing) << trailing;
+            return previous;
+        }
+    }
+
+    private static final class BitWriter {
+
+        private long[] words = new long[64];
+        private int bitCount;
+
+        /**
+         * Writes the low bits of a value, highest bit first.
+         */
+        void write(long value, int bits) {
+            if (bits < 64) {
+                value &= (1L << bits) - 1;
+            }
+            int word = bitCount >>> 6;
+            if (word + 1 >= words.length) {
+                words = Arrays.copyOf(words, words.length * 2);
+            }
+            int free = 64 - (bitCount & 63);
+            if (bits <= free) {
+                words[word] |= value << (free - bits);
+            } else {
+                words[word] |= value >>> (bits - free);
+                words[word + 1] |= value << (64 - bits + free);
+            }
+            bitCount += bits;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(words, (bitCount + 63) >>> 6);
+        }
+    }
+
+    private static final class BitReader {
+
+        private final long[] words;
+        private int position;
+
+        BitReader(long[] words) {
+            this.words = words;
+        }
+
+        boolean readBit() {
+            boolean bit = (words[position >>> 6] & (1L << (63 - (position & 63)))) != 0;
+            position++;
+            return bit;
+        }
+
+        long read(int bits) {
+            int word = position >>> 6;
+            int used = position & 63;
+            long value = (words[word] << used) >>> (64 - bits);
+            int rest = bits - (64 - used);
+            if (rest > 0) {
+                value |= words[word + 1] >>> (64 - rest);
+            }
+            position += bits;
+            return value;
+        }
+
+        long readSigned(int bits) {
+            return (read(bits) << (64 - bits)) >> (64 - bits);
+        }
+    }
+}
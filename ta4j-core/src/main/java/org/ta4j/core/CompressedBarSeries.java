@@ -0,0 +1,415 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.ta4j.core.num.Num;
+import org.ta4j.core.num.PrecisionNum;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+import static org.ta4j.core.num.NaN.NaN;
+
+/**
+ * {@link BarSeries Bar series} keeping its history compressed in memory.
+ *
+ * Bars are appended to an open block of plain bars; once full, the block is
+ * encoded in a compact bit stream (deltas of deltas for the times, XOR of the
+ * double bits for the prices and volumes, see {@link CompressedBarBlock}),
+ * typically 10 times smaller than the bar objects. Reading a bar of a closed
+ * block decodes the whole block, which is kept until a bar of another block is
+ * read: sequential reads (as by indicators) decode each block once.
+ *
+ * Values are stored as doubles: {@link PrecisionNum} values are rounded to the
+ * nearest double (exact for values up to 15 significant digits). Times are
+ * returned in the zone of the first bar. The last bar is always in the open
+ * block and can be replaced or updated with trades and prices.
+ *
+ * Like {@link BaseBarSeries}, the series is not thread-safe for writes: bars
+ * can be read by several threads as long as none is added concurrently.
+ *
+ * 在内存中压缩保存历史的柱序列。柱先加入未压缩的开放块，块满后编码为紧凑位流。
+ */
+public class CompressedBarSeries implements BarSeries {
+
+    private static final long serialVersionUID = 4781652734470197313L;
+
+    private static final Logger log = LoggerFactory.getLogger(CompressedBarSeries.class);
+
+    /**
+     * The default number of bars per block
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 256;
+
+    private final String name;
+
+    private final Function<Number, Num> numFunction;
+
+    private final int blockSize;
+
+    /**
+     * The closed blocks; the first one starts at index blockOffset
+     */
+    private final List<CompressedBarBlock> blocks = new ArrayList<>();
+
+    private int blockOffset;
+
+    /**
+     * The bars of the open block, following the closed blocks (holds the last
+     * bar)
+     */
+    private final List<Bar> openBlock = new ArrayList<>();
+
+    private int endIndex = -1;
+
+    private int maximumBarCount = Integer.MAX_VALUE;
+
+    private int removedBarsCount;
+
+    /**
+     * The zone of the bar times (the zone of the first bar)
+     */
+    private ZoneId zone;
+
+    /**
+     * The last decoded block (null if none), replaced as a whole so that
+     * concurrent readers never mix the bars of two blocks
+     */
+    private transient volatile DecodedBlock decodedBlock;
+
+    private transient BarSeriesTimeIndex timeIndex;
+
+    /**
+     * Constructor.
+     *
+     * @param name        the name of the series
+     * @param blockSize   the number of bars per compressed block
+     * @param numFunction a {@link Function} to convert a {@link Number} to a
+     *                    {@link Num Num implementation}
+     */
+    public CompressedBarSeries(String name, int blockSize, Function<Number, Num> numFunction) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be strictly positive");
+        }
+        this.name = name;
+        this.blockSize = blockSize;
+        this.numFunction = numFunction;
+    }
+
+    /**
+     * Constructor with the {@link #DEFAULT_BLOCK_SIZE default block size}.
+     *
+     * @param name        the name of the series
+     * @param numFunction a {@link Function} to convert a {@link Number} to a
+     *                    {@link Num Num implementation}
+     */
+    public CompressedBarSeries(String name, Function<Number, Num> numFunction) {
+        this(name, DEFAULT_BLOCK_SIZE, numFunction);
+    }
+
+    /**
+     * Constructor with {@link PrecisionNum} and the {@link #DEFAULT_BLOCK_SIZE
+     * default block size}.
+     *
+     * @param name the name of the series
+     */
+    public CompressedBarSeries(String name) {
+        this(name, PrecisionNum::valueOf);
+    }
+
+    /**
+     * Copies the bars of a series into a compressed series.
+     *
+     * @param series    the series to be copied
+     * @param blockSize the number of bars per compressed block
+     * @return the compressed series
+     */
+    public static CompressedBarSeries of(BarSeries series, int blockSize) {
+        CompressedBarSeries compressed = new CompressedBarSeries(series.getName(), blockSize, series.function());
+        for (int i = series.getBeginIndex(); i >= 0 && i <= series.getEndIndex(); i++) {
+            Bar bar = series.getBar(i);
+            compressed.addBar(new BaseBar(bar.getTimePeriod(), bar.getEndTime(), bar.getOpenPrice(),
+                    bar.getHighPrice(), bar.getLowPrice(), bar.getClosePrice(), bar.getVolume(), bar.getAmount(),
+                    bar.getTrades()));
+        }
+        return compressed;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Bar getBar(int i) {
+        if (i < 0 || i > endIndex) {
+            throw new IndexOutOfBoundsException(buildOutOfBoundsMessage(i));
+        }
+        int index = i;
+        if (index < removedBarsCount) {
+            log.trace("Bar series `{}`: bar {} already removed, use {}-th instead", name, i, removedBarsCount);
+            index = removedBarsCount;
+        }
+        int openBlockIndex = endIndex - openBlock.size() + 1;
+        if (index >= openBlockIndex) {
+            return openBlock.get(index - openBlockIndex);
+        }
+        int position = (index - blockOffset) / blockSize;
+        CompressedBarBlock block = blocks.get(position);
+        DecodedBlock decoded = decodedBlock;
+        if (decoded == null || decoded.block != block) {
+            decoded = new DecodedBlock(block, block.decode(zone, numFunction));
+            decodedBlock = decoded;
+        }
+        return decoded.bars[(index - blockOffset) % blockSize];
+    }
+
+    @Override
+    public int getBarCount() {
+        return endIndex < 0 ? 0 : endIndex - removedBarsCount + 1;
+    }
+
+    /**
+     * @return a list of the (decoded) bars of the series
+     */
+    @Override
+    public List<Bar> getBarData() {
+        List<Bar> bars = new ArrayList<>(getBarCount());
+        for (int i = removedBarsCount; i <= endIndex; i++) {
+            bars.add(getBar(i));
+        }
+        return bars;
+    }
+
+    @Override
+    public int getBeginIndex() {
+        return endIndex < 0 ? -1 : 0;
+    }
+
+    @Override
+    public int getEndIndex() {
+        return endIndex;
+    }
+
+    @Override
+    public int getMaximumBarCount() {
+        return maximumBarCount;
+    }
+
+    @Override
+    public void setMaximumBarCount(int maximumBarCount) {
+        if (maximumBarCount <= 0) {
+            throw new IllegalArgumentException("Maximum bar count must be strictly positive");
+        }
+        this.maximumBarCount = maximumBarCount;
+        removeExceedingBars();
+    }
+
+    @Override
+    public int getRemovedBarsCount() {
+        return removedBarsCount;
+    }
+
+    @Override
+    public void addBar(Bar bar, boolean replace) {
+        Objects.requireNonNull(bar);
+        if (!checkBar(bar)) {
+            throw new IllegalArgumentException(
+                    String.format("Cannot add Bar with data type: %s to series with data" + "type: %s",
+                            bar.getClosePrice().getClass(), numOf(1).getClass()));
+        }
+        if (endIndex >= 0) {
+            if (replace) {
+                openBlock.set(openBlock.size() - 1, bar);
+                return;
+            }
+            Bar seriesLastBar = getLastBar();
+            if (BarSeriesTimeIndex.compareEndTimes(bar, seriesLastBar) <= 0) {
+                throw new IllegalArgumentException(
+                        String.format("Cannot add a bar with end time:%s that is <= to series end time: %s",
+                                bar.getEndTime(), seriesLastBar.getEndTime()));
+            }
+        } else {
+            zone = bar.getEndTime().getZone();
+        }
+        openBlock.add(bar);
+        endIndex++;
+        if (openBlock.size() > blockSize) {
+            // Closes the block, the last bar (which may still change) stays open
+            List<Bar> closedBars = openBlock.subList(0, blockSize);
+            blocks.add(CompressedBarBlock.encode(closedBars));
+            closedBars.clear();
+        }
+        removeExceedingBars();
+    }
+
+    @Override
+    public void addBar(Duration timePeriod, ZonedDateTime endTime) {
+        addBar(new BaseBar(timePeriod, endTime, function()));
+    }
+
+    @Override
+    public void addBar(ZonedDateTime endTime, Num openPrice, Num highPrice, Num lowPrice, Num closePrice, Num volume) {
+        addBar(new BaseBar(Duration.ofDays(1), endTime, openPrice, highPrice, lowPrice, closePrice, volume, numOf(0)));
+    }
+
+    @Override
+    public void addBar(ZonedDateTime endTime, Num openPrice, Num highPrice, Num lowPrice, Num closePrice, Num volume,
+            Num amount) {
+        addBar(new BaseBar(Duration.ofDays(1), endTime, openPrice, highPrice, lowPrice, closePrice, volume, amount));
+    }
+
+    @Override
+    public void addBar(Duration timePeriod, ZonedDateTime endTime, Num openPrice, Num highPrice, Num lowPrice,
+            Num closePrice, Num volume) {
+        addBar(new BaseBar(timePeriod, endTime, openPrice, highPrice, lowPrice, closePrice, volume, numOf(0)));
+    }
+
+    @Override
+    public void addBar(Duration timePeriod, ZonedDateTime endTime, Num openPrice, Num highPrice, Num lowPrice,
+            Num closePrice, Num volume, Num amount) {
+        addBar(new BaseBar(timePeriod, endTime, openPrice, highPrice, lowPrice, closePrice, volume, amount));
+    }
+
+    @Override
+    public void addTrade(Num tradeVolume, Num tradePrice) {
+        getLastBar().addTrade(tradeVolume, tradePrice);
+    }
+
+    @Override
+    public void addPrice(Num price) {
+        getLastBar().addPrice(price);
+    }
+
+    @Override
+    public BarSeries getSubSeries(int startIndex, int endIndex) {
+        if (startIndex < 0) {
+            throw new IllegalArgumentException(String.format("the startIndex: %s must not be negative", startIndex));
+        }
+        if (startIndex >= endIndex) {
+            throw new IllegalArgumentException(
+                    String.format("the endIndex: %s must be greater than startIndex: %s", endIndex, startIndex));
+        }
+        List<Bar> bars = new ArrayList<>();
+        for (int i = Math.max(startIndex, removedBarsCount); i < Math.min(endIndex, this.endIndex + 1); i++) {
+            bars.add(getBar(i));
+        }
+        return new BaseBarSeries(name, bars, numFunction);
+    }
+
+    @Override
+    public BarSeriesTimeIndex getTimeIndex() {
+        if (timeIndex == null) {
+            timeIndex = new BarSeriesTimeIndex(this);
+        }
+        return timeIndex;
+    }
+
+    @Override
+    public Num numOf(Number number) {
+        return numFunction.apply(number);
+    }
+
+    @Override
+    public Function<Number, Num> function() {
+        return numFunction;
+    }
+
+    /**
+     * @return the number of bars per compressed block
+     */
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * @return the number of bars held as bar objects (the open block and the last
+     *         decoded block)
+     */
+    public int getUncompressedBarCount() {
+        DecodedBlock decoded = decodedBlock;
+        return openBlock.size() + (decoded == null ? 0 : decoded.bars.length);
+    }
+
+    /**
+     * @return the estimated memory used by the compressed blocks (bytes)
+     */
+    public long getCompressedSize() {
+        long size = 0;
+        for (CompressedBarBlock block : blocks) {
+            size += block.getMemoryUsage();
+        }
+        return size;
+    }
+
+    /**
+     * Removes the bars exceeding the maximum bar count, dropping the blocks whose
+     * bars are all removed.
+     */
+    private void removeExceedingBars() {
+        if (getBarCount() > maximumBarCount) {
+            removedBarsCount = endIndex - maximumBarCount + 1;
+            while (!blocks.isEmpty() && blockOffset + blocks.get(0).getBarCount() <= removedBarsCount) {
+                blocks.remove(0);
+                blockOffset += blockSize;
+                decodedBlock = null;
+            }
+        }
+    }
+
+    private boolean checkBar(Bar bar) {
+        if (bar.getClosePrice() == null) {
+            return true; // bar has not been initialized with data
+        }
+        Class<? extends Num> f = numOf(1).getClass();
+        return f == bar.getClosePrice().getClass() || bar.getClosePrice().equals(NaN);
+    }
+
+    private String buildOutOfBoundsMessage(int index) {
+        return String.format("Size of series: %s bars, %s bars removed, index = %s", getBarCount(),
+                removedBarsCount, index);
+    }
+
+    /**
+     * A decoded block with its bars.
+     */
+    private static final class DecodedBlock {
+
+        private final CompressedBarBlock block;
+
+        private final Bar[] bars;
+
+        private DecodedBlock(CompressedBarBlock block, Bar[] bars) {
+            this.block = block;
+            this.bars = bars;
+        }
+    }
+}
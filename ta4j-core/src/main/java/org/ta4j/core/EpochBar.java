@@ -0,0 +1,268 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import org.ta4j.core.num.Num;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * {@link Bar} keeping its times as epoch nanoseconds.
+ *
+ * Instead of two {@link ZonedDateTime}s and a {@link Duration} per bar, the end
+ * time and the time period are stored as primitives, with a zone shared by the
+ * bars of a series (see
+ * {@link BaseBarSeriesBuilder#withEpochTime(ZoneId)}). The
+ * {@link ZonedDateTime}s are only created when requested; time comparisons
+ * should use {@link #getEndTimeNanos()} and {@link #getBeginTimeNanos()}. The
+ * epoch nanoseconds cover the years 1677 to 2262.
+ *
+ * 以纪元纳秒保存时间的柱。时区由序列共享，ZonedDateTime仅在请求时创建。
+ */
+public class EpochBar implements Bar {
+
+    private static final long serialVersionUID = -5370126946478926711L;
+
+    /** End time of the bar (epoch nanoseconds) */
+    private final long endTimeNanos;
+    /** Time period of the bar (nanoseconds) */
+    private final long timePeriodNanos;
+    /** Zone of the times */
+    private final ZoneId zone;
+    /** Open price of the period */
+    private Num openPrice;
+    /** Close price of the period */
+    private Num closePrice;
+    /** High price of the period */
+    private Num highPrice;
+    /** Low price of the period */
+    private Num lowPrice;
+    /** Traded amount during the period */
+    private Num amount;
+    /** Volume of the period */
+    private Num volume;
+    /** Trade count */
+    private int trades;
+
+    /**
+     * Constructor.
+     *
+     * @param timePeriod   the time period
+     * @param endTimeNanos the end time of the bar period (epoch nanoseconds)
+     * @param zone         the zone of the times
+     * @param numFunction  the numbers precision
+     */
+    public EpochBar(Duration timePeriod, long endTimeNanos, ZoneId zone, Function<Number, Num> numFunction) {
+        this(timePeriod, endTimeNanos, zone, null, null, null, null, numFunction.apply(0), numFunction.apply(0), 0);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param timePeriod   the time period
+     * @param endTimeNanos the end time of the bar period (epoch nanoseconds)
+     * @param zone         the zone of the times
+     * @param openPrice    the open price of the bar period
+     * @param highPrice    the highest price of the bar period
+     * @param lowPrice     the lowest price of the bar period
+     * @param closePrice   the close price of the bar period
+     * @param volume       the volume of the bar period
+     * @param amount       the amount of the bar period
+     * @param trades       the trades count of the bar period
+     */
+    public EpochBar(Duration timePeriod, long endTimeNanos, ZoneId zone, Num openPrice, Num highPrice, Num lowPrice,
+            Num closePrice, Num volume, Num amount, int trades) {
+        if (timePeriod == null) {
+            throw new IllegalArgumentException("Time period cannot be null");
+        }
+        if (zone == null) {
+            throw new IllegalArgumentException("Zone cannot be null");
+        }
+        this.timePeriodNanos = timePeriod.toNanos();
+        this.endTimeNanos = endTimeNanos;
+        this.zone = zone;
+        this.openPrice = openPrice;
+        this.highPrice = highPrice;
+        this.lowPrice = lowPrice;
+        this.closePrice = closePrice;
+        this.volume = volume;
+        this.amount = amount;
+        this.trades = trades;
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param timePeriod the time period
+     * @param endTime    the end time of the bar period (its zone is kept)
+     * @param openPrice  the open price of the bar period
+     * @param highPrice  the highest price of the bar period
+     * @param lowPrice   the lowest price of the bar period
+     * @param closePrice the close price of the bar period
+     * @param volume     the volume of the bar period
+     * @param amount     the amount of the bar period
+     * @param trades     the trades count of the bar period
+     */
+    public EpochBar(Duration timePeriod, ZonedDateTime endTime, Num openPrice, Num highPrice, Num lowPrice,
+            Num closePrice, Num volume, Num amount, int trades) {
+        this(timePeriod, BarSeriesTimeIndex.toEpochNanos(Objects.requireNonNull(endTime).toInstant()),
+                endTime.getZone(), openPrice, highPrice, lowPrice, closePrice, volume, amount, trades);
+    }
+
+    @Override
+    public Num getOpenPrice() {
+        return openPrice;
+    }
+
+    @Override
+    public Num getLowPrice() {
+        return lowPrice;
+    }
+
+    @Override
+    public Num getHighPrice() {
+        return highPrice;
+    }
+
+    @Override
+    public Num getClosePrice() {
+        return closePrice;
+    }
+
+    @Override
+    public Num getVolume() {
+        return volume;
+    }
+
+    @Override
+    public int getTrades() {
+        return trades;
+    }
+
+    @Override
+    public Num getAmount() {
+        return amount;
+    }
+
+    @Override
+    public Duration getTimePeriod() {
+        return Duration.ofNanos(timePeriodNanos);
+    }
+
+    @Override
+    public ZonedDateTime getBeginTime() {
+        return toZonedDateTime(getBeginTimeNanos());
+    }
+
+    @Override
+    public ZonedDateTime getEndTime() {
+        return toZonedDateTime(endTimeNanos);
+    }
+
+    @Override
+    public long getEndTimeNanos() {
+        return endTimeNanos;
+    }
+
+    @Override
+    public long getBeginTimeNanos() {
+        return endTimeNanos - timePeriodNanos;
+    }
+
+    /**
+     * @return the zone of the times
+     */
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public boolean inPeriod(ZonedDateTime timestamp) {
+        if (timestamp == null) {
+            return false;
+        }
+        long time = BarSeriesTimeIndex.toEpochNanos(timestamp.toInstant());
+        return time >= getBeginTimeNanos() && time < endTimeNanos;
+    }
+
+    @Override
+    public void addTrade(Num tradeVolume, Num tradePrice) {
+        addPrice(tradePrice);
+
+        volume = volume.plus(tradeVolume);
+        amount = amount.plus(tradeVolume.multipliedBy(tradePrice));
+        trades++;
+    }
+
+    @Override
+    public void addPrice(Num price) {
+        if (openPrice == null) {
+            openPrice = price;
+        }
+        closePrice = price;
+        if (highPrice == null || highPrice.isLessThan(price)) {
+            highPrice = price;
+        }
+        if (lowPrice == null || lowPrice.isGreaterThan(price)) {
+            lowPrice = price;
+        }
+    }
+
+    private ZonedDateTime toZonedDateTime(long epochNanos) {
+        return Instant.ofEpochSecond(0, epochNanos).atZone(zone);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "{end time: %1s, close price: %2$f, open price: %3$f, min price: %4$f, max price: %5$f, volume: %6$f}",
+                getEndTime().withZoneSameInstant(ZoneId.systemDefault()), closePrice.doubleValue(),
+                openPrice.doubleValue(), lowPrice.doubleValue(), highPrice.doubleValue(), volume.doubleValue());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(endTimeNanos, timePeriodNanos, zone, openPrice, highPrice, lowPrice, closePrice, volume,
+                amount, trades);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof EpochBar))
+            return false;
+        final EpochBar other = (EpochBar) obj;
+        return endTimeNanos == other.endTimeNanos && timePeriodNanos == other.timePeriodNanos
+                && Objects.equals(zone, other.zone) && Objects.equals(openPrice, other.openPrice)
+                && Objects.equals(highPrice, other.highPrice) && Objects.equals(lowPrice, other.lowPrice)
+                && Objects.equals(closePrice, other.closePrice) && Objects.equals(volume, other.volume)
+                && Objects.equals(amount, other.amount) && trades == other.trades;
+    }
+}
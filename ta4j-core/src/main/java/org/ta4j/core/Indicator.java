@@ -23,9 +23,12 @@
  */
 package org.ta4j.core;
 
+import org.ta4j.core.indicators.IndicatorGraph;
+import org.ta4j.core.indicators.Lookback;
 import org.ta4j.core.num.Num;
 
 import java.io.Serializable;
+import java.util.List;
 
 /**
  * Indicator over a {@link BarSeries bar series}. <p/p> For each index of the
@@ -55,6 +58,33 @@ public interface Indicator<T> extends Serializable {
      */
     Num numOf(Number number);
 
+    /**
+     * Returns the indicators this indicator is computed from. By default they are
+     * discovered from the indicator fields of the implementation.
+     *
+     * 返回计算本指标所依赖的指标。
+     *
+     * @return the direct inputs of the indicator
+     * @see IndicatorGraph
+     */
+    default List<Indicator<?>> getInputs() {
+        return IndicatorGraph.inputsOf(this);
+    }
+
+    /**
+     * Returns the number of bars before an index needed to compute the value at
+     * that index. By default the indicator is computed from its inputs at the same
+     * index; indicators computed over a window of bars or recursively override it.
+     *
+     * 返回计算某索引处的值所需的之前的柱数（回溯期）。
+     *
+     * @return the lookback of the indicator, {@link Lookback#UNBOUNDED} if the
+     *         value depends on all the previous bars
+     */
+    default int getLookback() {
+        return Lookback.ofInputs(this);
+    }
+
     /**
      * Returns all values from an {@link Indicator} as an array of Doubles. The
      * returned doubles could have a minor loss of precise, if {@link Indicator} was
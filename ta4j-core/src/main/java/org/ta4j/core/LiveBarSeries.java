@@ -0,0 +1,360 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.ta4j.core.num.Num;
+import org.ta4j.core.num.PrecisionNum;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+import static org.ta4j.core.num.NaN.NaN;
+
+/**
+ * Live {@link BarSeries bar series} for one writer thread and many reader
+ * threads.
+ *
+ * Bars are stored in a pre-allocated ring buffer. The writer stores a bar in
+ * its slot before publishing the new end index through a volatile field, so
+ * that readers see fully constructed bars without locking, and appends never
+ * wait for readers. Bars are never modified once published:
+ * {@link #addTrade(Num, Num)} and {@link #addPrice(Num)} publish an updated copy
+ * of the last bar. Bars passed to {@link #addBar(Bar, boolean)} must therefore
+ * not be modified by the caller afterwards.
+ *
+ * At most {@link #getMaximumBarCount()} bars are kept; as with
+ * {@link BaseBarSeries}, requesting a removed bar returns the first available
+ * one. Only one thread may add bars (or trades/prices). Indicators are not
+ * thread-safe and should not be shared between reader threads.
+ *
+ * 单写多读的实时柱序列。柱保存在预分配的环形缓冲区中，通过volatile结束索引无锁发布。
+ */
+public class LiveBarSeries implements BarSeries {
+
+    private static final long serialVersionUID = -7463927471232306546L;
+
+    private static final Logger log = LoggerFactory.getLogger(LiveBarSeries.class);
+
+    private final String name;
+
+    private final Function<Number, Num> numFunction;
+
+    /**
+     * The ring buffer of bars; the bar at index i is in slot i % capacity
+     */
+    private final AtomicReferenceArray<Bar> slots;
+
+    private final int capacity;
+
+    /**
+     * The pre-allocated (highest possible) maximum bar count
+     */
+    private final int allocatedBarCount;
+
+    /**
+     * The published end index (-1 if empty)
+     */
+    private volatile int endIndex = -1;
+
+    /**
+     * The index being written (announced before its slot is overwritten)
+     */
+    private volatile int writeIndex = -1;
+
+    private volatile int maximumBarCount;
+
+    /**
+     * The time index of each reader thread (created lazily)
+     */
+    private transient volatile ThreadLocal<BarSeriesTimeIndex> timeIndexes;
+
+    /**
+     * Constructor.
+     *
+     * @param name            the name of the series
+     * @param maximumBarCount the maximum number of bars kept (pre-allocated)
+     * @param numFunction     a {@link Function} to convert a {@link Number} to a
+     *                        {@link Num Num implementation}
+     */
+    public LiveBarSeries(String name, int maximumBarCount, Function<Number, Num> numFunction) {
+        if (maximumBarCount <= 0) {
+            throw new IllegalArgumentException("Maximum bar count must be strictly positive");
+        }
+        this.name = name;
+        this.numFunction = numFunction;
+        this.maximumBarCount = maximumBarCount;
+        this.allocatedBarCount = maximumBarCount;
+        // Spare slots so that readers of the oldest bars are rarely overtaken
+        this.capacity = maximumBarCount + Math.max(16, maximumBarCount / 4);
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Constructor with {@link PrecisionNum}.
+     *
+     * @param name            the name of the series
+     * @param maximumBarCount the maximum number of bars kept (pre-allocated)
+     */
+    public LiveBarSeries(String name, int maximumBarCount) {
+        this(name, maximumBarCount, PrecisionNum::valueOf);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Bar getBar(int i) {
+        int end = endIndex;
+        if (i < 0 || i > end) {
+            throw new IndexOutOfBoundsException(buildOutOfBoundsMessage(end, i));
+        }
+        int index = i;
+        while (true) {
+            int first = getFirstIndex(end);
+            if (index < first) {
+                log.trace("Bar series `{}`: bar {} already removed, use {}-th instead", name, i, first);
+                index = first;
+            }
+            Bar bar = slots.get(index % capacity);
+            // The slot may have been overwritten by a concurrent append
+            if (index + capacity > writeIndex) {
+                return bar;
+            }
+            end = endIndex;
+        }
+    }
+
+    @Override
+    public int getBarCount() {
+        int end = endIndex;
+        return end < 0 ? 0 : end - getFirstIndex(end) + 1;
+    }
+
+    /**
+     * @return a snapshot of the available bars
+     */
+    @Override
+    public List<Bar> getBarData() {
+        int end = endIndex;
+        List<Bar> bars = new ArrayList<>();
+        if (end >= 0) {
+            for (int i = getFirstIndex(end); i <= end; i++) {
+                bars.add(getBar(i));
+            }
+        }
+        return bars;
+    }
+
+    @Override
+    public int getBeginIndex() {
+        return endIndex < 0 ? -1 : 0;
+    }
+
+    @Override
+    public int getEndIndex() {
+        return endIndex;
+    }
+
+    @Override
+    public int getMaximumBarCount() {
+        return maximumBarCount;
+    }
+
+    /**
+     * @param maximumBarCount the maximum bar count (at most the pre-allocated
+     *                        count)
+     */
+    @Override
+    public void setMaximumBarCount(int maximumBarCount) {
+        if (maximumBarCount <= 0) {
+            throw new IllegalArgumentException("Maximum bar count must be strictly positive");
+        }
+        if (maximumBarCount > allocatedBarCount) {
+            throw new IllegalArgumentException("Maximum bar count cannot exceed the pre-allocated count");
+        }
+        this.maximumBarCount = maximumBarCount;
+    }
+
+    /**
+     * Returns the time index of the calling thread. A {@link BarSeriesTimeIndex}
+     * updates its state on each query and is not thread-safe, so one index is
+     * kept per reader thread instead of a shared one (which would have to lock
+     * every query).
+     */
+    @Override
+    public BarSeriesTimeIndex getTimeIndex() {
+        ThreadLocal<BarSeriesTimeIndex> indexes = timeIndexes;
+        if (indexes == null) {
+            synchronized (this) {
+                if (timeIndexes == null) {
+                    timeIndexes = ThreadLocal.withInitial(() -> new BarSeriesTimeIndex(this));
+                }
+                indexes = timeIndexes;
+            }
+        }
+        return indexes.get();
+    }
+
+    @Override
+    public int getRemovedBarsCount() {
+        int end = endIndex;
+        return end < 0 ? 0 : getFirstIndex(end);
+    }
+
+    @Override
+    public void addBar(Bar bar, boolean replace) {
+        Objects.requireNonNull(bar);
+        if (!checkBar(bar)) {
+            throw new IllegalArgumentException(
+                    String.format("Cannot add Bar with data type: %s to series with data" + "type: %s",
+                            bar.getClosePrice().getClass(), numOf(1).getClass()));
+        }
+        int end = endIndex;
+        if (end >= 0) {
+            if (replace) {
+                slots.set(end % capacity, bar);
+                return;
+            }
+            Bar seriesLastBar = slots.get(end % capacity);
+            if (BarSeriesTimeIndex.compareEndTimes(bar, seriesLastBar) <= 0) {
+                throw new IllegalArgumentException(
+                        String.format("Cannot add a bar with end time:%s that is <= to series end time: %s",
+                                bar.getEndTime(), seriesLastBar.getEndTime()));
+            }
+        }
+        int index = end + 1;
+        writeIndex = index;
+        slots.set(index % capacity, bar);
+        endIndex = index;
+    }
+
+    @Override
+    public void addBar(Duration timePeriod, ZonedDateTime endTime) {
+        addBar(new BaseBar(timePeriod, endTime, function()));
+    }
+
+    @Override
+    public void addBar(ZonedDateTime endTime, Num openPrice, Num highPrice, Num lowPrice, Num closePrice, Num volume) {
+        addBar(new BaseBar(Duration.ofDays(1), endTime, openPrice, highPrice, lowPrice, closePrice, volume, numOf(0)));
+    }
+
+    @Override
+    public void addBar(ZonedDateTime endTime, Num openPrice, Num highPrice, Num lowPrice, Num closePrice, Num volume,
+            Num amount) {
+        addBar(new BaseBar(Duration.ofDays(1), endTime, openPrice, highPrice, lowPrice, closePrice, volume, amount));
+    }
+
+    @Override
+    public void addBar(Duration timePeriod, ZonedDateTime endTime, Num openPrice, Num highPrice, Num lowPrice,
+            Num closePrice, Num volume) {
+        addBar(new BaseBar(timePeriod, endTime, openPrice, highPrice, lowPrice, closePrice, volume, numOf(0)));
+    }
+
+    @Override
+    public void addBar(Duration timePeriod, ZonedDateTime endTime, Num openPrice, Num highPrice, Num lowPrice,
+            Num closePrice, Num volume, Num amount) {
+        addBar(new BaseBar(timePeriod, endTime, openPrice, highPrice, lowPrice, closePrice, volume, amount));
+    }
+
+    /**
+     * Publishes a copy of the last bar with the trade added.
+     */
+    @Override
+    public void addTrade(Num tradeVolume, Num tradePrice) {
+        Bar bar = copyOfLastBar();
+        bar.addTrade(tradeVolume, tradePrice);
+        addBar(bar, true);
+    }
+
+    /**
+     * Publishes a copy of the last bar with the price added.
+     */
+    @Override
+    public void addPrice(Num price) {
+        Bar bar = copyOfLastBar();
+        bar.addPrice(price);
+        addBar(bar, true);
+    }
+
+    @Override
+    public BarSeries getSubSeries(int startIndex, int endIndex) {
+        if (startIndex < 0) {
+            throw new IllegalArgumentException(String.format("the startIndex: %s must not be negative", startIndex));
+        }
+        if (startIndex >= endIndex) {
+            throw new IllegalArgumentException(
+                    String.format("the endIndex: %s must be greater than startIndex: %s", endIndex, startIndex));
+        }
+        int end = this.endIndex;
+        List<Bar> bars = new ArrayList<>();
+        if (end >= 0) {
+            for (int i = Math.max(startIndex, getFirstIndex(end)); i < Math.min(endIndex, end + 1); i++) {
+                bars.add(getBar(i));
+            }
+        }
+        return new BaseBarSeries(name, bars, numFunction);
+    }
+
+    @Override
+    public Num numOf(Number number) {
+        return numFunction.apply(number);
+    }
+
+    @Override
+    public Function<Number, Num> function() {
+        return numFunction;
+    }
+
+    private int getFirstIndex(int end) {
+        return Math.max(0, end + 1 - maximumBarCount);
+    }
+
+    private Bar copyOfLastBar() {
+        Bar bar = getLastBar();
+        return new BaseBar(bar.getTimePeriod(), bar.getEndTime(), bar.getOpenPrice(), bar.getHighPrice(),
+                bar.getLowPrice(), bar.getClosePrice(), bar.getVolume(), bar.getAmount(), bar.getTrades());
+    }
+
+    private boolean checkBar(Bar bar) {
+        if (bar.getClosePrice() == null) {
+            return true; // bar has not been initialized with data
+        }
+        Class<? extends Num> f = numOf(1).getClass();
+        return f == bar.getClosePrice().getClass() || bar.getClosePrice().equals(NaN);
+    }
+
+    private String buildOutOfBoundsMessage(int end, int index) {
+        return String.format("Size of series: %s bars, %s bars removed, index = %s", end + 1 - getFirstIndex(end),
+                getFirstIndex(end), index);
+    }
+}
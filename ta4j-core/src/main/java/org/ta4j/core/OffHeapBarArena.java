@@ -0,0 +1,157 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import org.ta4j.core.num.DoubleNum;
+import org.ta4j.core.num.Num;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Off-heap arena of the {@link OffHeapBarSeries bar series} of a universe.
+ *
+ * The series are carved out of large direct buffers (chunks) allocated on
+ * demand, instead of one buffer per series. Closing the arena closes all its
+ * series and drops the chunks; the space of a series closed on its own is not
+ * reused.
+ *
+ * 一个证券池的堆外柱序列区域。柱序列从按需分配的大块直接缓冲区中切分。
+ */
+public class OffHeapBarArena implements AutoCloseable {
+
+    /**
+     * The default number of bars per chunk
+     */
+    public static final int DEFAULT_CHUNK_BAR_COUNT = 1 << 20;
+
+    private final int chunkBarCount;
+
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+
+    private final List<OffHeapBarSeries> series = new ArrayList<>();
+
+    /**
+     * The chunk being carved (null if none)
+     */
+    private ByteBuffer currentChunk;
+
+    private boolean closed;
+
+    /**
+     * Constructor.
+     *
+     * @param chunkBarCount the number of bars per chunk (series of a larger
+     *                      capacity get their own chunk)
+     */
+    public OffHeapBarArena(int chunkBarCount) {
+        if (chunkBarCount <= 0 || chunkBarCount > Integer.MAX_VALUE / OffHeapBarSeries.RECORD_BYTES) {
+            throw new IllegalArgumentException(
+                    "Chunk bar count must be in [1, " + Integer.MAX_VALUE / OffHeapBarSeries.RECORD_BYTES + "]");
+        }
+        this.chunkBarCount = chunkBarCount;
+    }
+
+    /**
+     * Constructor with the {@link #DEFAULT_CHUNK_BAR_COUNT default chunk size}.
+     */
+    public OffHeapBarArena() {
+        this(DEFAULT_CHUNK_BAR_COUNT);
+    }
+
+    /**
+     * @param name        the name of the series
+     * @param capacity    the maximum number of bars kept (pre-allocated)
+     * @param numFunction a {@link Function} to convert a {@link Number} to a
+     *                    {@link Num Num implementation}
+     * @return a new series of the arena
+     */
+    public synchronized OffHeapBarSeries newSeries(String name, int capacity, Function<Number, Num> numFunction) {
+        if (closed) {
+            throw new IllegalStateException("Arena is closed");
+        }
+        ByteBuffer records;
+        if (capacity > chunkBarCount) {
+            records = OffHeapBarSeries.allocate(capacity);
+            chunks.add(records);
+        } else {
+            int length = capacity * OffHeapBarSeries.RECORD_BYTES;
+            if (currentChunk == null || currentChunk.remaining() < length) {
+                currentChunk = OffHeapBarSeries.allocate(chunkBarCount);
+                chunks.add(currentChunk);
+            }
+            ByteBuffer slice = currentChunk.duplicate();
+            slice.limit(currentChunk.position() + length);
+            records = slice.slice().order(ByteOrder.nativeOrder());
+            currentChunk.position(currentChunk.position() + length);
+        }
+        OffHeapBarSeries newSeries = new OffHeapBarSeries(name, records, capacity, numFunction);
+        series.add(newSeries);
+        return newSeries;
+    }
+
+    /**
+     * @param name     the name of the series
+     * @param capacity the maximum number of bars kept (pre-allocated)
+     * @return a new series of the arena, with {@link DoubleNum}
+     */
+    public OffHeapBarSeries newSeries(String name, int capacity) {
+        return newSeries(name, capacity, DoubleNum::valueOf);
+    }
+
+    /**
+     * @return the number of series of the arena
+     */
+    public synchronized int getSeriesCount() {
+        return series.size();
+    }
+
+    /**
+     * @return the size of the allocated chunks (bytes)
+     */
+    public synchronized long getAllocatedBytes() {
+        long bytes = 0;
+        for (ByteBuffer chunk : chunks) {
+            bytes += chunk.capacity();
+        }
+        return bytes;
+    }
+
+    /**
+     * Closes all the series of the arena and drops the chunks.
+     */
+    @Override
+    public synchronized void close() {
+        for (OffHeapBarSeries s : series) {
+            s.close();
+        }
+        series.clear();
+        chunks.clear();
+        currentChunk = null;
+        closed = true;
+    }
+}
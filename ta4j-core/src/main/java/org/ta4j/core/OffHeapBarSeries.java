@@ -0,0 +1,587 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.ta4j.core.num.DoubleNum;
+import org.ta4j.core.num.Num;
+
+import java.io.NotSerializableException;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+import static org.ta4j.core.num.NaN.NaN;
+
+/**
+ * {@link BarSeries Bar series} storing its bars off heap, in a direct
+ * {@link ByteBuffer}.
+ *
+ * The fields of the bars are stored as primitives in fixed-size records of a
+ * pre-allocated ring buffer (of {@link #getCapacity() capacity} bars), which
+ * the garbage collector never scans. {@link #getBar(int)} returns a light view
+ * of a record whose values are read on access; the
+ * {@link #getDouble(int, Field)} and {@link #getEndTimeNanos(int)} methods read
+ * the primitives directly.
+ *
+ * The series must be {@link #close() closed} once no longer used: its buffer
+ * is then dropped (the memory is reclaimed with the buffer object) and any
+ * further access fails. Many series can share the chunks of an
+ * {@link OffHeapBarArena arena}.
+ *
+ * Values are stored as doubles: {@link org.ta4j.core.num.PrecisionNum} values
+ * are rounded to the nearest double. Times are returned in the zone of the
+ * first bar. At most {@link #getMaximumBarCount()} bars are kept (at most the
+ * capacity); as with {@link BaseBarSeries}, requesting a removed bar returns
+ * the first available one, and bar views of removed bars fail.
+ *
+ * 将柱存储在堆外直接缓冲区中的柱序列。柱字段以基本类型保存在预分配的环形缓冲区中，垃圾回收器不会扫描。
+ */
+public class OffHeapBarSeries implements BarSeries, AutoCloseable {
+
+    private static final long serialVersionUID = -3061528430154941093L;
+
+    private static final Logger log = LoggerFactory.getLogger(OffHeapBarSeries.class);
+
+    /**
+     * Bits of a null num (a NaN distinct from {@link Double#NaN})
+     */
+    private static final long NULL_BITS = 0x7ff0000000000001L;
+
+    private static final int END_TIME = 0;
+    private static final int TIME_PERIOD = 8;
+    private static final int TRADES = 64;
+
+    /**
+     * Size of the record of a bar (bytes)
+     */
+    public static final int RECORD_BYTES = 72;
+
+    /**
+     * The num fields of a bar.
+     */
+    public enum Field {
+        OPEN_PRICE(16), HIGH_PRICE(24), LOW_PRICE(32), CLOSE_PRICE(40), VOLUME(48), AMOUNT(56);
+
+        private final int offset;
+
+        Field(int offset) {
+            this.offset = offset;
+        }
+    }
+
+    private final String name;
+
+    private final Function<Number, Num> numFunction;
+
+    private final int capacity;
+
+    /**
+     * The records; the bar at index i is in record i % capacity (null once
+     * closed)
+     */
+    private transient ByteBuffer buffer;
+
+    private int endIndex = -1;
+
+    private int maximumBarCount;
+
+    /**
+     * The zone of the bar times (the zone of the first bar)
+     */
+    private ZoneId zone;
+
+    private transient BarSeriesTimeIndex timeIndex;
+
+    /**
+     * Constructor.
+     *
+     * @param name        the name of the series
+     * @param capacity    the maximum number of bars kept (pre-allocated)
+     * @param numFunction a {@link Function} to convert a {@link Number} to a
+     *                    {@link Num Num implementation}
+     */
+    public OffHeapBarSeries(String name, int capacity, Function<Number, Num> numFunction) {
+        this(name, allocate(capacity), capacity, numFunction);
+    }
+
+    /**
+     * Constructor with {@link DoubleNum}.
+     *
+     * @param name     the name of the series
+     * @param capacity the maximum number of bars kept (pre-allocated)
+     */
+    public OffHeapBarSeries(String name, int capacity) {
+        this(name, capacity, DoubleNum::valueOf);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param buffer the buffer of the records (of capacity records)
+     */
+    OffHeapBarSeries(String name, ByteBuffer buffer, int capacity, Function<Number, Num> numFunction) {
+        this.name = name;
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.maximumBarCount = capacity;
+        this.numFunction = numFunction;
+    }
+
+    /**
+     * @param capacity a number of bars
+     * @return a direct buffer for the records of the bars
+     */
+    static ByteBuffer allocate(int capacity) {
+        if (capacity <= 0 || capacity > Integer.MAX_VALUE / RECORD_BYTES) {
+            throw new IllegalArgumentException("Capacity must be in [1, " + Integer.MAX_VALUE / RECORD_BYTES + "]");
+        }
+        return ByteBuffer.allocateDirect(capacity * RECORD_BYTES).order(ByteOrder.nativeOrder());
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Bar getBar(int i) {
+        checkOpen();
+        if (i < 0 || i > endIndex) {
+            throw new IndexOutOfBoundsException(buildOutOfBoundsMessage(i));
+        }
+        int firstIndex = getRemovedBarsCount();
+        if (i < firstIndex) {
+            log.trace("Bar series `{}`: bar {} already removed, use {}-th instead", name, i, firstIndex);
+            return new BarView(this, firstIndex);
+        }
+        return new BarView(this, i);
+    }
+
+    /**
+     * Primitive access to a num field of a bar.
+     *
+     * @param index the bar index
+     * @param field the field
+     * @return the value of the field (NaN if null)
+     */
+    public double getDouble(int index, Field field) {
+        return Double.longBitsToDouble(buffer().getLong(position(index) + field.offset));
+    }
+
+    /**
+     * Primitive access to the end time of a bar.
+     *
+     * @param index the bar index
+     * @return the end time of the bar (epoch nanoseconds)
+     */
+    public long getEndTimeNanos(int index) {
+        return buffer().getLong(position(index) + END_TIME);
+    }
+
+    @Override
+    public int getBarCount() {
+        return endIndex < 0 ? 0 : endIndex - getRemovedBarsCount() + 1;
+    }
+
+    /**
+     * @return a list of views of the bars of the series
+     */
+    @Override
+    public List<Bar> getBarData() {
+        List<Bar> bars = new ArrayList<>(getBarCount());
+        for (int i = getRemovedBarsCount(); i <= endIndex; i++) {
+            bars.add(getBar(i));
+        }
+        return bars;
+    }
+
+    @Override
+    public int getBeginIndex() {
+        return endIndex < 0 ? -1 : 0;
+    }
+
+    @Override
+    public int getEndIndex() {
+        return endIndex;
+    }
+
+    @Override
+    public int getMaximumBarCount() {
+        return maximumBarCount;
+    }
+
+    /**
+     * @param maximumBarCount the maximum bar count (at most the capacity)
+     */
+    @Override
+    public void setMaximumBarCount(int maximumBarCount) {
+        if (maximumBarCount <= 0) {
+            throw new IllegalArgumentException("Maximum bar count must be strictly positive");
+        }
+        if (maximumBarCount > capacity) {
+            throw new IllegalArgumentException("Maximum bar count cannot exceed the capacity");
+        }
+        this.maximumBarCount = maximumBarCount;
+    }
+
+    @Override
+    public int getRemovedBarsCount() {
+        return Math.max(0, endIndex + 1 - maximumBarCount);
+    }
+
+    @Override
+    public void addBar(Bar bar, boolean replace) {
+        Objects.requireNonNull(bar);
+        checkOpen();
+        if (!checkBar(bar)) {
+            throw new IllegalArgumentException(
+                    String.format("Cannot add Bar with data type: %s to series with data" + "type: %s",
+                            bar.getClosePrice().getClass(), numOf(1).getClass()));
+        }
+        if (endIndex >= 0) {
+            if (replace) {
+                write(endIndex, bar);
+                return;
+            }
+            if (toEpochNanos(bar.getEndTime()) <= getEndTimeNanos(endIndex)) {
+                throw new IllegalArgumentException(
+                        String.format("Cannot add a bar with end time:%s that is <= to series end time: %s",
+                                bar.getEndTime(), getLastBar().getEndTime()));
+            }
+        } else {
+            zone = bar.getEndTime().getZone();
+        }
+        write(endIndex + 1, bar);
+        endIndex++;
+    }
+
+    @Override
+    public void addBar(Duration timePeriod, ZonedDateTime endTime) {
+        addBar(new BaseBar(timePeriod, endTime, function()));
+    }
+
+    @Override
+    public void addBar(ZonedDateTime endTime, Num openPrice, Num highPrice, Num lowPrice, Num closePrice, Num volume) {
+        addBar(new BaseBar(Duration.ofDays(1), endTime, openPrice, highPrice, lowPrice, closePrice, volume, numOf(0)));
+    }
+
+    @Override
+    public void addBar(ZonedDateTime endTime, Num openPrice, Num highPrice, Num lowPrice, Num closePrice, Num volume,
+            Num amount) {
+        addBar(new BaseBar(Duration.ofDays(1), endTime, openPrice, highPrice, lowPrice, closePrice, volume, amount));
+    }
+
+    @Override
+    public void addBar(Duration timePeriod, ZonedDateTime endTime, Num openPrice, Num highPrice, Num lowPrice,
+            Num closePrice, Num volume) {
+        addBar(new BaseBar(timePeriod, endTime, openPrice, highPrice, lowPrice, closePrice, volume, numOf(0)));
+    }
+
+    @Override
+    public void addBar(Duration timePeriod, ZonedDateTime endTime, Num openPrice, Num highPrice, Num lowPrice,
+            Num closePrice, Num volume, Num amount) {
+        addBar(new BaseBar(timePeriod, endTime, openPrice, highPrice, lowPrice, closePrice, volume, amount));
+    }
+
+    @Override
+    public void addTrade(Num tradeVolume, Num tradePrice) {
+        getLastBar().addTrade(tradeVolume, tradePrice);
+    }
+
+    @Override
+    public void addPrice(Num price) {
+        getLastBar().addPrice(price);
+    }
+
+    /**
+     * @return a series holding on-heap copies of the bars
+     */
+    @Override
+    public BarSeries getSubSeries(int startIndex, int endIndex) {
+        if (startIndex < 0) {
+            throw new IllegalArgumentException(String.format("the startIndex: %s must not be negative", startIndex));
+        }
+        if (startIndex >= endIndex) {
+            throw new IllegalArgumentException(
+                    String.format("the endIndex: %s must be greater than startIndex: %s", endIndex, startIndex));
+        }
+        List<Bar> bars = new ArrayList<>();
+        for (int i = Math.max(startIndex, getRemovedBarsCount()); i < Math.min(endIndex, this.endIndex + 1); i++) {
+            bars.add(toBaseBar(i));
+        }
+        return new BaseBarSeries(name, bars, numFunction);
+    }
+
+    @Override
+    public BarSeriesTimeIndex getTimeIndex() {
+        if (timeIndex == null) {
+            timeIndex = new BarSeriesTimeIndex(this);
+        }
+        return timeIndex;
+    }
+
+    @Override
+    public Num numOf(Number number) {
+        return numFunction.apply(number);
+    }
+
+    @Override
+    public Function<Number, Num> function() {
+        return numFunction;
+    }
+
+    /**
+     * @return the number of pre-allocated bars
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the size of the off-heap buffer of the series (bytes)
+     */
+    public long getOffHeapBytes() {
+        return capacity * (long) RECORD_BYTES;
+    }
+
+    /**
+     * Drops the buffer of the series; any further access fails.
+     */
+    @Override
+    public void close() {
+        buffer = null;
+    }
+
+    /**
+     * @return true if the series is closed
+     */
+    public boolean isClosed() {
+        return buffer == null;
+    }
+
+    private ByteBuffer buffer() {
+        ByteBuffer records = buffer;
+        if (records == null) {
+            throw new IllegalStateException("Bar series `" + name + "` is closed");
+        }
+        return records;
+    }
+
+    private void checkOpen() {
+        buffer();
+    }
+
+    /**
+     * @return the position of the record of a bar (which must not be removed)
+     */
+    private int position(int index) {
+        if (index < getRemovedBarsCount() || index > endIndex) {
+            throw new IllegalStateException("Bar " + index + " is not in series `" + name + "`");
+        }
+        return (index % capacity) * RECORD_BYTES;
+    }
+
+    private Num getNum(int index, Field field) {
+        long bits = buffer().getLong(position(index) + field.offset);
+        if (bits == NULL_BITS) {
+            return null;
+        }
+        double value = Double.longBitsToDouble(bits);
+        return Double.isNaN(value) ? NaN : numFunction.apply(value);
+    }
+
+    private ZonedDateTime getEndTime(int index) {
+        return Instant.ofEpochSecond(0, getEndTimeNanos(index)).atZone(zone);
+    }
+
+    private Duration getTimePeriod(int index) {
+        return Duration.ofNanos(buffer().getLong(position(index) + TIME_PERIOD));
+    }
+
+    private int getTrades(int index) {
+        return buffer().getInt(position(index) + TRADES);
+    }
+
+    private void write(int index, Bar bar) {
+        ByteBuffer records = buffer();
+        int position = (index % capacity) * RECORD_BYTES;
+        records.putLong(position + END_TIME, toEpochNanos(bar.getEndTime()));
+        records.putLong(position + TIME_PERIOD, bar.getTimePeriod().toNanos());
+        records.putLong(position + Field.OPEN_PRICE.offset, bits(bar.getOpenPrice()));
+        records.putLong(position + Field.HIGH_PRICE.offset, bits(bar.getHighPrice()));
+        records.putLong(position + Field.LOW_PRICE.offset, bits(bar.getLowPrice()));
+        records.putLong(position + Field.CLOSE_PRICE.offset, bits(bar.getClosePrice()));
+        records.putLong(position + Field.VOLUME.offset, bits(bar.getVolume()));
+        records.putLong(position + Field.AMOUNT.offset, bits(bar.getAmount()));
+        records.putInt(position + TRADES, bar.getTrades());
+    }
+
+    /**
+     * @return an on-heap copy of a bar
+     */
+    private BaseBar toBaseBar(int index) {
+        return new BaseBar(getTimePeriod(index), getEndTime(index), getNum(index, Field.OPEN_PRICE),
+                getNum(index, Field.HIGH_PRICE), getNum(index, Field.LOW_PRICE), getNum(index, Field.CLOSE_PRICE),
+                getNum(index, Field.VOLUME), getNum(index, Field.AMOUNT), getTrades(index));
+    }
+
+    private static long bits(Num num) {
+        if (num == null) {
+            return NULL_BITS;
+        }
+        return Double.doubleToRawLongBits(num.isNaN() ? Double.NaN : num.doubleValue());
+    }
+
+    private static long toEpochNanos(ZonedDateTime time) {
+        Instant instant = time.toInstant();
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000_000L), instant.getNano());
+    }
+
+    private boolean checkBar(Bar bar) {
+        if (bar.getClosePrice() == null) {
+            return true; // bar has not been initialized with data
+        }
+        Class<? extends Num> f = numOf(1).getClass();
+        return f == bar.getClosePrice().getClass() || bar.getClosePrice().equals(NaN);
+    }
+
+    private String buildOutOfBoundsMessage(int index) {
+        return String.format("Size of series: %s bars, %s bars removed, index = %s", getBarCount(),
+                getRemovedBarsCount(), index);
+    }
+
+    private void writeObject(ObjectOutputStream out) throws NotSerializableException {
+        throw new NotSerializableException("Off-heap bar series cannot be serialized, use getSubSeries");
+    }
+
+    /**
+     * View of the record of a bar. Serialized as an on-heap copy.
+     */
+    private static final class BarView implements Bar {
+
+        private static final long serialVersionUID = 2719260873395734613L;
+
+        private final OffHeapBarSeries series;
+
+        private final int index;
+
+        private BarView(OffHeapBarSeries series, int index) {
+            this.series = series;
+            this.index = index;
+        }
+
+        @Override
+        public Num getOpenPrice() {
+            return series.getNum(index, Field.OPEN_PRICE);
+        }
+
+        @Override
+        public Num getLowPrice() {
+            return series.getNum(index, Field.LOW_PRICE);
+        }
+
+        @Override
+        public Num getHighPrice() {
+            return series.getNum(index, Field.HIGH_PRICE);
+        }
+
+        @Override
+        public Num getClosePrice() {
+            return series.getNum(index, Field.CLOSE_PRICE);
+        }
+
+        @Override
+        public Num getVolume() {
+            return series.getNum(index, Field.VOLUME);
+        }
+
+        @Override
+        public int getTrades() {
+            return series.getTrades(index);
+        }
+
+        @Override
+        public Num getAmount() {
+            return series.getNum(index, Field.AMOUNT);
+        }
+
+        @Override
+        public Duration getTimePeriod() {
+            return series.getTimePeriod(index);
+        }
+
+        @Override
+        public ZonedDateTime getBeginTime() {
+            return getEndTime().minus(getTimePeriod());
+        }
+
+        @Override
+        public ZonedDateTime getEndTime() {
+            return series.getEndTime(index);
+        }
+
+        @Override
+        public long getEndTimeNanos() {
+            return series.getEndTimeNanos(index);
+        }
+
+        @Override
+        public long getBeginTimeNanos() {
+            return getEndTimeNanos() - series.buffer().getLong(series.position(index) + TIME_PERIOD);
+        }
+
+        @Override
+        public void addTrade(Num tradeVolume, Num tradePrice) {
+            BaseBar bar = series.toBaseBar(index);
+            bar.addTrade(tradeVolume, tradePrice);
+            series.write(index, bar);
+        }
+
+        @Override
+        public void addPrice(Num price) {
+            BaseBar bar = series.toBaseBar(index);
+            bar.addPrice(price);
+            series.write(index, bar);
+        }
+
+        @Override
+        public String toString() {
+            return series.toBaseBar(index).toString();
+        }
+
+        private Object writeReplace() {
+            return series.toBaseBar(index);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import org.ta4j.core.analysis.CashFlow;
+import org.ta4j.core.num.Num;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.ta4j.core.num.NaN.NaN;
+
+/**
+ * The result of a {@link PortfolioBacktester portfolio backtest}.
+ *
+ * Holds the trading record of each series and aggregates them at the portfolio
+ * level.
+ *
+ * 组合回测结果。
+ */
+public class PortfolioBacktestResult {
+
+    private final Map<String, BarSeries> seriesByName;
+
+    private final Map<String, TradingRecord> recordsByName;
+
+    /**
+     * Constructor.
+     *
+     * @param seriesByName  the bar series, by name
+     * @param recordsByName the trading records, by series name
+     */
+    public PortfolioBacktestResult(Map<String, BarSeries> seriesByName, Map<String, TradingRecord> recordsByName) {
+        this.seriesByName = Collections.unmodifiableMap(seriesByName);
+        this.recordsByName = Collections.unmodifiableMap(recordsByName);
+    }
+
+    /**
+     * @return the bar series, by name
+     */
+    public Map<String, BarSeries> getBarSeries() {
+        return seriesByName;
+    }
+
+    /**
+     * @return the trading records, by series name
+     */
+    public Map<String, TradingRecord> getTradingRecords() {
+        return recordsByName;
+    }
+
+    /**
+     * @param name the name of a series
+     * @return the trading record of the series
+     */
+    public TradingRecord getTradingRecord(String name) {
+        return recordsByName.get(name);
+    }
+
+    /**
+     * @return the total number of trades over all series
+     */
+    public int getTradeCount() {
+        int tradeCount = 0;
+        for (TradingRecord record : recordsByName.values()) {
+            tradeCount += record.getTradeCount();
+        }
+        return tradeCount;
+    }
+
+    /**
+     * @param criterion an analysis criterion
+     * @return the criterion value of each series, by name
+     */
+    public Map<String, Num> calculate(AnalysisCriterion criterion) {
+        final Map<String, Num> values = new LinkedHashMap<>();
+        for (Map.Entry<String, TradingRecord> entry : recordsByName.entrySet()) {
+            values.put(entry.getKey(), criterion.calculate(seriesByName.get(entry.getKey()), entry.getValue()));
+        }
+        return values;
+    }
+
+    /**
+     * @param criterion an analysis criterion
+     * @return the name of the best series according to the criterion (null if
+     *         none)
+     */
+    public String getBest(AnalysisCriterion criterion) {
+        String best = null;
+        Num bestValue = null;
+        for (Map.Entry<String, Num> entry : calculate(criterion).entrySet()) {
+            if (bestValue == null || criterion.betterThan(entry.getValue(), bestValue)) {
+                best = entry.getKey();
+                bestValue = entry.getValue();
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Calculates a criterion over the {@link #getPortfolioSeries() equity curve}
+     * of the portfolio, held from its first to its last value. Suited to the
+     * criteria of a value curve (e.g. {@link
+     * org.ta4j.core.analysis.criteria.TotalProfitCriterion total profit},
+     * {@link org.ta4j.core.analysis.criteria.MaximumDrawdownCriterion maximum
+     * drawdown}); criteria counting trades see a single trade.
+     *
+     * @param criterion an analysis criterion
+     * @return the criterion value of the portfolio (NaN if no series has bars)
+     */
+    public Num calculatePortfolio(AnalysisCriterion criterion) {
+        BarSeries portfolio = getPortfolioSeries();
+        if (portfolio.isEmpty()) {
+            return NaN;
+        }
+        TradingRecord record = new BaseTradingRecord();
+        int endIndex = portfolio.getEndIndex();
+        record.enter(0, portfolio.getBar(0).getClosePrice(), portfolio.numOf(1));
+        if (endIndex > 0) {
+            record.exit(endIndex, portfolio.getBar(endIndex).getClosePrice(), portfolio.numOf(1));
+        }
+        return criterion.calculate(portfolio, record);
+    }
+
+    /**
+     * Returns the equity curve of the portfolio as a bar series: one bar per end
+     * time of the {@link #getPortfolioCashFlow() portfolio cash flow}, all prices
+     * being the portfolio value.
+     *
+     * @return the equity curve of the portfolio
+     */
+    public BarSeries getPortfolioSeries() {
+        BarSeries portfolio = null;
+        for (BarSeries series : seriesByName.values()) {
+            if (!series.isEmpty()) {
+                portfolio = new BaseBarSeries("portfolio", series.function());
+                break;
+            }
+        }
+        if (portfolio == null) {
+            return new BaseBarSeries("portfolio");
+        }
+        ZonedDateTime previousEndTime = null;
+        for (Map.Entry<ZonedDateTime, Num> entry : getPortfolioCashFlow().entrySet()) {
+            ZonedDateTime endTime = entry.getKey();
+            Duration timePeriod = previousEndTime == null ? Duration.ZERO : Duration.between(previousEndTime, endTime);
+            Num value = entry.getValue();
+            portfolio.addBar(new BaseBar(timePeriod, endTime, value, value, value, value, portfolio.numOf(0),
+                    portfolio.numOf(0)));
+            previousEndTime = endTime;
+        }
+        return portfolio;
+    }
+
+    /**
+     * Calculates the cash flow of an equally weighted portfolio of all series.
+     *
+     * The {@link CashFlow cash flows} of the series are aligned on the end times
+     * of their bars: at each end time, the value of a series is its last known
+     * cash flow value (1 before its first bar). The portfolio value is the mean
+     * of these values.
+     *
+     * @return the portfolio cash flow, by bar end time
+     */
+    public SortedMap<ZonedDateTime, Num> getPortfolioCashFlow() {
+        // End times by epoch nanoseconds (the first bar ending at a time gives its
+        // zone)
+        final TreeMap<Long, ZonedDateTime> endTimes = new TreeMap<>();
+        for (BarSeries series : seriesByName.values()) {
+            if (series.isEmpty()) {
+                continue;
+            }
+            for (int i = firstIndexOf(series); i <= series.getEndIndex(); i++) {
+                Bar bar = series.getBar(i);
+                endTimes.putIfAbsent(bar.getEndTimeNanos(), bar.getEndTime());
+            }
+        }
+        final long[] timeline = new long[endTimes.size()];
+        int position = 0;
+        for (long endTime : endTimes.keySet()) {
+            timeline[position++] = endTime;
+        }
+        final Num[] sums = new Num[timeline.length];
+        int seriesCount = 0;
+        for (Map.Entry<String, BarSeries> entry : seriesByName.entrySet()) {
+            BarSeries series = entry.getValue();
+            if (series.isEmpty()) {
+                continue;
+            }
+            seriesCount++;
+            CashFlow cashFlow = new CashFlow(series, recordsByName.get(entry.getKey()));
+            int index = firstIndexOf(series);
+            Num value = series.numOf(1);
+            for (int t = 0; t < timeline.length; t++) {
+                // Forward fill: last value at or before the end time
+                while (index <= series.getEndIndex() && series.getBar(index).getEndTimeNanos() <= timeline[t]) {
+                    value = cashFlow.getValue(index);
+                    index++;
+                }
+                sums[t] = sums[t] == null ? value : sums[t].plus(value);
+            }
+        }
+
+        final SortedMap<ZonedDateTime, Num> portfolio = new TreeMap<>();
+        for (int t = 0; t < timeline.length; t++) {
+            portfolio.put(endTimes.get(timeline[t]), sums[t].dividedBy(sums[t].numOf(seriesCount)));
+        }
+        return portfolio;
+    }
+
+    /**
+     * @return the first available index of the series (bars may have been removed
+     *         because of the maximum bar count)
+     */
+    private static int firstIndexOf(BarSeries series) {
+        return Math.max(series.getBeginIndex(), series.getRemovedBarsCount());
+    }
+}
@@ -0,0 +1,147 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import org.ta4j.core.Order.OrderType;
+import org.ta4j.core.cost.CostModel;
+import org.ta4j.core.cost.ZeroCostModel;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Backtests a strategy over many {@link BarSeries bar series} (e.g. a universe
+ * of symbols) concurrently.
+ *
+ * The strategy is provided as an immutable definition: a function building the
+ * {@link Strategy} (and so its indicators) for a given series. It is only
+ * invoked by the worker task of each series, so that the indicators of a
+ * series are built lazily and are never shared between threads. Series are
+ * distributed over a work-stealing {@link ForkJoinPool}.
+ *
+ * 在多个柱序列（如多个品种）上并行回测同一策略。
+ */
+public class PortfolioBacktester {
+
+    private final ForkJoinPool pool;
+
+    private final CostModel transactionCostModel;
+
+    private final CostModel holdingCostModel;
+
+    /**
+     * Constructor. Uses the common pool and no trading costs.
+     */
+    public PortfolioBacktester() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor. Uses no trading costs.
+     *
+     * @param pool the pool running the backtests
+     */
+    public PortfolioBacktester(ForkJoinPool pool) {
+        this(pool, new ZeroCostModel(), new ZeroCostModel());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param pool                 the pool running the backtests
+     * @param transactionCostModel the cost model for transactions of the assets
+     * @param holdingCostModel     the cost model for holding assets (e.g.
+     *                             borrowing)
+     */
+    public PortfolioBacktester(ForkJoinPool pool, CostModel transactionCostModel, CostModel holdingCostModel) {
+        this.pool = pool;
+        this.transactionCostModel = transactionCostModel;
+        this.holdingCostModel = holdingCostModel;
+    }
+
+    /**
+     * Runs the strategy over each series, opening the trades with a BUY order of
+     * amount 1.
+     *
+     * @param seriesList         the bar series (their names must be unique)
+     * @param strategyDefinition builds the strategy for a series
+     * @return the result of the portfolio backtest
+     */
+    public PortfolioBacktestResult run(List<BarSeries> seriesList, Function<BarSeries, Strategy> strategyDefinition) {
+        return run(seriesList, strategyDefinition, OrderType.BUY, 1);
+    }
+
+    /**
+     * Runs the strategy over each series.
+     *
+     * @param seriesList         the bar series (their names must be unique)
+     * @param strategyDefinition builds the strategy for a series
+     * @param orderType          the {@link OrderType} used to open the trades
+     * @param amount             the amount used to open/close the trades
+     * @return the result of the portfolio backtest
+     */
+    public PortfolioBacktestResult run(List<BarSeries> seriesList, Function<BarSeries, Strategy> strategyDefinition,
+            OrderType orderType, Number amount) {
+        final Map<String, BarSeries> seriesByName = new LinkedHashMap<>();
+        for (BarSeries series : seriesList) {
+            if (seriesByName.put(series.getName(), series) != null) {
+                throw new IllegalArgumentException("Duplicate series name: " + series.getName());
+            }
+        }
+
+        final List<Callable<TradingRecord>> tasks = new ArrayList<>(seriesList.size());
+        for (BarSeries series : seriesList) {
+            tasks.add(() -> {
+                BarSeriesManager manager = new BarSeriesManager(series, transactionCostModel, holdingCostModel);
+                return manager.run(strategyDefinition.apply(series), orderType, series.numOf(amount));
+            });
+        }
+
+        final List<Future<TradingRecord>> futures = pool.invokeAll(tasks);
+        final Map<String, TradingRecord> recordsByName = new LinkedHashMap<>();
+        for (int i = 0; i < seriesList.size(); i++) {
+            BarSeries series = seriesList.get(i);
+            recordsByName.put(series.getName(), getResult(futures.get(i), series));
+        }
+        return new PortfolioBacktestResult(seriesByName, recordsByName);
+    }
+
+    private static TradingRecord getResult(Future<TradingRecord> future, BarSeries series) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while backtesting series " + series.getName(), e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Backtest failed for series " + series.getName(), e.getCause());
+        }
+    }
+}
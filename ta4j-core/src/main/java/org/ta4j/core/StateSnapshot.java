@@ -0,0 +1,504 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import org.ta4j.core.Order.OrderType;
+import org.ta4j.core.cost.CostModel;
+import org.ta4j.core.cost.ZeroCostModel;
+import org.ta4j.core.indicators.CachedIndicator;
+import org.ta4j.core.indicators.IndicatorGraph;
+import org.ta4j.core.indicators.Lookback;
+import org.ta4j.core.indicators.cache.CachePolicy;
+import org.ta4j.core.num.DoubleNum;
+import org.ta4j.core.num.Num;
+import org.ta4j.core.num.PrecisionNum;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.ta4j.core.num.NaN.NaN;
+
+/**
+ * Compact binary snapshot of the state of a live strategy: the tail of its bar
+ * series, the cached results and {@link StatefulIndicator calculation state} of
+ * its indicators and its trading record.
+ *
+ * A snapshot is restored by rebuilding the strategy on the
+ * {@link #getBarSeries() restored series} and {@link #restore(Strategy)
+ * restoring} its indicators: recursive indicators (e.g. EMA, KAMA) then resume
+ * from their cached results instead of being warmed up from the first bar.
+ *
+ * Only the {@link Num} and {@link Boolean} results of the
+ * {@link CachedIndicator cached indicators} built on the series are captured
+ * (the results of the tail are calculated if not cached yet); the bar times
+ * are stored in the zone of the first bar.
+ *
+ * 实时策略状态的紧凑二进制快照：柱序列的尾部、指标的缓存结果和计算状态，以及交易记录。
+ */
+public final class StateSnapshot {
+
+    private static final int MAGIC = 0x54413453;
+    private static final int VERSION = 1;
+
+    /** Num tags */
+    private static final byte NULL = 0;
+    private static final byte NAN = 1;
+    private static final byte DOUBLE = 2;
+    private static final byte DECIMAL = 3;
+
+    /** Cached value tags */
+    private static final byte ABSENT = 0;
+    private static final byte NUM = 1;
+    private static final byte TRUE = 2;
+    private static final byte FALSE = 3;
+
+    /** Indicator flags */
+    private static final byte CACHED = 1;
+    private static final byte STATEFUL = 2;
+
+    private final BaseBarSeries series;
+
+    private final List<IndicatorState> indicators;
+
+    /**
+     * The starting type of the trading record (null if none)
+     */
+    private final OrderType startingType;
+
+    private final List<Order> orders;
+
+    private StateSnapshot(BaseBarSeries series, List<IndicatorState> indicators, OrderType startingType,
+            List<Order> orders) {
+        this.series = series;
+        this.indicators = indicators;
+        this.startingType = startingType;
+        this.orders = orders;
+    }
+
+    /**
+     * Writes a snapshot. The stream is flushed, not closed.
+     *
+     * The written bars must cover the {@link Lookback#resumed(Indicator) lookback}
+     * of the indicators of the strategy, so that the restored indicators never
+     * reach before the tail of the series: the bar count must be greater than
+     * this lookback.
+     *
+     * @param out      the output stream
+     * @param series   the bar series
+     * @param barCount the number of (last) bars to be written
+     * @param strategy the strategy whose indicators are written (null for none)
+     * @param record   the trading record (null for none)
+     * @throws IOException              if the snapshot cannot be written
+     * @throws IllegalArgumentException if the bar count exceeds the bar count of
+     *                                  the series or does not cover the lookback
+     *                                  of the strategy
+     */
+    public static void write(OutputStream out, BarSeries series, int barCount, Strategy strategy,
+            TradingRecord record) throws IOException {
+        if (barCount <= 0 || barCount > series.getBarCount()) {
+            throw new IllegalArgumentException("Bar count must be in [1, " + series.getBarCount() + "]");
+        }
+        int lookback = 0;
+        for (Indicator<?> indicator : indicatorsOf(strategy)) {
+            lookback = Math.max(lookback, Lookback.resumed(indicator));
+        }
+        if (barCount <= lookback) {
+            throw new IllegalArgumentException(
+                    "Bar count must be greater than the lookback of the strategy (" + lookback + ")");
+        }
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        int endIndex = series.getEndIndex();
+        int firstIndex = endIndex - barCount + 1;
+        writeSeries(data, series, firstIndex);
+        writeIndicators(data, strategy, firstIndex, endIndex);
+        writeTradingRecord(data, record);
+        data.flush();
+    }
+
+    private static void writeSeries(DataOutput out, BarSeries series, int firstIndex) throws IOException {
+        String name = series.getName();
+        out.writeBoolean(name != null);
+        if (name != null) {
+            out.writeUTF(name);
+        }
+        out.writeInt(series.getBeginIndex());
+        out.writeInt(firstIndex);
+        out.writeInt(series.getEndIndex() - firstIndex + 1);
+        out.writeInt(series.getMaximumBarCount());
+        out.writeUTF(series.getBar(firstIndex).getEndTime().getZone().getId());
+        for (int i = firstIndex; i <= series.getEndIndex(); i++) {
+            Bar bar = series.getBar(i);
+            Instant endTime = bar.getEndTime().toInstant();
+            out.writeLong(endTime.getEpochSecond());
+            out.writeInt(endTime.getNano());
+            out.writeLong(bar.getTimePeriod().getSeconds());
+            out.writeInt(bar.getTimePeriod().getNano());
+            writeNum(out, bar.getOpenPrice());
+            writeNum(out, bar.getHighPrice());
+            writeNum(out, bar.getLowPrice());
+            writeNum(out, bar.getClosePrice());
+            writeNum(out, bar.getVolume());
+            writeNum(out, bar.getAmount());
+            out.writeInt(bar.getTrades());
+        }
+    }
+
+    private static void writeIndicators(DataOutput out, Strategy strategy, int firstIndex, int endIndex)
+            throws IOException {
+        List<Indicator<?>> graph = indicatorsOf(strategy);
+        out.writeInt(graph.size());
+        for (Indicator<?> indicator : graph) {
+            out.writeUTF(indicator.getClass().getName());
+            boolean cached = indicator instanceof CachedIndicator && indicator.getBarSeries() != null
+                    && ((CachedIndicator<?>) indicator).getCachePolicy() != CachePolicy.none();
+            boolean stateful = indicator instanceof StatefulIndicator;
+            out.writeByte((cached ? CACHED : 0) | (stateful ? STATEFUL : 0));
+            if (cached) {
+                // The results of the tail are calculated if needed, so that the restored
+                // indicator never reaches before the tail (the last bar is not cached)
+                for (int i = firstIndex; i < endIndex; i++) {
+                    writeValue(out, indicator.getValue(i));
+                }
+                writeValue(out, null);
+            }
+            if (stateful) {
+                ByteArrayOutputStream state = new ByteArrayOutputStream();
+                ((StatefulIndicator) indicator).writeState(new DataOutputStream(state));
+                out.writeInt(state.size());
+                out.write(state.toByteArray());
+            }
+        }
+    }
+
+    private static void writeValue(DataOutput out, Object value) throws IOException {
+        if (value instanceof Num) {
+            out.writeByte(NUM);
+            writeNum(out, (Num) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte((Boolean) value ? TRUE : FALSE);
+        } else {
+            out.writeByte(ABSENT);
+        }
+    }
+
+    private static void writeTradingRecord(DataOutput out, TradingRecord record) throws IOException {
+        out.writeBoolean(record != null);
+        if (record == null) {
+            return;
+        }
+        List<Order> recordOrders = new ArrayList<>();
+        for (Trade trade : record.getTrades()) {
+            recordOrders.add(trade.getEntry());
+            recordOrders.add(trade.getExit());
+        }
+        Trade currentTrade = record.getCurrentTrade();
+        if (currentTrade.isOpened()) {
+            recordOrders.add(currentTrade.getEntry());
+        }
+        out.writeBoolean(currentTrade.getStartingType() == OrderType.BUY);
+        out.writeInt(recordOrders.size());
+        for (Order order : recordOrders) {
+            out.writeInt(order.getIndex());
+            out.writeBoolean(order.isBuy());
+            writeNum(out, order.getPricePerAsset());
+            writeNum(out, order.getAmount());
+        }
+    }
+
+    /**
+     * Reads a snapshot written by
+     * {@link #write(OutputStream, BarSeries, int, Strategy, TradingRecord)}.
+     *
+     * @param in the input stream
+     * @return the snapshot
+     * @throws IOException if the snapshot cannot be read
+     */
+    public static StateSnapshot read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        if (data.readInt() != MAGIC) {
+            throw new StreamCorruptedException("Not a state snapshot");
+        }
+        int version = data.readInt();
+        if (version != VERSION) {
+            throw new StreamCorruptedException("Unsupported state snapshot version: " + version);
+        }
+        BaseBarSeries series = readSeries(data);
+        List<IndicatorState> indicators = readIndicators(data, series.getRemovedBarsCount(), series.getBarCount());
+        OrderType startingType = null;
+        List<Order> orders = Collections.emptyList();
+        if (data.readBoolean()) {
+            startingType = data.readBoolean() ? OrderType.BUY : OrderType.SELL;
+            int orderCount = data.readInt();
+            orders = new ArrayList<>(orderCount);
+            for (int i = 0; i < orderCount; i++) {
+                int index = data.readInt();
+                boolean buy = data.readBoolean();
+                Num price = readNum(data);
+                Num amount = readNum(data);
+                orders.add(buy ? Order.buyAt(index, price, amount) : Order.sellAt(index, price, amount));
+            }
+        }
+        return new StateSnapshot(series, indicators, startingType, orders);
+    }
+
+    private static BaseBarSeries readSeries(DataInput in) throws IOException {
+        String name = in.readBoolean() ? in.readUTF() : null;
+        int beginIndex = in.readInt();
+        int firstIndex = in.readInt();
+        int barCount = in.readInt();
+        int maximumBarCount = in.readInt();
+        ZoneId zone = ZoneId.of(in.readUTF());
+        List<Bar> bars = new ArrayList<>(barCount);
+        for (int i = 0; i < barCount; i++) {
+            Instant endTime = Instant.ofEpochSecond(in.readLong(), in.readInt());
+            Duration timePeriod = Duration.ofSeconds(in.readLong(), in.readInt());
+            bars.add(new BaseBar(timePeriod, endTime.atZone(zone), readNum(in), readNum(in), readNum(in), readNum(in),
+                    readNum(in), readNum(in), in.readInt()));
+        }
+        BaseBarSeries series = new BaseBarSeries(name, bars);
+        series.setRemovedBarsCount(beginIndex, firstIndex);
+        if (maximumBarCount != Integer.MAX_VALUE) {
+            series.setMaximumBarCount(maximumBarCount);
+        }
+        return series;
+    }
+
+    private static List<IndicatorState> readIndicators(DataInput in, int firstIndex, int barCount)
+            throws IOException {
+        int indicatorCount = in.readInt();
+        List<IndicatorState> indicators = new ArrayList<>(indicatorCount);
+        for (int i = 0; i < indicatorCount; i++) {
+            String className = in.readUTF();
+            byte flags = in.readByte();
+            Object[] values = null;
+            if ((flags & CACHED) != 0) {
+                values = new Object[barCount];
+                for (int j = 0; j < barCount; j++) {
+                    values[j] = readValue(in);
+                }
+            }
+            byte[] state = null;
+            if ((flags & STATEFUL) != 0) {
+                state = new byte[in.readInt()];
+                in.readFully(state);
+            }
+            indicators.add(new IndicatorState(className, firstIndex, values, state));
+        }
+        return indicators;
+    }
+
+    private static Object readValue(DataInput in) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+        case ABSENT:
+            return null;
+        case NUM:
+            return readNum(in);
+        case TRUE:
+            return Boolean.TRUE;
+        case FALSE:
+            return Boolean.FALSE;
+        default:
+            throw new StreamCorruptedException("Unknown value tag: " + tag);
+        }
+    }
+
+    /**
+     * @return the restored bar series (the last bars of the original series, at
+     *         the same indexes)
+     */
+    public BarSeries getBarSeries() {
+        return series;
+    }
+
+    /**
+     * Restores the cached results and the calculation state of the indicators of
+     * a strategy. The strategy must be built on the {@link #getBarSeries()
+     * restored series} as the one of the snapshot.
+     *
+     * @param strategy the strategy (null if the snapshot was written without)
+     */
+    public void restore(Strategy strategy) {
+        List<Indicator<?>> graph = indicatorsOf(strategy);
+        if (graph.size() != indicators.size()) {
+            throw new IllegalArgumentException(
+                    "Strategy has " + graph.size() + " indicators, snapshot has " + indicators.size());
+        }
+        for (int i = 0; i < graph.size(); i++) {
+            String className = graph.get(i).getClass().getName();
+            if (!className.equals(indicators.get(i).className)) {
+                throw new IllegalArgumentException("Indicator " + i + " is a " + className + ", snapshot has a "
+                        + indicators.get(i).className);
+            }
+        }
+        for (int i = 0; i < graph.size(); i++) {
+            indicators.get(i).restore(graph.get(i));
+        }
+    }
+
+    /**
+     * @return the restored trading record (without costs), null if the snapshot
+     *         was written without
+     */
+    public TradingRecord getTradingRecord() {
+        return getTradingRecord(new ZeroCostModel(), new ZeroCostModel());
+    }
+
+    /**
+     * @param transactionCostModel the cost model for transactions of the asset
+     * @param holdingCostModel     the cost model for holding asset (e.g.
+     *                             borrowing)
+     * @return the restored trading record, null if the snapshot was written
+     *         without
+     */
+    public TradingRecord getTradingRecord(CostModel transactionCostModel, CostModel holdingCostModel) {
+        if (startingType == null) {
+            return null;
+        }
+        TradingRecord record = new BaseTradingRecord(startingType, transactionCostModel, holdingCostModel);
+        for (Order order : orders) {
+            record.operate(order.getIndex(), order.getPricePerAsset(), order.getAmount());
+        }
+        return record;
+    }
+
+    /**
+     * Writes a num (e.g. in the {@link StatefulIndicator#writeState(DataOutput)
+     * state of an indicator}).
+     *
+     * @param out the output
+     * @param num the num (may be null)
+     * @throws IOException if the num cannot be written
+     */
+    public static void writeNum(DataOutput out, Num num) throws IOException {
+        if (num == null) {
+            out.writeByte(NULL);
+        } else if (num.isNaN()) {
+            out.writeByte(NAN);
+        } else if (num instanceof DoubleNum) {
+            out.writeByte(DOUBLE);
+            out.writeDouble(num.doubleValue());
+        } else if (num instanceof PrecisionNum) {
+            out.writeByte(DECIMAL);
+            out.writeInt(((PrecisionNum) num).getMathContext().getPrecision());
+            out.writeUTF(((BigDecimal) num.getDelegate()).toString());
+        } else {
+            throw new IllegalArgumentException("Unsupported num type: " + num.getClass().getName());
+        }
+    }
+
+    /**
+     * Reads a num written by {@link #writeNum(DataOutput, Num)}.
+     *
+     * @param in the input
+     * @return the num (may be null)
+     * @throws IOException if the num cannot be read
+     */
+    public static Num readNum(DataInput in) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+        case NULL:
+            return null;
+        case NAN:
+            return NaN;
+        case DOUBLE:
+            return DoubleNum.valueOf(in.readDouble());
+        case DECIMAL:
+            int precision = in.readInt();
+            return PrecisionNum.valueOf(new BigDecimal(in.readUTF()), precision);
+        default:
+            throw new StreamCorruptedException("Unknown num tag: " + tag);
+        }
+    }
+
+    private static List<Indicator<?>> indicatorsOf(Strategy strategy) {
+        return strategy == null ? Collections.emptyList() : IndicatorGraph.of(strategy).getIndicators();
+    }
+
+    /**
+     * The saved state of an indicator.
+     */
+    private static final class IndicatorState {
+
+        private final String className;
+
+        private final int firstIndex;
+
+        /**
+         * The cached values from the first index (null if not cached)
+         */
+        private final Object[] values;
+
+        /**
+         * The calculation state (null if not stateful)
+         */
+        private final byte[] state;
+
+        private IndicatorState(String className, int firstIndex, Object[] values, byte[] state) {
+            this.className = className;
+            this.firstIndex = firstIndex;
+            this.values = values;
+            this.state = state;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void restore(Indicator<?> indicator) {
+            if (values != null) {
+                CachedIndicator<Object> cachedIndicator = (CachedIndicator<Object>) indicator;
+                for (int i = 0; i < values.length; i++) {
+                    if (values[i] != null) {
+                        cachedIndicator.setCachedValue(firstIndex + i, values[i]);
+                    }
+                }
+            }
+            if (state != null) {
+                try {
+                    ((StatefulIndicator) indicator).readState(new DataInputStream(new ByteArrayInputStream(state)));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Cannot restore the state of " + indicator, e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Indicator holding calculation state besides its cached results (e.g. the
+ * trend of a Parabolic SAR). The state is saved and restored by a
+ * {@link StateSnapshot snapshot}.
+ *
+ * 除缓存结果外还保存计算状态的指标（例如抛物线SAR的趋势）。
+ */
+public interface StatefulIndicator {
+
+    /**
+     * Writes the calculation state.
+     *
+     * @param out the output
+     * @throws IOException if the state cannot be written
+     * @see StateSnapshot#writeNum(DataOutput, org.ta4j.core.num.Num)
+     */
+    void writeState(DataOutput out) throws IOException;
+
+    /**
+     * Reads the calculation state written by {@link #writeState(DataOutput)}.
+     *
+     * @param in the input
+     * @throws IOException if the state cannot be read
+     * @see StateSnapshot#readNum(DataInput)
+     */
+    void readState(DataInput in) throws IOException;
+}
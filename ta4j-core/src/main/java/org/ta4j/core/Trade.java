@@ -224,6 +224,13 @@ public class Trade implements Serializable {
         return (entry == null) && (exit == null);
     }
 
+    /**
+     * @return the type of the entry order of the trade
+     */
+    public OrderType getStartingType() {
+        return startingType;
+    }
+
     @Override
     public String toString() {
         return "Entry: " + entry + " exit: " + exit;
@@ -88,6 +88,8 @@ public class DurationBarAggregator implements BarAggregator {
                     "Cannot aggregate bars: the new timePeriod must be a multiplication of the actual timePeriod.");
         }
 
+        final long timePeriodNanos = timePeriod.toNanos();
+        final long actualNanos = actualDur.toNanos();
         int i = 0;
         final Num zero = bars.iterator().next().getOpenPrice().numOf(0);
         while (i < bars.size()) {
@@ -100,9 +102,9 @@ public class DurationBarAggregator implements BarAggregator {
             Num close = null;
             Num volume = zero;
             Num amount = zero;
-            Duration sumDur = Duration.ZERO;
+            long sumNanos = 0;
 
-            while (sumDur.compareTo(timePeriod) < 0) {
+            while (sumNanos < timePeriodNanos) {
                 if (i < bars.size()) {
                     bar = bars.get(i);
 
@@ -116,7 +118,7 @@ public class DurationBarAggregator implements BarAggregator {
                     volume = volume.plus(bar.getVolume());
                     amount = amount.plus(bar.getAmount());
                 }
-                sumDur = sumDur.plus(actualDur);
+                sumNanos += actualNanos;
                 i++;
             }
 
@@ -0,0 +1,259 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.aggregator;
+
+import org.ta4j.core.Bar;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.BaseBarSeries;
+import org.ta4j.core.Indicator;
+import org.ta4j.core.indicators.helpers.HigherTimeframeIndicator;
+import org.ta4j.core.num.Num;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Multi-timeframe bar series.
+ *
+ * Wraps a base {@link BarSeries} and maintains derived higher-timeframe series
+ * incrementally (through {@link TimeBarAggregator}s) as base bars arrive. For
+ * each base index, the index of the last <b>completed</b> higher-timeframe bar
+ * is recorded, so that the mapping is O(1) and never looks ahead: a
+ * higher-timeframe bar is only visible from the base bar ending its period (or
+ * from the first base bar of a later period, if the base series has gaps).
+ *
+ * Bars must be appended to the base series (directly or through
+ * {@link #addBar(Bar)}); replacing the last base bar is not supported.
+ *
+ * 多时间周期柱序列。随基础柱的到达增量维护更高时间周期的序列，并提供从基础索引到最近一根已完成的高周期柱的O(1)映射（无未来函数）。
+ */
+public class MultiTimeframeBarSeries {
+
+    private final BarSeries baseSeries;
+
+    private final Map<Duration, Timeframe> timeframes = new LinkedHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param baseSeries the base (lowest timeframe) bar series
+     */
+    public MultiTimeframeBarSeries(BarSeries baseSeries) {
+        if (baseSeries == null) {
+            throw new IllegalArgumentException("Base series must not be null");
+        }
+        this.baseSeries = baseSeries;
+    }
+
+    /**
+     * @return the base (lowest timeframe) bar series
+     */
+    public BarSeries getBaseSeries() {
+        return baseSeries;
+    }
+
+    /**
+     * Adds a higher timeframe. The bars already in the base series are
+     * aggregated immediately.
+     *
+     * @param timePeriod the time period of the higher-timeframe bars
+     * @return the derived series of the timeframe
+     */
+    public BarSeries addTimeframe(Duration timePeriod) {
+        Timeframe timeframe = timeframes.get(timePeriod);
+        if (timeframe == null) {
+            timeframe = new Timeframe(timePeriod);
+            timeframes.put(timePeriod, timeframe);
+            timeframe.update();
+        }
+        return timeframe.series;
+    }
+
+    /**
+     * @param timePeriod the time period of the higher timeframe
+     * @return the derived series of the timeframe
+     */
+    public BarSeries getSeries(Duration timePeriod) {
+        return getTimeframe(timePeriod).update().series;
+    }
+
+    /**
+     * @return the time periods of the higher timeframes
+     */
+    public Set<Duration> getTimeframes() {
+        return Collections.unmodifiableSet(timeframes.keySet());
+    }
+
+    /**
+     * Adds a bar to the base series and updates the higher timeframes.
+     *
+     * @param bar the base bar to be added
+     */
+    public void addBar(Bar bar) {
+        baseSeries.addBar(bar);
+        update();
+    }
+
+    /**
+     * Aggregates the base bars added since the last update into all the higher
+     * timeframes.
+     */
+    public void update() {
+        for (Timeframe timeframe : timeframes.values()) {
+            timeframe.update();
+        }
+    }
+
+    /**
+     * Maps a base index to the index of the last completed bar of a higher
+     * timeframe.
+     *
+     * @param timePeriod the time period of the higher timeframe
+     * @param baseIndex  the index in the base series
+     * @return the index in the higher-timeframe series, or -1 if no
+     *         higher-timeframe bar is completed at the base index
+     */
+    public int mapIndex(Duration timePeriod, int baseIndex) {
+        return getTimeframe(timePeriod).mapIndex(baseIndex);
+    }
+
+    /**
+     * Exposes an indicator built on a higher-timeframe series on the base
+     * timeframe (e.g. to be used in rules of a base timeframe strategy).
+     *
+     * @param timePeriod the time period of the higher timeframe
+     * @param indicator  an indicator built on {@link #getSeries(Duration)}
+     * @return the indicator on the base timeframe
+     */
+    public Indicator<Num> onBaseTimeframe(Duration timePeriod, Indicator<Num> indicator) {
+        Timeframe timeframe = getTimeframe(timePeriod);
+        if (indicator.getBarSeries() != timeframe.series) {
+            throw new IllegalArgumentException("Indicator must be built on the series of timeframe " + timePeriod);
+        }
+        return new HigherTimeframeIndicator(baseSeries, indicator, timeframe::mapIndex);
+    }
+
+    private Timeframe getTimeframe(Duration timePeriod) {
+        Timeframe timeframe = timeframes.get(timePeriod);
+        if (timeframe == null) {
+            throw new IllegalArgumentException("Unknown timeframe: " + timePeriod);
+        }
+        return timeframe;
+    }
+
+    /**
+     * A derived higher timeframe.
+     */
+    private class Timeframe {
+
+        private final BaseBarSeries series;
+
+        private final TimeBarAggregator aggregator;
+
+        /**
+         * mapping[i - offset] is the derived index for the base index i
+         */
+        private int[] mapping = new int[16];
+
+        private int offset = -1;
+
+        /**
+         * The first mapped base index (the previous base bars have been removed)
+         */
+        private int firstIndex = -1;
+
+        private int lastIndex = -1;
+
+        Timeframe(Duration timePeriod) {
+            this.series = new BaseBarSeries(baseSeries.getName() + "_" + timePeriod, baseSeries.function());
+            this.aggregator = new TimeBarAggregator(timePeriod, series);
+        }
+
+        Timeframe update() {
+            int endIndex = baseSeries.getEndIndex();
+            if (endIndex < 0 || endIndex <= lastIndex) {
+                return this;
+            }
+            // First base bar still in the series (older ones removed by the max bar
+            // count)
+            int availableIndex = Math.max(baseSeries.getBeginIndex(), baseSeries.getRemovedBarsCount());
+            if (firstIndex < 0) {
+                firstIndex = offset = availableIndex;
+                lastIndex = availableIndex - 1;
+            } else if (availableIndex > firstIndex) {
+                forget(availableIndex);
+            }
+            // Base bars removed before being aggregated are skipped
+            for (int i = Math.max(lastIndex + 1, firstIndex); i <= endIndex; i++) {
+                Bar bar = baseSeries.getBar(i);
+                aggregator.onBar(bar);
+                // The pending bar is completed once its period has elapsed
+                aggregator.onTime(bar.getEndTime());
+                record(i, series.getEndIndex());
+            }
+            lastIndex = endIndex;
+            return this;
+        }
+
+        /**
+         * Forgets the mapping of the removed base bars.
+         *
+         * @param newFirstIndex the first base index still in the series
+         */
+        private void forget(int newFirstIndex) {
+            firstIndex = newFirstIndex;
+            if (lastIndex < newFirstIndex) {
+                // All the mapped base bars removed
+                offset = newFirstIndex;
+                lastIndex = newFirstIndex - 1;
+            } else if (newFirstIndex - offset > mapping.length / 2) {
+                int removed = newFirstIndex - offset;
+                System.arraycopy(mapping, removed, mapping, 0, lastIndex - newFirstIndex + 1);
+                offset = newFirstIndex;
+            }
+        }
+
+        int mapIndex(int baseIndex) {
+            if (baseIndex > lastIndex) {
+                update();
+            }
+            if (baseIndex < firstIndex || baseIndex > lastIndex) {
+                return -1;
+            }
+            return mapping[baseIndex - offset];
+        }
+
+        private void record(int baseIndex, int derivedIndex) {
+            int position = baseIndex - offset;
+            if (position >= mapping.length) {
+                mapping = Arrays.copyOf(mapping, Math.max(position + 1, mapping.length * 2));
+            }
+            mapping[position] = derivedIndex;
+        }
+    }
+}
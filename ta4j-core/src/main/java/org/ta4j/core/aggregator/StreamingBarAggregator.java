@@ -0,0 +1,256 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.aggregator;
+
+import org.ta4j.core.Bar;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.BaseBar;
+import org.ta4j.core.num.Num;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.function.Consumer;
+
+/**
+ * Streaming bar aggregator.
+ *
+ * Consumes trades (or bars) incrementally and emits aggregated bars to a
+ * consumer (e.g. a live {@link BarSeries}) as soon as they are completed.
+ * Only the pending bar is held, in constant space: no input is buffered.
+ *
+ * Subclasses define when a bar is completed (by time, number of trades,
+ * volume, dollar value, price range...). Emitted bars have strictly increasing
+ * end times: a bar completed at the end time of the previous one (e.g. several
+ * tick bars completed by trades of the same timestamp) stays pending, and
+ * absorbs the following events, until time advances.
+ *
+ * 流式柱聚合器。增量地消费交易（或柱），在聚合柱完成时立即发出。只保存待完成的柱，不缓存任何输入。
+ */
+public abstract class StreamingBarAggregator {
+
+    /**
+     * The consumer of the completed bars
+     */
+    private final Consumer<Bar> barConsumer;
+
+    /**
+     * State of the pending bar (no pending bar if open price is null)
+     */
+    protected ZonedDateTime beginTime;
+    protected ZonedDateTime endTime;
+    protected Num openPrice;
+    protected Num highPrice;
+    protected Num lowPrice;
+    protected Num closePrice;
+    protected Num volume;
+    protected Num amount;
+    protected int trades;
+
+    /**
+     * Number of emitted bars
+     */
+    private long barCount;
+
+    /**
+     * End time of the last emitted bar (null if none)
+     */
+    private ZonedDateTime lastEndTime;
+
+    /**
+     * Constructor.
+     *
+     * @param barConsumer the consumer of the completed bars
+     */
+    protected StreamingBarAggregator(Consumer<Bar> barConsumer) {
+        this.barConsumer = barConsumer;
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param series the series the completed bars are added to
+     */
+    protected StreamingBarAggregator(BarSeries series) {
+        this((Consumer<Bar>) series::addBar);
+    }
+
+    /**
+     * Consumes a trade.
+     *
+     * @param time        the time of the trade
+     * @param tradePrice  the price of the trade
+     * @param tradeVolume the traded volume
+     */
+    public void onTrade(ZonedDateTime time, Num tradePrice, Num tradeVolume) {
+        onEvent(time, time, tradePrice, tradePrice, tradePrice, tradePrice, tradeVolume,
+                tradeVolume.multipliedBy(tradePrice), 1);
+    }
+
+    /**
+     * Consumes a bar (e.g. a bar of a lower time frame).
+     *
+     * @param bar the bar
+     */
+    public void onBar(Bar bar) {
+        onEvent(bar.getBeginTime(), bar.getEndTime(), bar.getOpenPrice(), bar.getHighPrice(), bar.getLowPrice(),
+                bar.getClosePrice(), bar.getVolume(), bar.getAmount(), Math.max(1, bar.getTrades()));
+    }
+
+    /**
+     * Notifies the aggregator of the passing of time (e.g. on a clock tick when no
+     * trade occurs). Does nothing by default.
+     *
+     * @param time the current time
+     */
+    public void onTime(ZonedDateTime time) {
+    }
+
+    /**
+     * Emits the pending bar, even if it is not completed (unless it ends at the
+     * end time of the last emitted bar: then it stays pending).
+     */
+    public void flush() {
+        if (hasPendingBar() && isEmittable()) {
+            emit();
+        }
+    }
+
+    /**
+     * @return true if a bar is pending (i.e. at least one event has been
+     *         consumed since the last emitted bar)
+     */
+    public boolean hasPendingBar() {
+        return openPrice != null;
+    }
+
+    /**
+     * @return the number of emitted bars
+     */
+    public long getBarCount() {
+        return barCount;
+    }
+
+    private void onEvent(ZonedDateTime eventBeginTime, ZonedDateTime eventEndTime, Num open, Num high, Num low,
+            Num close, Num eventVolume, Num eventAmount, int eventTrades) {
+        if (hasPendingBar() && startsNewBar(eventBeginTime, high, low) && isEmittable()) {
+            emit();
+        }
+        if (!hasPendingBar()) {
+            beginTime = eventBeginTime;
+            openPrice = open;
+            highPrice = high;
+            lowPrice = low;
+            volume = eventVolume;
+            amount = eventAmount;
+            trades = eventTrades;
+            onBarStarted(eventBeginTime);
+        } else {
+            if (high.isGreaterThan(highPrice)) {
+                highPrice = high;
+            }
+            if (low.isLessThan(lowPrice)) {
+                lowPrice = low;
+            }
+            volume = volume.plus(eventVolume);
+            amount = amount.plus(eventAmount);
+            trades += eventTrades;
+        }
+        endTime = eventEndTime;
+        closePrice = close;
+        if (isCompleted() && isEmittable()) {
+            emit();
+        }
+    }
+
+    /**
+     * Emits the pending bar and resets the state.
+     */
+    protected void emit() {
+        Duration timePeriod = getBarTimePeriod();
+        Bar bar = new BaseBar(timePeriod, getBarEndTime(), openPrice, highPrice, lowPrice, closePrice, volume,
+                amount, trades);
+        openPrice = null;
+        highPrice = null;
+        lowPrice = null;
+        closePrice = null;
+        volume = null;
+        amount = null;
+        trades = 0;
+        barCount++;
+        lastEndTime = bar.getEndTime();
+        barConsumer.accept(bar);
+    }
+
+    /**
+     * @return true if the pending bar ends after the last emitted bar
+     */
+    private boolean isEmittable() {
+        return lastEndTime == null || getBarEndTime().isAfter(lastEndTime);
+    }
+
+    /**
+     * Called when a new bar is started.
+     *
+     * @param time the begin time of the first event of the bar
+     */
+    protected void onBarStarted(ZonedDateTime time) {
+    }
+
+    /**
+     * Called before an event is added to the pending bar.
+     *
+     * @param time the begin time of the event
+     * @param high the high price of the event
+     * @param low  the low price of the event
+     * @return true if the pending bar must be emitted before the event is added
+     */
+    protected boolean startsNewBar(ZonedDateTime time, Num high, Num low) {
+        return false;
+    }
+
+    /**
+     * Called after an event has been added to the pending bar.
+     *
+     * @return true if the pending bar is completed and must be emitted
+     */
+    protected boolean isCompleted() {
+        return false;
+    }
+
+    /**
+     * @return the end time of the bar to be emitted (by default the end time of its
+     *         last event)
+     */
+    protected ZonedDateTime getBarEndTime() {
+        return endTime;
+    }
+
+    /**
+     * @return the time period of the bar to be emitted (by default from the begin
+     *         time of its first event to the end time of its last one)
+     */
+    protected Duration getBarTimePeriod() {
+        return Duration.between(beginTime, endTime);
+    }
+}
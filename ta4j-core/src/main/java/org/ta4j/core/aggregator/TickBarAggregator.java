@@ -0,0 +1,70 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.aggregator;
+
+import org.ta4j.core.Bar;
+import org.ta4j.core.BarSeries;
+
+import java.util.function.Consumer;
+
+/**
+ * Streaming tick-count bar aggregator.
+ *
+ * A bar is completed as soon as its number of trades reaches the threshold.
+ *
+ * 按成交笔数聚合的流式柱聚合器。
+ */
+public class TickBarAggregator extends StreamingBarAggregator {
+
+    private final int tradeCount;
+
+    /**
+     * Constructor.
+     *
+     * @param tradeCount  the number of trades of a bar
+     * @param barConsumer the consumer of the completed bars
+     */
+    public TickBarAggregator(int tradeCount, Consumer<Bar> barConsumer) {
+        super(barConsumer);
+        if (tradeCount <= 0) {
+            throw new IllegalArgumentException("Trade count must be strictly positive");
+        }
+        this.tradeCount = tradeCount;
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param tradeCount the number of trades of a bar
+     * @param series     the series the completed bars are added to
+     */
+    public TickBarAggregator(int tradeCount, BarSeries series) {
+        this(tradeCount, (Consumer<Bar>) series::addBar);
+    }
+
+    @Override
+    protected boolean isCompleted() {
+        return trades >= tradeCount;
+    }
+}
@@ -0,0 +1,124 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.aggregator;
+
+import org.ta4j.core.Bar;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.num.Num;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.function.Consumer;
+
+/**
+ * Streaming time bar aggregator.
+ *
+ * Bars are aligned on multiples of the time period since the epoch (e.g. 5
+ * minute bars begin at :00, :05, :10...). Events are assigned to the bar of
+ * their begin time. A bar is completed when an event (or a
+ * {@link #onTime(ZonedDateTime) clock tick}) of a later period arrives.
+ *
+ * Unlike {@link DurationBarAggregator}, no fully materialized list of bars is
+ * needed.
+ *
+ * 按时间段聚合的流式柱聚合器。
+ */
+public class TimeBarAggregator extends StreamingBarAggregator {
+
+    private final Duration timePeriod;
+
+    private final long periodNanos;
+
+    /**
+     * The period number of the pending bar
+     */
+    private long currentPeriod;
+
+    /**
+     * Constructor.
+     *
+     * @param timePeriod  the time period of a bar
+     * @param barConsumer the consumer of the completed bars
+     */
+    public TimeBarAggregator(Duration timePeriod, Consumer<Bar> barConsumer) {
+        super(barConsumer);
+        if (timePeriod.isNegative() || timePeriod.isZero()) {
+            throw new IllegalArgumentException("Time period must be strictly positive");
+        }
+        this.timePeriod = timePeriod;
+        this.periodNanos = timePeriod.toNanos();
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param timePeriod the time period of a bar
+     * @param series     the series the completed bars are added to
+     */
+    public TimeBarAggregator(Duration timePeriod, BarSeries series) {
+        this(timePeriod, (Consumer<Bar>) series::addBar);
+    }
+
+    @Override
+    public void onTime(ZonedDateTime time) {
+        if (hasPendingBar() && !time.isBefore(getBarEndTime())) {
+            emit();
+        }
+    }
+
+    @Override
+    protected void onBarStarted(ZonedDateTime time) {
+        currentPeriod = periodOf(time);
+    }
+
+    @Override
+    protected boolean startsNewBar(ZonedDateTime time, Num high, Num low) {
+        return periodOf(time) != currentPeriod;
+    }
+
+    @Override
+    protected ZonedDateTime getBarEndTime() {
+        return getBarBeginTime().plus(timePeriod);
+    }
+
+    @Override
+    protected Duration getBarTimePeriod() {
+        return timePeriod;
+    }
+
+    /**
+     * @return the aligned begin time of the pending bar
+     */
+    private ZonedDateTime getBarBeginTime() {
+        Instant begin = Instant.EPOCH.plusNanos(Math.multiplyExact(currentPeriod, periodNanos));
+        return ZonedDateTime.ofInstant(begin, beginTime.getZone());
+    }
+
+    private long periodOf(ZonedDateTime time) {
+        Instant instant = time.toInstant();
+        long nanos = Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000_000L), instant.getNano());
+        return Math.floorDiv(nanos, periodNanos);
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.analysis;
+
+import org.ta4j.core.AnalysisCriterion;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.Trade;
+import org.ta4j.core.num.Num;
+
+import java.util.function.BinaryOperator;
+
+/**
+ * Incremental accumulator of an {@link AnalysisCriterion criterion}.
+ *
+ * Folds the per-trade values of a criterion over the closed trades it is fed
+ * with, so that the criterion value of a growing trading record can be updated
+ * without recalculating it over all trades. It fits criteria whose value for a
+ * trading record is the sum (e.g. profit/loss, number of bars) or the product
+ * (e.g. total profit) of their values for each trade.
+ *
+ * 分析标准的增量累加器。
+ */
+public class CriterionAccumulator {
+
+    private final AnalysisCriterion criterion;
+
+    private final BinaryOperator<Num> combiner;
+
+    private final Number identity;
+
+    private Num value;
+
+    private int tradeCount;
+
+    /**
+     * Constructor.
+     *
+     * @param criterion the criterion to be accumulated
+     * @param combiner  the function combining the accumulated value with the
+     *                  value of a new trade
+     * @param identity  the value for no trade
+     */
+    public CriterionAccumulator(AnalysisCriterion criterion, BinaryOperator<Num> combiner, Number identity) {
+        this.criterion = criterion;
+        this.combiner = combiner;
+        this.identity = identity;
+    }
+
+    /**
+     * @param criterion a criterion whose value is the sum over the trades
+     * @return an accumulator summing the trade values of the criterion
+     */
+    public static CriterionAccumulator sum(AnalysisCriterion criterion) {
+        return new CriterionAccumulator(criterion, Num::plus, 0);
+    }
+
+    /**
+     * @param criterion a criterion whose value is the product over the trades
+     * @return an accumulator multiplying the trade values of the criterion
+     */
+    public static CriterionAccumulator product(AnalysisCriterion criterion) {
+        return new CriterionAccumulator(criterion, Num::multipliedBy, 1);
+    }
+
+    /**
+     * Accumulates a closed trade.
+     *
+     * @param series the bar series
+     * @param trade  a closed trade
+     */
+    public void accept(BarSeries series, Trade trade) {
+        Num tradeValue = criterion.calculate(series, trade);
+        value = combiner.apply(getValue(series), tradeValue);
+        tradeCount++;
+    }
+
+    /**
+     * @param series the bar series
+     * @return the accumulated value (the identity if no trade has been accumulated)
+     */
+    public Num getValue(BarSeries series) {
+        return value == null ? series.numOf(identity) : value;
+    }
+
+    /**
+     * @return the number of accumulated trades
+     */
+    public int getTradeCount() {
+        return tradeCount;
+    }
+
+    /**
+     * @return the accumulated criterion
+     */
+    public AnalysisCriterion getCriterion() {
+        return criterion;
+    }
+}
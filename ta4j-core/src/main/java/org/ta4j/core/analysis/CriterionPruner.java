@@ -0,0 +1,310 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.analysis;
+
+import org.ta4j.core.AnalysisCriterion;
+import org.ta4j.core.BacktestPruner;
+import org.ta4j.core.Bar;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.TradingRecord;
+import org.ta4j.core.num.Num;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+
+/**
+ * A {@link BacktestPruner pruner} based on an {@link AnalysisCriterion
+ * criterion}.
+ *
+ * Every <code>checkpointInterval</code> bars the criterion is calculated over
+ * the bars processed so far. The run is aborted if this running value is worse
+ * than:
+ * <ul>
+ * <li>a fixed threshold, or
+ * <li>the worst of the current top-N final values (among the completed runs
+ * sharing this pruner)
+ * </ul>
+ * Pruning is exact for criteria which can only get worse during a run (e.g.
+ * {@link org.ta4j.core.analysis.criteria.MaximumDrawdownCriterion maximum
+ * drawdown}) and a heuristic for the other ones (e.g. profit, number of trades,
+ * {@link org.ta4j.core.analysis.criteria.VersusBuyAndHoldCriterion versus buy
+ * and hold}).
+ *
+ * A top-N pruner may be shared by concurrent runs.
+ *
+ * 基于分析标准的剪枝器。在每个检查点计算至今的标准值，若比固定阈值或当前前N名中最差的值还差，则终止回测。
+ */
+public class CriterionPruner implements BacktestPruner {
+
+    private final AnalysisCriterion criterion;
+
+    private final int checkpointInterval;
+
+    /**
+     * The fixed threshold (null for top-N pruning)
+     */
+    private final Num threshold;
+
+    /**
+     * The number of best final values to keep (0 for a fixed threshold)
+     */
+    private final int topN;
+
+    /**
+     * The best final values; the worst one is at the head
+     */
+    private final PriorityQueue<Num> bestValues;
+
+    /**
+     * Constructor for pruning against a fixed threshold.
+     *
+     * @param criterion          the criterion to be evaluated
+     * @param threshold          a run is aborted if its running criterion value
+     *                           is worse than this threshold
+     * @param checkpointInterval the number of bars between two checkpoints
+     */
+    public CriterionPruner(AnalysisCriterion criterion, Num threshold, int checkpointInterval) {
+        this(criterion, threshold, 0, checkpointInterval);
+    }
+
+    /**
+     * Constructor for pruning against the current top-N.
+     *
+     * @param criterion          the criterion to be evaluated
+     * @param topN               a run is aborted if its running criterion value is
+     *                           worse than the N-th best final value
+     * @param checkpointInterval the number of bars between two checkpoints
+     */
+    public CriterionPruner(AnalysisCriterion criterion, int topN, int checkpointInterval) {
+        this(criterion, null, topN, checkpointInterval);
+    }
+
+    private CriterionPruner(AnalysisCriterion criterion, Num threshold, int topN, int checkpointInterval) {
+        if (criterion == null) {
+            throw new IllegalArgumentException("Criterion cannot be null");
+        }
+        if (threshold == null && topN <= 0) {
+            throw new IllegalArgumentException("Top-N must be strictly positive");
+        }
+        if (checkpointInterval <= 0) {
+            throw new IllegalArgumentException("Checkpoint interval must be strictly positive");
+        }
+        this.criterion = criterion;
+        this.threshold = threshold;
+        this.topN = topN;
+        this.checkpointInterval = checkpointInterval;
+        this.bestValues = new PriorityQueue<>(Math.max(1, topN), this::compareWorstFirst);
+    }
+
+    @Override
+    public boolean shouldPrune(BarSeries series, TradingRecord tradingRecord, int index) {
+        if (index <= series.getBeginIndex() || (index - series.getBeginIndex()) % checkpointInterval != 0) {
+            return false;
+        }
+        Num limit = getThreshold();
+        if (limit == null) {
+            // Top-N not filled yet
+            return false;
+        }
+        Num runningValue = criterion.calculate(partialSeries(series, index), tradingRecord);
+        return criterion.betterThan(limit, runningValue);
+    }
+
+    @Override
+    public void runCompleted(BarSeries series, TradingRecord tradingRecord) {
+        if (topN > 0) {
+            Num finalValue = criterion.calculate(series, tradingRecord);
+            synchronized (bestValues) {
+                bestValues.add(finalValue);
+                if (bestValues.size() > topN) {
+                    bestValues.poll();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the current pruning threshold (null if the top-N is not filled yet)
+     */
+    public Num getThreshold() {
+        if (topN == 0) {
+            return threshold;
+        }
+        synchronized (bestValues) {
+            return bestValues.size() < topN ? null : bestValues.peek();
+        }
+    }
+
+    /**
+     * @return the criterion evaluated by this pruner
+     */
+    public AnalysisCriterion getCriterion() {
+        return criterion;
+    }
+
+    /**
+     * @param series the bar series of the run
+     * @param index  the index of the last processed bar
+     * @return a view of the series ending at the index (no bar is copied)
+     */
+    private static BarSeries partialSeries(BarSeries series, int index) {
+        return index >= series.getEndIndex() ? series : new PartialBarSeries(series, index);
+    }
+
+    private int compareWorstFirst(Num value1, Num value2) {
+        if (criterion.betterThan(value1, value2)) {
+            return 1;
+        }
+        if (criterion.betterThan(value2, value1)) {
+            return -1;
+        }
+        return 0;
+    }
+
+    /**
+     * Read-only view of a bar series ending at a given index, with the same
+     * indexes as the series: the criterion never sees the bars after a checkpoint.
+     */
+    private static final class PartialBarSeries implements BarSeries {
+
+        private static final long serialVersionUID = -2716412403364523807L;
+
+        private final BarSeries series;
+
+        private final int endIndex;
+
+        private PartialBarSeries(BarSeries series, int endIndex) {
+            this.series = series;
+            this.endIndex = endIndex;
+        }
+
+        @Override
+        public String getName() {
+            return series.getName();
+        }
+
+        @Override
+        public Bar getBar(int i) {
+            if (i > endIndex) {
+                throw new IndexOutOfBoundsException("Index " + i + " is after the end index " + endIndex);
+            }
+            return series.getBar(i);
+        }
+
+        @Override
+        public int getBarCount() {
+            return Math.max(0, endIndex - getFirstIndex() + 1);
+        }
+
+        @Override
+        public List<Bar> getBarData() {
+            return series.getBarData().subList(0, getBarCount());
+        }
+
+        @Override
+        public int getBeginIndex() {
+            return series.getBeginIndex();
+        }
+
+        @Override
+        public int getEndIndex() {
+            return endIndex;
+        }
+
+        @Override
+        public int getMaximumBarCount() {
+            return series.getMaximumBarCount();
+        }
+
+        @Override
+        public void setMaximumBarCount(int maximumBarCount) {
+            throw new UnsupportedOperationException("Read-only view");
+        }
+
+        @Override
+        public int getRemovedBarsCount() {
+            return series.getRemovedBarsCount();
+        }
+
+        @Override
+        public void addBar(Bar bar, boolean replace) {
+            throw new UnsupportedOperationException("Read-only view");
+        }
+
+        @Override
+        public void addBar(Duration timePeriod, ZonedDateTime endTime) {
+            throw new UnsupportedOperationException("Read-only view");
+        }
+
+        @Override
+        public void addBar(ZonedDateTime endTime, Num openPrice, Num highPrice, Num lowPrice, Num closePrice,
+                Num volume, Num amount) {
+            throw new UnsupportedOperationException("Read-only view");
+        }
+
+        @Override
+        public void addBar(Duration timePeriod, ZonedDateTime endTime, Num openPrice, Num highPrice, Num lowPrice,
+                Num closePrice, Num volume) {
+            throw new UnsupportedOperationException("Read-only view");
+        }
+
+        @Override
+        public void addBar(Duration timePeriod, ZonedDateTime endTime, Num openPrice, Num highPrice, Num lowPrice,
+                Num closePrice, Num volume, Num amount) {
+            throw new UnsupportedOperationException("Read-only view");
+        }
+
+        @Override
+        public void addTrade(Num tradeVolume, Num tradePrice) {
+            throw new UnsupportedOperationException("Read-only view");
+        }
+
+        @Override
+        public void addPrice(Num price) {
+            throw new UnsupportedOperationException("Read-only view");
+        }
+
+        @Override
+        public BarSeries getSubSeries(int startIndex, int endIndex) {
+            return series.getSubSeries(startIndex, Math.min(endIndex, this.endIndex + 1));
+        }
+
+        @Override
+        public Num numOf(Number number) {
+            return series.numOf(number);
+        }
+
+        @Override
+        public Function<Number, Num> function() {
+            return series.function();
+        }
+
+        private int getFirstIndex() {
+            return Math.max(series.getBeginIndex(), series.getRemovedBarsCount());
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.events;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Decision of a rule or a strategy at a bar index.
+ *
+ * 规则或策略在某个柱索引上的决策。
+ */
+public final class DecisionEvent {
+
+    /**
+     * The kind of decision
+     */
+    public enum Type {
+        /** Rule#isSatisfied() */
+        RULE,
+        /** Strategy#shouldEnter() */
+        ENTRY,
+        /** Strategy#shouldExit() */
+        EXIT
+    }
+
+    private final Object source;
+
+    private final Type type;
+
+    private final int index;
+
+    private final boolean satisfied;
+
+    private final Map<String, Object> details;
+
+    /**
+     * Constructor.
+     *
+     * @param source    the evaluated rule or strategy
+     * @param type      the kind of decision
+     * @param index     the bar index
+     * @param satisfied the result of the evaluation
+     * @param details   the values the decision was based on (by name)
+     */
+    public DecisionEvent(Object source, Type type, int index, boolean satisfied, Map<String, Object> details) {
+        if (source == null || type == null) {
+            throw new IllegalArgumentException("Source and type must not be null");
+        }
+        this.source = source;
+        this.type = type;
+        this.index = index;
+        this.satisfied = satisfied;
+        this.details = details == null || details.isEmpty() ? Collections.emptyMap()
+                : Collections.unmodifiableMap(new LinkedHashMap<>(details));
+    }
+
+    /**
+     * @return the evaluated rule or strategy
+     */
+    public Object getSource() {
+        return source;
+    }
+
+    /**
+     * @return the kind of decision
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return the bar index
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return true if the rule is satisfied or the strategy should enter/exit
+     */
+    public boolean isSatisfied() {
+        return satisfied;
+    }
+
+    /**
+     * @return the values the decision was based on (by name, in insertion order)
+     */
+    public Map<String, Object> getDetails() {
+        return details;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        if (type != Type.RULE) {
+            sb.append(">>> ");
+        }
+        sb.append(source.getClass().getSimpleName()).append('#');
+        switch (type) {
+        case ENTRY:
+            sb.append("shouldEnter");
+            break;
+        case EXIT:
+            sb.append("shouldExit");
+            break;
+        default:
+            sb.append("isSatisfied");
+        }
+        sb.append('(').append(index).append("): ").append(satisfied);
+        for (Map.Entry<String, Object> detail : details.entrySet()) {
+            sb.append(", ").append(detail.getKey()).append(": ").append(detail.getValue());
+        }
+        return sb.toString();
+    }
+}
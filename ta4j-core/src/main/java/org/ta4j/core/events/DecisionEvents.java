@@ -0,0 +1,63 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.events;
+
+/**
+ * Holder of the global {@link DecisionListener decision listener}.
+ *
+ * Decision events are disabled by default: rules and strategies then only
+ * compare the installed listener with {@link DecisionListener#NONE} and neither
+ * create events nor evaluate their details.
+ *
+ * 全局决策监听器的持有者。默认禁用决策事件。
+ */
+public final class DecisionEvents {
+
+    private static volatile DecisionListener listener = DecisionListener.NONE;
+
+    private DecisionEvents() {
+    }
+
+    /**
+     * @return the decision listener ({@link DecisionListener#NONE} if disabled)
+     */
+    public static DecisionListener getListener() {
+        return listener;
+    }
+
+    /**
+     * @param decisionListener the decision listener (null to disable decision
+     *                         events)
+     */
+    public static void setListener(DecisionListener decisionListener) {
+        listener = decisionListener == null ? DecisionListener.NONE : decisionListener;
+    }
+
+    /**
+     * @return true if a decision listener is installed
+     */
+    public static boolean isEnabled() {
+        return listener != DecisionListener.NONE;
+    }
+}
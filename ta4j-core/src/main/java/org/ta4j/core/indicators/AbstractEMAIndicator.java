@@ -47,13 +47,19 @@ public abstract class AbstractEMAIndicator extends RecursiveCachedIndicator<Num>
 
     @Override
     protected Num calculate(int index) {
-        if (index == 0) {
-            return indicator.getValue(0);
+        if (index <= getStartIndex()) {
+            return indicator.getValue(index);
         }
         Num prevValue = getValue(index - 1);
         return indicator.getValue(index).minus(prevValue).multipliedBy(multiplier).plus(prevValue);
     }
 
+    @Override
+    public int getLookback() {
+        return Lookback.plus(Lookback.convergence(1 - multiplier.doubleValue(), Lookback.DEFAULT_EPSILON),
+                Lookback.ofInputs(this));
+    }
+
     @Override
     public String toString() {
         return getClass().getSimpleName() + " barCount: " + barCount;
@@ -89,6 +89,11 @@ public class AroonDownIndicator extends CachedIndicator<Num> {
         return numOf(barCount - nbBars).dividedBy(numOf(barCount)).multipliedBy(hundred);
     }
 
+    @Override
+    public int getLookback() {
+        return Lookback.plus(barCount, Lookback.ofInputs(this));
+    }
+
     @Override
     public String toString() {
         return getClass().getSimpleName() + " barCount: " + barCount;
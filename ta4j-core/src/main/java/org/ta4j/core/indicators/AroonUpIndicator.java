@@ -88,6 +88,11 @@ public class AroonUpIndicator extends CachedIndicator<Num> {
         return numOf(barCount - nbBars).dividedBy(numOf(barCount)).multipliedBy(hundred);
     }
 
+    @Override
+    public int getLookback() {
+        return Lookback.plus(barCount, Lookback.ofInputs(this));
+    }
+
     @Override
     public String toString() {
         return getClass().getSimpleName() + " barCount: " + barCount;
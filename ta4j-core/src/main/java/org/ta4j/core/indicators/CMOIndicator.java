@@ -69,4 +69,9 @@ public class CMOIndicator extends CachedIndicator<Num> {
         }
         return sumOfGains.minus(sumOfLosses).dividedBy(sumOfGains.plus(sumOfLosses)).multipliedBy(numOf(100));
     }
+
+    @Override
+    public int getLookback() {
+        return Lookback.window(this, barCount);
+    }
 }
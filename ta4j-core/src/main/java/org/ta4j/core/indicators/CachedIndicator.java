@@ -25,10 +25,12 @@ package org.ta4j.core.indicators;
 
 import org.ta4j.core.BarSeries;
 import org.ta4j.core.Indicator;
-
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import org.ta4j.core.indicators.cache.CacheManager;
+import org.ta4j.core.indicators.cache.CachePolicy;
+import org.ta4j.core.indicators.cache.ResultCache;
+import org.ta4j.core.indicators.cache.ResultStore;
+import org.ta4j.core.metrics.Metrics;
+import org.ta4j.core.metrics.MetricsCollector;
 
 /**
  * Cached {@link Indicator indicator}.
@@ -40,6 +42,10 @@ import java.util.List;
  * 因此，已经为ta4j提供的所有指标实施了缓存机制。 该系统避免两次计算相同的值。 
  * 因此，如果已经计算出一个值，则下次请求该值时将从缓存中检索该值。 最后一个柱的值将不会被缓存。 
  * 这样，您可以通过向其添加价格/交易来修改TimeSeries的最后一个柱，并使用指标重新计算结果。
+ *
+ * The results are stored according to a {@link CachePolicy cache policy}: the
+ * policy of the indicator if set, else the global policy if set, else the
+ * default policy of the indicator type.
  * @param <T>
  */
 public abstract class CachedIndicator<T> extends AbstractIndicator<T> {
@@ -47,10 +53,31 @@ public abstract class CachedIndicator<T> extends AbstractIndicator<T> {
     private static final long serialVersionUID = 7505855220893125595L;
 
     /**
-     * List of cached results
-     * 缓存结果列表
+     * The cache policy of all the indicators without their own policy (null for
+     * the defaults of the indicator types)
+     */
+    private static volatile CachePolicy globalCachePolicy;
+
+    /**
+     * The manager of the caches created from now on (null if none)
+     */
+    private static volatile CacheManager cacheManager;
+
+    /**
+     * The on-disk store of the caches created from now on (null if none)
+     */
+    private static volatile ResultStore resultStore;
+
+    /**
+     * The cache policy of this indicator (null if not set)
+     */
+    private CachePolicy cachePolicy;
+
+    /**
+     * Cached results (created on first use)
+     * 缓存结果
      */
-    private final List<T> results = new ArrayList<>();
+    private transient ResultCache<T> results;
 
     /**
      * Should always be the index of the last result in the results list. I.E. the last calculated result.
@@ -58,6 +85,12 @@ public abstract class CachedIndicator<T> extends AbstractIndicator<T> {
      */
     protected int highestResultIndex = -1;
 
+    /**
+     * The {@link BarSeries#getModificationCount() modification count} of the
+     * series the cached results are valid for
+     */
+    private long seriesModificationCount;
+
     /**
      * Constructor.
      *
@@ -65,6 +98,7 @@ public abstract class CachedIndicator<T> extends AbstractIndicator<T> {
      */
     public CachedIndicator(BarSeries series) {
         super(series);
+        this.seriesModificationCount = series == null ? 0 : series.getModificationCount();
     }
 
     /**
@@ -83,60 +117,69 @@ public abstract class CachedIndicator<T> extends AbstractIndicator<T> {
      */
     @Override
     public T getValue(int index) {
+        final MetricsCollector metrics = Metrics.getCollector();
         BarSeries series = getBarSeries();
         if (series == null) {
             // Series is null; the indicator doesn't need cache.    柱序列为空；指标不需要缓存
             // (e.g. simple computation of the value)		    （例如，简单地计算值）
             // --> Calculating the value
-            return calculate(index);
+            return calculate(index, metrics);
         }
 
         // Series is not null
 	// 柱序列不为空
+        invalidateChangedResults(series);
         final int removedBarsCount = series.getRemovedBarsCount();
         final int maximumResultCount = series.getMaximumBarCount();
+        final ResultCache<T> cache = getResultCache();
 
         T result;
         if (index < removedBarsCount) {
             // Result already removed from cache
-            log.trace("{}: result from bar {} already removed from cache, use {}-th instead",
-                    getClass().getSimpleName(), index, removedBarsCount);
-            increaseLengthTo(removedBarsCount, maximumResultCount);
-            highestResultIndex = removedBarsCount;
-            result = results.get(0);
+            metrics.removedResultRequested(this, index, removedBarsCount);
+            result = cache.get(removedBarsCount);
             if (result == null) {
+                metrics.cacheMiss(this, removedBarsCount);
                 // It should be "result = calculate(removedBarsCount);".
                 // We use "result = calculate(0);" as a workaround
                 // to fix issue #120 (https://github.com/mdeverdelhan/ta4j/issues/120).
-                result = calculate(0);
-                results.set(0, result);
+                result = calculate(0, metrics);
+                cache.put(removedBarsCount, result, maximumResultCount);
+            } else {
+                metrics.cacheHit(this, removedBarsCount);
             }
+        } else if (index == series.getEndIndex()) {
+            // Don't cache result if last bar
+            result = calculate(index, metrics);
         } else {
-            if (index == series.getEndIndex()) {
-                // Don't cache result if last bar
-                result = calculate(index);
+            result = cache.get(index);
+            if (result == null) {
+                metrics.cacheMiss(this, index);
+                result = calculate(index, metrics);
+                cache.put(index, result, maximumResultCount);
             } else {
-                increaseLengthTo(index, maximumResultCount);
-                if (index > highestResultIndex) {
-                    // Result not calculated yet
-                    highestResultIndex = index;
-                    result = calculate(index);
-                    results.set(results.size() - 1, result);
-                } else {
-                    // Result covered by current cache
-                    int resultInnerIndex = results.size() - 1 - (highestResultIndex - index);
-                    result = results.get(resultInnerIndex);
-                    if (result == null) {
-                        result = calculate(index);
-                        results.set(resultInnerIndex, result);
-                    }
-                }
+                metrics.cacheHit(this, index);
             }
-
         }
+        highestResultIndex = cache.getHighestIndex();
         return result;
     }
 
+    /**
+     * Calculates a value, reporting the calculation to the metrics collector.
+     */
+    private T calculate(int index, MetricsCollector metrics) {
+        if (metrics == MetricsCollector.NO_OP) {
+            return calculate(index);
+        }
+        metrics.calculationStarted(this, index);
+        try {
+            return calculate(index);
+        } finally {
+            metrics.calculationEnded(this, index);
+        }
+    }
+
     /**
      * @param index the bar index
      * @return the value of the indicator
@@ -144,42 +187,173 @@ public abstract class CachedIndicator<T> extends AbstractIndicator<T> {
     protected abstract T calculate(int index);
 
     /**
-     * Increases the size of cached results buffer.
+     * Removes the cached results from an index (e.g. after a correction of the
+     * bar at this index). Indicators of the same series are invalidated
+     * automatically when bars are replaced in the series.
      *
-     * @param index     the index to increase length to
-     * @param maxLength the maximum length of the results buffer
-     */
-    private void increaseLengthTo(int index, int maxLength) {
-        if (highestResultIndex > -1) {
-            int newResultsCount = Math.min(index - highestResultIndex, maxLength);
-            if (newResultsCount == maxLength) {
-                results.clear();
-                results.addAll(Collections.nCopies(maxLength, null));
-            } else if (newResultsCount > 0) {
-                results.addAll(Collections.nCopies(newResultsCount, null));
-                removeExceedingResults(maxLength);
-            }
-        } else {
-            // First use of cache
-            assert results.isEmpty() : "Cache results list should be empty";
-            results.addAll(Collections.nCopies(Math.min(index + 1, maxLength), null));
+     * @param index the lowest index of the results to be removed
+     * @see BarSeries#getModificationCount()
+     */
+    public void invalidateFrom(int index) {
+        if (results != null) {
+            results.invalidateFrom(index);
+            highestResultIndex = results.getHighestIndex();
+        }
+    }
+
+    /**
+     * Removes the cached results from the lowest index changed in the series
+     * since the last check.
+     *
+     * @param series the bar series
+     */
+    protected void invalidateChangedResults(BarSeries series) {
+        long modificationCount = series.getModificationCount();
+        if (modificationCount != seriesModificationCount) {
+            invalidateFrom(series.getLowestChangedIndex(seriesModificationCount));
+            seriesModificationCount = modificationCount;
+        }
+    }
+
+    /**
+     * Sets the cache policy of this indicator. The cached results are removed.
+     *
+     * @param cachePolicy the cache policy (null for the global or default policy)
+     */
+    public void setCachePolicy(CachePolicy cachePolicy) {
+        this.cachePolicy = cachePolicy;
+        results = null;
+        highestResultIndex = -1;
+    }
+
+    /**
+     * @return the cache policy used by this indicator
+     */
+    public CachePolicy getCachePolicy() {
+        if (cachePolicy != null) {
+            return cachePolicy;
         }
+        CachePolicy policy = globalCachePolicy;
+        return policy != null ? policy : getDefaultCachePolicy();
+    }
+
+    /**
+     * @return the default cache policy of the indicator type
+     */
+    protected CachePolicy getDefaultCachePolicy() {
+        return CachePolicy.full();
     }
 
     /**
-     * Removes the N first results which exceed the maximum bar count. (i.e. keeps
-     * only the last maximumResultCount results)
+     * Sets the cache policy of all the indicators without their own policy. It
+     * applies to the indicators whose cache is not created yet.
      *
-     * @param maximumResultCount the number of results to keep
-     */
-    private void removeExceedingResults(int maximumResultCount) {
-        int resultCount = results.size();
-        if (resultCount > maximumResultCount) {
-            // Removing old results
-            final int nbResultsToRemove = resultCount - maximumResultCount;
-            for (int i = 0; i < nbResultsToRemove; i++) {
-                results.remove(0);
+     * @param cachePolicy the global cache policy (null for the defaults of the
+     *                    indicator types)
+     */
+    public static void setGlobalCachePolicy(CachePolicy cachePolicy) {
+        globalCachePolicy = cachePolicy;
+    }
+
+    /**
+     * @return the global cache policy (null if not set)
+     */
+    public static CachePolicy getGlobalCachePolicy() {
+        return globalCachePolicy;
+    }
+
+    /**
+     * Sets the manager tracking the memory of the caches created from now on
+     * (e.g. with a memory budget).
+     *
+     * @param manager the cache manager (null for none)
+     */
+    public static void setCacheManager(CacheManager manager) {
+        cacheManager = manager;
+    }
+
+    /**
+     * @return the cache manager (null if none)
+     */
+    public static CacheManager getCacheManager() {
+        return cacheManager;
+    }
+
+    /**
+     * @param index the bar index
+     * @return the cached value at index, null if not cached (the value is not
+     *         calculated)
+     */
+    public T getCachedValue(int index) {
+        return results == null ? null : results.get(index);
+    }
+
+    /**
+     * Sets the cached value at index (e.g. restored from a snapshot).
+     *
+     * @param index the bar index
+     * @param value the value
+     */
+    public void setCachedValue(int index, T value) {
+        BarSeries series = getBarSeries();
+        if (series == null) {
+            throw new IllegalStateException("Values of an indicator without series are not cached");
+        }
+        ResultCache<T> cache = getResultCache();
+        cache.put(index, value, series.getMaximumBarCount());
+        highestResultIndex = cache.getHighestIndex();
+    }
+
+    /**
+     * @return the highest index of the cached results, -1 if none (e.g. after an
+     *         eviction by the {@link CacheManager cache manager})
+     */
+    protected int getHighestCachedIndex() {
+        return results == null ? -1 : results.getHighestIndex();
+    }
+
+    /**
+     * @return the number of result slots held by the cache of this indicator
+     */
+    public int getCachedResultCount() {
+        return results == null ? 0 : results.size();
+    }
+
+    /**
+     * @return the estimated memory usage of the cache of this indicator (in
+     *         bytes)
+     */
+    public long getCacheMemoryUsage() {
+        return results == null ? 0 : results.getMemoryUsage();
+    }
+
+    /**
+     * Sets the on-disk store the caches created from now on read through and
+     * write back to.
+     *
+     * @param store the result store (null for none)
+     */
+    public static void setResultStore(ResultStore store) {
+        resultStore = store;
+    }
+
+    /**
+     * @return the result store (null if not set)
+     */
+    public static ResultStore getResultStore() {
+        return resultStore;
+    }
+
+    private ResultCache<T> getResultCache() {
+        if (results == null) {
+            ResultCache<T> cache = getCachePolicy().createCache();
+            ResultStore store = resultStore;
+            if (store != null) {
+                cache = store.attach(this, cache);
             }
+            CacheManager manager = cacheManager;
+            results = manager == null ? cache : manager.manage(cache);
         }
+        return results;
     }
 }
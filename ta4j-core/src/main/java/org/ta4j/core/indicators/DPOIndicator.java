@@ -80,6 +80,11 @@ public class DPOIndicator extends CachedIndicator<Num> {
         return price.getValue(index).minus(sma.getValue(index - timeShift));
     }
 
+    @Override
+    public int getLookback() {
+        return Lookback.plus(timeShift, Lookback.ofInputs(this));
+    }
+
     @Override
     public String toString() {
         return getClass().getSimpleName() + " barCount: " + barCount;
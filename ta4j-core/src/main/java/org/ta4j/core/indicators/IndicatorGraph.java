@@ -0,0 +1,292 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.indicators;
+
+import org.ta4j.core.Indicator;
+import org.ta4j.core.Rule;
+import org.ta4j.core.Strategy;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Directed acyclic graph of {@link Indicator indicators}.
+ *
+ * The graph is discovered from the {@link Indicator#getInputs() inputs} of the
+ * indicators, starting from indicators, {@link Rule rules} or the entry and exit
+ * rules of a {@link Strategy}. The indicators are kept in topological order: the
+ * inputs of an indicator always come before it.
+ *
+ * Indicators and rules hold their inputs in fields; by default they are
+ * discovered by reflection on the fields typed as indicators or rules (or
+ * arrays and collections of them).
+ *
+ * 指标的有向无环图。按拓扑顺序保存指标：指标的输入总在其之前。
+ */
+public class IndicatorGraph {
+
+    /**
+     * The fields holding indicators or rules, per class
+     */
+    private static final Map<Class<?>, List<Field>> INPUT_FIELDS = new ConcurrentHashMap<>();
+
+    /**
+     * The indicators in topological order
+     */
+    private final List<Indicator<?>> indicators;
+
+    private final Map<Indicator<?>, List<Indicator<?>>> inputs;
+
+    /**
+     * The rules the graph was discovered from (and their sub-rules)
+     */
+    private final List<Rule> rules;
+
+    private IndicatorGraph(List<Indicator<?>> indicators, Map<Indicator<?>, List<Indicator<?>>> inputs,
+            List<Rule> rules) {
+        this.indicators = Collections.unmodifiableList(indicators);
+        this.inputs = inputs;
+        this.rules = Collections.unmodifiableList(rules);
+    }
+
+    /**
+     * @param strategy a strategy
+     * @return the graph of the indicators used by the entry and exit rules of the
+     *         strategy
+     */
+    public static IndicatorGraph of(Strategy strategy) {
+        return of(strategy.getEntryRule(), strategy.getExitRule());
+    }
+
+    /**
+     * @param rules some rules
+     * @return the graph of the indicators used by the rules
+     */
+    public static IndicatorGraph of(Rule... rules) {
+        List<Indicator<?>> roots = new ArrayList<>();
+        List<Rule> allRules = new ArrayList<>();
+        Set<Object> visitedRules = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Rule> pendingRules = new ArrayDeque<>();
+        for (Rule rule : rules) {
+            if (rule != null && visitedRules.add(rule)) {
+                pendingRules.push(rule);
+            }
+        }
+        while (!pendingRules.isEmpty()) {
+            Rule rule = pendingRules.pop();
+            allRules.add(rule);
+            for (Object input : fieldValues(rule)) {
+                if (input instanceof Indicator) {
+                    roots.add((Indicator<?>) input);
+                } else if (input instanceof Rule && visitedRules.add(input)) {
+                    pendingRules.push((Rule) input);
+                }
+            }
+        }
+        return of(allRules, roots.toArray(new Indicator<?>[0]));
+    }
+
+    /**
+     * @param indicators some indicators
+     * @return the graph of the indicators and their (transitive) inputs
+     */
+    public static IndicatorGraph of(Indicator<?>... indicators) {
+        return of(Collections.emptyList(), indicators);
+    }
+
+    private static IndicatorGraph of(List<Rule> rules, Indicator<?>... indicators) {
+        List<Indicator<?>> sorted = new ArrayList<>();
+        Map<Indicator<?>, List<Indicator<?>>> inputs = new IdentityHashMap<>();
+        Set<Indicator<?>> inProgress = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Indicator<?> indicator : indicators) {
+            visit(indicator, sorted, inputs, inProgress);
+        }
+        return new IndicatorGraph(sorted, inputs, rules);
+    }
+
+    /**
+     * Depth-first visit appending the indicator after its inputs.
+     */
+    private static void visit(Indicator<?> indicator, List<Indicator<?>> sorted,
+            Map<Indicator<?>, List<Indicator<?>>> inputs, Set<Indicator<?>> inProgress) {
+        if (indicator == null || inputs.containsKey(indicator)) {
+            return;
+        }
+        if (!inProgress.add(indicator)) {
+            throw new IllegalArgumentException("Cycle detected at indicator " + indicator);
+        }
+        List<Indicator<?>> indicatorInputs = indicator.getInputs();
+        for (Indicator<?> input : indicatorInputs) {
+            visit(input, sorted, inputs, inProgress);
+        }
+        inProgress.remove(indicator);
+        inputs.put(indicator, indicatorInputs);
+        sorted.add(indicator);
+    }
+
+    /**
+     * @return the indicators in topological order (inputs first)
+     */
+    public List<Indicator<?>> getIndicators() {
+        return indicators;
+    }
+
+    /**
+     * @return the rules the graph was built from and their sub-rules (empty if
+     *         built from indicators)
+     */
+    public List<Rule> getRules() {
+        return rules;
+    }
+
+    /**
+     * @param indicator an indicator of the graph
+     * @return the direct inputs of the indicator
+     */
+    public List<Indicator<?>> getInputs(Indicator<?> indicator) {
+        List<Indicator<?>> indicatorInputs = inputs.get(indicator);
+        if (indicatorInputs == null) {
+            throw new IllegalArgumentException("Indicator not in graph: " + indicator);
+        }
+        return indicatorInputs;
+    }
+
+    /**
+     * @param indicator an indicator
+     * @return true if the indicator is a node of the graph
+     */
+    public boolean contains(Indicator<?> indicator) {
+        return inputs.containsKey(indicator);
+    }
+
+    /**
+     * @return the number of indicators of the graph
+     */
+    public int size() {
+        return indicators.size();
+    }
+
+    /**
+     * Discovers the inputs of an indicator by reflection on its fields typed as
+     * indicators (or arrays and collections of indicators).
+     *
+     * @param indicator an indicator
+     * @return the indicators held by the indicator
+     * @see Indicator#getInputs()
+     */
+    public static List<Indicator<?>> inputsOf(Indicator<?> indicator) {
+        List<Indicator<?>> indicatorInputs = new ArrayList<>();
+        Set<Indicator<?>> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Object input : fieldValues(indicator)) {
+            if (input instanceof Indicator && input != indicator && distinct.add((Indicator<?>) input)) {
+                indicatorInputs.add((Indicator<?>) input);
+            }
+        }
+        return indicatorInputs;
+    }
+
+    /**
+     * @return the indicators and rules held by the fields of an object
+     */
+    private static List<Object> fieldValues(Object owner) {
+        List<Object> values = new ArrayList<>();
+        for (Field field : INPUT_FIELDS.computeIfAbsent(owner.getClass(), IndicatorGraph::findInputFields)) {
+            Object value;
+            try {
+                value = field.get(owner);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Cannot read field " + field, e);
+            }
+            if (value == null) {
+                continue;
+            }
+            if (value.getClass().isArray()) {
+                for (int i = 0; i < Array.getLength(value); i++) {
+                    values.add(Array.get(value, i));
+                }
+            } else if (value instanceof Iterable) {
+                for (Object element : (Iterable<?>) value) {
+                    values.add(element);
+                }
+            } else {
+                values.add(value);
+            }
+        }
+        return values;
+    }
+
+    private static List<Field> findInputFields(Class<?> type) {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic() || !holdsInputs(field)) {
+                    continue;
+                }
+                field.setAccessible(true);
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+
+    private static boolean holdsInputs(Field field) {
+        Class<?> type = field.getType();
+        if (isInputType(type)) {
+            return true;
+        }
+        if (type.isArray()) {
+            return isInputType(type.getComponentType());
+        }
+        if (Iterable.class.isAssignableFrom(type) && field.getGenericType() instanceof ParameterizedType) {
+            Type[] arguments = ((ParameterizedType) field.getGenericType()).getActualTypeArguments();
+            return arguments.length == 1 && isInputType(arguments[0]);
+        }
+        return false;
+    }
+
+    private static boolean isInputType(Type type) {
+        if (type instanceof ParameterizedType) {
+            type = ((ParameterizedType) type).getRawType();
+        } else if (type instanceof WildcardType) {
+            Type[] upperBounds = ((WildcardType) type).getUpperBounds();
+            type = upperBounds.length == 1 ? upperBounds[0] : Object.class;
+            return isInputType(type);
+        }
+        return type instanceof Class && (Indicator.class.isAssignableFrom((Class<?>) type)
+                || Rule.class.isAssignableFrom((Class<?>) type));
+    }
+}
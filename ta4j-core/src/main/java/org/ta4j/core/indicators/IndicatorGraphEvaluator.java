@@ -0,0 +1,280 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.indicators;
+
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.Indicator;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Batch evaluator of an {@link IndicatorGraph}.
+ *
+ * The indicators are evaluated bar by bar, in the topological order of the
+ * graph: when an indicator is computed for a bar, its inputs have already been
+ * computed (and cached) for that bar and the previous ones. This avoids the deep
+ * recursions of a cold {@link CachedIndicator} and keeps the working set of each
+ * step small. Only the indicators of the evaluated series are computed eagerly;
+ * the others (e.g. indicators of a higher timeframe) are computed on demand.
+ *
+ * 指标图的批量求值器。按拓扑顺序逐柱计算指标。
+ */
+public class IndicatorGraphEvaluator {
+
+    private final IndicatorGraph graph;
+
+    private final BarSeries series;
+
+    /**
+     * The indicators of the series, in topological order
+     */
+    private final List<Indicator<?>> nodes = new ArrayList<>();
+
+    /**
+     * Constructor.
+     *
+     * @param graph  the indicator graph
+     * @param series the bar series to evaluate the graph on
+     */
+    public IndicatorGraphEvaluator(IndicatorGraph graph, BarSeries series) {
+        if (graph == null || series == null) {
+            throw new IllegalArgumentException("Graph and series must not be null");
+        }
+        this.graph = graph;
+        this.series = series;
+        for (Indicator<?> indicator : graph.getIndicators()) {
+            if (indicator.getBarSeries() == series) {
+                nodes.add(indicator);
+            }
+        }
+    }
+
+    /**
+     * Evaluates the graph over all the bars of the series.
+     *
+     * @return the values of the indicators
+     */
+    public Result evaluate() {
+        return evaluate(series.getBeginIndex(), series.getEndIndex());
+    }
+
+    /**
+     * Evaluates the graph bar by bar.
+     *
+     * @param beginIndex the first bar index
+     * @param endIndex   the last bar index (included)
+     * @return the values of the indicators
+     */
+    public Result evaluate(int beginIndex, int endIndex) {
+        if (beginIndex < 0 || endIndex < beginIndex) {
+            return new Result(beginIndex, new IdentityHashMap<>());
+        }
+        int[] startIndexes = new int[nodes.size()];
+        applyStartIndexes(startIndexes);
+        return evaluate(beginIndex, beginIndex, endIndex, startIndexes);
+    }
+
+    /**
+     * Evaluates the last bars of the series (see
+     * {@link #evaluatePartial(int, int)}).
+     *
+     * @param barCount the number of bars to evaluate
+     * @return the values of the indicators
+     */
+    public Result evaluateLast(int barCount) {
+        int endIndex = series.getEndIndex();
+        return evaluatePartial(Math.max(0, endIndex - barCount + 1), endIndex);
+    }
+
+    /**
+     * Evaluates the graph from the minimal index required by the
+     * {@link Indicator#getLookback() lookbacks} of the indicators. Recursive
+     * indicators start their recursion at that index (see
+     * {@link RecursiveCachedIndicator#setStartIndex(int)}) instead of the
+     * beginning of the series, so the values of converging indicators (e.g. EMA)
+     * are accurate to {@link Lookback#DEFAULT_EPSILON} between the begin and end
+     * indexes. The previous start indexes of the recursive indicators are
+     * restored before returning, and the caches holding warm-up approximations
+     * are reset, so that the indicators (e.g. of a strategy) are left as
+     * before.
+     *
+     * @param beginIndex the first bar index
+     * @param endIndex   the last bar index (included)
+     * @return the values of the indicators
+     */
+    public Result evaluatePartial(int beginIndex, int endIndex) {
+        if (beginIndex < 0 || endIndex < beginIndex) {
+            return new Result(beginIndex, new IdentityHashMap<>());
+        }
+        // The first index each indicator must be accurate from, consumers first
+        Map<Indicator<?>, Integer> requiredIndexes = new IdentityHashMap<>();
+        int[] startIndexes = new int[nodes.size()];
+        for (int n = nodes.size() - 1; n >= 0; n--) {
+            Indicator<?> node = nodes.get(n);
+            int requiredIndex = requiredIndexes.getOrDefault(node, beginIndex);
+            int lookback = node.getLookback();
+            int ownLookback = lookback == Lookback.UNBOUNDED ? Lookback.UNBOUNDED
+                    : Math.max(0, lookback - Lookback.ofInputs(node));
+            int startIndex = Lookback.startIndex(requiredIndex, ownLookback);
+            startIndexes[n] = node instanceof RecursiveCachedIndicator ? startIndex : requiredIndex;
+            for (Indicator<?> input : graph.getInputs(node)) {
+                if (input.getBarSeries() == series) {
+                    requiredIndexes.merge(input, startIndex, Math::min);
+                }
+            }
+        }
+        int[] previousStartIndexes = new int[nodes.size()];
+        for (int n = 0; n < nodes.size(); n++) {
+            Indicator<?> node = nodes.get(n);
+            if (node instanceof RecursiveCachedIndicator) {
+                previousStartIndexes[n] = ((RecursiveCachedIndicator<?>) node).getStartIndex();
+            }
+        }
+        applyStartIndexes(startIndexes);
+        try {
+            int firstIndex = beginIndex;
+            for (int startIndex : startIndexes) {
+                firstIndex = Math.min(firstIndex, startIndex);
+            }
+            return evaluate(firstIndex, beginIndex, endIndex, startIndexes);
+        } finally {
+            applyStartIndexes(previousStartIndexes);
+        }
+    }
+
+    /**
+     * Sets the start indexes of the recursive indicators. All the cached
+     * indicators are reset if one of them changes, as the cached values of their
+     * consumers depend on it.
+     */
+    private void applyStartIndexes(int[] startIndexes) {
+        boolean changed = false;
+        for (int n = 0; n < nodes.size(); n++) {
+            Indicator<?> node = nodes.get(n);
+            if (node instanceof RecursiveCachedIndicator) {
+                RecursiveCachedIndicator<?> recursive = (RecursiveCachedIndicator<?>) node;
+                if (recursive.getStartIndex() != startIndexes[n]) {
+                    recursive.setStartIndex(startIndexes[n]);
+                    changed = true;
+                }
+            }
+        }
+        if (changed) {
+            for (Indicator<?> node : nodes) {
+                if (node instanceof CachedIndicator) {
+                    ((CachedIndicator<?>) node).invalidateFrom(0);
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes the indicators bar by bar from the first index, each one from its
+     * start index, and keeps the values between the begin and end indexes.
+     */
+    private Result evaluate(int firstIndex, int beginIndex, int endIndex, int[] startIndexes) {
+        int barCount = endIndex - beginIndex + 1;
+        Object[][] columns = new Object[nodes.size()][barCount];
+        for (int index = firstIndex; index <= endIndex; index++) {
+            for (int n = 0; n < columns.length; n++) {
+                if (index >= startIndexes[n]) {
+                    Object value = nodes.get(n).getValue(index);
+                    if (index >= beginIndex) {
+                        columns[n][index - beginIndex] = value;
+                    }
+                }
+            }
+        }
+        Map<Indicator<?>, Object[]> values = new IdentityHashMap<>();
+        for (int n = 0; n < columns.length; n++) {
+            values.put(nodes.get(n), columns[n]);
+        }
+        return new Result(beginIndex, values);
+    }
+
+    /**
+     * @return the evaluated graph
+     */
+    public IndicatorGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * @return the indicators evaluated eagerly, in topological order
+     */
+    public List<Indicator<?>> getEvaluatedIndicators() {
+        return nodes;
+    }
+
+    /**
+     * The values of the indicators, stored as one column per indicator.
+     */
+    public static class Result {
+
+        private final int beginIndex;
+
+        private final Map<Indicator<?>, Object[]> values;
+
+        private Result(int beginIndex, Map<Indicator<?>, Object[]> values) {
+            this.beginIndex = beginIndex;
+            this.values = values;
+        }
+
+        /**
+         * @return the first evaluated bar index
+         */
+        public int getBeginIndex() {
+            return beginIndex;
+        }
+
+        /**
+         * @return the number of evaluated bars
+         */
+        public int getBarCount() {
+            return values.isEmpty() ? 0 : values.values().iterator().next().length;
+        }
+
+        /**
+         * @param indicator an evaluated indicator
+         * @param index     the bar index
+         * @param <T>       the type of the values of the indicator
+         * @return the value of the indicator at the index
+         */
+        @SuppressWarnings("unchecked")
+        public <T> T getValue(Indicator<T> indicator, int index) {
+            Object[] column = values.get(indicator);
+            if (column == null) {
+                throw new IllegalArgumentException("Indicator not evaluated: " + indicator);
+            }
+            int i = index - beginIndex;
+            if (i < 0 || i >= column.length) {
+                throw new IndexOutOfBoundsException("Index " + index + " not evaluated");
+            }
+            return (T) column[i];
+        }
+    }
+}
@@ -75,7 +75,7 @@ public class KAMAIndicator extends RecursiveCachedIndicator<Num> {
     @Override
     protected Num calculate(int index) {
         Num currentPrice = price.getValue(index);
-        if (index < barCountEffectiveRatio) {
+        if (index < barCountEffectiveRatio || index <= getStartIndex()) {
             return currentPrice;
         }
         /*
@@ -103,4 +103,18 @@ public class KAMAIndicator extends RecursiveCachedIndicator<Num> {
         return priorKAMA.plus(sc.multipliedBy(currentPrice.minus(priorKAMA)));
     }
 
+    /**
+     * The convergence is estimated with the slowest smoothing constant.
+     */
+    @Override
+    public int getLookback() {
+        int convergence = Lookback.convergence(1 - slowest.pow(2).doubleValue(), Lookback.DEFAULT_EPSILON);
+        return Lookback.plus(Lookback.plus(convergence, barCountEffectiveRatio), Lookback.ofInputs(this));
+    }
+
+    @Override
+    public int getStepLookback() {
+        return barCountEffectiveRatio;
+    }
+
 }
@@ -64,6 +64,11 @@ public class LWMAIndicator extends CachedIndicator<Num> {
         return sum.dividedBy(denominator);
     }
 
+    @Override
+    public int getLookback() {
+        return Lookback.window(this, barCount);
+    }
+
     @Override
     public String toString() {
         return getClass().getSimpleName() + " barCount: " + barCount;
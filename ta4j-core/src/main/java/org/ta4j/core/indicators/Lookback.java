@@ -0,0 +1,148 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.indicators;
+
+import org.ta4j.core.Indicator;
+
+/**
+ * Helpers for the {@link Indicator#getLookback() lookback} of indicators.
+ *
+ * The lookback of an indicator is the number of bars before an index needed to
+ * compute its value at that index. It composes through the inputs of the
+ * indicators: an indicator computed over a window of its input needs the window
+ * plus the lookback of the input. Recursive indicators (e.g. EMA) depend on all
+ * the previous bars; their lookback is the number of bars after which the
+ * weight of the starting value falls below {@link #DEFAULT_EPSILON}.
+ *
+ * 指标回溯期的辅助方法。回溯期是计算某索引处的指标值所需的之前的柱数。
+ */
+public final class Lookback {
+
+    /**
+     * The lookback of indicators depending on all the previous bars (e.g.
+     * cumulative indicators)
+     */
+    public static final int UNBOUNDED = Integer.MAX_VALUE;
+
+    /**
+     * The maximum relative weight of the starting value of a converging recursive
+     * indicator
+     */
+    public static final double DEFAULT_EPSILON = 1e-6;
+
+    /**
+     * True while a {@link #resumed(Indicator) resumed lookback} is computed
+     */
+    private static final ThreadLocal<Boolean> RESUMED = ThreadLocal.withInitial(() -> false);
+
+    private Lookback() {
+    }
+
+    /**
+     * @param indicator an indicator
+     * @return the greatest lookback of the inputs of the indicator (0 if none),
+     *         resumed lookbacks while a {@link #resumed(Indicator) resumed
+     *         lookback} is computed
+     */
+    public static int ofInputs(Indicator<?> indicator) {
+        boolean resumed = RESUMED.get();
+        int lookback = 0;
+        for (Indicator<?> input : indicator.getInputs()) {
+            lookback = Math.max(lookback, resumed ? resumed(input) : input.getLookback());
+        }
+        return lookback;
+    }
+
+    /**
+     * @param indicator an indicator computed over a window of its inputs
+     * @param barCount  the number of bars of the window (current bar included)
+     * @return the lookback of the indicator
+     */
+    public static int window(Indicator<?> indicator, int barCount) {
+        return plus(Math.max(0, barCount - 1), ofInputs(indicator));
+    }
+
+    /**
+     * Returns the lookback of an indicator resumed from its cached results (e.g.
+     * restored from a {@link org.ta4j.core.StateSnapshot}): a recursive indicator
+     * then starts from its previous (cached) value and only needs the
+     * {@link RecursiveCachedIndicator#getStepLookback() lookback of a step}.
+     *
+     * @param indicator an indicator
+     * @return the lookback of the resumed indicator
+     */
+    public static int resumed(Indicator<?> indicator) {
+        boolean previous = RESUMED.get();
+        RESUMED.set(true);
+        try {
+            if (indicator instanceof RecursiveCachedIndicator) {
+                return plus(((RecursiveCachedIndicator<?>) indicator).getStepLookback(), ofInputs(indicator));
+            }
+            // The inputs are composed through ofInputs(), hence resumed
+            return indicator.getLookback();
+        } finally {
+            RESUMED.set(previous);
+        }
+    }
+
+    /**
+     * @param lookback1 a lookback
+     * @param lookback2 another lookback
+     * @return the sum of the lookbacks, {@link #UNBOUNDED} if one of them is
+     *         unbounded
+     */
+    public static int plus(int lookback1, int lookback2) {
+        long sum = (long) lookback1 + lookback2;
+        return sum >= UNBOUNDED ? UNBOUNDED : (int) sum;
+    }
+
+    /**
+     * Returns the number of bars after which the weight of the starting value of
+     * a recursion <code>value(i) = decay * value(i - 1) + ...</code> falls below
+     * epsilon.
+     *
+     * @param decay   the weight of the previous value (between 0 and 1)
+     * @param epsilon the maximum relative weight of the starting value
+     * @return the number of bars
+     */
+    public static int convergence(double decay, double epsilon) {
+        if (decay <= 0) {
+            return 0;
+        }
+        if (decay >= 1 || epsilon <= 0) {
+            return UNBOUNDED;
+        }
+        double bars = Math.ceil(Math.log(epsilon) / Math.log(decay));
+        return bars >= UNBOUNDED ? UNBOUNDED : (int) bars;
+    }
+
+    /**
+     * @param index    a bar index
+     * @param lookback a lookback
+     * @return the first index needed to compute a value at the index (0 at least)
+     */
+    public static int startIndex(int index, int lookback) {
+        return lookback >= index ? 0 : index - lookback;
+    }
+}
@@ -24,12 +24,18 @@
 package org.ta4j.core.indicators;
 
 import org.ta4j.core.BarSeries;
+import org.ta4j.core.StateSnapshot;
+import org.ta4j.core.StatefulIndicator;
 import org.ta4j.core.indicators.helpers.HighPriceIndicator;
 import org.ta4j.core.indicators.helpers.HighestValueIndicator;
 import org.ta4j.core.indicators.helpers.LowPriceIndicator;
 import org.ta4j.core.indicators.helpers.LowestValueIndicator;
 import org.ta4j.core.num.Num;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 import static org.ta4j.core.num.NaN.NaN;
 
 /**
@@ -41,7 +47,7 @@ import static org.ta4j.core.num.NaN.NaN;
  * @see <a href="https://www.investopedia.com/terms/p/parabolicindicator.asp">
  *      https://www.investopedia.com/terms/p/parabolicindicator.asp</a>
  */
-public class ParabolicSarIndicator extends RecursiveCachedIndicator<Num> {
+public class ParabolicSarIndicator extends RecursiveCachedIndicator<Num> implements StatefulIndicator {
 
     private final Num maxAcceleration;
     private final Num accelerationIncrement;
@@ -155,6 +161,24 @@ public class ParabolicSarIndicator extends RecursiveCachedIndicator<Num> {
         return sar;
     }
 
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        StateSnapshot.writeNum(out, accelerationFactor);
+        out.writeBoolean(currentTrend);
+        out.writeInt(startTrendIndex);
+        StateSnapshot.writeNum(out, currentExtremePoint);
+        StateSnapshot.writeNum(out, minMaxExtremePoint);
+    }
+
+    @Override
+    public void readState(DataInput in) throws IOException {
+        accelerationFactor = StateSnapshot.readNum(in);
+        currentTrend = in.readBoolean();
+        startTrendIndex = in.readInt();
+        currentExtremePoint = StateSnapshot.readNum(in);
+        minMaxExtremePoint = StateSnapshot.readNum(in);
+    }
+
     /**
      * Increments the acceleration factor.
      */
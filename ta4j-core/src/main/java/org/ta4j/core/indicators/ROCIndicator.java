@@ -62,6 +62,11 @@ public class ROCIndicator extends CachedIndicator<Num> {
         return currentValue.minus(nPeriodsAgoValue).dividedBy(nPeriodsAgoValue).multipliedBy(numOf(100));
     }
 
+    @Override
+    public int getLookback() {
+        return Lookback.plus(barCount, Lookback.ofInputs(this));
+    }
+
     @Override
     public String toString() {
         return getClass().getSimpleName() + " barCount: " + barCount;
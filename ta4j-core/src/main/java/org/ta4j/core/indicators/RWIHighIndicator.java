@@ -73,6 +73,15 @@ public class RWIHighIndicator extends CachedIndicator<Num> {
         return high.minus(lowN).dividedBy(atrN.multipliedBy(sqrtN));
     }
 
+    /**
+     * The ATRs computed over the window converge like a moving average of
+     * barCount bars.
+     */
+    @Override
+    public int getLookback() {
+        return Lookback.plus(barCount - 1, Lookback.convergence(1 - 1d / barCount, Lookback.DEFAULT_EPSILON));
+    }
+
     @Override
     public String toString() {
         return getClass().getSimpleName() + " barCount: " + barCount;
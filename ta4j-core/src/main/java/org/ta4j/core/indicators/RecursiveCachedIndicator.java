@@ -25,6 +25,7 @@ package org.ta4j.core.indicators;
 
 import org.ta4j.core.BarSeries;
 import org.ta4j.core.Indicator;
+import org.ta4j.core.indicators.cache.CachePolicy;
 
 /**
  * Recursive cached {@link Indicator indicator}.
@@ -52,6 +53,11 @@ public abstract class RecursiveCachedIndicator<T> extends CachedIndicator<T> {
      */
     private static final int RECURSION_THRESHOLD = 100;
 
+    /**
+     * The index the recursion starts from (see {@link #setStartIndex(int)})
+     */
+    private int startIndex = 0;
+
     /**
      * Constructor.
      *
@@ -77,8 +83,9 @@ public abstract class RecursiveCachedIndicator<T> extends CachedIndicator<T> {
             final int seriesEndIndex = series.getEndIndex();
             if (index <= seriesEndIndex) {
                 // We are not after the end of the series
+                invalidateChangedResults(series);
                 final int removedBarsCount = series.getRemovedBarsCount();
-                int startIndex = Math.max(removedBarsCount, highestResultIndex);
+                int startIndex = Math.max(Math.max(removedBarsCount, getHighestCachedIndex()), this.startIndex);
                 if (index - startIndex > RECURSION_THRESHOLD) {
                     // Too many uncalculated values; the risk for a StackOverflowError becomes high.
                     // Calculating the previous values iteratively
@@ -93,4 +100,77 @@ public abstract class RecursiveCachedIndicator<T> extends CachedIndicator<T> {
 
         return super.getValue(index);
     }
+
+    /**
+     * Sets the index the recursion starts from: the value at this index (and
+     * before) is computed as for the first bar of the series. Values are then
+     * approximations until the {@link #getLookback() lookback} of the indicator is
+     * reached. Used for partial evaluations of the last bars of a series (see
+     * {@link IndicatorGraphEvaluator#evaluatePartial(int, int)}). Cached results
+     * are removed when the start index changes.
+     *
+     * @param startIndex the index the recursion starts from (0 by default)
+     */
+    public void setStartIndex(int startIndex) {
+        if (startIndex < 0) {
+            throw new IllegalArgumentException("Start index must be >= 0");
+        }
+        if (startIndex != this.startIndex) {
+            this.startIndex = startIndex;
+            invalidateFrom(0);
+        }
+    }
+
+    /**
+     * @return the index the recursion starts from
+     */
+    public int getStartIndex() {
+        return startIndex;
+    }
+
+    /**
+     * Recursive indicators need a cache keeping the previous results.
+     *
+     * @throws IllegalArgumentException if the policy does not
+     *                                  {@link CachePolicy#supportsRecursion()
+     *                                  support recursion}
+     */
+    @Override
+    public void setCachePolicy(CachePolicy cachePolicy) {
+        if (cachePolicy != null && !cachePolicy.supportsRecursion()) {
+            throw new IllegalArgumentException("Cache policy not supported by recursive indicators: " + cachePolicy);
+        }
+        super.setCachePolicy(cachePolicy);
+    }
+
+    /**
+     * Falls back to the full cache if the global policy does not support
+     * recursion.
+     */
+    @Override
+    public CachePolicy getCachePolicy() {
+        CachePolicy policy = super.getCachePolicy();
+        return policy.supportsRecursion() ? policy : CachePolicy.full();
+    }
+
+    /**
+     * Recursive indicators depend on all the previous bars unless they declare a
+     * convergence.
+     */
+    @Override
+    public int getLookback() {
+        return Lookback.UNBOUNDED;
+    }
+
+    /**
+     * Returns the number of bars before an index needed to compute the value at
+     * that index from the (cached) previous value, without the lookback of the
+     * inputs. Used when the indicator is resumed from its cached results (see
+     * {@link Lookback#resumed(Indicator)}).
+     *
+     * @return the lookback of a recursion step (0 by default)
+     */
+    public int getStepLookback() {
+        return 0;
+    }
 }
@@ -56,6 +56,11 @@ public class SMAIndicator extends CachedIndicator<Num> {
         return sum.dividedBy(numOf(realBarCount));
     }
 
+    @Override
+    public int getLookback() {
+        return Lookback.window(this, barCount);
+    }
+
     @Override
     public String toString() {
         return getClass().getSimpleName() + " barCount: " + barCount;
@@ -72,6 +72,11 @@ public class UlcerIndexIndicator extends CachedIndicator<Num> {
         return squaredAverage.sqrt();
     }
 
+    @Override
+    public int getLookback() {
+        return Lookback.window(this, barCount);
+    }
+
     @Override
     public String toString() {
         return getClass().getSimpleName() + " barCount: " + barCount;
@@ -64,6 +64,11 @@ public class WMAIndicator extends CachedIndicator<Num> {
         return value.dividedBy(numOf((barCount * (barCount + 1)) / 2));
     }
 
+    @Override
+    public int getLookback() {
+        return Lookback.window(this, barCount);
+    }
+
     @Override
     public String toString() {
         return getClass().getSimpleName() + " barCount: " + barCount;
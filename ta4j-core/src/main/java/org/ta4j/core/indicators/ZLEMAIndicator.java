@@ -54,15 +54,26 @@ public class ZLEMAIndicator extends RecursiveCachedIndicator<Num> {
             // Starting point of the ZLEMA
             return new SMAIndicator(indicator, barCount).getValue(index);
         }
-        if (index == 0) {
+        if (index <= getStartIndex()) {
             // If the barCount is bigger than the indicator's value count
-            return indicator.getValue(0);
+            return indicator.getValue(index);
         }
         Num zlemaPrev = getValue(index - 1);
         return k.multipliedBy(numOf(2).multipliedBy(indicator.getValue(index)).minus(indicator.getValue(index - lag)))
                 .plus(numOf(1).minus(k).multipliedBy(zlemaPrev));
     }
 
+    @Override
+    public int getLookback() {
+        int convergence = Lookback.convergence(1 - k.doubleValue(), Lookback.DEFAULT_EPSILON);
+        return Lookback.plus(Lookback.plus(convergence, lag), Lookback.ofInputs(this));
+    }
+
+    @Override
+    public int getStepLookback() {
+        return lag;
+    }
+
     @Override
     public String toString() {
         return getClass().getSimpleName() + " barCount: " + barCount;
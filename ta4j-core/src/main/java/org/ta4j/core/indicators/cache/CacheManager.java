@@ -0,0 +1,270 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.indicators.cache;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Manager of result caches with a memory budget.
+ *
+ * The manager tracks the estimated memory of the caches it
+ * {@link #manage(ResultCache) manages}. When the budget is exceeded, the least
+ * recently used caches are cleared until the usage falls to
+ * {@value #EVICTION_TARGET} of the budget; their results are computed again on
+ * demand. The cache being filled is never evicted by its own growth, so a
+ * single cache larger than the budget is kept while it is in use. Caches are
+ * tracked weakly: the caches of unreachable indicators are released by the
+ * garbage collector as usual.
+ *
+ * Install a manager for all the cached indicators with
+ * {@link org.ta4j.core.indicators.CachedIndicator#setCacheManager(CacheManager)}.
+ *
+ * 具有内存预算的结果缓存管理器。超出预算时清除最近最少使用的缓存。
+ */
+public class CacheManager {
+
+    /**
+     * The part of the budget the usage falls to after an eviction
+     */
+    public static final double EVICTION_TARGET = 0.75;
+
+    private final ReferenceQueue<ManagedResultCache<?>> collectedCaches = new ReferenceQueue<>();
+
+    private final Set<Entry> entries = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private long budget;
+
+    private long usedBytes;
+
+    private long peakBytes;
+
+    private long evictionCount;
+
+    private long evictedBytes;
+
+    /**
+     * Constructor.
+     *
+     * @param budget the memory budget of the caches (bytes)
+     */
+    public CacheManager(long budget) {
+        setBudget(budget);
+    }
+
+    /**
+     * Wraps a cache so that its memory is tracked by this manager.
+     *
+     * @param cache a result cache
+     * @param <T>   the type of the results
+     * @return the managed cache
+     */
+    public <T> ResultCache<T> manage(ResultCache<T> cache) {
+        if (cache instanceof NoResultCache || cache instanceof ManagedResultCache) {
+            return cache;
+        }
+        ManagedResultCache<T> managed = new ManagedResultCache<>(cache, this);
+        synchronized (this) {
+            purgeCollectedCaches();
+            managed.entry = new Entry(managed, collectedCaches);
+            entries.add(managed.entry);
+        }
+        managed.report();
+        return managed;
+    }
+
+    /**
+     * @param budget the memory budget of the caches (bytes)
+     */
+    public void setBudget(long budget) {
+        if (budget <= 0) {
+            throw new IllegalArgumentException("Budget must be strictly positive");
+        }
+        synchronized (this) {
+            this.budget = budget;
+        }
+        evict(null);
+    }
+
+    /**
+     * @return the memory budget of the caches (bytes)
+     */
+    public synchronized long getBudget() {
+        return budget;
+    }
+
+    /**
+     * @return the estimated memory used by the managed caches (bytes)
+     */
+    public synchronized long getUsedBytes() {
+        purgeCollectedCaches();
+        return usedBytes;
+    }
+
+    /**
+     * @return the highest estimated memory used by the managed caches (bytes)
+     */
+    public synchronized long getPeakBytes() {
+        return peakBytes;
+    }
+
+    /**
+     * @return the number of managed caches still reachable
+     */
+    public synchronized int getCacheCount() {
+        purgeCollectedCaches();
+        return entries.size();
+    }
+
+    /**
+     * @return the number of caches cleared to respect the budget
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return the estimated memory released by evictions (bytes)
+     */
+    public synchronized long getEvictedBytes() {
+        return evictedBytes;
+    }
+
+    /**
+     * Clears all the managed caches.
+     */
+    public void evictAll() {
+        List<ManagedResultCache<?>> caches = new ArrayList<>();
+        synchronized (this) {
+            for (Entry entry : entries) {
+                ManagedResultCache<?> cache = entry.get();
+                if (cache != null) {
+                    caches.add(cache);
+                }
+            }
+        }
+        for (ManagedResultCache<?> cache : caches) {
+            cache.clear();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CacheManager[caches: %d, used: %d/%d bytes, peak: %d bytes, evictions: %d]",
+                getCacheCount(), getUsedBytes(), getBudget(), getPeakBytes(), getEvictionCount());
+    }
+
+    /**
+     * Records a change of the memory of a cache and evicts caches if the budget is
+     * exceeded.
+     */
+    void record(ManagedResultCache<?> cache, long delta) {
+        boolean overBudget;
+        synchronized (this) {
+            Entry entry = cache.entry;
+            if (entry == null || !entries.contains(entry)) {
+                return;
+            }
+            entry.bytes += delta;
+            usedBytes += delta;
+            peakBytes = Math.max(peakBytes, usedBytes);
+            overBudget = usedBytes > budget;
+        }
+        if (overBudget) {
+            evict(cache);
+        }
+    }
+
+    /**
+     * Clears the least recently used caches (except the current one) until the
+     * usage falls to the eviction target. Caches are cleared outside of the lock
+     * of the manager.
+     */
+    private void evict(ManagedResultCache<?> current) {
+        List<ManagedResultCache<?>> victims = new ArrayList<>();
+        synchronized (this) {
+            purgeCollectedCaches();
+            if (usedBytes <= budget) {
+                return;
+            }
+            List<ManagedResultCache<?>> candidates = new ArrayList<>();
+            for (Entry entry : entries) {
+                ManagedResultCache<?> cache = entry.get();
+                if (cache != null && cache != current && entry.bytes > 0) {
+                    candidates.add(cache);
+                }
+            }
+            candidates.sort(Comparator.comparingLong(c -> c.lastAccess));
+            long target = (long) (budget * EVICTION_TARGET);
+            long expectedBytes = usedBytes;
+            for (ManagedResultCache<?> cache : candidates) {
+                if (expectedBytes <= target) {
+                    break;
+                }
+                victims.add(cache);
+                expectedBytes -= cache.entry.bytes;
+            }
+        }
+        for (ManagedResultCache<?> victim : victims) {
+            long released = victim.evict();
+            synchronized (this) {
+                evictionCount++;
+                evictedBytes += released;
+            }
+        }
+    }
+
+    /**
+     * Releases the memory of the caches collected by the garbage collector.
+     */
+    private void purgeCollectedCaches() {
+        Entry entry;
+        while ((entry = (Entry) collectedCaches.poll()) != null) {
+            if (entries.remove(entry)) {
+                usedBytes -= entry.bytes;
+            }
+        }
+    }
+
+    /**
+     * Weak registration of a managed cache.
+     */
+    static final class Entry extends WeakReference<ManagedResultCache<?>> {
+
+        /**
+         * The memory of the cache recorded by the manager
+         */
+        long bytes;
+
+        Entry(ManagedResultCache<?> cache, ReferenceQueue<ManagedResultCache<?>> queue) {
+            super(cache, queue);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.indicators.cache;
+
+import java.io.Serializable;
+
+/**
+ * Policy of the result cache of a
+ * {@link org.ta4j.core.indicators.CachedIndicator cached indicator}.
+ *
+ * A policy can be set per indicator or globally (see
+ * {@link org.ta4j.core.indicators.CachedIndicator#setGlobalCachePolicy(CachePolicy)});
+ * otherwise each indicator type uses its own default (e.g. trivial helpers such
+ * as price indicators are not cached).
+ *
+ * 缓存指标的结果缓存策略。可以按指标或全局设置。
+ */
+public interface CachePolicy extends Serializable {
+
+    /**
+     * @param <T> the type of the results
+     * @return a new (empty) result cache
+     */
+    <T> ResultCache<T> createCache();
+
+    /**
+     * @return true if the cache keeps the previous results reliably, as needed by
+     *         recursive indicators
+     */
+    default boolean supportsRecursion() {
+        return true;
+    }
+
+    /**
+     * Estimates the memory usage of a cache of this policy once the results of
+     * the given number of bars have been requested.
+     *
+     * @param resultCount the number of requested results
+     * @param resultBytes the estimated size of a result object (bytes)
+     * @return the estimated memory usage of the cache (bytes)
+     */
+    default long estimateMemoryUsage(int resultCount, long resultBytes) {
+        return resultCount * (ResultCache.REFERENCE_BYTES + resultBytes);
+    }
+
+    /**
+     * @return a policy without cache: results are computed on each call
+     */
+    static CachePolicy none() {
+        return StandardCachePolicy.NONE;
+    }
+
+    /**
+     * @return a policy caching all the results (up to the maximum bar count of the
+     *         series)
+     */
+    static CachePolicy full() {
+        return StandardCachePolicy.FULL;
+    }
+
+    /**
+     * @param resultCount the number of results to keep
+     * @return a policy caching the results of the last bars only
+     */
+    static CachePolicy lastN(int resultCount) {
+        return new LastNCachePolicy(resultCount);
+    }
+
+    /**
+     * @return a policy caching all the results in blocks the garbage collector may
+     *         evict under memory pressure
+     */
+    static CachePolicy soft() {
+        return StandardCachePolicy.SOFT;
+    }
+
+    /**
+     * @return a policy caching all the results, storing
+     *         {@link org.ta4j.core.num.DoubleNum DoubleNum} results in primitive
+     *         arrays
+     */
+    static CachePolicy primitive() {
+        return StandardCachePolicy.PRIMITIVE;
+    }
+}
@@ -0,0 +1,241 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.indicators.cache;
+
+import org.ta4j.core.Bar;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.Indicator;
+import org.ta4j.core.indicators.AbstractIndicator;
+import org.ta4j.core.indicators.CachedIndicator;
+import org.ta4j.core.indicators.RecursiveCachedIndicator;
+import org.ta4j.core.indicators.helpers.PriceIndicator;
+import org.ta4j.core.num.DoubleNum;
+import org.ta4j.core.num.Num;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Signatures identifying the results of an indicator across runs.
+ *
+ * The signature of an indicator is made of its class, its parameters (the
+ * values of its fields) and the signatures of its inputs, down to the content
+ * hash of the bar series. Only fields holding immutable values (primitives,
+ * strings, enums, nums, {@code java.time} values, indicators, series and arrays
+ * or lists of them) are supported: indicators holding anything else have no
+ * signature.
+ *
+ * 跨运行识别指标结果的签名（类、参数、输入以及柱序列内容的哈希）。
+ */
+public final class IndicatorSignature {
+
+    private static final Map<Class<?>, List<Field>> PARAMETER_FIELDS = new ConcurrentHashMap<>();
+
+    private static final Map<BarSeries, SeriesHash> SERIES_HASHES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private IndicatorSignature() {
+    }
+
+    /**
+     * @param indicator the indicator
+     * @return the signature of the indicator, null if it holds unsupported fields
+     */
+    public static String of(Indicator<?> indicator) {
+        StringBuilder sb = new StringBuilder();
+        return append(sb, indicator, Collections.newSetFromMap(new IdentityHashMap<>())) ? sb.toString() : null;
+    }
+
+    /**
+     * The hash covers the num type, the indexes and the time, period, prices,
+     * volume, amount and trades of each bar. It is computed once per modification
+     * of the series.
+     *
+     * @param series the bar series
+     * @return the hex SHA-256 hash of the content of the series
+     */
+    public static String contentHash(BarSeries series) {
+        SeriesHash cached = SERIES_HASHES.get(series);
+        if (cached != null && cached.isValidFor(series)) {
+            return cached.hash;
+        }
+        SeriesHash hash = new SeriesHash(series);
+        SERIES_HASHES.put(series, hash);
+        return hash.hash;
+    }
+
+    private static boolean append(StringBuilder sb, Object value, Set<Object> visiting) {
+        if (value == null) {
+            sb.append("null");
+        } else if (value instanceof Indicator) {
+            return appendIndicator(sb, (Indicator<?>) value, visiting);
+        } else if (value instanceof BarSeries) {
+            sb.append("series:").append(contentHash((BarSeries) value));
+        } else if (value instanceof Num || value instanceof Number || value instanceof Boolean
+                || value instanceof Character || value instanceof String
+                || value.getClass().getName().startsWith("java.time.")) {
+            sb.append(value);
+        } else if (value instanceof Enum) {
+            sb.append(((Enum<?>) value).name());
+        } else if (value.getClass().isArray()) {
+            sb.append('[');
+            for (int i = 0; i < Array.getLength(value); i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                if (!append(sb, Array.get(value, i), visiting)) {
+                    return false;
+                }
+            }
+            sb.append(']');
+        } else if (value instanceof List) {
+            return append(sb, ((List<?>) value).toArray(), visiting);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean appendIndicator(StringBuilder sb, Indicator<?> indicator, Set<Object> visiting) {
+        if (!visiting.add(indicator)) {
+            // Cyclic references
+            return false;
+        }
+        sb.append(indicator.getClass().getName()).append('(');
+        append(sb, indicator.getBarSeries(), visiting);
+        sb.append(';');
+        if (indicator instanceof RecursiveCachedIndicator) {
+            sb.append("start=").append(((RecursiveCachedIndicator<?>) indicator).getStartIndex()).append(';');
+        }
+        for (Field field : PARAMETER_FIELDS.computeIfAbsent(indicator.getClass(),
+                IndicatorSignature::findParameterFields)) {
+            sb.append(field.getName()).append('=');
+            Object value;
+            try {
+                value = field.get(indicator);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Cannot read field " + field, e);
+            }
+            if (!append(sb, value, visiting)) {
+                return false;
+            }
+            sb.append(';');
+        }
+        sb.append(')');
+        visiting.remove(indicator);
+        return true;
+    }
+
+    private static List<Field> findParameterFields(Class<?> type) {
+        List<Field> fields = new ArrayList<>();
+        // The price function of a price indicator is set by its subclass
+        for (Class<?> c = type; c != null && c != CachedIndicator.class && c != RecursiveCachedIndicator.class
+                && c != AbstractIndicator.class && c != PriceIndicator.class
+                && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+                    continue;
+                }
+                field.setAccessible(true);
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * Content hash of a series, with the state of the series it was computed
+     * for.
+     */
+    private static final class SeriesHash {
+
+        private final long modificationCount;
+        private final int beginIndex;
+        private final int endIndex;
+        private final String hash;
+
+        SeriesHash(BarSeries series) {
+            this.modificationCount = series.getModificationCount();
+            this.beginIndex = series.getBeginIndex();
+            this.endIndex = series.getEndIndex();
+            MessageDigest digest;
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES * 4);
+            digest.update(series.numOf(0).getClass().getName().getBytes(StandardCharsets.UTF_8));
+            buffer.putInt(beginIndex).putInt(endIndex).putInt(series.getRemovedBarsCount());
+            digest.update(buffer.array(), 0, buffer.position());
+            for (int i = Math.max(0, beginIndex); i <= endIndex; i++) {
+                Bar bar = series.getBar(i);
+                buffer.clear();
+                buffer.putLong(bar.getEndTime().toEpochSecond()).putInt(bar.getEndTime().getNano())
+                        .putLong(bar.getTimePeriod().toNanos()).putLong(bar.getTrades());
+                digest.update(buffer.array(), 0, buffer.position());
+                update(digest, buffer, bar.getOpenPrice());
+                update(digest, buffer, bar.getHighPrice());
+                update(digest, buffer, bar.getLowPrice());
+                update(digest, buffer, bar.getClosePrice());
+                update(digest, buffer, bar.getVolume());
+                update(digest, buffer, bar.getAmount());
+            }
+            StringBuilder sb = new StringBuilder();
+            for (byte b : digest.digest()) {
+                sb.append(String.format("%02x", b));
+            }
+            this.hash = sb.toString();
+        }
+
+        private static void update(MessageDigest digest, ByteBuffer buffer, Num value) {
+            if (value instanceof DoubleNum) {
+                buffer.clear();
+                buffer.putLong(Double.doubleToLongBits(value.doubleValue()));
+                digest.update(buffer.array(), 0, Long.BYTES);
+            } else {
+                digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+        }
+
+        boolean isValidFor(BarSeries series) {
+            return series.getModificationCount() == modificationCount && series.getBeginIndex() == beginIndex
+                    && series.getEndIndex() == endIndex;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.indicators.cache;
+
+/**
+ * Policy caching the results of the last bars only.
+ */
+class LastNCachePolicy implements CachePolicy {
+
+    private static final long serialVersionUID = 6062419318733916224L;
+
+    private final int resultCount;
+
+    LastNCachePolicy(int resultCount) {
+        if (resultCount <= 0) {
+            throw new IllegalArgumentException("Result count must be strictly positive");
+        }
+        this.resultCount = resultCount;
+    }
+
+    @Override
+    public <T> ResultCache<T> createCache() {
+        return new WindowResultCache<>(resultCount);
+    }
+
+    @Override
+    public long estimateMemoryUsage(int resultCount, long resultBytes) {
+        return CachePolicy.super.estimateMemoryUsage(Math.min(resultCount, this.resultCount), resultBytes);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof LastNCachePolicy && ((LastNCachePolicy) obj).resultCount == resultCount;
+    }
+
+    @Override
+    public int hashCode() {
+        return resultCount;
+    }
+
+    @Override
+    public String toString() {
+        return "LAST_N(" + resultCount + ")";
+    }
+}
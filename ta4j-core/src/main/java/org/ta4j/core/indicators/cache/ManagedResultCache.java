@@ -0,0 +1,135 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.indicators.cache;
+
+/**
+ * Result cache whose memory is tracked by a {@link CacheManager}. It may be
+ * cleared by the manager at any time (from any thread), so its operations are
+ * synchronized.
+ *
+ * @param <T> the type of the results
+ */
+class ManagedResultCache<T> implements ResultCache<T> {
+
+    private final ResultCache<T> delegate;
+
+    private final CacheManager manager;
+
+    /**
+     * The registration of the cache in the manager
+     */
+    CacheManager.Entry entry;
+
+    /**
+     * The time of the last access (see {@link System#nanoTime()})
+     */
+    volatile long lastAccess = System.nanoTime();
+
+    /**
+     * The memory of the delegate at the last report
+     */
+    private long bytes;
+
+    ManagedResultCache(ResultCache<T> delegate, CacheManager manager) {
+        this.delegate = delegate;
+        this.manager = manager;
+    }
+
+    @Override
+    public synchronized T get(int index) {
+        lastAccess = System.nanoTime();
+        return delegate.get(index);
+    }
+
+    @Override
+    public void put(int index, T value, int maximumResultCount) {
+        synchronized (this) {
+            lastAccess = System.nanoTime();
+            delegate.put(index, value, maximumResultCount);
+        }
+        report();
+    }
+
+    @Override
+    public void invalidateFrom(int index) {
+        synchronized (this) {
+            delegate.invalidateFrom(index);
+        }
+        report();
+    }
+
+    @Override
+    public synchronized int getHighestIndex() {
+        return delegate.getHighestIndex();
+    }
+
+    @Override
+    public synchronized int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public synchronized long getMemoryUsage() {
+        return delegate.getMemoryUsage();
+    }
+
+    @Override
+    public void clear() {
+        synchronized (this) {
+            delegate.clear();
+        }
+        report();
+    }
+
+    /**
+     * Clears the cache on behalf of the manager.
+     *
+     * @return the released memory (bytes)
+     */
+    long evict() {
+        long released;
+        synchronized (this) {
+            released = bytes;
+            delegate.clear();
+        }
+        report();
+        return released;
+    }
+
+    /**
+     * Reports the change of memory of the delegate to the manager (outside of the
+     * lock of the cache).
+     */
+    void report() {
+        long delta;
+        synchronized (this) {
+            long newBytes = delegate.getMemoryUsage();
+            delta = newBytes - bytes;
+            bytes = newBytes;
+        }
+        if (delta != 0) {
+            manager.record(this, delta);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.indicators.cache;
+
+import org.ta4j.core.num.DoubleNum;
+
+/**
+ * Cache storing {@link DoubleNum} results as doubles. Other results (e.g.
+ * {@link org.ta4j.core.num.PrecisionNum} or booleans) are kept as objects.
+ *
+ * @param <T> the type of the results
+ */
+class PrimitiveResultCache<T> extends RingResultCache<T> {
+
+    private static final byte EMPTY = 0;
+    private static final byte DOUBLE = 1;
+    private static final byte OBJECT = 2;
+
+    private double[] doubles = new double[0];
+
+    private byte[] states = new byte[0];
+
+    /**
+     * Non-DoubleNum results, allocated on first use
+     */
+    private Object[] objects;
+
+    /**
+     * The number of non-DoubleNum results
+     */
+    private int objectCount;
+
+    PrimitiveResultCache() {
+        super(Integer.MAX_VALUE);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected T read(int position) {
+        switch (states[position]) {
+        case DOUBLE:
+            return (T) DoubleNum.valueOf(doubles[position]);
+        case OBJECT:
+            return (T) objects[position];
+        default:
+            return null;
+        }
+    }
+
+    @Override
+    protected void write(int position, T value) {
+        if (states[position] == OBJECT) {
+            objectCount--;
+        }
+        if (value instanceof DoubleNum) {
+            doubles[position] = ((DoubleNum) value).doubleValue();
+            states[position] = DOUBLE;
+        } else if (value != null) {
+            if (objects == null) {
+                objects = new Object[states.length];
+            }
+            objects[position] = value;
+            states[position] = OBJECT;
+            objectCount++;
+        } else {
+            states[position] = EMPTY;
+        }
+        if (objects != null && states[position] != OBJECT) {
+            objects[position] = null;
+        }
+    }
+
+    @Override
+    protected void resize(int newLength) {
+        double[] newDoubles = new double[newLength];
+        byte[] newStates = new byte[newLength];
+        Object[] newObjects = objects == null ? null : new Object[newLength];
+        objectCount = 0;
+        if (size() > 0) {
+            for (int i = getLowestIndex(); i <= getHighestIndex(); i++) {
+                int from = position(i);
+                int to = position(i, newLength);
+                newDoubles[to] = doubles[from];
+                newStates[to] = states[from];
+                if (newObjects != null) {
+                    newObjects[to] = objects[from];
+                }
+                if (newStates[to] == OBJECT) {
+                    objectCount++;
+                }
+            }
+        }
+        doubles = newDoubles;
+        states = newStates;
+        objects = newObjects;
+    }
+
+    @Override
+    public long getMemoryUsage() {
+        long bytes = doubles.length * (long) Double.BYTES + states.length;
+        if (objects != null) {
+            bytes += objects.length * REFERENCE_BYTES + objectCount * RESULT_BYTES;
+        }
+        return bytes;
+    }
+
+    @Override
+    protected void release() {
+        doubles = new double[0];
+        states = new byte[0];
+        objects = null;
+        objectCount = 0;
+    }
+}
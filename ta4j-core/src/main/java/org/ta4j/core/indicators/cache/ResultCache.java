@@ -0,0 +1,90 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.indicators.cache;
+
+/**
+ * Cache of the results of an indicator, by bar index.
+ *
+ * 指标结果的缓存（按柱索引）。
+ *
+ * @param <T> the type of the results
+ */
+public interface ResultCache<T> {
+
+    /**
+     * Estimated size of a reference (bytes)
+     */
+    long REFERENCE_BYTES = 8;
+
+    /**
+     * Estimated size of a result object (bytes)
+     */
+    long RESULT_BYTES = 32;
+
+    /**
+     * @param index the bar index
+     * @return the cached result at the index, null if not cached
+     */
+    T get(int index);
+
+    /**
+     * Caches a result. The cache may drop it (or older results) according to its
+     * policy.
+     *
+     * @param index              the bar index
+     * @param value              the result at the index
+     * @param maximumResultCount the maximum number of results to keep (e.g. the
+     *                           maximum bar count of the series)
+     */
+    void put(int index, T value, int maximumResultCount);
+
+    /**
+     * Removes the cached results from an index.
+     *
+     * @param index the lowest index of the results to be removed
+     */
+    void invalidateFrom(int index);
+
+    /**
+     * @return the highest cached index, -1 if none
+     */
+    int getHighestIndex();
+
+    /**
+     * @return the number of result slots held by the cache
+     */
+    int size();
+
+    /**
+     * @return the estimated memory used by the cache (bytes)
+     */
+    default long getMemoryUsage() {
+        return size() * (REFERENCE_BYTES + RESULT_BYTES);
+    }
+
+    /**
+     * Removes all the cached results.
+     */
+    void clear();
+}
@@ -0,0 +1,149 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.indicators.cache;
+
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.indicators.CachedIndicator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * On-disk store of indicator results, shared across runs.
+ *
+ * Results are keyed by the {@link IndicatorSignature signature} of the
+ * indicator, which includes the content hash of its bar series. Each key is
+ * stored in a column file of the store directory, read through a memory
+ * mapping. Once set with
+ * {@link CachedIndicator#setResultStore(ResultStore)}, the caches created from
+ * then on read the stored results before computing them, and record the
+ * computed ones; they are written back by {@link #flush()} (or
+ * {@link #close()}). Only {@link org.ta4j.core.num.DoubleNum},
+ * {@link org.ta4j.core.num.PrecisionNum} and boolean results are stored, and
+ * indicators without cache or without signature are ignored.
+ *
+ * The results added since the last flush are held in memory: flush regularly
+ * when computing long series.
+ *
+ * 指标结果的磁盘存储，可跨运行共享（按指标签名和柱序列内容哈希索引，内存映射读取）。
+ */
+public class ResultStore implements AutoCloseable {
+
+    private static final String EXTENSION = ".results";
+
+    private final Path directory;
+
+    private final Map<String, StoredResults> results = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param directory the directory of the column files (created if needed)
+     */
+    public ResultStore(Path directory) {
+        try {
+            this.directory = Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create " + directory, e);
+        }
+    }
+
+    /**
+     * Attaches the stored results of an indicator to its cache.
+     *
+     * @param indicator the indicator
+     * @param cache     the cache of the indicator
+     * @param <T>       the type of the results
+     * @return a cache reading through and writing back to the store, or the cache
+     *         itself if the results of the indicator cannot be stored
+     */
+    public <T> ResultCache<T> attach(CachedIndicator<T> indicator, ResultCache<T> cache) {
+        BarSeries series = indicator.getBarSeries();
+        if (series == null || cache instanceof NoResultCache) {
+            return cache;
+        }
+        String signature = IndicatorSignature.of(indicator);
+        if (signature == null) {
+            return cache;
+        }
+        StoredResults stored = results.computeIfAbsent(signature,
+                key -> new StoredResults(key, directory.resolve(fileName(key))));
+        return new StoredResultCache<>(cache, stored, series);
+    }
+
+    private static String fileName(String key) {
+        try {
+            StringBuilder sb = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8))) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.append(EXTENSION).toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * @return the directory of the column files
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @return the number of results computed since the last flush
+     */
+    public int getUnflushedCount() {
+        return results.values().stream().mapToInt(StoredResults::getAddedCount).sum();
+    }
+
+    /**
+     * Writes the results computed since the last flush to the column files.
+     */
+    public void flush() {
+        for (StoredResults stored : results.values()) {
+            stored.write();
+        }
+    }
+
+    /**
+     * Flushes the computed results and releases the mappings. The caches still
+     * attached to this store then compute their results.
+     */
+    @Override
+    public void close() {
+        flush();
+        for (StoredResults stored : results.values()) {
+            stored.release();
+        }
+        results.clear();
+    }
+}
@@ -0,0 +1,209 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.indicators.cache;
+
+/**
+ * Base class of the caches keeping a window of consecutive results in a ring
+ * buffer. The window ends at the highest cached index; its size is limited by
+ * the capacity of the cache and the maximum result count. The slot of an index
+ * is <code>index mod length</code>.
+ *
+ * @param <T> the type of the results
+ */
+abstract class RingResultCache<T> implements ResultCache<T> {
+
+    private static final int MINIMUM_LENGTH = 16;
+
+    /**
+     * The maximum number of results of the window
+     */
+    private final int capacity;
+
+    private int highestIndex = -1;
+
+    /**
+     * The number of indexes of the window
+     */
+    private int count;
+
+    /**
+     * The number of allocated slots
+     */
+    private int length;
+
+    /**
+     * @param capacity the maximum number of results of the window
+     */
+    RingResultCache(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * @param position the slot position
+     * @return the result in the slot (null if none)
+     */
+    protected abstract T read(int position);
+
+    /**
+     * @param position the slot position
+     * @param value    the result to store (null to clear the slot)
+     */
+    protected abstract void write(int position, T value);
+
+    /**
+     * Reallocates the slots, moving the results of the window.
+     *
+     * @param newLength the new number of slots
+     */
+    protected abstract void resize(int newLength);
+
+    /**
+     * Releases the slots.
+     */
+    protected abstract void release();
+
+    @Override
+    public T get(int index) {
+        if (count == 0 || index > highestIndex || index < getLowestIndex()) {
+            return null;
+        }
+        return read(position(index));
+    }
+
+    @Override
+    public void put(int index, T value, int maximumResultCount) {
+        int limit = Math.max(1, Math.min(capacity, maximumResultCount));
+        count = Math.min(count, limit);
+        if (count == 0 || index - highestIndex >= limit) {
+            // New window
+            clearWindow();
+            ensureLength(1);
+            highestIndex = index;
+            count = 1;
+        } else if (index > highestIndex) {
+            int newCount = Math.min(count + index - highestIndex, limit);
+            ensureLength(newCount);
+            for (int i = highestIndex + 1; i < index; i++) {
+                write(position(i), null);
+            }
+            highestIndex = index;
+            count = newCount;
+        } else if (index < getLowestIndex()) {
+            int newCount = highestIndex - index + 1;
+            if (newCount > limit) {
+                // Too old
+                return;
+            }
+            ensureLength(newCount);
+            for (int i = index + 1; i < getLowestIndex(); i++) {
+                write(position(i), null);
+            }
+            count = newCount;
+        }
+        write(position(index), value);
+    }
+
+    @Override
+    public void invalidateFrom(int index) {
+        if (count == 0 || index > highestIndex) {
+            return;
+        }
+        if (index <= getLowestIndex()) {
+            clear();
+            return;
+        }
+        for (int i = index; i <= highestIndex; i++) {
+            write(position(i), null);
+        }
+        count -= highestIndex - index + 1;
+        highestIndex = index - 1;
+    }
+
+    @Override
+    public int getHighestIndex() {
+        return highestIndex;
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public void clear() {
+        release();
+        highestIndex = -1;
+        count = 0;
+        length = 0;
+    }
+
+    /**
+     * @return the lowest index of the window
+     */
+    protected int getLowestIndex() {
+        return highestIndex - count + 1;
+    }
+
+    /**
+     * @return the number of allocated slots
+     */
+    protected int getLength() {
+        return length;
+    }
+
+    /**
+     * @param index a bar index
+     * @return the position of the slot of the index
+     */
+    protected int position(int index) {
+        return Math.floorMod(index, length);
+    }
+
+    /**
+     * @param index     a bar index
+     * @param newLength a number of slots
+     * @return the position of the slot of the index with the number of slots
+     */
+    protected static int position(int index, int newLength) {
+        return Math.floorMod(index, newLength);
+    }
+
+    private void clearWindow() {
+        if (count > 0) {
+            for (int i = getLowestIndex(); i <= highestIndex; i++) {
+                write(position(i), null);
+            }
+        }
+        count = 0;
+    }
+
+    private void ensureLength(int minLength) {
+        if (length < minLength) {
+            int newLength = (int) Math.min(capacity, Math.max(MINIMUM_LENGTH, 2L * length));
+            newLength = Math.max(newLength, minLength);
+            resize(newLength);
+            length = newLength;
+        }
+    }
+}
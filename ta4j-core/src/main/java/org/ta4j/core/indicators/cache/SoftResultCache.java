@@ -0,0 +1,167 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.indicators.cache;
+
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cache keeping the results in blocks held by soft references: the garbage
+ * collector may evict blocks under memory pressure; evicted results are
+ * computed again when requested.
+ *
+ * @param <T> the type of the results
+ */
+class SoftResultCache<T> implements ResultCache<T> {
+
+    static final int BLOCK_SIZE = 256;
+
+    private final List<SoftReference<Object[]>> blocks = new ArrayList<>();
+
+    /**
+     * The block number of the first block of the list
+     */
+    private int firstBlock;
+
+    private int highestIndex = -1;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index < 0 || index > highestIndex) {
+            return null;
+        }
+        Object[] block = getBlock(index / BLOCK_SIZE);
+        return block == null ? null : (T) block[index % BLOCK_SIZE];
+    }
+
+    @Override
+    public void put(int index, T value, int maximumResultCount) {
+        if (index < 0) {
+            return;
+        }
+        int blockNumber = index / BLOCK_SIZE;
+        if (blocks.isEmpty()) {
+            firstBlock = blockNumber;
+        }
+        if (blockNumber < firstBlock) {
+            if (Math.max(highestIndex, index) - index >= maximumResultCount) {
+                // Too old
+                return;
+            }
+            while (blockNumber < firstBlock) {
+                blocks.add(0, null);
+                firstBlock--;
+            }
+        }
+        while (blockNumber >= firstBlock + blocks.size()) {
+            blocks.add(null);
+        }
+        Object[] block = getBlock(blockNumber);
+        if (block == null) {
+            block = new Object[BLOCK_SIZE];
+            blocks.set(blockNumber - firstBlock, new SoftReference<>(block));
+        }
+        block[index % BLOCK_SIZE] = value;
+        highestIndex = Math.max(highestIndex, index);
+        removeExceedingBlocks(maximumResultCount);
+    }
+
+    @Override
+    public void invalidateFrom(int index) {
+        if (index > highestIndex) {
+            return;
+        }
+        int blockNumber = Math.max(index, 0) / BLOCK_SIZE;
+        while (firstBlock + blocks.size() - 1 > blockNumber && !blocks.isEmpty()) {
+            blocks.remove(blocks.size() - 1);
+        }
+        Object[] block = getBlock(blockNumber);
+        if (block != null) {
+            for (int i = Math.max(index, 0) % BLOCK_SIZE; i < BLOCK_SIZE; i++) {
+                block[i] = null;
+            }
+        }
+        highestIndex = index - 1;
+        if (highestIndex < 0) {
+            clear();
+        }
+    }
+
+    @Override
+    public int getHighestIndex() {
+        return highestIndex;
+    }
+
+    /**
+     * @return the number of result slots of the blocks not evicted
+     */
+    @Override
+    public int size() {
+        int size = 0;
+        for (SoftReference<Object[]> reference : blocks) {
+            if (reference != null && reference.get() != null) {
+                size += BLOCK_SIZE;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Upper bound: blocks evicted by the garbage collector are not checked.
+     */
+    @Override
+    public long getMemoryUsage() {
+        return blocks.size() * BLOCK_SIZE * (REFERENCE_BYTES + RESULT_BYTES);
+    }
+
+    @Override
+    public void clear() {
+        blocks.clear();
+        firstBlock = 0;
+        highestIndex = -1;
+    }
+
+    private Object[] getBlock(int blockNumber) {
+        int i = blockNumber - firstBlock;
+        if (i < 0 || i >= blocks.size()) {
+            return null;
+        }
+        SoftReference<Object[]> reference = blocks.get(i);
+        return reference == null ? null : reference.get();
+    }
+
+    /**
+     * Removes the blocks holding only results older than the maximum result
+     * count.
+     */
+    private void removeExceedingBlocks(int maximumResultCount) {
+        long lowestIndex = (long) highestIndex - maximumResultCount + 1;
+        while (!blocks.isEmpty() && (long) (firstBlock + 1) * BLOCK_SIZE <= lowestIndex) {
+            blocks.remove(0);
+            firstBlock++;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.indicators.cache;
+
+/**
+ * The standard cache policies.
+ */
+enum StandardCachePolicy implements CachePolicy {
+
+    NONE {
+        @Override
+        public <T> ResultCache<T> createCache() {
+            return new NoResultCache<>();
+        }
+
+        @Override
+        public boolean supportsRecursion() {
+            return false;
+        }
+
+        @Override
+        public long estimateMemoryUsage(int resultCount, long resultBytes) {
+            return 0;
+        }
+    },
+
+    FULL {
+        @Override
+        public <T> ResultCache<T> createCache() {
+            return new WindowResultCache<>(Integer.MAX_VALUE);
+        }
+    },
+
+    SOFT {
+        @Override
+        public <T> ResultCache<T> createCache() {
+            return new SoftResultCache<>();
+        }
+
+        @Override
+        public boolean supportsRecursion() {
+            return false;
+        }
+
+        @Override
+        public long estimateMemoryUsage(int resultCount, long resultBytes) {
+            // Whole blocks, unless the garbage collector reclaims them
+            long blockCount = (resultCount + SoftResultCache.BLOCK_SIZE - 1) / SoftResultCache.BLOCK_SIZE;
+            return blockCount * SoftResultCache.BLOCK_SIZE * (ResultCache.REFERENCE_BYTES + resultBytes);
+        }
+    },
+
+    PRIMITIVE {
+        @Override
+        public <T> ResultCache<T> createCache() {
+            return new PrimitiveResultCache<>();
+        }
+
+        /**
+         * Assumes {@link org.ta4j.core.num.DoubleNum} results (a double and a state
+         * byte per bar).
+         */
+        @Override
+        public long estimateMemoryUsage(int resultCount, long resultBytes) {
+            return resultCount * (long) (Double.BYTES + 1);
+        }
+    }
+}
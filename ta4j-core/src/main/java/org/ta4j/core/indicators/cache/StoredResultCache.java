@@ -0,0 +1,121 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.indicators.cache;
+
+import org.ta4j.core.BarSeries;
+
+/**
+ * Result cache reading through and writing back to the {@link StoredResults
+ * stored results} of a {@link ResultStore}.
+ *
+ * The stored results are only valid for the content of the series at the time
+ * the cache has been attached: the cache is detached from them as soon as the
+ * series changes (new bar, correction or invalidation) and then behaves as its
+ * delegate.
+ *
+ * @param <T> the type of the results
+ */
+class StoredResultCache<T> implements ResultCache<T> {
+
+    private final ResultCache<T> delegate;
+
+    private final BarSeries series;
+    private final int beginIndex;
+    private final int endIndex;
+    private final long modificationCount;
+
+    /** The stored results (null once detached) */
+    private StoredResults stored;
+
+    StoredResultCache(ResultCache<T> delegate, StoredResults stored, BarSeries series) {
+        this.delegate = delegate;
+        this.stored = stored;
+        this.series = series;
+        this.beginIndex = series.getBeginIndex();
+        this.endIndex = series.getEndIndex();
+        this.modificationCount = series.getModificationCount();
+    }
+
+    private StoredResults stored() {
+        if (stored != null && (series.getEndIndex() != endIndex || series.getBeginIndex() != beginIndex
+                || series.getModificationCount() != modificationCount)) {
+            stored = null;
+        }
+        return stored;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        T value = delegate.get(index);
+        if (value == null) {
+            StoredResults results = stored();
+            if (results != null) {
+                value = (T) results.get(index);
+                if (value != null) {
+                    delegate.put(index, value, series.getMaximumBarCount());
+                }
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public void put(int index, T value, int maximumResultCount) {
+        delegate.put(index, value, maximumResultCount);
+        StoredResults results = stored();
+        if (results != null) {
+            results.add(index, value);
+        }
+    }
+
+    @Override
+    public void invalidateFrom(int index) {
+        delegate.invalidateFrom(index);
+        stored = null;
+    }
+
+    @Override
+    public int getHighestIndex() {
+        StoredResults results = stored();
+        int highest = delegate.getHighestIndex();
+        return results == null ? highest : Math.max(highest, results.getHighestIndex());
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public long getMemoryUsage() {
+        // Stored results are mapped out of the heap
+        return delegate.getMemoryUsage();
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+}
@@ -0,0 +1,357 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.indicators.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.ta4j.core.num.DoubleNum;
+import org.ta4j.core.num.NaN;
+import org.ta4j.core.num.PrecisionNum;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * The stored results of an indicator signature: a column file, read through a
+ * memory mapping, and the results added since it has been read.
+ *
+ * File layout (big-endian): magic, version, kind, precision (decimal kind),
+ * key, first index, count, then a state byte per index (absent, value, NaN)
+ * and the values: doubles, booleans (one byte) or decimal strings (offsets and
+ * UTF-8 bytes).
+ */
+class StoredResults {
+
+    private static final Logger log = LoggerFactory.getLogger(StoredResults.class);
+
+    private static final int MAGIC = 0x54413452;
+    private static final int VERSION = 1;
+
+    private static final byte UNKNOWN = 0;
+    private static final byte DOUBLE = 1;
+    private static final byte DECIMAL = 2;
+    private static final byte BOOLEAN = 3;
+    /** Results of unsupported types: nothing is stored */
+    private static final byte UNSUPPORTED = -1;
+
+    private static final byte ABSENT = 0;
+    private static final byte VALUE = 1;
+    private static final byte NAN = 2;
+
+    private final String key;
+    private final Path path;
+
+    private byte kind = UNKNOWN;
+    private int precision;
+
+    /** Mapped file (null if none) */
+    private MappedByteBuffer mapped;
+    private int firstIndex;
+    private int count;
+    private int statesOffset;
+    private int valuesOffset;
+
+    /** Results added since the file has been read, by index */
+    private Object[] added = new Object[0];
+    private int addedCount;
+
+    StoredResults(String key, Path path) {
+        this.key = key;
+        this.path = path;
+        if (Files.exists(path)) {
+            map();
+        }
+    }
+
+    /**
+     * Maps the file. An unreadable file (not a result file, truncated, I/O error)
+     * is ignored: it is treated as absent and replaced on the next write.
+     */
+    private void map() {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                log.warn("Ignoring {}: not a result file", path);
+                return;
+            }
+            byte fileKind = buffer.get();
+            int filePrecision = buffer.getInt();
+            int keyLength = buffer.getInt();
+            if (keyLength < 0 || keyLength > buffer.remaining()) {
+                throw new BufferUnderflowException();
+            }
+            byte[] fileKey = new byte[keyLength];
+            buffer.get(fileKey);
+            if (!key.equals(new String(fileKey, StandardCharsets.UTF_8))) {
+                // Hash collision of the file name: ignore the file
+                return;
+            }
+            int fileFirstIndex = buffer.getInt();
+            int fileCount = buffer.getInt();
+            if (fileKind != DOUBLE && fileKind != DECIMAL && fileKind != BOOLEAN || fileFirstIndex < 0
+                    || fileCount < 0) {
+                log.warn("Ignoring {}: invalid result file", path);
+                return;
+            }
+            long valuesSize = valuesSize(buffer, fileKind, fileCount);
+            if (valuesSize < 0 || buffer.remaining() < fileCount + valuesSize) {
+                throw new BufferUnderflowException();
+            }
+            kind = fileKind;
+            precision = filePrecision;
+            firstIndex = fileFirstIndex;
+            count = fileCount;
+            statesOffset = buffer.position();
+            valuesOffset = statesOffset + count;
+            mapped = buffer;
+        } catch (BufferUnderflowException e) {
+            log.warn("Ignoring {}: truncated result file", path);
+        } catch (IOException e) {
+            log.warn("Ignoring {}: {}", path, e.toString());
+        }
+    }
+
+    /**
+     * @return the size of the values following the states (the buffer position),
+     *         -1 if the decimal offsets are missing or invalid
+     */
+    private static long valuesSize(ByteBuffer buffer, byte kind, int count) {
+        if (kind == DOUBLE) {
+            return (long) count * Double.BYTES;
+        }
+        if (kind == BOOLEAN) {
+            return count;
+        }
+        long offsetsSize = (long) (count + 1) * Integer.BYTES;
+        if (buffer.remaining() < count + offsetsSize) {
+            return -1;
+        }
+        int lastOffset = buffer.getInt(buffer.position() + count + count * Integer.BYTES);
+        return lastOffset < 0 ? -1 : offsetsSize + lastOffset;
+    }
+
+    /**
+     * @return the stored result at index, null if none
+     */
+    synchronized Object get(int index) {
+        if (index < added.length && added[index] != null) {
+            return added[index];
+        }
+        int position = index - firstIndex;
+        if (mapped == null || position < 0 || position >= count) {
+            return null;
+        }
+        switch (mapped.get(statesOffset + position)) {
+        case VALUE:
+            return decode(position);
+        case NAN:
+            return NaN.NaN;
+        default:
+            return null;
+        }
+    }
+
+    private Object decode(int position) {
+        switch (kind) {
+        case DOUBLE:
+            return DoubleNum.valueOf(mapped.getDouble(valuesOffset + position * Double.BYTES));
+        case BOOLEAN:
+            return mapped.get(valuesOffset + position) != 0;
+        default:
+            int offsets = valuesOffset;
+            int start = mapped.getInt(offsets + position * Integer.BYTES);
+            int end = mapped.getInt(offsets + (position + 1) * Integer.BYTES);
+            byte[] bytes = new byte[end - start];
+            ByteBuffer view = mapped.duplicate();
+            view.position(offsets + (count + 1) * Integer.BYTES + start);
+            view.get(bytes);
+            return PrecisionNum.valueOf(new String(bytes, StandardCharsets.UTF_8), precision);
+        }
+    }
+
+    /**
+     * @return the highest index of the stored results, -1 if none
+     */
+    synchronized int getHighestIndex() {
+        int highest = mapped == null || count == 0 ? -1 : firstIndex + count - 1;
+        for (int i = added.length - 1; i > highest; i--) {
+            if (added[i] != null) {
+                return i;
+            }
+        }
+        return highest;
+    }
+
+    /**
+     * Adds a computed result (ignored if already stored or of an unsupported
+     * type).
+     */
+    synchronized void add(int index, Object value) {
+        if (kind == UNSUPPORTED || value == null || index < 0 || get(index) != null) {
+            return;
+        }
+        if (!(value instanceof NaN)) {
+            byte valueKind = kindOf(value);
+            if (kind == UNKNOWN) {
+                kind = valueKind;
+                if (kind == DECIMAL) {
+                    precision = ((PrecisionNum) value).getMathContext().getPrecision();
+                }
+            } else if (kind != valueKind) {
+                kind = UNSUPPORTED;
+                added = new Object[0];
+                addedCount = 0;
+                return;
+            }
+            if (kind == UNSUPPORTED) {
+                return;
+            }
+        }
+        if (index >= added.length) {
+            added = Arrays.copyOf(added, Math.max(index + 1, added.length * 2));
+        }
+        added[index] = value;
+        addedCount++;
+    }
+
+    private static byte kindOf(Object value) {
+        if (value instanceof DoubleNum) {
+            return DOUBLE;
+        }
+        if (value instanceof PrecisionNum) {
+            return DECIMAL;
+        }
+        if (value instanceof Boolean) {
+            return BOOLEAN;
+        }
+        return UNSUPPORTED;
+    }
+
+    /**
+     * @return the number of results added since the file has been read
+     */
+    synchronized int getAddedCount() {
+        return addedCount;
+    }
+
+    /**
+     * Writes the stored and added results to the file (replacing it atomically)
+     * and maps it again.
+     */
+    synchronized void write() {
+        if (addedCount == 0 || kind == UNSUPPORTED || kind == UNKNOWN) {
+            return;
+        }
+        int first = Integer.MAX_VALUE;
+        int last = -1;
+        if (mapped != null && count > 0) {
+            first = firstIndex;
+            last = firstIndex + count - 1;
+        }
+        for (int i = 0; i < added.length; i++) {
+            if (added[i] != null) {
+                first = Math.min(first, i);
+                last = Math.max(last, i);
+            }
+        }
+        int newCount = last - first + 1;
+        byte[] states = new byte[newCount];
+        Object[] values = new Object[newCount];
+        for (int i = 0; i < newCount; i++) {
+            Object value = get(first + i);
+            values[i] = value;
+            states[i] = value == null ? ABSENT : value instanceof NaN ? NAN : VALUE;
+        }
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[][] decimals = null;
+        int valuesSize;
+        if (kind == DOUBLE) {
+            valuesSize = newCount * Double.BYTES;
+        } else if (kind == BOOLEAN) {
+            valuesSize = newCount;
+        } else {
+            decimals = new byte[newCount][];
+            valuesSize = (newCount + 1) * Integer.BYTES;
+            for (int i = 0; i < newCount; i++) {
+                decimals[i] = states[i] == VALUE ? values[i].toString().getBytes(StandardCharsets.UTF_8)
+                        : new byte[0];
+                valuesSize += decimals[i].length;
+            }
+        }
+        ByteBuffer buffer = ByteBuffer
+                .allocate(4 * Integer.BYTES + 1 + keyBytes.length + 2 * Integer.BYTES + newCount + valuesSize);
+        buffer.putInt(MAGIC).putInt(VERSION).put(kind).putInt(precision).putInt(keyBytes.length).put(keyBytes);
+        buffer.putInt(first).putInt(newCount).put(states);
+        if (kind == DOUBLE) {
+            for (int i = 0; i < newCount; i++) {
+                buffer.putDouble(states[i] == VALUE ? ((DoubleNum) values[i]).doubleValue() : Double.NaN);
+            }
+        } else if (kind == BOOLEAN) {
+            for (int i = 0; i < newCount; i++) {
+                buffer.put((byte) (states[i] == VALUE && (Boolean) values[i] ? 1 : 0));
+            }
+        } else {
+            int offset = 0;
+            for (int i = 0; i < newCount; i++) {
+                buffer.putInt(offset);
+                offset += decimals[i].length;
+            }
+            buffer.putInt(offset);
+            for (byte[] decimal : decimals) {
+                buffer.put(decimal);
+            }
+        }
+        try {
+            Path temp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+            Files.write(temp, buffer.array());
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write " + path, e);
+        }
+        added = new Object[0];
+        addedCount = 0;
+        map();
+    }
+
+    /**
+     * Releases the mapping and the added results. Nothing is stored anymore.
+     */
+    synchronized void release() {
+        kind = UNSUPPORTED;
+        mapped = null;
+        count = 0;
+        added = new Object[0];
+        addedCount = 0;
+    }
+}
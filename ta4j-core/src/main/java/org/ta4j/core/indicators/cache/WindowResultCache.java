@@ -0,0 +1,73 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.indicators.cache;
+
+/**
+ * Cache keeping a window of the last results.
+ *
+ * @param <T> the type of the results
+ */
+class WindowResultCache<T> extends RingResultCache<T> {
+
+    private Object[] values = new Object[0];
+
+    /**
+     * @param capacity the maximum number of results to keep
+     */
+    WindowResultCache(int capacity) {
+        super(capacity);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected T read(int position) {
+        return (T) values[position];
+    }
+
+    @Override
+    protected void write(int position, T value) {
+        values[position] = value;
+    }
+
+    @Override
+    protected void resize(int newLength) {
+        Object[] newValues = new Object[newLength];
+        if (size() > 0) {
+            for (int i = getLowestIndex(); i <= getHighestIndex(); i++) {
+                newValues[position(i, newLength)] = values[position(i)];
+            }
+        }
+        values = newValues;
+    }
+
+    @Override
+    public long getMemoryUsage() {
+        return values.length * REFERENCE_BYTES + size() * RESULT_BYTES;
+    }
+
+    @Override
+    protected void release() {
+        values = new Object[0];
+    }
+}
@@ -25,6 +25,7 @@ package org.ta4j.core.indicators.helpers;
 
 import org.ta4j.core.Indicator;
 import org.ta4j.core.indicators.CachedIndicator;
+import org.ta4j.core.indicators.cache.CachePolicy;
 import org.ta4j.core.num.Num;
 
 /**
@@ -43,4 +44,9 @@ public class AbsoluteIndicator extends CachedIndicator<Num> {
     protected Num calculate(int index) {
         return indicator.getValue(index).abs();
     }
+
+    @Override
+    protected CachePolicy getDefaultCachePolicy() {
+        return CachePolicy.none();
+    }
 }
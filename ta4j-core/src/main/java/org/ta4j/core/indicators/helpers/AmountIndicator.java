@@ -25,6 +25,7 @@ package org.ta4j.core.indicators.helpers;
 
 import org.ta4j.core.BarSeries;
 import org.ta4j.core.indicators.CachedIndicator;
+import org.ta4j.core.indicators.cache.CachePolicy;
 import org.ta4j.core.num.Num;
 
 /**
@@ -41,4 +42,9 @@ public class AmountIndicator extends CachedIndicator<Num> {
     protected Num calculate(int index) {
         return getBarSeries().getBar(index).getAmount();
     }
-}
\ No newline at end of file
+
+    @Override
+    protected CachePolicy getDefaultCachePolicy() {
+        return CachePolicy.none();
+    }
+}
@@ -25,6 +25,7 @@ package org.ta4j.core.indicators.helpers;
 
 import org.ta4j.core.Indicator;
 import org.ta4j.core.indicators.CachedIndicator;
+import org.ta4j.core.indicators.cache.CachePolicy;
 import org.ta4j.core.num.Num;
 
 /**
@@ -188,6 +189,11 @@ public class BooleanTransformIndicator extends CachedIndicator<Boolean> {
         return false;
     }
 
+    @Override
+    protected CachePolicy getDefaultCachePolicy() {
+        return CachePolicy.none();
+    }
+
     @Override
     public String toString() {
         if (type != null) {
@@ -26,6 +26,7 @@ package org.ta4j.core.indicators.helpers;
 import org.ta4j.core.Bar;
 import org.ta4j.core.BarSeries;
 import org.ta4j.core.indicators.CachedIndicator;
+import org.ta4j.core.indicators.cache.CachePolicy;
 import org.ta4j.core.num.Num;
 
 /**
@@ -53,4 +54,9 @@ public class CloseLocationValueIndicator extends CachedIndicator<Num> {
 
         return diffHighLow.isNaN() ? zero : ((close.minus(low)).minus(high.minus(close))).dividedBy(diffHighLow);
     }
+
+    @Override
+    protected CachePolicy getDefaultCachePolicy() {
+        return CachePolicy.none();
+    }
 }
@@ -26,6 +26,7 @@ package org.ta4j.core.indicators.helpers;
 import org.ta4j.core.Indicator;
 import org.ta4j.core.Rule;
 import org.ta4j.core.indicators.CachedIndicator;
+import org.ta4j.core.indicators.Lookback;
 import org.ta4j.core.indicators.statistics.CorrelationCoefficientIndicator;
 import org.ta4j.core.indicators.statistics.SimpleLinearRegressionIndicator;
 import org.ta4j.core.num.Num;
@@ -379,4 +380,8 @@ public class ConvergenceDivergenceIndicator extends CachedIndicator<Boolean> {
         return (slrRef.getValue(index).minus(slrRef.getValue(firstIndex))).dividedBy(slrRef.getValue(index));
     }
 
+    @Override
+    public int getLookback() {
+        return Lookback.window(this, barCount);
+    }
 }
@@ -31,7 +31,8 @@ import org.ta4j.core.num.Num;
  * Cross indicator.
  * 交叉指标。布尔指示器，用于监视两个指示器的交叉。
  *
- * Boolean indicator which monitors two-indicators crossings.
+ * Boolean indicator which monitors two-indicators crossings. Near-equal values
+ * of {@link HybridIndicator hybrid indicators} are compared exactly.
  * 布尔指示器，用于监视两个指示器的交叉。
  * 
  */
@@ -61,21 +62,21 @@ public class CrossIndicator extends CachedIndicator<Boolean> {
 
 	// 第0个柱不交叉，上序列的值大于等于下序列的值不交叉
         int i = index;
-        if (i == 0 || up.getValue(i).isGreaterThanOrEqual(low.getValue(i))) {
+        if (i == 0 || HybridIndicator.test(up, low, i, Num::isGreaterThanOrEqual)) {
             return false;
         }
 
 	// 否则前一个柱上序列的值大于下序列的值交叉
         i--;
-        if (up.getValue(i).isGreaterThan(low.getValue(i))) {
+        if (HybridIndicator.test(up, low, i, Num::isGreaterThan)) {
             return true;
         }
 	// 否则若前一个柱上序列的值等于下序列的值，则一直往导到上序列的值与下序列的值不等
-        while (i > 0 && up.getValue(i).isEqual(low.getValue(i))) {
+        while (i > 0 && HybridIndicator.test(up, low, i, Num::isEqual)) {
             i--;
         }
 	// 如果不是第一个柱且上序列的值大于下序列的值交叉
-        return (i != 0) && (up.getValue(i).isGreaterThan(low.getValue(i)));
+        return (i != 0) && HybridIndicator.test(up, low, i, Num::isGreaterThan);
     }
 
     /**
@@ -25,6 +25,7 @@ package org.ta4j.core.indicators.helpers;
 
 import org.ta4j.core.Indicator;
 import org.ta4j.core.indicators.CachedIndicator;
+import org.ta4j.core.indicators.cache.CachePolicy;
 import org.ta4j.core.num.Num;
 
 /**
@@ -56,4 +57,9 @@ public class DifferenceIndicator extends CachedIndicator<Num> {
     protected Num calculate(int index) {
         return first.getValue(index).minus(second.getValue(index));
     }
+
+    @Override
+    protected CachePolicy getDefaultCachePolicy() {
+        return CachePolicy.none();
+    }
 }
@@ -0,0 +1,91 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.indicators.helpers;
+
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.Indicator;
+import org.ta4j.core.indicators.AbstractIndicator;
+import org.ta4j.core.num.Num;
+
+import java.util.function.IntUnaryOperator;
+
+import static org.ta4j.core.num.NaN.NaN;
+
+/**
+ * Higher timeframe indicator.
+ *
+ * Exposes an indicator of a higher-timeframe series on a base series: the value
+ * at a base index is the value of the wrapped indicator at the last completed
+ * higher-timeframe bar. Returns NaN when no higher-timeframe bar is completed
+ * yet.
+ *
+ * Values are not cached since the mapping is O(1) and the wrapped indicator is
+ * usually cached.
+ *
+ * 高周期指标。在基础序列上以最近一根已完成的高周期柱的值暴露高周期指标。
+ *
+ * @see org.ta4j.core.aggregator.MultiTimeframeBarSeries
+ */
+public class HigherTimeframeIndicator extends AbstractIndicator<Num> {
+
+    private final Indicator<Num> indicator;
+
+    private final IntUnaryOperator indexMapping;
+
+    /**
+     * Constructor.
+     *
+     * @param baseSeries   the base series
+     * @param indicator    the indicator on the higher-timeframe series
+     * @param indexMapping maps a base index to the index of the last completed
+     *                     higher-timeframe bar (-1 if none)
+     */
+    public HigherTimeframeIndicator(BarSeries baseSeries, Indicator<Num> indicator, IntUnaryOperator indexMapping) {
+        super(baseSeries);
+        this.indicator = indicator;
+        this.indexMapping = indexMapping;
+    }
+
+    @Override
+    public Num getValue(int index) {
+        int higherIndex = indexMapping.applyAsInt(index);
+        if (higherIndex < 0) {
+            return NaN;
+        }
+        return indicator.getValue(higherIndex);
+    }
+
+    /**
+     * The higher-timeframe indicator is computed on its own series.
+     */
+    @Override
+    public int getLookback() {
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " " + indicator;
+    }
+}
@@ -25,6 +25,7 @@ package org.ta4j.core.indicators.helpers;
 
 import org.ta4j.core.Indicator;
 import org.ta4j.core.indicators.CachedIndicator;
+import org.ta4j.core.indicators.Lookback;
 import org.ta4j.core.num.Num;
 
 /**
@@ -58,6 +59,11 @@ public class HighestValueIndicator extends CachedIndicator<Num> {
         return highest;
     }
 
+    @Override
+    public int getLookback() {
+        return Lookback.window(this, barCount);
+    }
+
     @Override
     public String toString() {
         return getClass().getSimpleName() + " barCount: " + barCount;
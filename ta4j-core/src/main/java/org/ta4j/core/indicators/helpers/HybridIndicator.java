@@ -0,0 +1,206 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.indicators.helpers;
+
+import org.ta4j.core.Indicator;
+import org.ta4j.core.indicators.AbstractIndicator;
+import org.ta4j.core.num.Num;
+
+import java.util.function.BiPredicate;
+
+/**
+ * Hybrid indicator.
+ *
+ * Pairs a fast indicator (e.g. built on a {@link org.ta4j.core.num.DoubleNum
+ * DoubleNum} series) with its exact counterpart (the same indicator built on a
+ * {@link org.ta4j.core.num.PrecisionNum PrecisionNum} series with the same
+ * bars). Its values are the fast ones; the decisions comparing near-equal
+ * values (crossings, thresholds, stop levels) are re-verified with the exact
+ * values (see {@link #test(Indicator, Indicator, int, BiPredicate)}), so that
+ * the trading record is the one of the exact indicators.
+ *
+ * The exact indicator is only evaluated for these decisions (a recursive exact
+ * indicator still computes its previous values once).
+ *
+ * 混合指标：取值使用快速指标（DoubleNum），仅在比较接近相等的值时用精确指标（PrecisionNum）重新验证。
+ */
+public class HybridIndicator extends AbstractIndicator<Num> {
+
+    private static final long serialVersionUID = 4179383283419271870L;
+
+    /**
+     * Default relative tolerance under which values are re-verified
+     */
+    public static final double DEFAULT_EPSILON = 1e-9;
+
+    private final Indicator<Num> fast;
+
+    private final Indicator<Num> exact;
+
+    private final double epsilon;
+
+    private long verificationCount;
+
+    /**
+     * Constructor.
+     *
+     * @param fast  the fast indicator
+     * @param exact the exact indicator (on a series with the same bars)
+     */
+    public HybridIndicator(Indicator<Num> fast, Indicator<Num> exact) {
+        this(fast, exact, DEFAULT_EPSILON);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param fast    the fast indicator
+     * @param exact   the exact indicator (on a series with the same bars)
+     * @param epsilon the relative tolerance under which values are re-verified
+     */
+    public HybridIndicator(Indicator<Num> fast, Indicator<Num> exact, double epsilon) {
+        super(fast.getBarSeries());
+        if (exact == null) {
+            throw new IllegalArgumentException("Exact indicator cannot be null");
+        }
+        if (!(epsilon >= 0)) {
+            throw new IllegalArgumentException("Epsilon must be positive");
+        }
+        this.fast = fast;
+        this.exact = exact;
+        this.epsilon = epsilon;
+    }
+
+    @Override
+    public Num getValue(int index) {
+        return fast.getValue(index);
+    }
+
+    /**
+     * @param index the bar index
+     * @return the exact value at index
+     */
+    public Num getExactValue(int index) {
+        return exact.getValue(index);
+    }
+
+    /**
+     * Converts a value of the fast type to the exact type (e.g. a price or a
+     * threshold), through its shortest decimal representation.
+     *
+     * @param value a value
+     * @return the value as an exact number
+     */
+    public Num toExact(Num value) {
+        return value.isNaN() ? value : exact.numOf(value.getDelegate());
+    }
+
+    /**
+     * @param first  a value
+     * @param second another value
+     * @return true if the values are within the relative tolerance of each other
+     *         (a decision comparing them has to be re-verified)
+     */
+    public boolean isNear(Num first, Num second) {
+        if (first.isNaN() || second.isNaN()) {
+            return false;
+        }
+        double a = first.doubleValue();
+        double b = second.doubleValue();
+        return Math.abs(a - b) <= epsilon * Math.max(Math.abs(a), Math.abs(b));
+    }
+
+    /**
+     * Counts a decision re-verified with the exact values.
+     */
+    public void countVerification() {
+        verificationCount++;
+    }
+
+    /**
+     * @return the number of decisions re-verified with the exact values
+     */
+    public long getVerificationCount() {
+        return verificationCount;
+    }
+
+    /**
+     * @return the fast indicator
+     */
+    public Indicator<Num> getFast() {
+        return fast;
+    }
+
+    /**
+     * @return the exact indicator
+     */
+    public Indicator<Num> getExact() {
+        return exact;
+    }
+
+    /**
+     * @return the relative tolerance under which values are re-verified
+     */
+    public double getEpsilon() {
+        return epsilon;
+    }
+
+    /**
+     * Tests a predicate on the values of two indicators. If one of them is a
+     * hybrid indicator and the values are near-equal, the predicate is tested on
+     * the exact values (the value of a non-hybrid indicator is converted, see
+     * {@link #toExact(Num)}).
+     *
+     * @param first     the first indicator
+     * @param second    the second indicator
+     * @param index     the bar index
+     * @param predicate the predicate (e.g. <code>Num::isGreaterThan</code>)
+     * @return the result of the predicate
+     */
+    public static boolean test(Indicator<Num> first, Indicator<Num> second, int index,
+            BiPredicate<Num, Num> predicate) {
+        Num firstValue = first.getValue(index);
+        Num secondValue = second.getValue(index);
+        HybridIndicator firstHybrid = first instanceof HybridIndicator ? (HybridIndicator) first : null;
+        HybridIndicator secondHybrid = second instanceof HybridIndicator ? (HybridIndicator) second : null;
+        if (firstHybrid == null && secondHybrid == null) {
+            return predicate.test(firstValue, secondValue);
+        }
+        HybridIndicator hybrid = firstHybrid != null ? firstHybrid : secondHybrid;
+        boolean near = hybrid.isNear(firstValue, secondValue)
+                || (secondHybrid != null && secondHybrid.isNear(firstValue, secondValue));
+        if (!near) {
+            return predicate.test(firstValue, secondValue);
+        }
+        hybrid.countVerification();
+        Num exactFirst = firstHybrid != null ? firstHybrid.getExactValue(index) : hybrid.toExact(firstValue);
+        Num exactSecond = secondHybrid != null ? secondHybrid.getExactValue(index) : hybrid.toExact(secondValue);
+        return predicate.test(exactFirst, exactSecond);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " " + fast + " " + exact;
+    }
+}
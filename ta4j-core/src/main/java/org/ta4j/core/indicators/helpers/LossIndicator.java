@@ -25,6 +25,8 @@ package org.ta4j.core.indicators.helpers;
 
 import org.ta4j.core.Indicator;
 import org.ta4j.core.indicators.CachedIndicator;
+import org.ta4j.core.indicators.Lookback;
+import org.ta4j.core.indicators.cache.CachePolicy;
 import org.ta4j.core.num.Num;
 
 /**
@@ -51,4 +53,14 @@ public class LossIndicator extends CachedIndicator<Num> {
             return numOf(0);
         }
     }
+
+    @Override
+    public int getLookback() {
+        return Lookback.plus(1, Lookback.ofInputs(this));
+    }
+
+    @Override
+    protected CachePolicy getDefaultCachePolicy() {
+        return CachePolicy.none();
+    }
 }
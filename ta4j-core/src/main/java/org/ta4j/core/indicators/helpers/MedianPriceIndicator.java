@@ -26,6 +26,7 @@ package org.ta4j.core.indicators.helpers;
 import org.ta4j.core.Bar;
 import org.ta4j.core.BarSeries;
 import org.ta4j.core.indicators.CachedIndicator;
+import org.ta4j.core.indicators.cache.CachePolicy;
 import org.ta4j.core.num.Num;
 
 /**
@@ -43,4 +44,9 @@ public class MedianPriceIndicator extends CachedIndicator<Num> {
         final Bar bar = getBarSeries().getBar(index);
         return bar.getHighPrice().plus(bar.getLowPrice()).dividedBy(numOf(2));
     }
+
+    @Override
+    protected CachePolicy getDefaultCachePolicy() {
+        return CachePolicy.none();
+    }
 }
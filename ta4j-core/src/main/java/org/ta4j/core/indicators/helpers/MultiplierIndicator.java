@@ -25,6 +25,7 @@ package org.ta4j.core.indicators.helpers;
 
 import org.ta4j.core.Indicator;
 import org.ta4j.core.indicators.CachedIndicator;
+import org.ta4j.core.indicators.cache.CachePolicy;
 import org.ta4j.core.num.Num;
 
 /**
@@ -52,6 +53,11 @@ public class MultiplierIndicator extends CachedIndicator<Num> {
         return indicator.getValue(index).multipliedBy(coefficient);
     }
 
+    @Override
+    protected CachePolicy getDefaultCachePolicy() {
+        return CachePolicy.none();
+    }
+
     @Override
     public String toString() {
         return getClass().getSimpleName() + " Coefficient: " + coefficient;
@@ -25,6 +25,7 @@ package org.ta4j.core.indicators.helpers;
 
 import org.ta4j.core.Indicator;
 import org.ta4j.core.indicators.CachedIndicator;
+import org.ta4j.core.indicators.Lookback;
 import org.ta4j.core.num.Num;
 
 /**
@@ -65,4 +66,9 @@ public class PreviousValueIndicator extends CachedIndicator<Num> {
         int previousValue = Math.max(0, (index - n));
         return this.indicator.getValue(previousValue);
     }
-}
\ No newline at end of file
+
+    @Override
+    public int getLookback() {
+        return Lookback.plus(n, Lookback.ofInputs(this));
+    }
+}
@@ -26,6 +26,7 @@ package org.ta4j.core.indicators.helpers;
 import org.ta4j.core.Bar;
 import org.ta4j.core.BarSeries;
 import org.ta4j.core.indicators.CachedIndicator;
+import org.ta4j.core.indicators.cache.CachePolicy;
 import org.ta4j.core.num.Num;
 
 import java.util.function.Function;
@@ -48,4 +49,9 @@ public abstract class PriceIndicator extends CachedIndicator<Num> {
         final Bar bar = getBarSeries().getBar(index);
         return priceFunction.apply(bar);
     }
+
+    @Override
+    protected CachePolicy getDefaultCachePolicy() {
+        return CachePolicy.none();
+    }
 }
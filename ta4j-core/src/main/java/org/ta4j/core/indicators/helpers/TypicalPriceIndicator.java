@@ -25,6 +25,7 @@ package org.ta4j.core.indicators.helpers;
 
 import org.ta4j.core.BarSeries;
 import org.ta4j.core.indicators.CachedIndicator;
+import org.ta4j.core.indicators.cache.CachePolicy;
 import org.ta4j.core.num.Num;
 
 /**
@@ -43,4 +44,9 @@ public class TypicalPriceIndicator extends CachedIndicator<Num> {
         Num closePrice = getBarSeries().getBar(index).getClosePrice();
         return maxPrice.plus(minPrice).plus(closePrice).dividedBy(numOf(3));
     }
-}
\ No newline at end of file
+
+    @Override
+    protected CachePolicy getDefaultCachePolicy() {
+        return CachePolicy.none();
+    }
+}
@@ -25,6 +25,7 @@ package org.ta4j.core.indicators.helpers;
 
 import org.ta4j.core.BarSeries;
 import org.ta4j.core.indicators.CachedIndicator;
+import org.ta4j.core.indicators.Lookback;
 import org.ta4j.core.num.Num;
 
 /**
@@ -52,4 +53,9 @@ public class VolumeIndicator extends CachedIndicator<Num> {
         }
         return sumOfVolume;
     }
-}
\ No newline at end of file
+
+    @Override
+    public int getLookback() {
+        return Lookback.window(this, barCount);
+    }
+}
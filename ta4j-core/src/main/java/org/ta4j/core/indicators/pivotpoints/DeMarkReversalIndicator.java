@@ -23,12 +23,9 @@
  */
 package org.ta4j.core.indicators.pivotpoints;
 
-import org.ta4j.core.Bar;
 import org.ta4j.core.indicators.RecursiveCachedIndicator;
 import org.ta4j.core.num.Num;
 
-import java.util.List;
-
 import static org.ta4j.core.num.NaN.NaN;
 
 /**
@@ -81,30 +78,18 @@ public class DeMarkReversalIndicator extends RecursiveCachedIndicator<Num> {
     }
 
     private Num calculateResistance(Num x, int index) {
-        List<Integer> barsOfPreviousPeriod = pivotPointIndicator.getBarsOfPreviousPeriod(index);
-        if (barsOfPreviousPeriod.isEmpty()) {
+        TimeLevelPeriods.Period period = pivotPointIndicator.getPreviousPeriod(index);
+        if (period == null) {
             return NaN;
         }
-        Bar bar = getBarSeries().getBar(barsOfPreviousPeriod.get(0));
-        Num low = bar.getLowPrice();
-        for (int i : barsOfPreviousPeriod) {
-            low = getBarSeries().getBar(i).getLowPrice().min(low);
-        }
-
-        return x.dividedBy(two).minus(low);
+        return x.dividedBy(two).minus(period.getLowPrice());
     }
 
     private Num calculateSupport(Num x, int index) {
-        List<Integer> barsOfPreviousPeriod = pivotPointIndicator.getBarsOfPreviousPeriod(index);
-        if (barsOfPreviousPeriod.isEmpty()) {
+        TimeLevelPeriods.Period period = pivotPointIndicator.getPreviousPeriod(index);
+        if (period == null) {
             return NaN;
         }
-        Bar bar = getBarSeries().getBar(barsOfPreviousPeriod.get(0));
-        Num high = bar.getHighPrice();
-        for (int i : barsOfPreviousPeriod) {
-            high = getBarSeries().getBar(i).getHighPrice().max(high);
-        }
-
-        return x.dividedBy(two).minus(high);
+        return x.dividedBy(two).minus(period.getHighPrice());
     }
 }
@@ -23,12 +23,9 @@
  */
 package org.ta4j.core.indicators.pivotpoints;
 
-import org.ta4j.core.Bar;
 import org.ta4j.core.indicators.RecursiveCachedIndicator;
 import org.ta4j.core.num.Num;
 
-import java.util.List;
-
 import static org.ta4j.core.num.NaN.NaN;
 
 /**
@@ -102,16 +99,11 @@ public class FibonacciReversalIndicator extends RecursiveCachedIndicator<Num> {
 
     @Override
     protected Num calculate(int index) {
-        List<Integer> barsOfPreviousPeriod = pivotPointIndicator.getBarsOfPreviousPeriod(index);
-        if (barsOfPreviousPeriod.isEmpty())
+        TimeLevelPeriods.Period period = pivotPointIndicator.getPreviousPeriod(index);
+        if (period == null)
             return NaN;
-        Bar bar = getBarSeries().getBar(barsOfPreviousPeriod.get(0));
-        Num high = bar.getHighPrice();
-        Num low = bar.getLowPrice();
-        for (int i : barsOfPreviousPeriod) {
-            high = (getBarSeries().getBar(i).getHighPrice()).max(high);
-            low = (getBarSeries().getBar(i).getLowPrice()).min(low);
-        }
+        Num high = period.getHighPrice();
+        Num low = period.getLowPrice();
 
         if (fibReversalTyp == FibReversalTyp.RESISTANCE) {
             return pivotPointIndicator.getValue(index).plus(fibonacciFactor.multipliedBy(high.minus(low)));
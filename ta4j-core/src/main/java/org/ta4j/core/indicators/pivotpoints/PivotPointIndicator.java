@@ -23,13 +23,10 @@
  */
 package org.ta4j.core.indicators.pivotpoints;
 
-import org.ta4j.core.Bar;
 import org.ta4j.core.BarSeries;
 import org.ta4j.core.indicators.RecursiveCachedIndicator;
 import org.ta4j.core.num.Num;
 
-import java.time.temporal.IsoFields;
-import java.util.ArrayList;
 import java.util.List;
 
 import static org.ta4j.core.num.NaN.NaN;
@@ -45,6 +42,11 @@ public class PivotPointIndicator extends RecursiveCachedIndicator<Num> {
 
     private final TimeLevel timeLevel;
 
+    /**
+     * The shared period segmentation of the series (looked up on first use)
+     */
+    private transient TimeLevelPeriods periods;
+
     /**
      * Constructor.
      *
@@ -80,20 +82,15 @@ public class PivotPointIndicator extends RecursiveCachedIndicator<Num> {
 
     @Override
     protected Num calculate(int index) {
-        return calcPivotPoint(getBarsOfPreviousPeriod(index));
+        return calcPivotPoint(getPreviousPeriod(index));
     }
 
-    private Num calcPivotPoint(List<Integer> barsOfPreviousPeriod) {
-        if (barsOfPreviousPeriod.isEmpty())
+    private Num calcPivotPoint(TimeLevelPeriods.Period previousPeriod) {
+        if (previousPeriod == null)
             return NaN;
-        Bar bar = getBarSeries().getBar(barsOfPreviousPeriod.get(0));
-        Num close = bar.getClosePrice();
-        Num high = bar.getHighPrice();
-        Num low = bar.getLowPrice();
-        for (int i : barsOfPreviousPeriod) {
-            high = (getBarSeries().getBar(i).getHighPrice()).max(high);
-            low = (getBarSeries().getBar(i).getLowPrice()).min(low);
-        }
+        Num high = previousPeriod.getHighPrice();
+        Num low = previousPeriod.getLowPrice();
+        Num close = previousPeriod.getClosePrice();
         return (high.plus(low).plus(close)).dividedBy(numOf(3));
     }
 
@@ -104,64 +101,22 @@ public class PivotPointIndicator extends RecursiveCachedIndicator<Num> {
      * @return list of indices of the bars of the previous period
      */
     public List<Integer> getBarsOfPreviousPeriod(int index) {
-        List<Integer> previousBars = new ArrayList<>();
-
-        if (timeLevel == TimeLevel.BARBASED) {
-            previousBars.add(Math.max(0, index - 1));
-            return previousBars;
-        }
-        if (index == 0) {
-            return previousBars;
-        }
-
-        final Bar currentBar = getBarSeries().getBar(index);
-
-        // step back while bar-1 in same period (day, week, etc):
-        while (index - 1 > getBarSeries().getBeginIndex()
-                && getPeriod(getBarSeries().getBar(index - 1)) == getPeriod(currentBar)) {
-            index--;
-        }
-
-        // index = last bar in same period, index-1 = first bar in previous period
-        long previousPeriod = getPreviousPeriod(currentBar, index - 1);
-        while (index - 1 >= getBarSeries().getBeginIndex()
-                && getPeriod(getBarSeries().getBar(index - 1)) == previousPeriod) { // while bar-n in previous period
-            index--;
-            previousBars.add(index);
-        }
-        return previousBars;
+        return getPeriods().getBarsOfPreviousPeriod(index);
     }
 
-    private long getPreviousPeriod(Bar bar, int indexOfPreviousBar) {
-        switch (timeLevel) {
-        case DAY: // return previous day
-            int prevCalendarDay = bar.getEndTime().minusDays(1).getDayOfYear();
-            // skip weekend and holidays:
-            while (getBarSeries().getBar(indexOfPreviousBar).getEndTime().getDayOfYear() != prevCalendarDay
-                    && indexOfPreviousBar > 0 && prevCalendarDay >= 0) {
-                prevCalendarDay--;
-            }
-            return prevCalendarDay;
-        case WEEK: // return previous week
-            return bar.getEndTime().minusWeeks(1).get(IsoFields.WEEK_OF_WEEK_BASED_YEAR);
-        case MONTH: // return previous month
-            return bar.getEndTime().minusMonths(1).getMonthValue();
-        default: // return previous year
-            return bar.getEndTime().minusYears(1).getYear();
-        }
+    /**
+     * @param index index of the current bar
+     * @return the previous period (with its aggregates), or null if there is none
+     */
+    public TimeLevelPeriods.Period getPreviousPeriod(int index) {
+        return getPeriods().getPreviousPeriod(index);
     }
 
-    private long getPeriod(Bar bar) {
-        switch (timeLevel) {
-        case DAY: // return previous day
-            return bar.getEndTime().getDayOfYear();
-        case WEEK: // return previous week
-            return bar.getEndTime().get(IsoFields.WEEK_OF_WEEK_BASED_YEAR);
-        case MONTH: // return previous month
-            return bar.getEndTime().getMonthValue();
-        default: // return previous year
-            return bar.getEndTime().getYear();
+    private TimeLevelPeriods getPeriods() {
+        if (periods == null) {
+            periods = TimeLevelPeriods.of(getBarSeries(), timeLevel);
         }
+        return periods;
     }
 
 }
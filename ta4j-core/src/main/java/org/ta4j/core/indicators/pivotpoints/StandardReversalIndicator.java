@@ -23,12 +23,9 @@
  */
 package org.ta4j.core.indicators.pivotpoints;
 
-import org.ta4j.core.Bar;
 import org.ta4j.core.indicators.RecursiveCachedIndicator;
 import org.ta4j.core.num.Num;
 
-import java.util.List;
-
 import static org.ta4j.core.num.NaN.NaN;
 
 /**
@@ -59,86 +56,52 @@ public class StandardReversalIndicator extends RecursiveCachedIndicator<Num> {
 
     @Override
     protected Num calculate(int index) {
-        List<Integer> barsOfPreviousPeriod = pivotPointIndicator.getBarsOfPreviousPeriod(index);
-        if (barsOfPreviousPeriod.isEmpty()) {
+        TimeLevelPeriods.Period period = pivotPointIndicator.getPreviousPeriod(index);
+        if (period == null) {
             return NaN;
         }
         switch (level) {
         case RESISTANCE_3:
-            return calculateR3(barsOfPreviousPeriod, index);
+            return calculateR3(period, index);
         case RESISTANCE_2:
-            return calculateR2(barsOfPreviousPeriod, index);
+            return calculateR2(period, index);
         case RESISTANCE_1:
-            return calculateR1(barsOfPreviousPeriod, index);
+            return calculateR1(period, index);
         case SUPPORT_1:
-            return calculateS1(barsOfPreviousPeriod, index);
+            return calculateS1(period, index);
         case SUPPORT_2:
-            return calculateS2(barsOfPreviousPeriod, index);
+            return calculateS2(period, index);
         case SUPPORT_3:
-            return calculateS3(barsOfPreviousPeriod, index);
+            return calculateS3(period, index);
         default:
             return NaN;
         }
 
     }
 
-    private Num calculateR3(List<Integer> barsOfPreviousPeriod, int index) {
-        Bar bar = getBarSeries().getBar(barsOfPreviousPeriod.get(0));
-        Num low = bar.getLowPrice();
-        Num high = bar.getHighPrice();
-        for (int i : barsOfPreviousPeriod) {
-            low = (getBarSeries().getBar(i).getLowPrice()).min(low);
-            high = (getBarSeries().getBar(i).getHighPrice()).max(high);
-        }
-        return high.plus(numOf(2).multipliedBy((pivotPointIndicator.getValue(index).minus(low))));
+    private Num calculateR3(TimeLevelPeriods.Period period, int index) {
+        return period.getHighPrice()
+                .plus(numOf(2).multipliedBy((pivotPointIndicator.getValue(index).minus(period.getLowPrice()))));
     }
 
-    private Num calculateR2(List<Integer> barsOfPreviousPeriod, int index) {
-        Bar bar = getBarSeries().getBar(barsOfPreviousPeriod.get(0));
-        Num low = bar.getLowPrice();
-        Num high = bar.getHighPrice();
-        for (int i : barsOfPreviousPeriod) {
-            low = (getBarSeries().getBar(i).getLowPrice()).min(low);
-            high = (getBarSeries().getBar(i).getHighPrice()).max(high);
-        }
-        return pivotPointIndicator.getValue(index).plus((high.minus(low)));
+    private Num calculateR2(TimeLevelPeriods.Period period, int index) {
+        return pivotPointIndicator.getValue(index).plus((period.getHighPrice().minus(period.getLowPrice())));
     }
 
-    private Num calculateR1(List<Integer> barsOfPreviousPeriod, int index) {
-        Num low = getBarSeries().getBar(barsOfPreviousPeriod.get(0)).getLowPrice();
-        for (int i : barsOfPreviousPeriod) {
-            low = (getBarSeries().getBar(i).getLowPrice()).min(low);
-        }
-        return numOf(2).multipliedBy(pivotPointIndicator.getValue(index)).minus(low);
+    private Num calculateR1(TimeLevelPeriods.Period period, int index) {
+        return numOf(2).multipliedBy(pivotPointIndicator.getValue(index)).minus(period.getLowPrice());
     }
 
-    private Num calculateS1(List<Integer> barsOfPreviousPeriod, int index) {
-        Num high = getBarSeries().getBar(barsOfPreviousPeriod.get(0)).getHighPrice();
-        for (int i : barsOfPreviousPeriod) {
-            high = (getBarSeries().getBar(i).getHighPrice()).max(high);
-        }
-        return numOf(2).multipliedBy(pivotPointIndicator.getValue(index)).minus(high);
+    private Num calculateS1(TimeLevelPeriods.Period period, int index) {
+        return numOf(2).multipliedBy(pivotPointIndicator.getValue(index)).minus(period.getHighPrice());
     }
 
-    private Num calculateS2(List<Integer> barsOfPreviousPeriod, int index) {
-        Bar bar = getBarSeries().getBar(barsOfPreviousPeriod.get(0));
-        Num high = bar.getHighPrice();
-        Num low = bar.getLowPrice();
-        for (int i : barsOfPreviousPeriod) {
-            high = (getBarSeries().getBar(i).getHighPrice()).max(high);
-            low = (getBarSeries().getBar(i).getLowPrice()).min(low);
-        }
-        return pivotPointIndicator.getValue(index).minus((high.minus(low)));
+    private Num calculateS2(TimeLevelPeriods.Period period, int index) {
+        return pivotPointIndicator.getValue(index).minus((period.getHighPrice().minus(period.getLowPrice())));
     }
 
-    private Num calculateS3(List<Integer> barsOfPreviousPeriod, int index) {
-        Bar bar = getBarSeries().getBar(barsOfPreviousPeriod.get(0));
-        Num high = bar.getHighPrice();
-        Num low = bar.getLowPrice();
-        for (int i : barsOfPreviousPeriod) {
-            high = (getBarSeries().getBar(i).getHighPrice()).max(high);
-            low = (getBarSeries().getBar(i).getLowPrice()).min(low);
-        }
-        return low.minus(numOf(2).multipliedBy((high.minus(pivotPointIndicator.getValue(index)))));
+    private Num calculateS3(TimeLevelPeriods.Period period, int index) {
+        return period.getLowPrice()
+                .minus(numOf(2).multipliedBy((period.getHighPrice().minus(pivotPointIndicator.getValue(index)))));
     }
 }
@@ -0,0 +1,395 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.indicators.pivotpoints;
+
+import org.ta4j.core.Bar;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.BarSeriesTimeIndex;
+import org.ta4j.core.num.Num;
+
+import java.lang.ref.WeakReference;
+import java.time.DayOfWeek;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Segmentation of a {@link BarSeries} into the periods (days, weeks, months or
+ * years) of a {@link TimeLevel}.
+ *
+ * The begin/end index and the open/high/low/close aggregates of each period are
+ * recorded once, incrementally as bars are appended, so that the previous
+ * period of a bar is found in O(1). One segmentation is shared by all the pivot
+ * point indicators of a series and time level (see
+ * {@link #of(BarSeries, TimeLevel)}).
+ *
+ * The last bar of the series is not aggregated until a new bar is appended
+ * since it may still be updated (e.g. by trades); it can never belong to the
+ * previous period of a bar of the series.
+ *
+ * The bounds of the periods are kept as epoch nanoseconds: the calendar is only
+ * used when a bar starts a new period.
+ *
+ * 将柱序列按时间级别（日、周、月、年）分段，增量记录每个时间段的起止索引和开高低收聚合值。
+ */
+public final class TimeLevelPeriods {
+
+    private static final Map<BarSeries, Map<TimeLevel, TimeLevelPeriods>> SHARED = new WeakHashMap<>();
+
+    private final WeakReference<BarSeries> series;
+
+    private final TimeLevel timeLevel;
+
+    private final List<Period> periods = new ArrayList<>();
+
+    /**
+     * periodOfBar[i - offset] is the position in periods of the bar at index i
+     */
+    private int[] periodOfBar = new int[16];
+
+    private int offset = -1;
+
+    /**
+     * The last aggregated index
+     */
+    private int lastIndex = -1;
+
+    /**
+     * The modification count of the series the aggregates are valid for
+     */
+    private long seriesModificationCount;
+
+    private TimeLevelPeriods(BarSeries series, TimeLevel timeLevel) {
+        this.series = new WeakReference<>(series);
+        this.timeLevel = timeLevel;
+    }
+
+    /**
+     * Returns the shared segmentation of a series.
+     *
+     * @param series    the bar series
+     * @param timeLevel the time level of the periods
+     * @return the segmentation of the series into periods of the time level
+     */
+    public static TimeLevelPeriods of(BarSeries series, TimeLevel timeLevel) {
+        synchronized (SHARED) {
+            return SHARED.computeIfAbsent(series, s -> new EnumMap<>(TimeLevel.class)).computeIfAbsent(timeLevel,
+                    level -> new TimeLevelPeriods(series, level));
+        }
+    }
+
+    /**
+     * @return the time level of the periods
+     */
+    public TimeLevel getTimeLevel() {
+        return timeLevel;
+    }
+
+    /**
+     * Returns the previous period of a bar, i.e. the last period before the
+     * period of the bar (the previous day with bars for {@link TimeLevel#DAY},
+     * the previous calendar week/month/year otherwise, or the previous bar for
+     * {@link TimeLevel#BARBASED}).
+     *
+     * @param index index of the current bar
+     * @return the previous period, or null if there is none
+     */
+    public synchronized Period getPreviousPeriod(int index) {
+        BarSeries barSeries = getBarSeries();
+        if (timeLevel == TimeLevel.BARBASED) {
+            int previousIndex = Math.max(0, index - 1);
+            Bar bar = barSeries.getBar(previousIndex);
+            return new Period(previousIndex, bar);
+        }
+        if (index == 0) {
+            return null;
+        }
+        update(barSeries);
+        int previousBarPosition = index - 1 - offset;
+        if (offset < 0 || previousBarPosition < 0 || index - 1 > lastIndex) {
+            return null;
+        }
+
+        Bar bar = barSeries.getBar(index);
+        int position = periodOfBar[previousBarPosition];
+        long currentPeriodStart;
+        Period period = periods.get(position);
+        if (period.contains(bar.getEndTimeNanos())) {
+            // The previous bar belongs to the current period
+            currentPeriodStart = period.startNanos;
+            position--;
+        } else {
+            currentPeriodStart = toEpochNanos(getPeriodStart(bar.getEndTime(), timeLevel));
+        }
+        if (position < 0) {
+            return null;
+        }
+        Period previous = periods.get(position);
+        if (timeLevel != TimeLevel.DAY && previous.nextStartNanos != currentPeriodStart) {
+            // No bar in the previous calendar period (weekends and holidays are
+            // only skipped for days)
+            return null;
+        }
+        return previous;
+    }
+
+    /**
+     * @param index index of the current bar
+     * @return the indices of the bars of the previous period, from the last to
+     *         the first one
+     */
+    public List<Integer> getBarsOfPreviousPeriod(int index) {
+        Period period = getPreviousPeriod(index);
+        if (period == null) {
+            return Collections.emptyList();
+        }
+        List<Integer> previousBars = new ArrayList<>(period.getBarCount());
+        for (int i = period.getEndIndex(); i >= period.getBeginIndex(); i--) {
+            previousBars.add(i);
+        }
+        return previousBars;
+    }
+
+    /**
+     * Aggregates the bars appended since the last update (except the last bar of
+     * the series).
+     */
+    private void update(BarSeries barSeries) {
+        long modificationCount = barSeries.getModificationCount();
+        if (modificationCount != seriesModificationCount) {
+            rollback(barSeries.getLowestChangedIndex(seriesModificationCount));
+            seriesModificationCount = modificationCount;
+        }
+        int toIndex = barSeries.getEndIndex() - 1;
+        if (toIndex <= lastIndex) {
+            return;
+        }
+        int firstIndex = Math.max(Math.max(barSeries.getBeginIndex(), barSeries.getRemovedBarsCount()), 0);
+        if (offset < 0 || firstIndex > lastIndex) {
+            // First update, or all aggregated bars removed
+            periods.clear();
+            offset = firstIndex;
+            lastIndex = firstIndex - 1;
+        } else if (firstIndex - offset > periodOfBar.length / 2) {
+            // Forget the removed bars
+            int removed = firstIndex - offset;
+            System.arraycopy(periodOfBar, removed, periodOfBar, 0, lastIndex - firstIndex + 1);
+            offset = firstIndex;
+        }
+        int count = toIndex - offset + 1;
+        if (count > periodOfBar.length) {
+            periodOfBar = Arrays.copyOf(periodOfBar, Math.max(count, periodOfBar.length * 2));
+        }
+        for (int i = lastIndex + 1; i <= toIndex; i++) {
+            Bar bar = barSeries.getBar(i);
+            Period last = periods.isEmpty() ? null : periods.get(periods.size() - 1);
+            if (last != null && last.contains(bar.getEndTimeNanos())) {
+                last.add(i, bar);
+            } else {
+                ZonedDateTime start = getPeriodStart(bar.getEndTime(), timeLevel);
+                periods.add(new Period(toEpochNanos(start), toEpochNanos(getNextPeriodStart(start, timeLevel)), i,
+                        bar));
+            }
+            periodOfBar[i - offset] = periods.size() - 1;
+        }
+        lastIndex = toIndex;
+    }
+
+    /**
+     * Forgets the aggregates of the periods from the one of a changed bar.
+     *
+     * @param changedIndex the lowest changed index
+     */
+    private void rollback(int changedIndex) {
+        if (changedIndex > lastIndex) {
+            return;
+        }
+        if (changedIndex < offset) {
+            offset = -1;
+            periods.clear();
+            lastIndex = -1;
+            return;
+        }
+        int position = periodOfBar[changedIndex - offset];
+        lastIndex = periods.get(position).getBeginIndex() - 1;
+        periods.subList(position, periods.size()).clear();
+        if (lastIndex < offset) {
+            offset = -1;
+        }
+    }
+
+    private BarSeries getBarSeries() {
+        BarSeries barSeries = series.get();
+        if (barSeries == null) {
+            throw new IllegalStateException("Bar series has been garbage collected");
+        }
+        return barSeries;
+    }
+
+    /**
+     * @param time      a time
+     * @param timeLevel the time level (not {@link TimeLevel#BARBASED})
+     * @return the start of the period (day, week, month or year) of time
+     */
+    static ZonedDateTime getPeriodStart(ZonedDateTime time, TimeLevel timeLevel) {
+        ZonedDateTime day = time.truncatedTo(ChronoUnit.DAYS);
+        switch (timeLevel) {
+        case DAY:
+            return day;
+        case WEEK:
+            return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        case MONTH:
+            return day.withDayOfMonth(1);
+        default:
+            return day.withDayOfYear(1);
+        }
+    }
+
+    private static ZonedDateTime getNextPeriodStart(ZonedDateTime periodStart, TimeLevel timeLevel) {
+        switch (timeLevel) {
+        case DAY:
+            return periodStart.plusDays(1);
+        case WEEK:
+            return periodStart.plusWeeks(1);
+        case MONTH:
+            return periodStart.plusMonths(1);
+        default:
+            return periodStart.plusYears(1);
+        }
+    }
+
+    private static long toEpochNanos(ZonedDateTime time) {
+        return BarSeriesTimeIndex.toEpochNanos(time.toInstant());
+    }
+
+    /**
+     * A period of bars with its aggregates.
+     */
+    public static final class Period {
+
+        /**
+         * Start of the period (epoch nanoseconds, inclusive)
+         */
+        private final long startNanos;
+
+        /**
+         * Start of the next period (epoch nanoseconds, exclusive)
+         */
+        private final long nextStartNanos;
+
+        private final int beginIndex;
+
+        private int endIndex;
+
+        private final Num openPrice;
+
+        private Num highPrice;
+
+        private Num lowPrice;
+
+        private Num closePrice;
+
+        private Period(int index, Bar bar) {
+            this(0, 0, index, bar);
+        }
+
+        private Period(long startNanos, long nextStartNanos, int index, Bar bar) {
+            this.startNanos = startNanos;
+            this.nextStartNanos = nextStartNanos;
+            this.beginIndex = index;
+            this.endIndex = index;
+            this.openPrice = bar.getOpenPrice();
+            this.highPrice = bar.getHighPrice();
+            this.lowPrice = bar.getLowPrice();
+            this.closePrice = bar.getClosePrice();
+        }
+
+        private boolean contains(long timeNanos) {
+            return timeNanos >= startNanos && timeNanos < nextStartNanos;
+        }
+
+        private void add(int index, Bar bar) {
+            endIndex = index;
+            highPrice = bar.getHighPrice().max(highPrice);
+            lowPrice = bar.getLowPrice().min(lowPrice);
+            closePrice = bar.getClosePrice();
+        }
+
+        /**
+         * @return the index of the first bar of the period
+         */
+        public int getBeginIndex() {
+            return beginIndex;
+        }
+
+        /**
+         * @return the index of the last bar of the period
+         */
+        public int getEndIndex() {
+            return endIndex;
+        }
+
+        /**
+         * @return the number of bars of the period
+         */
+        public int getBarCount() {
+            return endIndex - beginIndex + 1;
+        }
+
+        /**
+         * @return the open price of the first bar of the period
+         */
+        public Num getOpenPrice() {
+            return openPrice;
+        }
+
+        /**
+         * @return the highest price of the period
+         */
+        public Num getHighPrice() {
+            return highPrice;
+        }
+
+        /**
+         * @return the lowest price of the period
+         */
+        public Num getLowPrice() {
+            return lowPrice;
+        }
+
+        /**
+         * @return the close price of the last bar of the period
+         */
+        public Num getClosePrice() {
+            return closePrice;
+        }
+    }
+}
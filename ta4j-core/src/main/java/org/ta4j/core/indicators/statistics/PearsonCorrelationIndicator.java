@@ -25,6 +25,7 @@ package org.ta4j.core.indicators.statistics;
 
 import org.ta4j.core.Indicator;
 import org.ta4j.core.indicators.RecursiveCachedIndicator;
+import org.ta4j.core.indicators.Lookback;
 import org.ta4j.core.num.Num;
 
 import static org.ta4j.core.num.NaN.NaN;
@@ -93,4 +94,14 @@ public class PearsonCorrelationIndicator extends RecursiveCachedIndicator<Num> {
 
         return NaN;
     }
+
+    @Override
+    public int getLookback() {
+        return Lookback.window(this, barCount);
+    }
+
+    @Override
+    public int getStepLookback() {
+        return Math.max(0, barCount - 1);
+    }
 }
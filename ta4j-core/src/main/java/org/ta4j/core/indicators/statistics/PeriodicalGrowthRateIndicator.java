@@ -25,6 +25,7 @@ package org.ta4j.core.indicators.statistics;
 
 import org.ta4j.core.Indicator;
 import org.ta4j.core.indicators.CachedIndicator;
+import org.ta4j.core.indicators.Lookback;
 import org.ta4j.core.num.Num;
 
 import static org.ta4j.core.num.NaN.NaN;
@@ -133,4 +134,12 @@ public class PeriodicalGrowthRateIndicator extends CachedIndicator<Num> {
         return timeframedReturn;
 
     }
+
+    /**
+     * The growth rate depends on the number of bars of the series.
+     */
+    @Override
+    public int getLookback() {
+        return Lookback.UNBOUNDED;
+    }
 }
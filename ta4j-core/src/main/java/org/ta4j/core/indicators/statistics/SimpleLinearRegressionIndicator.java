@@ -25,6 +25,7 @@ package org.ta4j.core.indicators.statistics;
 
 import org.ta4j.core.Indicator;
 import org.ta4j.core.indicators.CachedIndicator;
+import org.ta4j.core.indicators.Lookback;
 import org.ta4j.core.num.Num;
 
 import static org.ta4j.core.num.NaN.NaN;
@@ -126,4 +127,9 @@ public class SimpleLinearRegressionIndicator extends CachedIndicator<Num> {
         slope = xyBar.dividedBy(xxBar);
         intercept = yBar.minus(slope.multipliedBy(xBar));
     }
+
+    @Override
+    public int getLookback() {
+        return Lookback.window(this, barCount);
+    }
 }
@@ -25,6 +25,7 @@ package org.ta4j.core.indicators.statistics;
 
 import org.ta4j.core.Indicator;
 import org.ta4j.core.indicators.CachedIndicator;
+import org.ta4j.core.indicators.Lookback;
 import org.ta4j.core.num.Num;
 
 /**
@@ -54,4 +55,9 @@ public class StandardErrorIndicator extends CachedIndicator<Num> {
         final int numberOfObservations = index - startIndex + 1;
         return sdev.getValue(index).dividedBy(numOf(numberOfObservations).sqrt());
     }
+
+    @Override
+    public int getLookback() {
+        return Lookback.window(this, barCount);
+    }
 }
@@ -0,0 +1,103 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.metrics;
+
+/**
+ * JMX view of the cumulated {@link org.ta4j.core.BacktestMetrics backtest
+ * metrics}.
+ *
+ * 累计回测度量的 JMX 视图。
+ */
+public interface BacktestMetricsMXBean {
+
+    /**
+     * @return the number of strategy runs
+     */
+    long getRunCount();
+
+    /**
+     * @return the number of processed bars
+     */
+    long getBarCount();
+
+    /**
+     * @return the number of bars processed per second of execution
+     */
+    double getBarsPerSecond();
+
+    /**
+     * @return the time spent in the evaluation of the strategy rules (in
+     *         nanoseconds)
+     */
+    long getEvaluationNanos();
+
+    /**
+     * @return the time spent in the updates of the trading records (in
+     *         nanoseconds)
+     */
+    long getTradingRecordNanos();
+
+    /**
+     * @return the time spent in the generation of the trading statements (in
+     *         nanoseconds)
+     */
+    long getReportNanos();
+
+    /**
+     * @return the highest peak number of cached results of a run
+     */
+    int getPeakCachedResultCount();
+
+    /**
+     * @return the highest peak cache memory usage of a run (in bytes)
+     */
+    long getPeakCacheMemoryUsage();
+
+    /**
+     * @return the median per-bar evaluation latency (in nanoseconds)
+     */
+    long getEvaluationLatencyP50();
+
+    /**
+     * @return the 99th percentile of the per-bar evaluation latency (in
+     *         nanoseconds)
+     */
+    long getEvaluationLatencyP99();
+
+    /**
+     * @return the 99.9th percentile of the per-bar evaluation latency (in
+     *         nanoseconds)
+     */
+    long getEvaluationLatencyP999();
+
+    /**
+     * @return the highest per-bar evaluation latency (in nanoseconds)
+     */
+    long getEvaluationLatencyMax();
+
+    /**
+     * Clears the cumulated metrics.
+     */
+    void reset();
+}
@@ -0,0 +1,196 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.metrics;
+
+import org.ta4j.core.BacktestMetrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Cumulates the {@link BacktestMetrics metrics} of backtest executions and
+ * exposes them as a JMX MBean.
+ *
+ * Attach it to a {@link org.ta4j.core.BacktestExecutor} with
+ * {@link org.ta4j.core.BacktestExecutor#setJmxMetrics(JmxBacktestMetrics)} and
+ * register it in the platform MBean server with {@link #register()}.
+ *
+ * 累计回测执行的度量并以 JMX MBean 的形式公开。
+ */
+public class JmxBacktestMetrics implements BacktestMetricsMXBean {
+
+    private final ObjectName objectName;
+
+    private final LatencyHistogram evaluationLatency = new LatencyHistogram();
+
+    private long runCount;
+    private long barCount;
+    private long wallNanos;
+    private long evaluationNanos;
+    private long tradingRecordNanos;
+    private long reportNanos;
+    private int peakCachedResultCount;
+    private long peakCacheMemoryUsage;
+
+    /**
+     * Constructor.
+     *
+     * @param name the name of the MBean (e.g. the name of the sweep)
+     */
+    public JmxBacktestMetrics(String name) {
+        try {
+            this.objectName = new ObjectName("org.ta4j:type=BacktestMetrics,name=" + ObjectName.quote(name));
+        } catch (JMException e) {
+            throw new IllegalArgumentException("Invalid MBean name: " + name, e);
+        }
+    }
+
+    /**
+     * Registers this MBean in the platform MBean server.
+     *
+     * @return this MBean
+     */
+    public JmxBacktestMetrics register() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.registerMBean(this, objectName);
+        } catch (JMException e) {
+            throw new IllegalStateException("Unable to register " + objectName, e);
+        }
+        return this;
+    }
+
+    /**
+     * Unregisters this MBean from the platform MBean server (if registered).
+     */
+    public void unregister() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Unable to unregister " + objectName, e);
+        }
+    }
+
+    /**
+     * @return the JMX name of this MBean
+     */
+    public ObjectName getObjectName() {
+        return objectName;
+    }
+
+    /**
+     * Cumulates the metrics of a backtest execution.
+     *
+     * @param metrics the metrics of the execution
+     */
+    public synchronized void record(BacktestMetrics metrics) {
+        runCount += metrics.getRuns().size();
+        barCount += metrics.getBarCount();
+        wallNanos += metrics.getWallNanos();
+        evaluationNanos += metrics.getEvaluationNanos();
+        tradingRecordNanos += metrics.getTradingRecordNanos();
+        reportNanos += metrics.getReportNanos();
+        peakCachedResultCount = Math.max(peakCachedResultCount, metrics.getPeakCachedResultCount());
+        peakCacheMemoryUsage = Math.max(peakCacheMemoryUsage, metrics.getPeakCacheMemoryUsage());
+        evaluationLatency.add(metrics.getEvaluationLatency());
+    }
+
+    @Override
+    public synchronized long getRunCount() {
+        return runCount;
+    }
+
+    @Override
+    public synchronized long getBarCount() {
+        return barCount;
+    }
+
+    @Override
+    public synchronized double getBarsPerSecond() {
+        return wallNanos == 0 ? 0 : barCount * 1e9 / wallNanos;
+    }
+
+    @Override
+    public synchronized long getEvaluationNanos() {
+        return evaluationNanos;
+    }
+
+    @Override
+    public synchronized long getTradingRecordNanos() {
+        return tradingRecordNanos;
+    }
+
+    @Override
+    public synchronized long getReportNanos() {
+        return reportNanos;
+    }
+
+    @Override
+    public synchronized int getPeakCachedResultCount() {
+        return peakCachedResultCount;
+    }
+
+    @Override
+    public synchronized long getPeakCacheMemoryUsage() {
+        return peakCacheMemoryUsage;
+    }
+
+    @Override
+    public synchronized long getEvaluationLatencyP50() {
+        return evaluationLatency.getValueAtPercentile(50);
+    }
+
+    @Override
+    public synchronized long getEvaluationLatencyP99() {
+        return evaluationLatency.getValueAtPercentile(99);
+    }
+
+    @Override
+    public synchronized long getEvaluationLatencyP999() {
+        return evaluationLatency.getValueAtPercentile(99.9);
+    }
+
+    @Override
+    public synchronized long getEvaluationLatencyMax() {
+        return evaluationLatency.getMax();
+    }
+
+    @Override
+    public synchronized void reset() {
+        runCount = 0;
+        barCount = 0;
+        wallNanos = 0;
+        evaluationNanos = 0;
+        tradingRecordNanos = 0;
+        reportNanos = 0;
+        peakCachedResultCount = 0;
+        peakCacheMemoryUsage = 0;
+        evaluationLatency.reset();
+    }
+}
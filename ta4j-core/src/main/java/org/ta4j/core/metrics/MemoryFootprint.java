@@ -0,0 +1,413 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.CompactTradingRecord;
+import org.ta4j.core.CompressedBarSeries;
+import org.ta4j.core.Indicator;
+import org.ta4j.core.OffHeapBarSeries;
+import org.ta4j.core.Strategy;
+import org.ta4j.core.TradingRecord;
+import org.ta4j.core.indicators.CachedIndicator;
+import org.ta4j.core.indicators.IndicatorGraph;
+import org.ta4j.core.indicators.cache.CacheManager;
+import org.ta4j.core.indicators.cache.CachePolicy;
+import org.ta4j.core.indicators.cache.ResultCache;
+import org.ta4j.core.num.DoubleNum;
+import org.ta4j.core.num.Num;
+import org.ta4j.core.num.PrecisionNum;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estimated heap footprint of an indicator graph, its bar series and a trading
+ * record.
+ *
+ * For each indicator, the estimated bytes are the ones of its cache once the
+ * results of all the bars have been requested (according to its
+ * {@link CachePolicy}); the actual bytes are the ones of the results cached so
+ * far. Both are computed with the estimated size of the {@link Num}
+ * implementation of the series. Bars and orders are sized from their fields
+ * (64-bit references, shared time zones and cost models).
+ *
+ * 指标图、柱序列和交易记录的堆内存占用估算。
+ */
+public class MemoryFootprint {
+
+    private static final Logger log = LoggerFactory.getLogger(MemoryFootprint.class);
+
+    /**
+     * Estimated size of a {@link DoubleNum} (bytes)
+     */
+    public static final long DOUBLE_NUM_BYTES = 24;
+
+    /**
+     * Estimated size of a {@link PrecisionNum} with the default precision: the
+     * num, its BigDecimal and the BigInteger of the unscaled value (bytes)
+     */
+    public static final long PRECISION_NUM_BYTES = 152;
+
+    /**
+     * Estimated size of a bar without its six nums: the bar, its list slot, its
+     * period and its begin/end times (bytes)
+     */
+    public static final long BAR_BYTES = 376;
+
+    /**
+     * Estimated size of an order without its four nums (bytes)
+     */
+    public static final long ORDER_BYTES = 80;
+
+    /**
+     * Estimated size of a trade, without its orders (bytes)
+     */
+    public static final long TRADE_BYTES = 56;
+
+    /**
+     * Size of an order of a {@link CompactTradingRecord} (index, price, amount)
+     */
+    private static final long COMPACT_ORDER_BYTES = Integer.BYTES + 2 * Double.BYTES;
+
+    private final List<Entry> entries;
+
+    private final long barSeriesBytes;
+
+    private final long tradingRecordBytes;
+
+    private MemoryFootprint(List<Entry> entries, long barSeriesBytes, long tradingRecordBytes) {
+        this.entries = Collections.unmodifiableList(entries);
+        this.barSeriesBytes = barSeriesBytes;
+        this.tradingRecordBytes = tradingRecordBytes;
+    }
+
+    /**
+     * @param strategy the strategy
+     * @param series   the bar series the strategy is run on
+     * @return the footprint of the indicators of the strategy and of the series
+     */
+    public static MemoryFootprint of(Strategy strategy, BarSeries series) {
+        return of(strategy, series, null);
+    }
+
+    /**
+     * @param strategy      the strategy
+     * @param series        the bar series the strategy is run on
+     * @param tradingRecord the trading record of the run (null for none)
+     * @return the footprint of the indicators of the strategy, of the series and
+     *         of the trading record
+     */
+    public static MemoryFootprint of(Strategy strategy, BarSeries series, TradingRecord tradingRecord) {
+        return of(IndicatorGraph.of(strategy), series, tradingRecord);
+    }
+
+    /**
+     * @param series     the bar series of the indicators
+     * @param indicators the indicators (their inputs are included)
+     * @return the footprint of the indicators and of the series
+     */
+    public static MemoryFootprint of(BarSeries series, Indicator<?>... indicators) {
+        return of(IndicatorGraph.of(indicators), series, null);
+    }
+
+    private static MemoryFootprint of(IndicatorGraph graph, BarSeries series, TradingRecord tradingRecord) {
+        Map<BarSeries, Boolean> seriesSet = new IdentityHashMap<>();
+        if (series != null) {
+            seriesSet.put(series, Boolean.TRUE);
+        }
+        List<Entry> entries = new ArrayList<>(graph.size());
+        for (Indicator<?> indicator : graph.getIndicators()) {
+            BarSeries indicatorSeries = indicator.getBarSeries() != null ? indicator.getBarSeries() : series;
+            if (indicatorSeries != null) {
+                seriesSet.put(indicatorSeries, Boolean.TRUE);
+            }
+            entries.add(new Entry(indicator, indicatorSeries));
+        }
+        long barSeriesBytes = 0;
+        for (BarSeries s : seriesSet.keySet()) {
+            barSeriesBytes += estimateBarSeries(s);
+        }
+        return new MemoryFootprint(entries, barSeriesBytes, estimateTradingRecord(tradingRecord));
+    }
+
+    /**
+     * @param series the bar series
+     * @return the estimated size of a result {@link Num} of the series (bytes)
+     */
+    public static long numBytes(BarSeries series) {
+        if (series == null) {
+            return ResultCache.RESULT_BYTES;
+        }
+        Num num = series.numOf(0);
+        if (num instanceof DoubleNum) {
+            return DOUBLE_NUM_BYTES;
+        }
+        if (num instanceof PrecisionNum) {
+            return PRECISION_NUM_BYTES;
+        }
+        return ResultCache.RESULT_BYTES;
+    }
+
+    /**
+     * @param series the bar series
+     * @return the estimated (heap) size of the bars of the series (bytes)
+     */
+    public static long estimateBarSeries(BarSeries series) {
+        if (series instanceof OffHeapBarSeries) {
+            // Bars are off heap
+            return 0;
+        }
+        if (series instanceof CompressedBarSeries) {
+            CompressedBarSeries compressed = (CompressedBarSeries) series;
+            return compressed.getCompressedSize()
+                    + compressed.getUncompressedBarCount() * (BAR_BYTES + 6 * numBytes(series));
+        }
+        return series.getBarCount() * (BAR_BYTES + 6 * numBytes(series));
+    }
+
+    /**
+     * @param tradingRecord the trading record (null for none)
+     * @return the estimated size of the orders and trades of the record (bytes)
+     */
+    public static long estimateTradingRecord(TradingRecord tradingRecord) {
+        if (tradingRecord == null) {
+            return 0;
+        }
+        if (tradingRecord instanceof CompactTradingRecord) {
+            return ((CompactTradingRecord) tradingRecord).getOrderCount() * COMPACT_ORDER_BYTES;
+        }
+        // Four nums per order, of the size of the first one
+        long orderCount = 2L * tradingRecord.getTradeCount() + (tradingRecord.getCurrentTrade().isOpened() ? 1 : 0);
+        long numBytes = ResultCache.RESULT_BYTES;
+        if (tradingRecord.getLastOrder() != null) {
+            Num price = tradingRecord.getLastOrder().getPricePerAsset();
+            numBytes = price instanceof DoubleNum ? DOUBLE_NUM_BYTES
+                    : price instanceof PrecisionNum ? PRECISION_NUM_BYTES : ResultCache.RESULT_BYTES;
+        }
+        return orderCount * (ResultCache.REFERENCE_BYTES + ORDER_BYTES + 4 * numBytes)
+                + tradingRecord.getTradeCount() * (ResultCache.REFERENCE_BYTES + TRADE_BYTES);
+    }
+
+    /**
+     * @return the footprints of the indicators, in topological order (inputs
+     *         first)
+     */
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * @param indicator an indicator of the graph
+     * @return the footprint of the indicator (null if not in the graph)
+     */
+    public Entry getEntry(Indicator<?> indicator) {
+        for (Entry entry : entries) {
+            if (entry.getIndicator() == indicator) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the estimated bytes of the indicator caches once all the bars are
+     *         computed
+     */
+    public long getEstimatedIndicatorBytes() {
+        return entries.stream().mapToLong(Entry::getEstimatedBytes).sum();
+    }
+
+    /**
+     * @return the bytes of the results currently cached by the indicators
+     */
+    public long getActualIndicatorBytes() {
+        return entries.stream().mapToLong(Entry::getActualBytes).sum();
+    }
+
+    /**
+     * @return the estimated bytes of the bars of the series (including the series
+     *         of the indicators on other timeframes)
+     */
+    public long getBarSeriesBytes() {
+        return barSeriesBytes;
+    }
+
+    /**
+     * @return the estimated bytes of the trading record (0 if none)
+     */
+    public long getTradingRecordBytes() {
+        return tradingRecordBytes;
+    }
+
+    /**
+     * @return the estimated total bytes once all the bars are computed
+     */
+    public long getEstimatedBytes() {
+        return getEstimatedIndicatorBytes() + barSeriesBytes + tradingRecordBytes;
+    }
+
+    /**
+     * @return the estimated total bytes currently retained
+     */
+    public long getActualBytes() {
+        return getActualIndicatorBytes() + barSeriesBytes + tradingRecordBytes;
+    }
+
+    /**
+     * @param budget the memory budget (bytes)
+     * @return true if the estimated total bytes exceed the budget
+     */
+    public boolean exceeds(long budget) {
+        return getEstimatedBytes() > budget;
+    }
+
+    /**
+     * Logs a warning if the estimated total bytes exceed the budget.
+     *
+     * @param budget the memory budget (bytes)
+     * @return true if the budget is exceeded
+     */
+    public boolean warnIfExceeds(long budget) {
+        long estimated = getEstimatedBytes();
+        if (estimated > budget) {
+            log.warn("Estimated memory footprint of {} bytes exceeds the budget of {} bytes", estimated, budget);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Logs a warning if the estimated bytes of the indicator caches exceed the
+     * budget of the cache manager (which would then evict caches).
+     *
+     * @param cacheManager the cache manager
+     * @return true if the budget is exceeded
+     */
+    public boolean warnIfExceeds(CacheManager cacheManager) {
+        long estimated = getEstimatedIndicatorBytes();
+        if (estimated > cacheManager.getBudget()) {
+            log.warn("Estimated indicator caches of {} bytes exceed the cache manager budget of {} bytes", estimated,
+                    cacheManager.getBudget());
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%14s %14s %10s  %s%n", "estimated", "actual", "policy", "indicator"));
+        for (Entry entry : entries) {
+            sb.append(String.format("%14d %14d %10s  %s%n", entry.getEstimatedBytes(), entry.getActualBytes(),
+                    entry.getCachePolicy() == null ? "-" : entry.getCachePolicy(),
+                    entry.getIndicator().getClass().getSimpleName()));
+        }
+        sb.append(String.format("%14d %14d %10s  %s%n", barSeriesBytes, barSeriesBytes, "", "bars"));
+        sb.append(String.format("%14d %14d %10s  %s%n", tradingRecordBytes, tradingRecordBytes, "", "trading record"));
+        sb.append(String.format("%14d %14d %10s  %s%n", getEstimatedBytes(), getActualBytes(), "", "total"));
+        return sb.toString();
+    }
+
+    /**
+     * Memory footprint of an indicator.
+     */
+    public static class Entry {
+
+        private final Indicator<?> indicator;
+        private final CachePolicy cachePolicy;
+        private final int expectedResultCount;
+        private final int cachedResultCount;
+        private final long estimatedBytes;
+        private final long actualBytes;
+
+        Entry(Indicator<?> indicator, BarSeries series) {
+            this.indicator = indicator;
+            if (indicator instanceof CachedIndicator) {
+                CachedIndicator<?> cachedIndicator = (CachedIndicator<?>) indicator;
+                long numBytes = numBytes(series);
+                this.cachePolicy = cachedIndicator.getCachePolicy();
+                // The result of the last bar is never cached
+                this.expectedResultCount = series == null ? 0
+                        : Math.max(0, Math.min(series.getBarCount(), series.getMaximumBarCount()) - 1);
+                this.cachedResultCount = cachedIndicator.getCachedResultCount();
+                this.estimatedBytes = cachePolicy.estimateMemoryUsage(expectedResultCount, numBytes);
+                this.actualBytes = cachePolicy.estimateMemoryUsage(cachedResultCount, numBytes);
+            } else {
+                this.cachePolicy = null;
+                this.expectedResultCount = 0;
+                this.cachedResultCount = 0;
+                this.estimatedBytes = 0;
+                this.actualBytes = 0;
+            }
+        }
+
+        /**
+         * @return the indicator
+         */
+        public Indicator<?> getIndicator() {
+            return indicator;
+        }
+
+        /**
+         * @return the cache policy of the indicator (null if not a cached indicator)
+         */
+        public CachePolicy getCachePolicy() {
+            return cachePolicy;
+        }
+
+        /**
+         * @return the number of results requested once all the bars are computed
+         */
+        public int getExpectedResultCount() {
+            return expectedResultCount;
+        }
+
+        /**
+         * @return the number of result slots currently held by the cache
+         */
+        public int getCachedResultCount() {
+            return cachedResultCount;
+        }
+
+        /**
+         * @return the estimated bytes of the cache once all the bars are computed
+         */
+        public long getEstimatedBytes() {
+            return estimatedBytes;
+        }
+
+        /**
+         * @return the estimated bytes of the results currently cached
+         */
+        public long getActualBytes() {
+            return actualBytes;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.metrics;
+
+/**
+ * Holder of the global {@link MetricsCollector metrics collector}.
+ *
+ * 全局度量收集器的持有者。
+ */
+public final class Metrics {
+
+    private static volatile MetricsCollector collector = MetricsCollector.NO_OP;
+
+    private Metrics() {
+    }
+
+    /**
+     * @return the metrics collector ({@link MetricsCollector#NO_OP} if disabled)
+     */
+    public static MetricsCollector getCollector() {
+        return collector;
+    }
+
+    /**
+     * @param metricsCollector the metrics collector (null to disable metrics)
+     */
+    public static void setCollector(MetricsCollector metricsCollector) {
+        collector = metricsCollector == null ? MetricsCollector.NO_OP : metricsCollector;
+    }
+
+    /**
+     * @return true if a metrics collector is installed
+     */
+    public static boolean isEnabled() {
+        return collector != MetricsCollector.NO_OP;
+    }
+}
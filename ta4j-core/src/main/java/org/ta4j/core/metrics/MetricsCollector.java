@@ -0,0 +1,106 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.metrics;
+
+import org.ta4j.core.Indicator;
+import org.ta4j.core.Rule;
+
+/**
+ * Collector of the metrics of the {@link org.ta4j.core.indicators.CachedIndicator
+ * cached indicators} and {@link org.ta4j.core.trading.rules.AbstractRule rules}.
+ *
+ * The collector is installed with {@link Metrics#setCollector(MetricsCollector)}.
+ * All the methods do nothing by default; the {@link #NO_OP} collector is used
+ * when metrics are disabled. Calculations may be nested (an indicator computing
+ * its inputs): each {@link #calculationStarted(Indicator, int)} is followed by
+ * the matching {@link #calculationEnded(Indicator, int)} on the same thread.
+ *
+ * 缓存指标和规则的度量收集器。
+ */
+public interface MetricsCollector {
+
+    /**
+     * The collector doing nothing
+     */
+    MetricsCollector NO_OP = new MetricsCollector() {
+    };
+
+    /**
+     * Called when a value is read from the cache of an indicator.
+     *
+     * @param indicator the indicator
+     * @param index     the bar index
+     */
+    default void cacheHit(Indicator<?> indicator, int index) {
+    }
+
+    /**
+     * Called when a value is not found in the cache of an indicator (it is then
+     * calculated).
+     *
+     * @param indicator the indicator
+     * @param index     the bar index
+     */
+    default void cacheMiss(Indicator<?> indicator, int index) {
+    }
+
+    /**
+     * Called when the result of a bar already removed from the series is
+     * requested (the result of the first remaining bar is returned instead).
+     *
+     * @param indicator       the indicator
+     * @param index           the requested bar index
+     * @param substituteIndex the index of the first remaining bar
+     */
+    default void removedResultRequested(Indicator<?> indicator, int index, int substituteIndex) {
+    }
+
+    /**
+     * Called before the calculation of a value.
+     *
+     * @param indicator the indicator
+     * @param index     the bar index
+     */
+    default void calculationStarted(Indicator<?> indicator, int index) {
+    }
+
+    /**
+     * Called after the calculation of a value (even if it failed).
+     *
+     * @param indicator the indicator
+     * @param index     the bar index
+     */
+    default void calculationEnded(Indicator<?> indicator, int index) {
+    }
+
+    /**
+     * Called when a rule has been evaluated.
+     *
+     * @param rule      the rule
+     * @param index     the bar index
+     * @param satisfied true if the rule is satisfied
+     */
+    default void ruleEvaluated(Rule rule, int index, boolean satisfied) {
+    }
+}
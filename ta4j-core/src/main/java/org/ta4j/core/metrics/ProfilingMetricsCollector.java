@@ -0,0 +1,338 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.metrics;
+
+import org.ta4j.core.Indicator;
+import org.ta4j.core.Rule;
+import org.ta4j.core.Strategy;
+import org.ta4j.core.indicators.IndicatorGraph;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory {@link MetricsCollector metrics collector} profiling each indicator
+ * and rule instance.
+ *
+ * For indicators it records cache hits and misses, calculations, the total time
+ * of the calculations (including inputs), the self time (excluding the
+ * calculations of other indicators) and the maximum recursion depth. For rules
+ * it records evaluations and satisfactions. Profiles of a strategy are ranked by
+ * self time with {@link #report(Strategy)}:
+ *
+ * <pre>
+ * ProfilingMetricsCollector profiler = new ProfilingMetricsCollector();
+ * Metrics.setCollector(profiler);
+ * new BarSeriesManager(series).run(strategy);
+ * System.out.println(profiler.report(strategy));
+ * </pre>
+ *
+ * 内存中的度量收集器，按实例分析指标和规则。
+ */
+public class ProfilingMetricsCollector implements MetricsCollector {
+
+    private final Map<Object, Profile> profiles = new ConcurrentHashMap<>();
+
+    /**
+     * The calculations in progress of each thread
+     */
+    private final ThreadLocal<Deque<Frame>> frames = ThreadLocal.withInitial(ArrayDeque::new);
+
+    /**
+     * The recursion depth of each indicator in each thread
+     */
+    private final ThreadLocal<Map<Object, int[]>> depths = ThreadLocal.withInitial(IdentityHashMap::new);
+
+    @Override
+    public void cacheHit(Indicator<?> indicator, int index) {
+        profile(indicator).cacheHits.increment();
+    }
+
+    @Override
+    public void cacheMiss(Indicator<?> indicator, int index) {
+        profile(indicator).cacheMisses.increment();
+    }
+
+    @Override
+    public void calculationStarted(Indicator<?> indicator, int index) {
+        Profile profile = profile(indicator);
+        profile.calculations.increment();
+        int[] depth = depths.get().computeIfAbsent(indicator, i -> new int[1]);
+        depth[0]++;
+        profile.maxRecursionDepth.accumulateAndGet(depth[0], Math::max);
+        frames.get().push(new Frame(profile, depth, System.nanoTime()));
+    }
+
+    @Override
+    public void calculationEnded(Indicator<?> indicator, int index) {
+        Deque<Frame> stack = frames.get();
+        Frame frame = stack.poll();
+        if (frame == null) {
+            return;
+        }
+        long elapsed = System.nanoTime() - frame.startTime;
+        frame.depth[0]--;
+        frame.profile.selfNanos.add(elapsed - frame.childNanos);
+        if (frame.depth[0] == 0) {
+            // Recursive calculations are already counted by the outermost one
+            frame.profile.totalNanos.add(elapsed);
+            depths.get().remove(indicator);
+        }
+        Frame parent = stack.peek();
+        if (parent != null) {
+            parent.childNanos += elapsed;
+        }
+    }
+
+    @Override
+    public void ruleEvaluated(Rule rule, int index, boolean satisfied) {
+        Profile profile = profile(rule);
+        profile.evaluations.increment();
+        if (satisfied) {
+            profile.satisfactions.increment();
+        }
+    }
+
+    /**
+     * @param source an indicator or a rule
+     * @return the profile of the indicator or rule, null if no metrics were
+     *         recorded
+     */
+    public Profile getProfile(Object source) {
+        return profiles.get(source);
+    }
+
+    /**
+     * @return the profiles of all the indicators and rules, by decreasing self
+     *         time
+     */
+    public List<Profile> getProfiles() {
+        return rank(profiles.values());
+    }
+
+    /**
+     * @param strategy a strategy
+     * @return the profiles of the indicators and rules of the strategy, by
+     *         decreasing self time
+     */
+    public List<Profile> getProfiles(Strategy strategy) {
+        IndicatorGraph graph = IndicatorGraph.of(strategy);
+        List<Profile> strategyProfiles = new ArrayList<>();
+        for (Indicator<?> indicator : graph.getIndicators()) {
+            Profile profile = profiles.get(indicator);
+            if (profile != null) {
+                strategyProfiles.add(profile);
+            }
+        }
+        for (Rule rule : graph.getRules()) {
+            Profile profile = profiles.get(rule);
+            if (profile != null) {
+                strategyProfiles.add(profile);
+            }
+        }
+        return rank(strategyProfiles);
+    }
+
+    /**
+     * Removes all the profiles.
+     */
+    public void reset() {
+        profiles.clear();
+    }
+
+    /**
+     * @param strategy a strategy
+     * @return a ranked profile of the indicators and rules of the strategy
+     */
+    public String report(Strategy strategy) {
+        return report(strategy.getName() == null ? "strategy" : strategy.getName(), getProfiles(strategy));
+    }
+
+    /**
+     * @return a ranked profile of all the indicators and rules
+     */
+    public String report() {
+        return report("all indicators and rules", getProfiles());
+    }
+
+    private String report(String title, List<Profile> ranked) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Profile of ").append(title).append(System.lineSeparator());
+        sb.append(String.format("%4s %10s %10s %12s %10s %10s %6s %6s  %s%n", "rank", "self ms", "total ms",
+                "calculations", "hits", "misses", "hit %", "depth", "indicator"));
+        int rank = 1;
+        for (Profile profile : ranked) {
+            if (profile.getSource() instanceof Indicator) {
+                sb.append(String.format("%4d %10.3f %10.3f %12d %10d %10d %6.1f %6d  %s%n", rank++,
+                        profile.getSelfNanos() / 1e6, profile.getTotalNanos() / 1e6, profile.getCalculations(),
+                        profile.getCacheHits(), profile.getCacheMisses(), profile.getHitRatio() * 100,
+                        profile.getMaxRecursionDepth(), profile.getSource()));
+            }
+        }
+        sb.append(String.format("%12s %12s  %s%n", "evaluations", "satisfied", "rule"));
+        for (Profile profile : ranked) {
+            if (profile.getSource() instanceof Rule) {
+                sb.append(String.format("%12d %12d  %s%n", profile.getEvaluations(), profile.getSatisfactions(),
+                        profile.getSource().getClass().getSimpleName()));
+            }
+        }
+        return sb.toString();
+    }
+
+    private Profile profile(Object source) {
+        Profile profile = profiles.get(source);
+        return profile != null ? profile : profiles.computeIfAbsent(source, Profile::new);
+    }
+
+    private static List<Profile> rank(Collection<Profile> profiles) {
+        List<Profile> ranked = new ArrayList<>(profiles);
+        ranked.sort(Comparator.comparingLong(Profile::getSelfNanos).reversed()
+                .thenComparing(Comparator.comparingLong(Profile::getEvaluations).reversed()));
+        return ranked;
+    }
+
+    /**
+     * A calculation in progress.
+     */
+    private static final class Frame {
+
+        private final Profile profile;
+
+        private final int[] depth;
+
+        private final long startTime;
+
+        /**
+         * The time spent in nested calculations
+         */
+        private long childNanos;
+
+        private Frame(Profile profile, int[] depth, long startTime) {
+            this.profile = profile;
+            this.depth = depth;
+            this.startTime = startTime;
+        }
+    }
+
+    /**
+     * The metrics of an indicator or a rule.
+     */
+    public static final class Profile {
+
+        private final Object source;
+
+        private final LongAdder cacheHits = new LongAdder();
+
+        private final LongAdder cacheMisses = new LongAdder();
+
+        private final LongAdder calculations = new LongAdder();
+
+        private final LongAdder totalNanos = new LongAdder();
+
+        private final LongAdder selfNanos = new LongAdder();
+
+        private final AtomicInteger maxRecursionDepth = new AtomicInteger();
+
+        private final LongAdder evaluations = new LongAdder();
+
+        private final LongAdder satisfactions = new LongAdder();
+
+        private Profile(Object source) {
+            this.source = source;
+        }
+
+        /**
+         * @return the indicator or rule
+         */
+        public Object getSource() {
+            return source;
+        }
+
+        public long getCacheHits() {
+            return cacheHits.sum();
+        }
+
+        public long getCacheMisses() {
+            return cacheMisses.sum();
+        }
+
+        /**
+         * @return the ratio of the cache reads found in the cache (0 if none)
+         */
+        public double getHitRatio() {
+            long hits = getCacheHits();
+            long reads = hits + getCacheMisses();
+            return reads == 0 ? 0 : (double) hits / reads;
+        }
+
+        public long getCalculations() {
+            return calculations.sum();
+        }
+
+        /**
+         * @return the time spent in the calculations, including the inputs (ns)
+         */
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        /**
+         * @return the time spent in the calculations, excluding the calculations of
+         *         other indicators (ns)
+         */
+        public long getSelfNanos() {
+            return selfNanos.sum();
+        }
+
+        /**
+         * @return the maximum number of nested calculations of the indicator
+         */
+        public int getMaxRecursionDepth() {
+            return maxRecursionDepth.get();
+        }
+
+        public long getEvaluations() {
+            return evaluations.sum();
+        }
+
+        public long getSatisfactions() {
+            return satisfactions.sum();
+        }
+
+        @Override
+        public String toString() {
+            return "Profile[" + source + ", calculations: " + getCalculations() + ", hits: " + getCacheHits()
+                    + ", self: " + getSelfNanos() + " ns, evaluations: " + getEvaluations() + "]";
+        }
+    }
+}
@@ -34,11 +34,23 @@ public class TradingStatement {
     private final Strategy strategy;
     private final TradeStatsReport tradeStatsReport;
     private final PerformanceReport performanceReport;
+    private final boolean pruned;
 
     public TradingStatement(Strategy strategy, TradeStatsReport tradeStatsReport, PerformanceReport performanceReport) {
+        this(strategy, tradeStatsReport, performanceReport, false);
+    }
+
+    /**
+     * @param pruned true if the statement comes from a run aborted by a
+     *               {@link org.ta4j.core.BacktestPruner pruner} (i.e. partial
+     *               results)
+     */
+    public TradingStatement(Strategy strategy, TradeStatsReport tradeStatsReport, PerformanceReport performanceReport,
+            boolean pruned) {
         this.strategy = strategy;
         this.tradeStatsReport = tradeStatsReport;
         this.performanceReport = performanceReport;
+        this.pruned = pruned;
     }
 
     public Strategy getStrategy() {
@@ -52,4 +64,11 @@ public class TradingStatement {
     public PerformanceReport getPerformanceReport() {
         return performanceReport;
     }
+
+    /**
+     * @return true if the statement holds partial results of a pruned run
+     */
+    public boolean isPruned() {
+        return pruned;
+    }
 }
@@ -23,9 +23,14 @@
  */
 package org.ta4j.core.trading.rules;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.ta4j.core.Rule;
+import org.ta4j.core.events.DecisionEvent;
+import org.ta4j.core.events.DecisionEvents;
+import org.ta4j.core.events.DecisionListener;
+import org.ta4j.core.metrics.Metrics;
+
+import java.util.Collections;
+import java.util.Map;
 
 /**
  * An abstract trading {@link Rule rule}.
@@ -33,19 +38,30 @@ import org.ta4j.core.Rule;
  */
 public abstract class AbstractRule implements Rule {
 
-    /** The logger */
-    protected final Logger log = LoggerFactory.getLogger(getClass());
-
-    /** The class name */
-    private final String className = getClass().getSimpleName();
-
     /**
-     * Traces the isSatisfied() method calls.
+     * Traces the isSatisfied() method calls: reports them to the {@link Metrics
+     * metrics collector} and, if enabled, to the {@link DecisionEvents decision
+     * listener}.
      * 
      * @param index       the bar index
      * @param isSatisfied true if the rule is satisfied, false otherwise
      */
     protected void traceIsSatisfied(int index, boolean isSatisfied) {
-        log.trace("{}#isSatisfied({}): {}", className, index, isSatisfied);
+        Metrics.getCollector().ruleEvaluated(this, index, isSatisfied);
+        DecisionListener listener = DecisionEvents.getListener();
+        if (listener != DecisionListener.NONE) {
+            listener.onDecision(
+                    new DecisionEvent(this, DecisionEvent.Type.RULE, index, isSatisfied, getDecisionDetails(index)));
+        }
+    }
+
+    /**
+     * Only called when decision events are enabled.
+     * 
+     * @param index the bar index
+     * @return the values the decision at index was based on (by name)
+     */
+    protected Map<String, Object> getDecisionDetails(int index) {
+        return Collections.emptyMap();
     }
 }
@@ -23,9 +23,11 @@
  */
 package org.ta4j.core.trading.rules;
 
+import org.ta4j.core.Indicator;
 import org.ta4j.core.Trade;
 import org.ta4j.core.TradingRecord;
 import org.ta4j.core.indicators.helpers.ClosePriceIndicator;
+import org.ta4j.core.indicators.helpers.HybridIndicator;
 import org.ta4j.core.num.Num;
 
 /**
@@ -42,9 +44,10 @@ public class StopGainRule extends AbstractRule {
     private final Num HUNDRED;
 
     /**
-     * The close price indicator
+     * The close price indicator (a {@link HybridIndicator hybrid} one to
+     * re-verify the stop levels near the close price with exact numbers)
      */
-    private final ClosePriceIndicator closePrice;
+    private final Indicator<Num> closePrice;
 
     /**
      * The gain percentage
@@ -68,6 +71,32 @@ public class StopGainRule extends AbstractRule {
      * @param gainPercentage the gain percentage
      */
     public StopGainRule(ClosePriceIndicator closePrice, Num gainPercentage) {
+        this((Indicator<Num>) closePrice, gainPercentage);
+    }
+
+    /**
+     * Constructor re-verifying the stop levels near the close price with exact
+     * numbers.
+     *
+     * @param closePrice     the hybrid close price indicator
+     * @param gainPercentage the gain percentage
+     */
+    public StopGainRule(HybridIndicator closePrice, Number gainPercentage) {
+        this(closePrice, closePrice.numOf(gainPercentage));
+    }
+
+    /**
+     * Constructor re-verifying the stop levels near the close price with exact
+     * numbers.
+     *
+     * @param closePrice     the hybrid close price indicator
+     * @param gainPercentage the gain percentage
+     */
+    public StopGainRule(HybridIndicator closePrice, Num gainPercentage) {
+        this((Indicator<Num>) closePrice, gainPercentage);
+    }
+
+    private StopGainRule(Indicator<Num> closePrice, Num gainPercentage) {
         this.closePrice = closePrice;
         this.gainPercentage = gainPercentage;
         HUNDRED = closePrice.numOf(100);
@@ -83,11 +112,19 @@ public class StopGainRule extends AbstractRule {
 
                 Num entryPrice = currentTrade.getEntry().getNetPrice();
                 Num currentPrice = closePrice.getValue(index);
+                boolean buy = currentTrade.getEntry().isBuy();
 
-                if (currentTrade.getEntry().isBuy()) {
-                    satisfied = isBuyGainSatisfied(entryPrice, currentPrice);
+                Num threshold = getThreshold(buy, entryPrice, gainPercentage, HUNDRED);
+                if (closePrice instanceof HybridIndicator
+                        && ((HybridIndicator) closePrice).isNear(currentPrice, threshold)) {
+                    // Near the stop level: re-verified with exact numbers
+                    HybridIndicator hybrid = (HybridIndicator) closePrice;
+                    hybrid.countVerification();
+                    Num exactThreshold = getThreshold(buy, hybrid.toExact(entryPrice), hybrid.toExact(gainPercentage),
+                            hybrid.toExact(HUNDRED));
+                    satisfied = isReached(buy, hybrid.getExactValue(index), exactThreshold);
                 } else {
-                    satisfied = isSellGainSatisfied(entryPrice, currentPrice);
+                    satisfied = isReached(buy, currentPrice, threshold);
                 }
             }
         }
@@ -95,15 +132,13 @@ public class StopGainRule extends AbstractRule {
         return satisfied;
     }
 
-    private boolean isSellGainSatisfied(Num entryPrice, Num currentPrice) {
-        Num lossRatioThreshold = HUNDRED.minus(gainPercentage).dividedBy(HUNDRED);
-        Num threshold = entryPrice.multipliedBy(lossRatioThreshold);
-        return currentPrice.isLessThanOrEqual(threshold);
+    private static Num getThreshold(boolean buy, Num entryPrice, Num gainPercentage, Num hundred) {
+        Num ratioThreshold = buy ? hundred.plus(gainPercentage).dividedBy(hundred)
+                : hundred.minus(gainPercentage).dividedBy(hundred);
+        return entryPrice.multipliedBy(ratioThreshold);
     }
 
-    private boolean isBuyGainSatisfied(Num entryPrice, Num currentPrice) {
-        Num lossRatioThreshold = HUNDRED.plus(gainPercentage).dividedBy(HUNDRED);
-        Num threshold = entryPrice.multipliedBy(lossRatioThreshold);
-        return currentPrice.isGreaterThanOrEqual(threshold);
+    private static boolean isReached(boolean buy, Num currentPrice, Num threshold) {
+        return buy ? currentPrice.isGreaterThanOrEqual(threshold) : currentPrice.isLessThanOrEqual(threshold);
     }
 }
@@ -23,9 +23,11 @@
  */
 package org.ta4j.core.trading.rules;
 
+import org.ta4j.core.Indicator;
 import org.ta4j.core.Trade;
 import org.ta4j.core.TradingRecord;
 import org.ta4j.core.indicators.helpers.ClosePriceIndicator;
+import org.ta4j.core.indicators.helpers.HybridIndicator;
 import org.ta4j.core.num.Num;
 
 /**
@@ -42,9 +44,10 @@ public class StopLossRule extends AbstractRule {
     private final Num HUNDRED;
 
     /**
-     * The close price indicator
+     * The close price indicator (a {@link HybridIndicator hybrid} one to
+     * re-verify the stop levels near the close price with exact numbers)
      */
-    private final ClosePriceIndicator closePrice;
+    private final Indicator<Num> closePrice;
 
     /**
      * The loss percentage
@@ -68,6 +71,32 @@ public class StopLossRule extends AbstractRule {
      * @param lossPercentage the loss percentage
      */
     public StopLossRule(ClosePriceIndicator closePrice, Num lossPercentage) {
+        this((Indicator<Num>) closePrice, lossPercentage);
+    }
+
+    /**
+     * Constructor re-verifying the stop levels near the close price with exact
+     * numbers.
+     *
+     * @param closePrice     the hybrid close price indicator
+     * @param lossPercentage the loss percentage
+     */
+    public StopLossRule(HybridIndicator closePrice, Number lossPercentage) {
+        this(closePrice, closePrice.numOf(lossPercentage));
+    }
+
+    /**
+     * Constructor re-verifying the stop levels near the close price with exact
+     * numbers.
+     *
+     * @param closePrice     the hybrid close price indicator
+     * @param lossPercentage the loss percentage
+     */
+    public StopLossRule(HybridIndicator closePrice, Num lossPercentage) {
+        this((Indicator<Num>) closePrice, lossPercentage);
+    }
+
+    private StopLossRule(Indicator<Num> closePrice, Num lossPercentage) {
         this.closePrice = closePrice;
         this.lossPercentage = lossPercentage;
         this.HUNDRED = closePrice.numOf(100);
@@ -83,11 +112,19 @@ public class StopLossRule extends AbstractRule {
 
                 Num entryPrice = currentTrade.getEntry().getNetPrice();
                 Num currentPrice = closePrice.getValue(index);
+                boolean buy = currentTrade.getEntry().isBuy();
 
-                if (currentTrade.getEntry().isBuy()) {
-                    satisfied = isBuyStopSatisfied(entryPrice, currentPrice);
+                Num threshold = getThreshold(buy, entryPrice, lossPercentage, HUNDRED);
+                if (closePrice instanceof HybridIndicator
+                        && ((HybridIndicator) closePrice).isNear(currentPrice, threshold)) {
+                    // Near the stop level: re-verified with exact numbers
+                    HybridIndicator hybrid = (HybridIndicator) closePrice;
+                    hybrid.countVerification();
+                    Num exactThreshold = getThreshold(buy, hybrid.toExact(entryPrice), hybrid.toExact(lossPercentage),
+                            hybrid.toExact(HUNDRED));
+                    satisfied = isReached(buy, hybrid.getExactValue(index), exactThreshold);
                 } else {
-                    satisfied = isSellStopSatisfied(entryPrice, currentPrice);
+                    satisfied = isReached(buy, currentPrice, threshold);
                 }
             }
         }
@@ -95,15 +132,13 @@ public class StopLossRule extends AbstractRule {
         return satisfied;
     }
 
-    private boolean isSellStopSatisfied(Num entryPrice, Num currentPrice) {
-        Num lossRatioThreshold = HUNDRED.plus(lossPercentage).dividedBy(HUNDRED);
-        Num threshold = entryPrice.multipliedBy(lossRatioThreshold);
-        return currentPrice.isGreaterThanOrEqual(threshold);
+    private static Num getThreshold(boolean buy, Num entryPrice, Num lossPercentage, Num hundred) {
+        Num ratioThreshold = buy ? hundred.minus(lossPercentage).dividedBy(hundred)
+                : hundred.plus(lossPercentage).dividedBy(hundred);
+        return entryPrice.multipliedBy(ratioThreshold);
     }
 
-    private boolean isBuyStopSatisfied(Num entryPrice, Num currentPrice) {
-        Num lossRatioThreshold = HUNDRED.minus(lossPercentage).dividedBy(HUNDRED);
-        Num threshold = entryPrice.multipliedBy(lossRatioThreshold);
-        return currentPrice.isLessThanOrEqual(threshold);
+    private static boolean isReached(boolean buy, Num currentPrice, Num threshold) {
+        return buy ? currentPrice.isLessThanOrEqual(threshold) : currentPrice.isGreaterThanOrEqual(threshold);
     }
 }
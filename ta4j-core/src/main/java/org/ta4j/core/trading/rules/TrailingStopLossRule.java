@@ -49,10 +49,14 @@ import org.ta4j.core.Indicator;
 import org.ta4j.core.Trade;
 import org.ta4j.core.TradingRecord;
 import org.ta4j.core.indicators.helpers.PriceIndicator;
+import org.ta4j.core.indicators.helpers.HybridIndicator;
 import org.ta4j.core.indicators.helpers.HighestValueIndicator;
 import org.ta4j.core.indicators.helpers.LowestValueIndicator;
 import org.ta4j.core.num.Num;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * A trailing stop-loss rule
  *
@@ -62,9 +66,10 @@ import org.ta4j.core.num.Num;
 public class TrailingStopLossRule extends AbstractRule {
 
     /**
-     * The price indicator
+     * The price indicator (a {@link HybridIndicator hybrid} one to re-verify the
+     * stop levels near the price with exact numbers)
      */
-    private final PriceIndicator priceIndicator;
+    private final Indicator<Num> priceIndicator;
     /**
      * the current price extremum
      */
@@ -86,6 +91,31 @@ public class TrailingStopLossRule extends AbstractRule {
      * @param barCount       number of bars to look back for the calculation
      */
     public TrailingStopLossRule(PriceIndicator priceIndicator, Num lossPercentage, int barCount) {
+        this((Indicator<Num>) priceIndicator, lossPercentage, barCount);
+    }
+
+    /**
+     * Constructor re-verifying the stop levels near the price with exact numbers.
+     *
+     * @param priceIndicator the hybrid price indicator
+     * @param lossPercentage the loss percentage
+     * @param barCount       number of bars to look back for the calculation
+     */
+    public TrailingStopLossRule(HybridIndicator priceIndicator, Num lossPercentage, int barCount) {
+        this((Indicator<Num>) priceIndicator, lossPercentage, barCount);
+    }
+
+    /**
+     * Constructor re-verifying the stop levels near the price with exact numbers.
+     *
+     * @param priceIndicator the hybrid price indicator
+     * @param lossPercentage the loss percentage
+     */
+    public TrailingStopLossRule(HybridIndicator priceIndicator, Num lossPercentage) {
+        this(priceIndicator, lossPercentage, Integer.MAX_VALUE);
+    }
+
+    private TrailingStopLossRule(Indicator<Num> priceIndicator, Num lossPercentage, int barCount) {
         this.priceIndicator = priceIndicator;
         this.barCount = barCount;
         this.lossPercentage = lossPercentage;
@@ -116,6 +146,12 @@ public class TrailingStopLossRule extends AbstractRule {
                 } else {
                     satisfied = isSellSatisfied(currentPrice, index, tradeIndex);
                 }
+                if (priceIndicator instanceof HybridIndicator
+                        && ((HybridIndicator) priceIndicator).isNear(currentPrice, currentStopLossLimitActivation)) {
+                    // Near the stop level: re-verified with exact numbers
+                    satisfied = isExactlySatisfied((HybridIndicator) priceIndicator, currentTrade.getEntry().isBuy(),
+                            index, tradeIndex);
+                }
             }
         }
         traceIsSatisfied(index, satisfied);
@@ -144,16 +180,30 @@ public class TrailingStopLossRule extends AbstractRule {
         return currentPrice.isGreaterThanOrEqual(currentStopLossLimitActivation);
     }
 
+    private boolean isExactlySatisfied(HybridIndicator hybrid, boolean buy, int index, int tradeIndex) {
+        hybrid.countVerification();
+        Indicator<Num> exact = hybrid.getExact();
+        int barCount = getValueIndicatorBarCount(index, tradeIndex);
+        Num extremum = buy ? new HighestValueIndicator(exact, barCount).getValue(index)
+                : new LowestValueIndicator(exact, barCount).getValue(index);
+        Num hundred = extremum.numOf(100);
+        Num exactLossPercentage = hybrid.toExact(lossPercentage);
+        Num lossRatioThreshold = buy ? hundred.minus(exactLossPercentage).dividedBy(hundred)
+                : hundred.plus(exactLossPercentage).dividedBy(hundred);
+        Num threshold = extremum.multipliedBy(lossRatioThreshold);
+        Num exactPrice = hybrid.getExactValue(index);
+        return buy ? exactPrice.isLessThanOrEqual(threshold) : exactPrice.isGreaterThanOrEqual(threshold);
+    }
+
     private int getValueIndicatorBarCount(int index, int tradeIndex) {
         return Math.min(index - tradeIndex + 1, this.barCount);
     }
 
     @Override
-    protected void traceIsSatisfied(int index, boolean isSatisfied) {
-        if (log.isTraceEnabled()) {
-            log.trace("{}#isSatisfied({}): {}. Current price: {}, Current stop loss activation: {}",
-                    getClass().getSimpleName(), index, isSatisfied, priceIndicator.getValue(index),
-                    currentStopLossLimitActivation);
-        }
+    protected Map<String, Object> getDecisionDetails(int index) {
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("Current price", priceIndicator.getValue(index));
+        details.put("Current stop loss activation", currentStopLossLimitActivation);
+        return details;
     }
 }
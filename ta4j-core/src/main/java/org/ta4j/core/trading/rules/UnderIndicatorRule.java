@@ -26,6 +26,7 @@ package org.ta4j.core.trading.rules;
 import org.ta4j.core.Indicator;
 import org.ta4j.core.TradingRecord;
 import org.ta4j.core.indicators.helpers.ConstantIndicator;
+import org.ta4j.core.indicators.helpers.HybridIndicator;
 import org.ta4j.core.num.Num;
 
 /**
@@ -33,7 +34,8 @@ import org.ta4j.core.num.Num;
  * 当第一个指标的值严格小于第二个指标的值时满足。
  *
  * Satisfied when the value of the first {@link Indicator indicator} is strictly
- * lesser than the value of the second one.
+ * lesser than the value of the second one. Near-equal values of
+ * {@link HybridIndicator hybrid indicators} are compared exactly.
  */
 public class UnderIndicatorRule extends AbstractRule {
 
@@ -79,7 +81,7 @@ public class UnderIndicatorRule extends AbstractRule {
 
     @Override
     public boolean isSatisfied(int index, TradingRecord tradingRecord) {
-        final boolean satisfied = first.getValue(index).isLessThan(second.getValue(index));
+        final boolean satisfied = HybridIndicator.test(first, second, index, Num::isLessThan);
         traceIsSatisfied(index, satisfied);
         return satisfied;
     }
@@ -0,0 +1,134 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ta4j.core.analysis.CriterionPruner;
+import org.ta4j.core.analysis.criteria.MaximumDrawdownCriterion;
+import org.ta4j.core.indicators.AbstractIndicatorTest;
+import org.ta4j.core.indicators.SMAIndicator;
+import org.ta4j.core.indicators.helpers.ClosePriceIndicator;
+import org.ta4j.core.metrics.JmxBacktestMetrics;
+import org.ta4j.core.mocks.MockBarSeries;
+import org.ta4j.core.num.Num;
+import org.ta4j.core.trading.rules.FixedRule;
+import org.ta4j.core.trading.rules.OverIndicatorRule;
+import org.ta4j.core.trading.rules.UnderIndicatorRule;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BacktestExecutorTest extends AbstractIndicatorTest<Indicator<Num>, Num> {
+
+    private BarSeries series;
+
+    private Strategy smaStrategy, fixedStrategy;
+
+    public BacktestExecutorTest(Function<Number, Num> numFunction) {
+        super(numFunction);
+    }
+
+    @Before
+    public void setUp() {
+        double[] prices = new double[3000];
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = 100 + 10 * Math.sin(i / 20d);
+        }
+        series = new MockBarSeries(numFunction, prices);
+        ClosePriceIndicator closePrice = new ClosePriceIndicator(series);
+        SMAIndicator sma = new SMAIndicator(closePrice, 20);
+        smaStrategy = new BaseStrategy("sma", new OverIndicatorRule(closePrice, sma),
+                new UnderIndicatorRule(closePrice, sma));
+        fixedStrategy = new BaseStrategy("fixed", new FixedRule(0, 3), new FixedRule(1, 5));
+    }
+
+    @Test
+    public void executeWithMetrics() {
+        BacktestExecution execution = new BacktestExecutor(series)
+                .executeWithMetrics(Arrays.asList(smaStrategy, fixedStrategy), numOf(1), Order.OrderType.BUY, null);
+        assertEquals(2, execution.getTradingStatements().size());
+
+        BacktestMetrics metrics = execution.getMetrics();
+        assertEquals(2, metrics.getRuns().size());
+        assertEquals(2 * series.getBarCount(), metrics.getBarCount());
+        assertTrue(metrics.getBarsPerSecond() > 0);
+        assertEquals(metrics.getBarCount(), metrics.getEvaluationLatency().getCount());
+
+        BacktestRunMetrics smaRun = metrics.getRuns().get(0);
+        assertEquals(smaStrategy, smaRun.getStrategy());
+        assertEquals(series.getBarCount(), smaRun.getBarCount());
+        assertTrue(smaRun.getRunNanos() >= smaRun.getEvaluationNanos() + smaRun.getTradingRecordNanos());
+        assertTrue(smaRun.getReportNanos() > 0);
+        assertTrue(smaRun.getTradingRecordNanos() > 0);
+        // The SMA caches all the bars but the last one, the close prices are not
+        // cached
+        assertEquals(series.getBarCount() - 1, smaRun.getPeakCachedResultCount());
+        assertTrue(smaRun.getPeakCacheMemoryUsage() > 0);
+
+        BacktestRunMetrics fixedRun = metrics.getRuns().get(1);
+        assertEquals(0, fixedRun.getPeakCachedResultCount());
+        assertEquals(smaRun.getPeakCachedResultCount(), metrics.getPeakCachedResultCount());
+        assertTrue(metrics.toString().contains("sma: 3000 bars"));
+    }
+
+    @Test
+    public void prunedRunMetrics() {
+        BacktestPruner pruner = new CriterionPruner(new MaximumDrawdownCriterion(), numOf(0.0001), 1);
+        BacktestExecution execution = new BacktestExecutor(new MockBarSeries(numFunction, 10, 5, 6, 7, 8, 9))
+                .executeWithMetrics(Arrays.asList(fixedStrategy), numOf(1), Order.OrderType.BUY, pruner);
+        assertTrue(execution.getTradingStatements().get(0).isPruned());
+        assertEquals(2, execution.getMetrics().getRuns().get(0).getBarCount());
+    }
+
+    @Test
+    public void jmxMetrics() throws Exception {
+        JmxBacktestMetrics jmxMetrics = new JmxBacktestMetrics("test").register();
+        try {
+            ObjectName name = jmxMetrics.getObjectName();
+            assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+
+            BacktestExecutor executor = new BacktestExecutor(series);
+            executor.setJmxMetrics(jmxMetrics);
+            executor.executeWithMetrics(Arrays.asList(smaStrategy), numOf(1), Order.OrderType.BUY, null);
+            executor.executeWithMetrics(Arrays.asList(smaStrategy), numOf(1), Order.OrderType.BUY, null);
+
+            assertEquals(2L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "RunCount"));
+            assertEquals(2L * series.getBarCount(),
+                    ManagementFactory.getPlatformMBeanServer().getAttribute(name, "BarCount"));
+            assertTrue(jmxMetrics.getEvaluationLatencyP99() <= jmxMetrics.getEvaluationLatencyMax());
+            jmxMetrics.reset();
+            assertEquals(0, jmxMetrics.getRunCount());
+        } finally {
+            jmxMetrics.unregister();
+        }
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(jmxMetrics.getObjectName()));
+    }
+}
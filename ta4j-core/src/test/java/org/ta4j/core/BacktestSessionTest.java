@@ -0,0 +1,116 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ta4j.core.analysis.CriterionAccumulator;
+import org.ta4j.core.analysis.criteria.NumberOfBarsCriterion;
+import org.ta4j.core.analysis.criteria.ProfitLossCriterion;
+import org.ta4j.core.analysis.criteria.TotalProfitCriterion;
+import org.ta4j.core.indicators.AbstractIndicatorTest;
+import org.ta4j.core.num.Num;
+import org.ta4j.core.trading.rules.FixedRule;
+
+import java.time.ZonedDateTime;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.ta4j.core.TestUtils.assertNumEquals;
+
+public class BacktestSessionTest extends AbstractIndicatorTest<BarSeries, Num> {
+
+    private static final double[] CLOSE_PRICES = { 10, 12, 11, 14, 13, 15, 16, 12, 18, 20 };
+
+    private BarSeries series;
+
+    private Strategy strategy;
+
+    private ZonedDateTime time;
+
+    public BacktestSessionTest(Function<Number, Num> numFunction) {
+        super(numFunction);
+    }
+
+    @Before
+    public void setUp() {
+        series = new BaseBarSeriesBuilder().withNumTypeOf(numFunction).build();
+        strategy = new BaseStrategy(new FixedRule(1, 4, 7), new FixedRule(3, 6, 9));
+        time = ZonedDateTime.now().minusDays(CLOSE_PRICES.length);
+    }
+
+    private void appendBars(int from, int to) {
+        for (int i = from; i < to; i++) {
+            time = time.plusDays(1);
+            double price = CLOSE_PRICES[i];
+            series.addBar(time, price, price, price, price);
+        }
+    }
+
+    @Test
+    public void advanceOnlyOverAppendedBars() {
+        BacktestSession session = new BacktestSession(series, strategy);
+        assertEquals(0, session.advance());
+
+        appendBars(0, 5);
+        assertEquals(5, session.advance());
+        assertEquals(4, session.getLastIndex());
+        assertEquals(1, session.getTradingRecord().getTradeCount());
+        assertTrue(session.getTradingRecord().getCurrentTrade().isOpened());
+
+        assertEquals(0, session.advance());
+
+        appendBars(5, 10);
+        assertEquals(5, session.advance());
+        assertEquals(9, session.getLastIndex());
+
+        TradingRecord fullRun = new BarSeriesManager(series).run(strategy);
+        assertEquals(fullRun.getTrades(), session.getTradingRecord().getTrades());
+    }
+
+    @Test
+    public void accumulatorsFollowTheRecord() {
+        BacktestSession session = new BarSeriesManager(series).startSession(strategy, Order.OrderType.BUY, numOf(1));
+        session.addAccumulator(CriterionAccumulator.sum(new ProfitLossCriterion()));
+
+        appendBars(0, 7);
+        session.advance();
+        // Added late: fed with the trades closed so far
+        session.addAccumulator(CriterionAccumulator.product(new TotalProfitCriterion()))
+                .addAccumulator(CriterionAccumulator.sum(new NumberOfBarsCriterion()));
+        appendBars(7, 10);
+        session.advance();
+
+        TradingRecord record = session.getTradingRecord();
+        assertEquals(3, record.getTradeCount());
+        assertNumEquals(new ProfitLossCriterion().calculate(series, record),
+                session.getAccumulators().get(0).getValue(series));
+        assertNumEquals(new TotalProfitCriterion().calculate(series, record),
+                session.getAccumulators().get(1).getValue(series));
+        assertNumEquals(new NumberOfBarsCriterion().calculate(series, record),
+                session.getAccumulators().get(2).getValue(series));
+        assertEquals(3, session.getAccumulators().get(2).getTradeCount());
+    }
+}
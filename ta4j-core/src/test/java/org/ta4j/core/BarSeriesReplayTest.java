@@ -0,0 +1,112 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ta4j.core.indicators.AbstractIndicatorTest;
+import org.ta4j.core.mocks.MockBarSeries;
+import org.ta4j.core.num.Num;
+import org.ta4j.core.trading.rules.FixedRule;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BarSeriesReplayTest extends AbstractIndicatorTest<BarSeries, Num> {
+
+    private BarSeries seriesA, seriesB, emptySeries;
+
+    public BarSeriesReplayTest(Function<Number, Num> numFunction) {
+        super(numFunction);
+    }
+
+    @Before
+    public void setUp() {
+        ZonedDateTime start = ZonedDateTime.parse("2020-01-01T00:00:00Z");
+        seriesA = new BaseBarSeries("A",
+                new MockBarSeries(numFunction, new double[] { 1, 2, 3 },
+                        new ZonedDateTime[] { start, start.plusMinutes(2), start.plusMinutes(4) }).getBarData());
+        seriesB = new BaseBarSeries("B", new MockBarSeries(numFunction, new double[] { 10, 20, 30 },
+                new ZonedDateTime[] { start.plusMinutes(1), start.plusMinutes(2), start.plusMinutes(5) })
+                        .getBarData());
+        emptySeries = new BaseBarSeries("empty", numFunction);
+    }
+
+    @Test
+    public void replayInTimeOrder() {
+        List<String> events = new ArrayList<>();
+        long count = new BarSeriesReplay(Arrays.asList(seriesA, emptySeries, seriesB))
+                .replay((series, index) -> events.add(series.getName() + index));
+
+        assertEquals(6, count);
+        // Ties are broken by the order of the series
+        assertEquals(Arrays.asList("A0", "B0", "A1", "B1", "A2", "B2"), events);
+    }
+
+    @Test
+    public void replayNothing() {
+        assertEquals(0, new BarSeriesReplay(Collections.singletonList(emptySeries)).replay((series, index) -> {
+        }));
+    }
+
+    @Test
+    public void removedBarsAreNotReplayed() {
+        seriesA.setMaximumBarCount(1);
+        List<String> events = new ArrayList<>();
+        long count = new BarSeriesReplay(Arrays.asList(seriesA, seriesB))
+                .replay((series, index) -> events.add(series.getName() + index));
+
+        assertEquals(4, count);
+        assertEquals(Arrays.asList("B0", "B1", "A2", "B2"), events);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void duplicateNames() {
+        Strategy strategy = new BaseStrategy(new FixedRule(0), new FixedRule(2));
+        new BarSeriesReplay(Arrays.asList(seriesA, seriesA)).run(Arrays.asList(strategy, strategy),
+                Order.OrderType.BUY, 1);
+    }
+
+    @Test
+    public void runStrategiesPerSeries() {
+        Strategy strategyA = new BaseStrategy(new FixedRule(0), new FixedRule(2));
+        Strategy strategyB = new BaseStrategy(new FixedRule(1), new FixedRule(0));
+        Map<String, TradingRecord> records = new BarSeriesReplay(Arrays.asList(seriesA, seriesB))
+                .run(Arrays.asList(strategyA, strategyB), Order.OrderType.BUY, 1);
+
+        assertEquals(1, records.get("A").getTradeCount());
+        assertTrue(records.get("A").isClosed());
+        assertEquals(0, records.get("B").getTradeCount());
+        assertFalse(records.get("B").isClosed());
+    }
+}
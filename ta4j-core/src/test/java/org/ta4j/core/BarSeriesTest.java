@@ -112,6 +112,44 @@ public class BarSeriesTest extends AbstractIndicatorTest<BarSeries, Num> {
         TestUtils.assertNumEquals(series.getLastBar().getClosePrice(), series.numOf(5));
     }
 
+    @Test
+    public void replaceHistoricalBarTest() {
+        BaseBarSeries series = new BaseBarSeriesBuilder().withNumTypeOf(numFunction).build();
+        ZonedDateTime now = ZonedDateTime.now(ZoneId.systemDefault());
+        for (int i = 0; i < 4; i++) {
+            series.addBar(new MockBar(now.plusMinutes(i), i, numFunction));
+        }
+        assertEquals(0, series.getModificationCount());
+        assertEquals(Integer.MAX_VALUE, series.getLowestChangedIndex(0));
+
+        series.replaceBar(2, new MockBar(now.plusMinutes(2), 7d, numFunction));
+        series.barChanged(1);
+        TestUtils.assertNumEquals(7, series.getBar(2).getClosePrice());
+        assertEquals(2, series.getModificationCount());
+        assertEquals(1, series.getLowestChangedIndex(0));
+        assertEquals(1, series.getLowestChangedIndex(1));
+        assertEquals(Integer.MAX_VALUE, series.getLowestChangedIndex(2));
+
+        series.addBar(new MockBar(now.plusMinutes(3), 8d, numFunction), true);
+        assertEquals(3, series.getLowestChangedIndex(2));
+
+        // Older changes are forgotten: everything is considered changed
+        for (int i = 0; i < 70; i++) {
+            series.barChanged(3);
+        }
+        assertEquals(0, series.getLowestChangedIndex(2));
+        assertEquals(3, series.getLowestChangedIndex(series.getModificationCount() - 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void replaceHistoricalBarWithOtherEndTime() {
+        BaseBarSeries series = new BaseBarSeriesBuilder().withNumTypeOf(numFunction).build();
+        ZonedDateTime now = ZonedDateTime.now(ZoneId.systemDefault());
+        series.addBar(new MockBar(now, 1d, numFunction));
+        series.addBar(new MockBar(now.plusMinutes(1), 2d, numFunction));
+        series.replaceBar(0, new MockBar(now.minusMinutes(1), 1d, numFunction));
+    }
+
     @Test
     public void getEndGetBeginGetBarCountIsEmptyTest() {
 
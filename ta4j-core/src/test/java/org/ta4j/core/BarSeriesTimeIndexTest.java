@@ -0,0 +1,134 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ta4j.core.indicators.AbstractIndicatorTest;
+import org.ta4j.core.num.Num;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.ta4j.core.TestUtils.assertNumEquals;
+
+public class BarSeriesTimeIndexTest extends AbstractIndicatorTest<BarSeries, Num> {
+
+    private ZonedDateTime start;
+
+    private BarSeries series;
+
+    public BarSeriesTimeIndexTest(Function<Number, Num> numFunction) {
+        super(numFunction);
+    }
+
+    @Before
+    public void setUp() {
+        start = ZonedDateTime.of(2020, 1, 1, 10, 0, 0, 0, ZoneOffset.UTC);
+        series = new BaseBarSeriesBuilder().withNumTypeOf(numFunction).build();
+        // Bars ending at 10:01, 10:02, 10:03, 10:05, 10:06
+        for (int minute : new int[] { 1, 2, 3, 5, 6 }) {
+            addBar(minute, minute);
+        }
+    }
+
+    private void addBar(int minute, double close) {
+        series.addBar(new BaseBar(Duration.ofMinutes(1), start.plusMinutes(minute), close, close, close, close, 1,
+                close, 1, numFunction));
+    }
+
+    private Instant at(int minute, int seconds) {
+        return start.plusMinutes(minute).plusSeconds(seconds).toInstant();
+    }
+
+    @Test
+    public void exactLookups() {
+        assertEquals(0, series.indexOf(at(1, 0)));
+        assertEquals(3, series.indexOf(at(5, 0)));
+        assertEquals(-1, series.indexOf(at(4, 0)));
+        assertEquals(-1, series.indexOf(at(1, 30)));
+    }
+
+    @Test
+    public void floorAndCeil() {
+        assertEquals(-1, series.floorIndex(at(0, 30)));
+        assertEquals(0, series.ceilIndex(at(0, 30)));
+        assertEquals(2, series.floorIndex(at(4, 0)));
+        assertEquals(3, series.ceilIndex(at(4, 0)));
+        assertEquals(3, series.floorIndex(at(5, 0)));
+        assertEquals(3, series.ceilIndex(at(5, 0)));
+        assertEquals(4, series.floorIndex(at(10, 0)));
+        assertEquals(-1, series.ceilIndex(at(6, 1)));
+
+        BarSeriesTimeIndex timeIndex = series.getTimeIndex();
+        assertSame(timeIndex, series.getTimeIndex());
+        assertEquals(2, timeIndex.lowerIndex(at(5, 0)));
+        assertEquals(4, timeIndex.higherIndex(at(5, 0)));
+        assertEquals(-1, timeIndex.lowerIndex(at(1, 0)));
+        assertEquals(3, timeIndex.count(at(2, 0), at(6, 0)));
+        assertEquals(0, timeIndex.count(at(6, 0), at(2, 0)));
+        assertEquals(-1, timeIndex.floorIndex(Instant.MIN));
+        assertEquals(4, timeIndex.floorIndex(Instant.MAX));
+    }
+
+    @Test
+    public void subSeriesBetween() {
+        BarSeries subSeries = series.getSubSeries(at(2, 0), at(5, 30));
+        assertEquals(3, subSeries.getBarCount());
+        assertNumEquals(2, subSeries.getFirstBar().getClosePrice());
+        assertNumEquals(5, subSeries.getLastBar().getClosePrice());
+
+        assertEquals(2, series.getSubSeries(at(5, 0), at(20, 0)).getBarCount());
+        assertTrue(series.getSubSeries(at(3, 30), at(4, 30)).isEmpty());
+    }
+
+    @Test
+    public void followsSeriesUpdates() {
+        assertEquals(4, series.floorIndex(at(10, 0)));
+        addBar(8, 8);
+        assertEquals(5, series.floorIndex(at(10, 0)));
+        assertEquals(5, series.indexOf(at(8, 0)));
+
+        // Replaced last bar
+        series.addBar(new BaseBar(Duration.ofMinutes(1), start.plusMinutes(9), 9, 9, 9, 9, 1, 9, 1, numFunction),
+                true);
+        assertEquals(-1, series.indexOf(at(8, 0)));
+        assertEquals(5, series.indexOf(at(9, 0)));
+
+        // Removed bars
+        series.setMaximumBarCount(3);
+        assertEquals(-1, series.floorIndex(at(4, 0)));
+        assertEquals(3, series.ceilIndex(at(4, 0)));
+        assertEquals(3, series.floorIndex(at(5, 30)));
+        addBar(10, 10);
+        assertEquals(4, series.ceilIndex(at(0, 0)));
+        assertEquals(6, series.floorIndex(at(10, 0)));
+    }
+}
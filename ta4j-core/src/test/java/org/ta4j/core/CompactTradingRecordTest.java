@@ -0,0 +1,134 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ta4j.core.analysis.criteria.MaximumDrawdownCriterion;
+import org.ta4j.core.analysis.criteria.NumberOfBarsCriterion;
+import org.ta4j.core.analysis.criteria.TotalProfitCriterion;
+import org.ta4j.core.cost.ZeroCostModel;
+import org.ta4j.core.indicators.AbstractIndicatorTest;
+import org.ta4j.core.mocks.MockBarSeries;
+import org.ta4j.core.num.Num;
+import org.ta4j.core.trading.rules.FixedRule;
+
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.ta4j.core.TestUtils.assertNumEquals;
+import static org.ta4j.core.num.NaN.NaN;
+
+public class CompactTradingRecordTest extends AbstractIndicatorTest<BarSeries, Num> {
+
+    private TradingRecord emptyRecord, openedRecord, closedRecord;
+
+    public CompactTradingRecordTest(Function<Number, Num> numFunction) {
+        super(numFunction);
+    }
+
+    @Before
+    public void setUp() {
+        emptyRecord = new CompactTradingRecord();
+        openedRecord = new CompactTradingRecord(Order.buyAt(0, NaN, NaN), Order.sellAt(3, NaN, NaN),
+                Order.buyAt(7, NaN, NaN));
+        closedRecord = new CompactTradingRecord(Order.buyAt(0, NaN, NaN), Order.sellAt(3, NaN, NaN),
+                Order.buyAt(7, NaN, NaN), Order.sellAt(8, NaN, NaN));
+    }
+
+    @Test
+    public void getCurrentTrade() {
+        assertTrue(emptyRecord.getCurrentTrade().isNew());
+        assertTrue(openedRecord.getCurrentTrade().isOpened());
+        assertTrue(closedRecord.getCurrentTrade().isNew());
+    }
+
+    @Test
+    public void operate() {
+        TradingRecord record = new CompactTradingRecord(Order.OrderType.BUY, new ZeroCostModel(),
+                new ZeroCostModel(), 0);
+
+        record.operate(1, numOf(10), numOf(2));
+        assertTrue(record.getCurrentTrade().isOpened());
+        assertEquals(0, record.getTradeCount());
+        assertNull(record.getLastTrade());
+        assertEquals(Order.buyAt(1, numOf(10), numOf(2)), record.getLastOrder());
+        assertNull(record.getLastOrder(Order.OrderType.SELL));
+        assertNull(record.getLastExit());
+
+        record.operate(3, numOf(12), numOf(2));
+        assertTrue(record.getCurrentTrade().isNew());
+        assertEquals(1, record.getTradeCount());
+        assertEquals(new Trade(Order.buyAt(1, numOf(10), numOf(2)), Order.sellAt(3, numOf(12), numOf(2))),
+                record.getLastTrade());
+        assertEquals(Order.sellAt(3, numOf(12), numOf(2)), record.getLastExit());
+
+        record.operate(5, numOf(11), numOf(2));
+        assertEquals(Order.buyAt(5, numOf(11), numOf(2)), record.getLastEntry());
+        assertEquals(Order.buyAt(5, numOf(11), numOf(2)), record.getLastOrder(Order.OrderType.BUY));
+        assertEquals(Order.sellAt(3, numOf(12), numOf(2)), record.getLastOrder(Order.OrderType.SELL));
+        assertNumEquals(22, record.getLastOrder().getValue());
+    }
+
+    @Test
+    public void isClosed() {
+        assertTrue(emptyRecord.isClosed());
+        assertFalse(openedRecord.isClosed());
+        assertTrue(closedRecord.isClosed());
+    }
+
+    @Test
+    public void getLastTradeAndEntryExit() {
+        assertEquals(2, closedRecord.getTradeCount());
+        assertEquals(2, closedRecord.getTrades().size());
+        assertNull(emptyRecord.getLastTrade());
+        assertNull(emptyRecord.getLastEntry());
+        assertEquals(new Trade(Order.buyAt(0, NaN, NaN), Order.sellAt(3, NaN, NaN)), openedRecord.getLastTrade());
+        assertEquals(new Trade(Order.buyAt(7, NaN, NaN), Order.sellAt(8, NaN, NaN)), closedRecord.getLastTrade());
+        assertEquals(Order.buyAt(7, NaN, NaN), openedRecord.getLastEntry());
+        assertEquals(Order.sellAt(3, NaN, NaN), openedRecord.getLastExit());
+        assertEquals(Order.sellAt(8, NaN, NaN), closedRecord.getLastExit());
+    }
+
+    @Test
+    public void sameCriteriaAsBaseTradingRecord() {
+        BarSeries series = new MockBarSeries(numFunction, 20d, 40d, 60d, 10d, 30d, 50d, 0.5d, 20d, 40d);
+        BarSeriesManager manager = new BarSeriesManager(series);
+        Strategy strategy = new BaseStrategy(new FixedRule(0, 2, 3, 6), new FixedRule(1, 4, 7, 8));
+
+        TradingRecord base = manager.run(strategy);
+        TradingRecord compact = manager.run(strategy, new CompactTradingRecord(), numOf(1), series.getBeginIndex(),
+                series.getEndIndex());
+
+        assertEquals(base.getTrades(), compact.getTrades());
+        AnalysisCriterion[] criteria = { new TotalProfitCriterion(), new MaximumDrawdownCriterion(),
+                new NumberOfBarsCriterion() };
+        for (AnalysisCriterion criterion : criteria) {
+            assertNumEquals(criterion.calculate(series, base), criterion.calculate(series, compact));
+        }
+    }
+}
@@ -0,0 +1,204 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import org.junit.Test;
+import org.ta4j.core.indicators.AbstractIndicatorTest;
+import org.ta4j.core.indicators.SMAIndicator;
+import org.ta4j.core.indicators.helpers.ClosePriceIndicator;
+import org.ta4j.core.metrics.MemoryFootprint;
+import org.ta4j.core.num.Num;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.ta4j.core.TestUtils.assertNumEquals;
+import static org.ta4j.core.num.NaN.NaN;
+
+public class CompressedBarSeriesTest extends AbstractIndicatorTest<Indicator<Num>, Num> {
+
+    private static final ZonedDateTime START = ZonedDateTime.of(2020, 1, 6, 9, 0, 0, 0, ZoneId.of("America/New_York"));
+
+    public CompressedBarSeriesTest(Function<Number, Num> numFunction) {
+        super(numFunction);
+    }
+
+    /**
+     * Adds minute bars of a random walk (cent prices, with overnight gaps) to the
+     * series.
+     */
+    private static void addBars(BarSeries[] series, int barCount) {
+        Random random = new Random(42);
+        double close = 100;
+        ZonedDateTime endTime = START;
+        for (int i = 0; i < barCount; i++) {
+            endTime = i % 390 == 0 && i > 0 ? endTime.plusHours(17).plusMinutes(31) : endTime.plusMinutes(1);
+            double open = close;
+            close = Math.max(1, Math.round((close + random.nextGaussian() * 0.05) * 100) / 100d);
+            double high = Math.max(open, close) + random.nextInt(5) / 100d;
+            double low = Math.min(open, close) - random.nextInt(5) / 100d;
+            int volume = 100 * random.nextInt(50);
+            for (BarSeries s : series) {
+                s.addBar(Duration.ofMinutes(1), endTime, open, high, low, close, volume);
+            }
+        }
+    }
+
+    private static void assertBarEquals(Bar expected, Bar actual) {
+        assertEquals(expected.getEndTime(), actual.getEndTime());
+        assertEquals(expected.getTimePeriod(), actual.getTimePeriod());
+        assertNumEquals(expected.getOpenPrice(), actual.getOpenPrice());
+        assertNumEquals(expected.getHighPrice(), actual.getHighPrice());
+        assertNumEquals(expected.getLowPrice(), actual.getLowPrice());
+        assertNumEquals(expected.getClosePrice(), actual.getClosePrice());
+        assertNumEquals(expected.getVolume(), actual.getVolume());
+        assertNumEquals(expected.getAmount(), actual.getAmount());
+        assertEquals(expected.getTrades(), actual.getTrades());
+    }
+
+    @Test
+    public void barsAreDecodedAsAdded() {
+        BarSeries series = new BaseBarSeries("base", numFunction);
+        CompressedBarSeries compressed = new CompressedBarSeries("compressed", 64, numFunction);
+        addBars(new BarSeries[] { series, compressed }, 1000);
+
+        assertEquals(series.getBarCount(), compressed.getBarCount());
+        assertEquals(series.getEndIndex(), compressed.getEndIndex());
+        for (int i = series.getEndIndex(); i >= 0; i--) {
+            assertBarEquals(series.getBar(i), compressed.getBar(i));
+        }
+        SMAIndicator sma = new SMAIndicator(new ClosePriceIndicator(series), 20);
+        SMAIndicator compressedSma = new SMAIndicator(new ClosePriceIndicator(compressed), 20);
+        for (int i = 0; i <= series.getEndIndex(); i++) {
+            assertNumEquals(sma.getValue(i), compressedSma.getValue(i));
+        }
+        assertEquals(series.indexOf(series.getBar(500).getEndTime().toInstant()),
+                compressed.indexOf(series.getBar(500).getEndTime().toInstant()));
+    }
+
+    @Test
+    public void concurrentReadsGetTheirOwnBlock() throws Exception {
+        BarSeries series = new BaseBarSeries("base", numFunction);
+        CompressedBarSeries compressed = new CompressedBarSeries("compressed", 16, numFunction);
+        addBars(new BarSeries[] { series, compressed }, 1000);
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                final int seed = t;
+                results.add(pool.submit(() -> {
+                    Random random = new Random(seed);
+                    for (int n = 0; n < 20000; n++) {
+                        int i = random.nextInt(series.getBarCount());
+                        if (!compressed.getBar(i).getEndTime().isEqual(series.getBar(i).getEndTime())) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void compressedHistoryIsSmallerThanBars() {
+        BarSeries series = new BaseBarSeries("base", numFunction);
+        CompressedBarSeries compressed = new CompressedBarSeries("compressed", numFunction);
+        addBars(new BarSeries[] { series, compressed }, 20_000);
+
+        long barBytes = MemoryFootprint.estimateBarSeries(series);
+        long compressedBytes = MemoryFootprint.estimateBarSeries(compressed);
+        assertTrue(barBytes + " vs " + compressedBytes, compressedBytes * 5 < barBytes);
+    }
+
+    @Test
+    public void lastBarCanBeUpdated() {
+        CompressedBarSeries compressed = new CompressedBarSeries("compressed", 4, numFunction);
+        for (int i = 0; i < 10; i++) {
+            compressed.addBar(Duration.ofMinutes(1), START.plusMinutes(i));
+            compressed.addPrice(100 + i);
+        }
+        compressed.addBar(Duration.ofMinutes(1), START.plusMinutes(10));
+        compressed.addTrade(5, 110);
+        compressed.addBar(new BaseBar(Duration.ofMinutes(1), START.plusMinutes(10), numFunction), true);
+        compressed.addBar(Duration.ofMinutes(1), START.plusMinutes(11));
+
+        assertNumEquals(numOf(101), compressed.getBar(1).getClosePrice());
+        assertNumEquals(numOf(109), compressed.getBar(9).getHighPrice());
+        // Empty bars keep their null prices
+        assertNull(compressed.getBar(10).getOpenPrice());
+        assertNull(compressed.getBar(11).getClosePrice());
+        assertEquals(START.plusMinutes(10), compressed.getBar(10).getEndTime());
+    }
+
+    @Test
+    public void nanValuesAreKept() {
+        CompressedBarSeries compressed = new CompressedBarSeries("compressed", 2, numFunction);
+        for (int i = 0; i < 5; i++) {
+            compressed.addBar(START.plusMinutes(i), NaN, numOf(10), numOf(9), numOf(10), NaN);
+        }
+        assertEquals(NaN, compressed.getBar(0).getOpenPrice());
+        assertEquals(NaN, compressed.getBar(1).getVolume());
+        assertNumEquals(numOf(10), compressed.getBar(2).getHighPrice());
+    }
+
+    @Test
+    public void maximumBarCountDropsBlocks() {
+        BarSeries series = new BaseBarSeries("base", numFunction);
+        CompressedBarSeries compressed = new CompressedBarSeries("compressed", 16, numFunction);
+        compressed.setMaximumBarCount(100);
+        addBars(new BarSeries[] { series, compressed }, 1000);
+
+        assertEquals(100, compressed.getBarCount());
+        assertEquals(900, compressed.getRemovedBarsCount());
+        assertBarEquals(series.getBar(900), compressed.getBar(0));
+        assertBarEquals(series.getBar(950), compressed.getBar(950));
+        assertTrue(compressed.getCompressedSize() < CompressedBarSeries.of(series, 16).getCompressedSize() / 5);
+        assertEquals(100, compressed.getSubSeries(0, 2000).getBarCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void barsMustBeAddedInTimeOrder() {
+        CompressedBarSeries compressed = new CompressedBarSeries("compressed", numFunction);
+        compressed.addBar(Duration.ofMinutes(1), START.plusMinutes(1));
+        compressed.addBar(Duration.ofMinutes(1), START);
+    }
+}
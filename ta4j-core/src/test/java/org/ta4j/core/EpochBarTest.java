@@ -0,0 +1,143 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import org.junit.Test;
+import org.ta4j.core.indicators.AbstractIndicatorTest;
+import org.ta4j.core.indicators.pivotpoints.PivotPointIndicator;
+import org.ta4j.core.indicators.pivotpoints.TimeLevel;
+import org.ta4j.core.num.Num;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.ta4j.core.TestUtils.assertNumEquals;
+
+public class EpochBarTest extends AbstractIndicatorTest<Indicator<Num>, Num> {
+
+    private static final ZoneId ZONE = ZoneId.of("Europe/Paris");
+
+    private static final ZonedDateTime END_TIME = ZonedDateTime.of(2014, 6, 25, 1, 0, 0, 0, ZONE);
+
+    public EpochBarTest(Function<Number, Num> numFunction) {
+        super(numFunction);
+    }
+
+    private EpochBar newBar(ZonedDateTime endTime) {
+        return new EpochBar(Duration.ofHours(1), BarSeriesTimeIndex.toEpochNanos(endTime.toInstant()), ZONE,
+                numFunction);
+    }
+
+    @Test
+    public void timesMatchBaseBar() {
+        Bar base = new BaseBar(Duration.ofHours(1), END_TIME, numFunction);
+        EpochBar bar = newBar(END_TIME);
+
+        assertEquals(base.getEndTime(), bar.getEndTime());
+        assertEquals(base.getBeginTime(), bar.getBeginTime());
+        assertEquals(base.getTimePeriod(), bar.getTimePeriod());
+        assertEquals(base.getEndTimeNanos(), bar.getEndTimeNanos());
+        assertEquals(base.getBeginTimeNanos(), bar.getBeginTimeNanos());
+        assertEquals(ZONE, bar.getZone());
+    }
+
+    @Test
+    public void inPeriod() {
+        EpochBar bar = newBar(END_TIME);
+        ZonedDateTime beginTime = END_TIME.minusHours(1);
+
+        assertFalse(bar.inPeriod(null));
+        assertTrue(bar.inPeriod(beginTime));
+        assertTrue(bar.inPeriod(beginTime.withMinute(30)));
+        assertTrue(bar.inPeriod(beginTime.withZoneSameInstant(ZoneId.of("UTC"))));
+        assertFalse(bar.inPeriod(END_TIME));
+        assertFalse(bar.inPeriod(beginTime.minusNanos(1)));
+    }
+
+    @Test
+    public void addTrades() {
+        EpochBar bar = newBar(END_TIME);
+        bar.addTrade(numOf(3), numOf(200));
+        bar.addTrade(numOf(4), numOf(201));
+        bar.addTrade(numOf(2), numOf(198));
+
+        assertEquals(3, bar.getTrades());
+        assertNumEquals(3 * 200 + 4 * 201 + 2 * 198, bar.getAmount());
+        assertNumEquals(200, bar.getOpenPrice());
+        assertNumEquals(198, bar.getClosePrice());
+        assertNumEquals(198, bar.getLowPrice());
+        assertNumEquals(201, bar.getHighPrice());
+        assertNumEquals(9, bar.getVolume());
+    }
+
+    @Test
+    public void equalsAndHashCode() {
+        assertEquals(newBar(END_TIME), newBar(END_TIME));
+        assertEquals(newBar(END_TIME).hashCode(), newBar(END_TIME).hashCode());
+        assertNotEquals(newBar(END_TIME), newBar(END_TIME.plusHours(1)));
+    }
+
+    @Test
+    public void builderCreatesEpochBars() {
+        BaseBarSeries series = new BaseBarSeriesBuilder().withNumTypeOf(numFunction).withEpochTime(ZONE).build();
+        series.addBar(END_TIME, 1, 2, 0.5, 1.5, 10);
+
+        assertEquals(ZONE, series.getEpochTimeZone());
+        assertTrue(series.getBar(0) instanceof EpochBar);
+        assertEquals(END_TIME, series.getBar(0).getEndTime());
+        assertTrue(series.getSubSeries(0, 1).getBar(0) instanceof EpochBar);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void barsMustBeAddedInTimeOrder() {
+        BaseBarSeries series = new BaseBarSeriesBuilder().withNumTypeOf(numFunction).withEpochTime(ZONE).build();
+        series.addBar(Duration.ofHours(1), END_TIME);
+        series.addBar(Duration.ofHours(1), END_TIME);
+    }
+
+    @Test
+    public void pivotPointsMatchBaseBars() {
+        BarSeries base = new BaseBarSeriesBuilder().withNumTypeOf(numFunction).build();
+        BarSeries epoch = new BaseBarSeriesBuilder().withNumTypeOf(numFunction).withEpochTime(ZONE).build();
+        for (int i = 0; i < 24 * 60; i++) {
+            ZonedDateTime endTime = END_TIME.plusHours(i);
+            double close = 100 + 10 * Math.sin(i / 7.0);
+            base.addBar(Duration.ofHours(1), endTime, close - 1, close + 2, close - 2, close, 10);
+            epoch.addBar(Duration.ofHours(1), endTime, close - 1, close + 2, close - 2, close, 10);
+        }
+        for (TimeLevel timeLevel : new TimeLevel[] { TimeLevel.DAY, TimeLevel.WEEK, TimeLevel.MONTH }) {
+            PivotPointIndicator basePivot = new PivotPointIndicator(base, timeLevel);
+            PivotPointIndicator epochPivot = new PivotPointIndicator(epoch, timeLevel);
+            for (int i = base.getBeginIndex(); i <= base.getEndIndex(); i++) {
+                assertEquals(basePivot.getValue(i), epochPivot.getValue(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,186 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ta4j.core.indicators.AbstractIndicatorTest;
+import org.ta4j.core.indicators.helpers.ClosePriceIndicator;
+import org.ta4j.core.num.Num;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.ta4j.core.TestUtils.assertNumEquals;
+
+public class LiveBarSeriesTest extends AbstractIndicatorTest<BarSeries, Num> {
+
+    private ZonedDateTime start;
+
+    private LiveBarSeries series;
+
+    public LiveBarSeriesTest(Function<Number, Num> numFunction) {
+        super(numFunction);
+    }
+
+    @Before
+    public void setUp() {
+        start = ZonedDateTime.of(2020, 1, 1, 10, 0, 0, 0, ZoneOffset.UTC);
+        series = new LiveBarSeries("live", 5, numFunction);
+    }
+
+    private Bar bar(int minute, double close) {
+        return new BaseBar(Duration.ofMinutes(1), start.plusMinutes(minute + 1), close, close, close, close, 1, close,
+                1, numFunction);
+    }
+
+    @Test
+    public void addAndRemoveBars() {
+        assertEquals(-1, series.getBeginIndex());
+        assertEquals(-1, series.getEndIndex());
+        assertTrue(series.isEmpty());
+
+        for (int i = 0; i < 8; i++) {
+            series.addBar(bar(i, i));
+        }
+        assertEquals(7, series.getEndIndex());
+        assertEquals(5, series.getBarCount());
+        assertEquals(3, series.getRemovedBarsCount());
+        assertNumEquals(7, series.getLastBar().getClosePrice());
+        assertNumEquals(4, series.getBar(4).getClosePrice());
+        // Removed bars are replaced by the first available one
+        assertNumEquals(3, series.getBar(0).getClosePrice());
+        assertEquals(5, series.getBarData().size());
+
+        BarSeries subSeries = series.getSubSeries(5, 10);
+        assertEquals(3, subSeries.getBarCount());
+        assertNumEquals(5, subSeries.getFirstBar().getClosePrice());
+
+        ClosePriceIndicator closePrice = new ClosePriceIndicator(series);
+        assertNumEquals(6, closePrice.getValue(6));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsBarNotAfterEndTime() {
+        series.addBar(bar(1, 1));
+        series.addBar(bar(0, 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void maximumBarCountLimitedToAllocation() {
+        series.setMaximumBarCount(6);
+    }
+
+    @Test
+    public void tradesPublishCopies() {
+        series.addBar(bar(0, 10));
+        Bar published = series.getLastBar();
+        series.addTrade(numOf(2), numOf(12));
+        series.addPrice(numOf(9));
+
+        Bar updated = series.getLastBar();
+        assertNotSame(published, updated);
+        assertNumEquals(10, published.getClosePrice());
+        assertNumEquals(1, published.getVolume());
+        assertNumEquals(9, updated.getClosePrice());
+        assertNumEquals(12, updated.getHighPrice());
+        assertNumEquals(9, updated.getLowPrice());
+        assertNumEquals(3, updated.getVolume());
+        assertEquals(2, updated.getTrades());
+        assertEquals(0, series.getEndIndex());
+
+        series.addBar(bar(0, 11), true);
+        assertNumEquals(11, series.getLastBar().getClosePrice());
+    }
+
+    @Test
+    public void timeIndexIsKeptPerThread() throws Exception {
+        for (int i = 0; i < 8; i++) {
+            series.addBar(bar(i, i));
+        }
+        BarSeriesTimeIndex timeIndex = series.getTimeIndex();
+        assertSame(timeIndex, series.getTimeIndex());
+        assertEquals(5, timeIndex.floorIndex(start.plusMinutes(6).plusSeconds(30).toInstant()));
+        // Removed bars are not indexed
+        assertEquals(-1, series.getTimeIndex().indexOf(start.plusMinutes(2).toInstant()));
+
+        ExecutorService reader = Executors.newSingleThreadExecutor();
+        BarSeriesTimeIndex readerIndex = reader.submit(series::getTimeIndex).get();
+        reader.shutdown();
+        assertNotSame(timeIndex, readerIndex);
+        assertEquals(7, readerIndex.indexOf(start.plusMinutes(8).toInstant()));
+    }
+
+    @Test
+    public void readersSeeConsistentBars() throws Exception {
+        final int barCount = 20000;
+        LiveBarSeries live = new LiveBarSeries("live", 64, numFunction);
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService readers = Executors.newFixedThreadPool(3);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int r = 0; r < 3; r++) {
+            results.add(readers.submit(() -> {
+                int checks = 0;
+                while (!done.get()) {
+                    int end = live.getEndIndex();
+                    if (end < 0) {
+                        continue;
+                    }
+                    Bar last = live.getBar(end);
+                    // Bar close price is its index, unless the bar has been
+                    // removed meanwhile (then the first available bar is read)
+                    int close = last.getClosePrice().intValue();
+                    assertTrue(close == end || (close > end && end < live.getRemovedBarsCount()));
+                    Bar oldest = live.getBar(Math.max(0, end - 63));
+                    assertTrue(oldest.getClosePrice().intValue() >= end - 63);
+                    checks++;
+                }
+                return checks;
+            }));
+        }
+        for (int i = 0; i < barCount; i++) {
+            live.addBar(bar(i, i));
+        }
+        done.set(true);
+        for (Future<Integer> result : results) {
+            result.get();
+        }
+        readers.shutdown();
+        assertTrue(readers.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(barCount - 1, live.getEndIndex());
+    }
+}
@@ -0,0 +1,188 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import org.junit.Test;
+import org.ta4j.core.indicators.AbstractIndicatorTest;
+import org.ta4j.core.indicators.SMAIndicator;
+import org.ta4j.core.indicators.helpers.ClosePriceIndicator;
+import org.ta4j.core.num.Num;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectOutputStream;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.ta4j.core.TestUtils.assertNumEquals;
+
+public class OffHeapBarSeriesTest extends AbstractIndicatorTest<Indicator<Num>, Num> {
+
+    private static final ZonedDateTime START = ZonedDateTime.of(2020, 1, 6, 9, 0, 0, 0, ZoneId.of("Europe/London"));
+
+    public OffHeapBarSeriesTest(Function<Number, Num> numFunction) {
+        super(numFunction);
+    }
+
+    private static void addBars(BarSeries[] series, int barCount) {
+        for (int i = 0; i < barCount; i++) {
+            double close = Math.round((100 + 10 * Math.sin(i / 7d)) * 100) / 100d;
+            for (BarSeries s : series) {
+                s.addBar(Duration.ofMinutes(1), START.plusMinutes(i), close - 0.25, close + 1, close - 1, close,
+                        100 + i);
+            }
+        }
+    }
+
+    @Test
+    public void barsAreReadAsAdded() {
+        BarSeries series = new BaseBarSeries("base", numFunction);
+        try (OffHeapBarSeries offHeap = new OffHeapBarSeries("off-heap", 500, numFunction)) {
+            addBars(new BarSeries[] { series, offHeap }, 300);
+
+            assertEquals(300, offHeap.getBarCount());
+            for (int i = 0; i <= series.getEndIndex(); i++) {
+                Bar expected = series.getBar(i);
+                Bar actual = offHeap.getBar(i);
+                assertEquals(expected.getEndTime(), actual.getEndTime());
+                assertEquals(expected.getBeginTime(), actual.getBeginTime());
+                assertNumEquals(expected.getOpenPrice(), actual.getOpenPrice());
+                assertNumEquals(expected.getHighPrice(), actual.getHighPrice());
+                assertNumEquals(expected.getLowPrice(), actual.getLowPrice());
+                assertNumEquals(expected.getClosePrice(), actual.getClosePrice());
+                assertNumEquals(expected.getVolume(), actual.getVolume());
+                assertEquals(expected.getClosePrice().doubleValue(),
+                        offHeap.getDouble(i, OffHeapBarSeries.Field.CLOSE_PRICE), 0);
+            }
+            SMAIndicator sma = new SMAIndicator(new ClosePriceIndicator(series), 10);
+            SMAIndicator offHeapSma = new SMAIndicator(new ClosePriceIndicator(offHeap), 10);
+            for (int i = 0; i <= series.getEndIndex(); i++) {
+                assertNumEquals(sma.getValue(i), offHeapSma.getValue(i));
+            }
+            assertEquals(42, offHeap.indexOf(START.plusMinutes(42).toInstant()));
+            assertEquals(10, offHeap.getSubSeries(100, 110).getBarCount());
+        }
+    }
+
+    @Test
+    public void oldestBarsAreOverwritten() {
+        BarSeries series = new BaseBarSeries("base", numFunction);
+        OffHeapBarSeries offHeap = new OffHeapBarSeries("off-heap", 50, numFunction);
+        addBars(new BarSeries[] { series, offHeap }, 30);
+        Bar removedLater = offHeap.getBar(5);
+        offHeap.setMaximumBarCount(20);
+        for (int i = 30; i < 100; i++) {
+            offHeap.addBar(Duration.ofMinutes(1), START.plusMinutes(i), 1, 2, 0.5, 1.5, 10);
+        }
+
+        assertEquals(20, offHeap.getBarCount());
+        assertEquals(80, offHeap.getRemovedBarsCount());
+        assertEquals(START.plusMinutes(80), offHeap.getBar(3).getEndTime());
+        assertEquals(START.plusMinutes(99), offHeap.getLastBar().getEndTime());
+        try {
+            removedLater.getClosePrice();
+            fail("Removed bar read");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void lastBarCanBeUpdated() {
+        OffHeapBarSeries offHeap = new OffHeapBarSeries("off-heap", 10, numFunction);
+        offHeap.addBar(Duration.ofMinutes(1), START);
+        assertNull(offHeap.getBar(0).getOpenPrice());
+        offHeap.addTrade(2, 100);
+        offHeap.addTrade(3, 102);
+        offHeap.addPrice(99);
+
+        Bar bar = offHeap.getBar(0);
+        assertNumEquals(numOf(100), bar.getOpenPrice());
+        assertNumEquals(numOf(102), bar.getHighPrice());
+        assertNumEquals(numOf(99), bar.getLowPrice());
+        assertNumEquals(numOf(99), bar.getClosePrice());
+        assertNumEquals(numOf(5), bar.getVolume());
+        assertNumEquals(numOf(506), bar.getAmount());
+        assertEquals(2, bar.getTrades());
+
+        offHeap.addBar(new BaseBar(Duration.ofMinutes(1), START, numFunction), true);
+        assertNull(offHeap.getBar(0).getClosePrice());
+    }
+
+    @Test
+    public void arenaClosesItsSeries() {
+        OffHeapBarArena arena = new OffHeapBarArena(100);
+        OffHeapBarSeries first = arena.newSeries("first", 60, numFunction);
+        OffHeapBarSeries second = arena.newSeries("second", 30, numFunction);
+        OffHeapBarSeries third = arena.newSeries("third", 60, numFunction);
+        OffHeapBarSeries large = arena.newSeries("large", 500, numFunction);
+        addBars(new BarSeries[] { first, second, third, large }, 30);
+
+        assertEquals(4, arena.getSeriesCount());
+        assertEquals((100 + 100 + 500) * (long) OffHeapBarSeries.RECORD_BYTES, arena.getAllocatedBytes());
+        // Series sharing a chunk do not overlap
+        for (OffHeapBarSeries s : new OffHeapBarSeries[] { first, second, third, large }) {
+            assertEquals(START.plusMinutes(29), s.getLastBar().getEndTime());
+            assertEquals(START, s.getFirstBar().getEndTime());
+        }
+
+        arena.close();
+        assertTrue(first.isClosed());
+        assertTrue(large.isClosed());
+        try {
+            second.getBar(0);
+            fail("Closed series read");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void closedSeries() {
+        OffHeapBarSeries offHeap = new OffHeapBarSeries("off-heap", 10, numFunction);
+        assertFalse(offHeap.isClosed());
+        assertEquals(10L * OffHeapBarSeries.RECORD_BYTES, offHeap.getOffHeapBytes());
+        offHeap.close();
+        try {
+            offHeap.addBar(Duration.ofMinutes(1), START);
+            fail("Closed series written");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    @Test(expected = NotSerializableException.class)
+    public void seriesIsNotSerializable() throws IOException {
+        OffHeapBarSeries offHeap = new OffHeapBarSeries("off-heap", 10, numFunction);
+        new ObjectOutputStream(new ByteArrayOutputStream()).writeObject(offHeap);
+    }
+}
@@ -0,0 +1,145 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ta4j.core.analysis.criteria.MaximumDrawdownCriterion;
+import org.ta4j.core.analysis.criteria.TotalProfitCriterion;
+import org.ta4j.core.indicators.AbstractIndicatorTest;
+import org.ta4j.core.mocks.MockBarSeries;
+import org.ta4j.core.num.Num;
+import org.ta4j.core.trading.rules.FixedRule;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.ta4j.core.TestUtils.assertNumEquals;
+
+public class PortfolioBacktesterTest extends AbstractIndicatorTest<BarSeries, Num> {
+
+    private BarSeries seriesA, seriesB;
+
+    private Function<BarSeries, Strategy> definition;
+
+    public PortfolioBacktesterTest(Function<Number, Num> numFunction) {
+        super(numFunction);
+    }
+
+    @Before
+    public void setUp() {
+        ZonedDateTime start = ZonedDateTime.parse("2020-01-01T00:00:00Z");
+        ZonedDateTime[] timesA = { start, start.plusDays(1), start.plusDays(2), start.plusDays(3) };
+        ZonedDateTime[] timesB = { start.plusDays(1), start.plusDays(2), start.plusDays(3), start.plusDays(4) };
+        seriesA = new BaseBarSeries("A", new MockBarSeries(numFunction, new double[] { 10, 20, 20, 20 }, timesA)
+                .getBarData());
+        seriesB = new BaseBarSeries("B", new MockBarSeries(numFunction, new double[] { 10, 10, 5, 5 }, timesB)
+                .getBarData());
+        definition = series -> new BaseStrategy(new FixedRule(0), new FixedRule(2));
+    }
+
+    @Test
+    public void runOverAllSeries() {
+        AtomicInteger builtStrategies = new AtomicInteger();
+        PortfolioBacktestResult result = new PortfolioBacktester(new ForkJoinPool(2))
+                .run(Arrays.asList(seriesA, seriesB), series -> {
+                    builtStrategies.incrementAndGet();
+                    return definition.apply(series);
+                });
+
+        assertEquals(2, builtStrategies.get());
+        assertEquals(2, result.getTradeCount());
+        Map<String, Num> profits = result.calculate(new TotalProfitCriterion());
+        assertNumEquals(2, profits.get("A"));
+        assertNumEquals(0.5, profits.get("B"));
+        assertEquals("A", result.getBest(new TotalProfitCriterion()));
+    }
+
+    @Test
+    public void portfolioCashFlow() {
+        PortfolioBacktestResult result = new PortfolioBacktester().run(Arrays.asList(seriesA, seriesB), definition);
+        SortedMap<ZonedDateTime, Num> cashFlow = result.getPortfolioCashFlow();
+
+        List<Num> values = new ArrayList<>(cashFlow.values());
+        assertEquals(5, values.size());
+        // B has no bar yet at the first end time
+        assertNumEquals(1, values.get(0));
+        assertNumEquals((2 + 1) / 2d, values.get(1));
+        assertNumEquals((2 + 1) / 2d, values.get(2));
+        assertNumEquals((2 + 0.5) / 2d, values.get(3));
+        assertNumEquals((2 + 0.5) / 2d, values.get(4));
+    }
+
+    @Test
+    public void portfolioCriteria() {
+        PortfolioBacktestResult result = new PortfolioBacktester().run(Arrays.asList(seriesA, seriesB), definition);
+        BarSeries portfolio = result.getPortfolioSeries();
+        assertEquals(5, portfolio.getBarCount());
+        assertNumEquals(1.25, portfolio.getLastBar().getClosePrice());
+
+        assertNumEquals(1.25, result.calculatePortfolio(new TotalProfitCriterion()));
+        assertNumEquals(0.25 / 1.5, result.calculatePortfolio(new MaximumDrawdownCriterion()));
+    }
+
+    @Test
+    public void removedBarsAreNotCounted() {
+        ZonedDateTime start = ZonedDateTime.parse("2020-01-01T00:00:00Z");
+        ZonedDateTime[] times = { start, start.plusDays(1), start.plusDays(2), start.plusDays(3) };
+        BarSeries series = new BaseBarSeries("C",
+                new MockBarSeries(numFunction, new double[] { 10, 20, 40, 80 }, times).getBarData());
+        series.setMaximumBarCount(2);
+        PortfolioBacktestResult result = new PortfolioBacktester().run(Collections.singletonList(series),
+                s -> new BaseStrategy(new FixedRule(2), new FixedRule(3)));
+
+        List<Num> values = new ArrayList<>(result.getPortfolioCashFlow().values());
+        assertEquals(2, values.size());
+        assertNumEquals(1, values.get(0));
+        assertNumEquals(2, values.get(1));
+        assertEquals(2, result.getPortfolioSeries().getBarCount());
+    }
+
+    @Test
+    public void duplicateNamesAreRejectedBeforeBacktesting() {
+        AtomicInteger builtStrategies = new AtomicInteger();
+        try {
+            new PortfolioBacktester().run(Arrays.asList(seriesA, seriesA), series -> {
+                builtStrategies.incrementAndGet();
+                return definition.apply(series);
+            });
+            fail("Duplicate series names must be rejected");
+        } catch (IllegalArgumentException e) {
+            assertEquals(0, builtStrategies.get());
+        }
+    }
+}
@@ -0,0 +1,213 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import org.junit.Test;
+import org.ta4j.core.indicators.AbstractIndicatorTest;
+import org.ta4j.core.indicators.EMAIndicator;
+import org.ta4j.core.indicators.KAMAIndicator;
+import org.ta4j.core.indicators.ParabolicSarIndicator;
+import org.ta4j.core.indicators.SMAIndicator;
+import org.ta4j.core.indicators.helpers.ClosePriceIndicator;
+import org.ta4j.core.indicators.helpers.ConstantIndicator;
+import org.ta4j.core.num.Num;
+import org.ta4j.core.trading.rules.CrossedDownIndicatorRule;
+import org.ta4j.core.trading.rules.CrossedUpIndicatorRule;
+import org.ta4j.core.trading.rules.OverIndicatorRule;
+import org.ta4j.core.trading.rules.UnderIndicatorRule;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+import static org.ta4j.core.TestUtils.assertNumEquals;
+
+public class StateSnapshotTest extends AbstractIndicatorTest<Indicator<Num>, Num> {
+
+    private static final ZonedDateTime START = ZonedDateTime.of(2020, 1, 1, 0, 0, 0, 0,
+            ZoneId.of("Europe/Paris"));
+
+    public StateSnapshotTest(Function<Number, Num> numFunction) {
+        super(numFunction);
+    }
+
+    /**
+     * A strategy with recursive (EMA, KAMA) and stateful (Parabolic SAR)
+     * indicators.
+     */
+    private static class Fixture {
+
+        private final EMAIndicator ema;
+        private final KAMAIndicator kama;
+        private final ParabolicSarIndicator sar;
+        private final Strategy strategy;
+
+        private Fixture(BarSeries series) {
+            ClosePriceIndicator closePrice = new ClosePriceIndicator(series);
+            ema = new EMAIndicator(closePrice, 5);
+            kama = new KAMAIndicator(closePrice, 10, 2, 30);
+            sar = new ParabolicSarIndicator(series);
+            strategy = new BaseStrategy(new CrossedUpIndicatorRule(ema, kama),
+                    new CrossedDownIndicatorRule(closePrice, sar));
+        }
+    }
+
+    private BarSeries newSeries() {
+        return new BaseBarSeries("snapshot", numFunction);
+    }
+
+    private static void addBar(BarSeries series, int i) {
+        double close = 100 + 10 * Math.sin(i / 7d) + i * 0.05;
+        series.addBar(START.plusDays(i), close - 0.5, close + 1 + (i % 3), close - 1 - (i % 2), close, 1000 + i);
+    }
+
+    private static void run(Fixture fixture, BarSeries series, TradingRecord record) {
+        int index = series.getEndIndex();
+        Num price = series.getBar(index).getClosePrice();
+        if (fixture.strategy.shouldOperate(index, record)) {
+            record.operate(index, price, series.numOf(1));
+        }
+    }
+
+    @Test
+    public void restoredStrategyContinuesLikeTheOriginal() throws IOException {
+        BarSeries series = newSeries();
+        Fixture original = new Fixture(series);
+        TradingRecord record = new BaseTradingRecord();
+        for (int i = 0; i < 150; i++) {
+            addBar(series, i);
+            run(original, series, record);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StateSnapshot.write(out, series, 40, original.strategy, record);
+        StateSnapshot snapshot = StateSnapshot.read(new ByteArrayInputStream(out.toByteArray()));
+
+        BarSeries restoredSeries = snapshot.getBarSeries();
+        assertEquals("snapshot", restoredSeries.getName());
+        assertEquals(110, restoredSeries.getRemovedBarsCount());
+        assertEquals(series.getEndIndex(), restoredSeries.getEndIndex());
+        assertEquals(40, restoredSeries.getBarCount());
+        for (int i = 110; i <= series.getEndIndex(); i++) {
+            assertEquals(series.getBar(i).getEndTime(), restoredSeries.getBar(i).getEndTime());
+            assertEquals(series.getBar(i).getClosePrice(), restoredSeries.getBar(i).getClosePrice());
+            assertEquals(series.getBar(i).getVolume(), restoredSeries.getBar(i).getVolume());
+        }
+
+        Fixture restored = new Fixture(restoredSeries);
+        snapshot.restore(restored.strategy);
+        TradingRecord restoredRecord = snapshot.getTradingRecord();
+        assertEquals(record.getTrades(), restoredRecord.getTrades());
+        assertEquals(record.getCurrentTrade(), restoredRecord.getCurrentTrade());
+
+        for (int i = 150; i < 200; i++) {
+            addBar(series, i);
+            addBar(restoredSeries, i);
+            assertEquals(original.ema.getValue(i), restored.ema.getValue(i));
+            assertEquals(original.kama.getValue(i), restored.kama.getValue(i));
+            assertEquals(original.sar.getValue(i), restored.sar.getValue(i));
+            run(original, series, record);
+            run(restored, restoredSeries, restoredRecord);
+        }
+        assertEquals(record.getTrades(), restoredRecord.getTrades());
+        assertEquals(record.getCurrentTrade(), restoredRecord.getCurrentTrade());
+    }
+
+    @Test
+    public void snapshotWithoutStrategyNorRecord() throws IOException {
+        BarSeries series = newSeries();
+        for (int i = 0; i < 10; i++) {
+            addBar(series, i);
+        }
+        series.setMaximumBarCount(8);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StateSnapshot.write(out, series, 5, null, null);
+        StateSnapshot snapshot = StateSnapshot.read(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(8, snapshot.getBarSeries().getMaximumBarCount());
+        assertEquals(5, snapshot.getBarSeries().getRemovedBarsCount());
+        assertEquals(9, snapshot.getBarSeries().getEndIndex());
+        assertNull(snapshot.getTradingRecord());
+        snapshot.restore(null);
+    }
+
+    @Test
+    public void tailMustCoverTheLookback() throws IOException {
+        BarSeries series = newSeries();
+        for (int i = 0; i < 30; i++) {
+            series.addBar(START.plusDays(i), i, i, i, i, 1);
+        }
+        SMAIndicator sma = new SMAIndicator(new ClosePriceIndicator(series), 10);
+        Strategy strategy = new BaseStrategy(new OverIndicatorRule(sma, 20), new UnderIndicatorRule(sma, 10));
+        try {
+            StateSnapshot.write(new ByteArrayOutputStream(), series, 3, strategy, null);
+            fail("The tail does not cover the lookback of the strategy");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StateSnapshot.write(out, series, 10, strategy, null);
+        StateSnapshot snapshot = StateSnapshot.read(new ByteArrayInputStream(out.toByteArray()));
+        BarSeries restoredSeries = snapshot.getBarSeries();
+        SMAIndicator restoredSma = new SMAIndicator(new ClosePriceIndicator(restoredSeries), 10);
+        snapshot.restore(new BaseStrategy(new OverIndicatorRule(restoredSma, 20),
+                new UnderIndicatorRule(restoredSma, 10)));
+
+        series.addBar(START.plusDays(30), 30, 30, 30, 30, 1);
+        restoredSeries.addBar(START.plusDays(30), 30, 30, 30, 30, 1);
+        assertNumEquals(25.5, sma.getValue(30));
+        assertNumEquals(25.5, restoredSma.getValue(30));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void restoreOtherStrategy() throws IOException {
+        BarSeries series = newSeries();
+        for (int i = 0; i < 20; i++) {
+            addBar(series, i);
+        }
+        Fixture fixture = new Fixture(series);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StateSnapshot.write(out, series, 15, fixture.strategy, null);
+        StateSnapshot snapshot = StateSnapshot.read(new ByteArrayInputStream(out.toByteArray()));
+
+        BarSeries restoredSeries = snapshot.getBarSeries();
+        ConstantIndicator<Num> constant = new ConstantIndicator<>(restoredSeries, restoredSeries.numOf(100));
+        snapshot.restore(new BaseStrategy(new CrossedUpIndicatorRule(constant, constant),
+                new CrossedDownIndicatorRule(constant, constant)));
+    }
+
+    @Test(expected = StreamCorruptedException.class)
+    public void readNotASnapshot() throws IOException {
+        StateSnapshot.read(new ByteArrayInputStream(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 }));
+    }
+}
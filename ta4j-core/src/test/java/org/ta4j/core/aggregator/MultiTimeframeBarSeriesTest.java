@@ -0,0 +1,182 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.aggregator;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.BaseBar;
+import org.ta4j.core.BaseBarSeriesBuilder;
+import org.ta4j.core.Indicator;
+import org.ta4j.core.Rule;
+import org.ta4j.core.indicators.AbstractIndicatorTest;
+import org.ta4j.core.indicators.helpers.ClosePriceIndicator;
+import org.ta4j.core.num.Num;
+import org.ta4j.core.trading.rules.OverIndicatorRule;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.ta4j.core.TestUtils.assertNumEquals;
+
+public class MultiTimeframeBarSeriesTest extends AbstractIndicatorTest<BarSeries, Num> {
+
+    private static final Duration FIVE_MINUTES = Duration.ofMinutes(5);
+
+    private ZonedDateTime start;
+
+    private BarSeries baseSeries;
+
+    public MultiTimeframeBarSeriesTest(Function<Number, Num> numFunction) {
+        super(numFunction);
+    }
+
+    @Before
+    public void setUp() {
+        start = ZonedDateTime.of(2020, 1, 1, 10, 0, 0, 0, ZoneOffset.UTC);
+        baseSeries = new BaseBarSeriesBuilder().withNumTypeOf(numFunction).build();
+    }
+
+    private BaseBar minuteBar(int minute, double close) {
+        return new BaseBar(Duration.ofMinutes(1), start.plusMinutes(minute + 1), close, close, close, close, 1, close,
+                1, numFunction);
+    }
+
+    @Test
+    public void mapsToLastCompletedBar() {
+        MultiTimeframeBarSeries mtf = new MultiTimeframeBarSeries(baseSeries);
+        BarSeries fiveMinutes = mtf.addTimeframe(FIVE_MINUTES);
+        for (int i = 0; i < 12; i++) {
+            mtf.addBar(minuteBar(i, i + 1));
+        }
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(-1, mtf.mapIndex(FIVE_MINUTES, i));
+        }
+        // The first 5 minute bar is completed by the base bar ending at 10:05
+        for (int i = 4; i < 9; i++) {
+            assertEquals(0, mtf.mapIndex(FIVE_MINUTES, i));
+        }
+        assertEquals(1, mtf.mapIndex(FIVE_MINUTES, 9));
+        assertEquals(1, mtf.mapIndex(FIVE_MINUTES, 11));
+
+        assertEquals(2, fiveMinutes.getBarCount());
+        assertEquals(start.plusMinutes(5), fiveMinutes.getBar(0).getEndTime());
+        assertNumEquals(1, fiveMinutes.getBar(0).getOpenPrice());
+        assertNumEquals(5, fiveMinutes.getBar(0).getClosePrice());
+        assertNumEquals(10, fiveMinutes.getBar(1).getClosePrice());
+    }
+
+    @Test
+    public void followsBarsAddedToBaseSeries() {
+        for (int i = 0; i < 5; i++) {
+            baseSeries.addBar(minuteBar(i, i + 1));
+        }
+        MultiTimeframeBarSeries mtf = new MultiTimeframeBarSeries(baseSeries);
+        BarSeries fiveMinutes = mtf.addTimeframe(FIVE_MINUTES);
+        assertEquals(1, fiveMinutes.getBarCount());
+
+        // Bars added directly to the base series are aggregated lazily
+        for (int i = 5; i < 10; i++) {
+            baseSeries.addBar(minuteBar(i, i + 1));
+        }
+        assertEquals(1, mtf.mapIndex(FIVE_MINUTES, 9));
+        assertEquals(2, fiveMinutes.getBarCount());
+    }
+
+    @Test
+    public void removedBaseBarsAreNotAggregated() {
+        baseSeries.setMaximumBarCount(5);
+        for (int i = 0; i < 20; i++) {
+            baseSeries.addBar(minuteBar(i, i + 1));
+        }
+        MultiTimeframeBarSeries mtf = new MultiTimeframeBarSeries(baseSeries);
+        BarSeries fiveMinutes = mtf.addTimeframe(FIVE_MINUTES);
+        mtf.update();
+
+        // Only the bars of the last 5 minutes are left
+        assertEquals(1, fiveMinutes.getBarCount());
+        assertNumEquals(5, fiveMinutes.getBar(0).getVolume());
+        assertNumEquals(16, fiveMinutes.getBar(0).getOpenPrice());
+        assertEquals(-1, mtf.mapIndex(FIVE_MINUTES, 14));
+        assertEquals(0, mtf.mapIndex(FIVE_MINUTES, 19));
+
+        // Capped live series: each bar is aggregated once
+        for (int i = 20; i < 200; i++) {
+            mtf.addBar(minuteBar(i, i + 1));
+        }
+        assertEquals(37, fiveMinutes.getBarCount());
+        for (int i = 0; i < fiveMinutes.getBarCount(); i++) {
+            assertNumEquals(5, fiveMinutes.getBar(i).getVolume());
+        }
+        assertEquals(-1, mtf.mapIndex(FIVE_MINUTES, 194));
+        assertEquals(35, mtf.mapIndex(FIVE_MINUTES, 195));
+        assertEquals(36, mtf.mapIndex(FIVE_MINUTES, 199));
+    }
+
+    @Test
+    public void gapCompletesBarOnNextPeriod() {
+        MultiTimeframeBarSeries mtf = new MultiTimeframeBarSeries(baseSeries);
+        mtf.addTimeframe(FIVE_MINUTES);
+        mtf.addBar(minuteBar(0, 1));
+        mtf.addBar(minuteBar(2, 2));
+        assertEquals(-1, mtf.mapIndex(FIVE_MINUTES, 1));
+        mtf.addBar(minuteBar(7, 3));
+        assertEquals(0, mtf.mapIndex(FIVE_MINUTES, 2));
+    }
+
+    @Test
+    public void higherTimeframeIndicatorInRule() {
+        MultiTimeframeBarSeries mtf = new MultiTimeframeBarSeries(baseSeries);
+        BarSeries fiveMinutes = mtf.addTimeframe(FIVE_MINUTES);
+        Indicator<Num> higherClose = mtf.onBaseTimeframe(FIVE_MINUTES, new ClosePriceIndicator(fiveMinutes));
+        double[] closes = { 1, 2, 3, 4, 5, 4, 3, 2, 1, 7 };
+        for (int i = 0; i < closes.length; i++) {
+            mtf.addBar(minuteBar(i, closes[i]));
+        }
+
+        assertTrue(higherClose.getValue(3).isNaN());
+        assertNumEquals(5, higherClose.getValue(4));
+        assertNumEquals(5, higherClose.getValue(8));
+        assertNumEquals(7, higherClose.getValue(9));
+
+        Rule rule = new OverIndicatorRule(new ClosePriceIndicator(baseSeries), higherClose);
+        assertFalse(rule.isSatisfied(3));
+        assertFalse(rule.isSatisfied(5));
+        mtf.addBar(minuteBar(10, 8));
+        assertTrue(rule.isSatisfied(10));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void indicatorOnOtherSeries() {
+        MultiTimeframeBarSeries mtf = new MultiTimeframeBarSeries(baseSeries);
+        mtf.addTimeframe(FIVE_MINUTES);
+        mtf.onBaseTimeframe(FIVE_MINUTES, new ClosePriceIndicator(baseSeries));
+    }
+}
@@ -0,0 +1,199 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.aggregator;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ta4j.core.Bar;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.BaseBar;
+import org.ta4j.core.BaseBarSeriesBuilder;
+import org.ta4j.core.indicators.AbstractIndicatorTest;
+import org.ta4j.core.num.Num;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.ta4j.core.TestUtils.assertNumEquals;
+
+public class StreamingBarAggregatorTest extends AbstractIndicatorTest<BarSeries, Num> {
+
+    private ZonedDateTime start;
+
+    private List<Bar> bars;
+
+    public StreamingBarAggregatorTest(Function<Number, Num> numFunction) {
+        super(numFunction);
+    }
+
+    @Before
+    public void setUp() {
+        start = ZonedDateTime.of(2020, 1, 1, 10, 0, 0, 0, ZoneOffset.UTC);
+        bars = new ArrayList<>();
+    }
+
+    private void trade(StreamingBarAggregator aggregator, int seconds, double price, double volume) {
+        aggregator.onTrade(start.plusSeconds(seconds), numOf(price), numOf(volume));
+    }
+
+    @Test
+    public void timeBars() {
+        StreamingBarAggregator aggregator = new TimeBarAggregator(Duration.ofMinutes(1), bars::add);
+        trade(aggregator, 5, 10, 1);
+        trade(aggregator, 30, 12, 2);
+        trade(aggregator, 59, 9, 1);
+        assertTrue(bars.isEmpty());
+        trade(aggregator, 61, 11, 3);
+
+        assertEquals(1, bars.size());
+        Bar bar = bars.get(0);
+        assertEquals(start, bar.getBeginTime());
+        assertEquals(start.plusMinutes(1), bar.getEndTime());
+        assertNumEquals(10, bar.getOpenPrice());
+        assertNumEquals(12, bar.getHighPrice());
+        assertNumEquals(9, bar.getLowPrice());
+        assertNumEquals(9, bar.getClosePrice());
+        assertNumEquals(4, bar.getVolume());
+        assertNumEquals(10 + 24 + 9, bar.getAmount());
+        assertEquals(3, bar.getTrades());
+
+        // Clock tick closes the pending bar
+        aggregator.onTime(start.plusMinutes(2));
+        assertEquals(2, bars.size());
+        assertFalse(aggregator.hasPendingBar());
+        assertNumEquals(11, bars.get(1).getClosePrice());
+    }
+
+    @Test
+    public void timeBarsFromBars() {
+        BarSeries series = new BaseBarSeriesBuilder().withNumTypeOf(numFunction).build();
+        StreamingBarAggregator aggregator = new TimeBarAggregator(Duration.ofMinutes(5), series);
+        for (int i = 1; i <= 12; i++) {
+            aggregator.onBar(
+                    new BaseBar(Duration.ofMinutes(1), start.plusMinutes(i), i, i + 1, i - 1, i, 1, 1, 1, numFunction));
+        }
+        aggregator.flush();
+
+        // Bars [10:00, 10:05), [10:05, 10:10), [10:10, 10:12)
+        assertEquals(3, series.getBarCount());
+        assertNumEquals(1, series.getBar(0).getOpenPrice());
+        assertNumEquals(5, series.getBar(0).getClosePrice());
+        assertNumEquals(5, series.getBar(0).getVolume());
+        assertEquals(start.plusMinutes(5), series.getBar(0).getEndTime());
+        assertNumEquals(12, series.getBar(2).getClosePrice());
+    }
+
+    @Test
+    public void tickBars() {
+        StreamingBarAggregator aggregator = new TickBarAggregator(2, bars::add);
+        for (int i = 0; i < 5; i++) {
+            trade(aggregator, i, 10 + i, 1);
+        }
+        assertEquals(2, bars.size());
+        assertEquals(2, aggregator.getBarCount());
+        assertNumEquals(11, bars.get(0).getClosePrice());
+        assertEquals(Duration.ofSeconds(1), bars.get(0).getTimePeriod());
+        assertTrue(aggregator.hasPendingBar());
+    }
+
+    @Test
+    public void sameTimestampTradesToSeries() {
+        BarSeries series = new BaseBarSeriesBuilder().withNumTypeOf(numFunction).build();
+        StreamingBarAggregator aggregator = new TickBarAggregator(2, series);
+        for (int i = 0; i < 4; i++) {
+            trade(aggregator, 0, 10 + i, 1);
+        }
+        // The second bar would end at the same time as the first one
+        assertEquals(1, series.getBarCount());
+        assertTrue(aggregator.hasPendingBar());
+        aggregator.flush();
+        assertEquals(1, series.getBarCount());
+
+        trade(aggregator, 1, 20, 1);
+        assertEquals(2, series.getBarCount());
+        assertEquals(3, series.getBar(1).getTrades());
+        assertNumEquals(12, series.getBar(1).getOpenPrice());
+        assertNumEquals(20, series.getBar(1).getClosePrice());
+        assertEquals(start.plusSeconds(1), series.getBar(1).getEndTime());
+
+        trade(aggregator, 2, 21, 1);
+        trade(aggregator, 2, 22, 1);
+        assertEquals(3, series.getBarCount());
+        assertFalse(aggregator.hasPendingBar());
+    }
+
+    @Test
+    public void volumeBars() {
+        StreamingBarAggregator aggregator = new VolumeBarAggregator(numOf(10), bars::add);
+        trade(aggregator, 0, 10, 4);
+        trade(aggregator, 1, 11, 5);
+        assertTrue(bars.isEmpty());
+        trade(aggregator, 2, 12, 3);
+        trade(aggregator, 3, 13, 6);
+
+        assertEquals(1, bars.size());
+        assertNumEquals(12, bars.get(0).getVolume());
+    }
+
+    @Test
+    public void dollarBars() {
+        StreamingBarAggregator aggregator = new DollarBarAggregator(numOf(100), bars::add);
+        trade(aggregator, 0, 10, 5);
+        trade(aggregator, 1, 20, 2);
+        assertTrue(bars.isEmpty());
+        trade(aggregator, 2, 10, 1);
+
+        assertEquals(1, bars.size());
+        assertNumEquals(100, bars.get(0).getAmount());
+    }
+
+    @Test
+    public void rangeBars() {
+        StreamingBarAggregator aggregator = new RangeBarAggregator(numOf(2), bars::add);
+        trade(aggregator, 0, 10, 1);
+        trade(aggregator, 1, 11, 1);
+        trade(aggregator, 2, 9, 1);
+        trade(aggregator, 3, 12, 1);
+        trade(aggregator, 4, 13, 1);
+        trade(aggregator, 5, 10, 1);
+
+        assertEquals(2, bars.size());
+        assertNumEquals(11, bars.get(0).getHighPrice());
+        assertNumEquals(9, bars.get(0).getLowPrice());
+        assertNumEquals(12, bars.get(1).getOpenPrice());
+        assertNumEquals(13, bars.get(1).getHighPrice());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidThreshold() {
+        new VolumeBarAggregator(numOf(0), bars::add);
+    }
+}
@@ -0,0 +1,139 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.analysis;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ta4j.core.*;
+import org.ta4j.core.analysis.criteria.MaximumDrawdownCriterion;
+import org.ta4j.core.analysis.criteria.TotalProfitCriterion;
+import org.ta4j.core.indicators.AbstractIndicatorTest;
+import org.ta4j.core.mocks.MockBarSeries;
+import org.ta4j.core.num.Num;
+import org.ta4j.core.trading.rules.FixedRule;
+import org.ta4j.core.tradereport.TradingStatement;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.ta4j.core.TestUtils.assertNumEquals;
+
+public class CriterionPrunerTest extends AbstractIndicatorTest<Indicator<Num>, Num> {
+
+    private BarSeries series;
+
+    private BarSeriesManager manager;
+
+    private Strategy badStrategy, goodStrategy;
+
+    public CriterionPrunerTest(Function<Number, Num> numFunction) {
+        super(numFunction);
+    }
+
+    @Before
+    public void setUp() {
+        series = new MockBarSeries(numFunction, 10, 5, 6, 7, 8, 9, 10, 11, 12);
+        manager = new BarSeriesManager(series);
+        badStrategy = new BaseStrategy(new FixedRule(0, 3), new FixedRule(1, 5));
+        goodStrategy = new BaseStrategy(new FixedRule(1), new FixedRule(8));
+    }
+
+    @Test
+    public void pruneOnFixedThreshold() {
+        BacktestPruner pruner = new CriterionPruner(new MaximumDrawdownCriterion(), numOf(0.2), 1);
+
+        BacktestResult result = manager.run(badStrategy, new BaseTradingRecord(), numOf(1), 0, 8, pruner);
+        assertTrue(result.isPruned());
+        assertEquals(1, result.getLastIndex());
+        assertEquals(1, result.getTradingRecord().getTradeCount());
+
+        result = manager.run(goodStrategy, new BaseTradingRecord(), numOf(1), 0, 8, pruner);
+        assertFalse(result.isPruned());
+        assertEquals(8, result.getLastIndex());
+        assertEquals(1, result.getTradingRecord().getTradeCount());
+    }
+
+    @Test
+    public void noPrunerRunsToTheEnd() {
+        BacktestResult result = manager.run(badStrategy, new BaseTradingRecord(), numOf(1), 0, 8, null);
+        assertFalse(result.isPruned());
+        assertEquals(2, result.getTradingRecord().getTradeCount());
+    }
+
+    @Test
+    public void pruneAgainstTopN() {
+        CriterionPruner pruner = new CriterionPruner(new TotalProfitCriterion(), 1, 2);
+        assertNull(pruner.getThreshold());
+
+        // Top-N not filled yet: the bad strategy runs to the end
+        BacktestResult result = manager.run(badStrategy, new BaseTradingRecord(), numOf(1), 0, 8, pruner);
+        assertFalse(result.isPruned());
+
+        result = manager.run(goodStrategy, new BaseTradingRecord(), numOf(1), 0, 8, pruner);
+        assertFalse(result.isPruned());
+        assertNumEquals(2.4, pruner.getThreshold());
+
+        result = manager.run(badStrategy, new BaseTradingRecord(), numOf(1), 0, 8, pruner);
+        assertTrue(result.isPruned());
+        assertEquals(2, result.getLastIndex());
+    }
+
+    @Test
+    public void executorFlagsPrunedStatements() {
+        BacktestPruner pruner = new CriterionPruner(new MaximumDrawdownCriterion(), numOf(0.2), 1);
+        List<TradingStatement> statements = new BacktestExecutor(series)
+                .execute(Arrays.asList(badStrategy, goodStrategy), numOf(1), Order.OrderType.BUY, pruner);
+
+        assertTrue(statements.get(0).isPruned());
+        assertFalse(statements.get(1).isPruned());
+    }
+
+    @Test
+    public void trimmedSeriesPrunedOnProcessedBarsOnly() {
+        BarSeries trimmed = new MockBarSeries(numFunction, 10, 10, 10, 10, 8, 4);
+        trimmed.setMaximumBarCount(5);
+        CriterionPruner pruner = new CriterionPruner(new MaximumDrawdownCriterion(), numOf(0.1), 1);
+
+        // The bars after the checkpoint (down to 4) must not be seen
+        TradingRecord flatTrade = new BaseTradingRecord();
+        flatTrade.enter(1, numOf(10), numOf(1));
+        flatTrade.exit(3, numOf(10), numOf(1));
+        assertFalse(pruner.shouldPrune(trimmed, flatTrade, 3));
+
+        TradingRecord losingTrade = new BaseTradingRecord();
+        losingTrade.enter(1, numOf(10), numOf(1));
+        losingTrade.exit(4, numOf(8), numOf(1));
+        assertTrue(pruner.shouldPrune(trimmed, losingTrade, 4));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void topNMustBePositive() {
+        new CriterionPruner(new TotalProfitCriterion(), 0, 1);
+    }
+}
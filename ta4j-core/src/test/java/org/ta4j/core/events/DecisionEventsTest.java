@@ -0,0 +1,111 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.events;
+
+import org.junit.After;
+import org.junit.Test;
+import org.ta4j.core.BaseStrategy;
+import org.ta4j.core.BaseTradingRecord;
+import org.ta4j.core.Order.OrderType;
+import org.ta4j.core.Strategy;
+import org.ta4j.core.indicators.AbstractIndicatorTest;
+import org.ta4j.core.indicators.helpers.ClosePriceIndicator;
+import org.ta4j.core.mocks.MockBarSeries;
+import org.ta4j.core.num.Num;
+import org.ta4j.core.trading.rules.BooleanRule;
+import org.ta4j.core.trading.rules.TrailingStopLossRule;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.ta4j.core.TestUtils.assertNumEquals;
+
+public class DecisionEventsTest extends AbstractIndicatorTest<Object, Object> {
+
+    private final List<DecisionEvent> events = new ArrayList<>();
+
+    public DecisionEventsTest(Function<Number, Num> numFunction) {
+        super(numFunction);
+    }
+
+    @After
+    public void tearDown() {
+        DecisionEvents.setListener(null);
+    }
+
+    @Test
+    public void disabledByDefault() {
+        assertFalse(DecisionEvents.isEnabled());
+        assertSame(DecisionListener.NONE, DecisionEvents.getListener());
+        BooleanRule.TRUE.isSatisfied(0);
+        DecisionEvents.setListener(events::add);
+        assertTrue(DecisionEvents.isEnabled());
+        DecisionEvents.setListener(null);
+        BooleanRule.TRUE.isSatisfied(1);
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void ruleAndStrategyEvents() {
+        DecisionEvents.setListener(events::add);
+        Strategy strategy = new BaseStrategy(BooleanRule.TRUE, BooleanRule.FALSE);
+        assertTrue(strategy.shouldEnter(3));
+
+        assertEquals(2, events.size());
+        DecisionEvent ruleEvent = events.get(0);
+        assertSame(BooleanRule.TRUE, ruleEvent.getSource());
+        assertEquals(DecisionEvent.Type.RULE, ruleEvent.getType());
+        assertEquals(3, ruleEvent.getIndex());
+        assertTrue(ruleEvent.isSatisfied());
+        assertTrue(ruleEvent.getDetails().isEmpty());
+        assertEquals("BooleanRule#isSatisfied(3): true", ruleEvent.toString());
+
+        DecisionEvent entryEvent = events.get(1);
+        assertSame(strategy, entryEvent.getSource());
+        assertEquals(DecisionEvent.Type.ENTRY, entryEvent.getType());
+        assertEquals(">>> BaseStrategy#shouldEnter(3): true", entryEvent.toString());
+    }
+
+    @Test
+    public void ruleDetails() {
+        ClosePriceIndicator closePrice = new ClosePriceIndicator(new MockBarSeries(numFunction, 100, 110, 95));
+        TrailingStopLossRule rule = new TrailingStopLossRule(closePrice, numOf(10));
+        BaseTradingRecord tradingRecord = new BaseTradingRecord(OrderType.BUY);
+        tradingRecord.enter(0, numOf(100), numOf(1));
+
+        DecisionEvents.setListener(events::add);
+        rule.isSatisfied(1, tradingRecord);
+        assertEquals(1, events.size());
+        DecisionEvent event = events.get(0);
+        assertFalse(event.isSatisfied());
+        assertNumEquals(110, (Num) event.getDetails().get("Current price"));
+        assertNumEquals(99, (Num) event.getDetails().get("Current stop loss activation"));
+        assertTrue(event.toString().startsWith("TrailingStopLossRule#isSatisfied(1): false, Current price: 110"));
+    }
+}
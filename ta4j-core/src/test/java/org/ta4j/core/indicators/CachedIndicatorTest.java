@@ -26,8 +26,10 @@ package org.ta4j.core.indicators;
 import org.junit.Before;
 import org.junit.Test;
 import org.ta4j.core.*;
+import org.ta4j.core.indicators.cache.CachePolicy;
 import org.ta4j.core.indicators.helpers.ClosePriceIndicator;
 import org.ta4j.core.indicators.helpers.ConstantIndicator;
+import org.ta4j.core.mocks.MockBar;
 import org.ta4j.core.mocks.MockBarSeries;
 import org.ta4j.core.num.Num;
 import org.ta4j.core.trading.rules.OverIndicatorRule;
@@ -178,6 +180,7 @@ public class CachedIndicatorTest extends AbstractIndicatorTest<Indicator<Num>, N
     public void leaveBarsBeforeLastBarCached() {
         BarSeries barSeries = new MockBarSeries(numFunction);
         ClosePriceIndicator closePrice = new ClosePriceIndicator(barSeries);
+        closePrice.setCachePolicy(CachePolicy.full());
 
         // Add a forgotten trade, should be ignored in the cached indicator
         assertNumEquals(2, closePrice.getValue(1));
@@ -185,4 +188,63 @@ public class CachedIndicatorTest extends AbstractIndicatorTest<Indicator<Num>, N
         assertNumEquals(2, closePrice.getValue(1));
     }
 
+    @Test
+    public void invalidateFromCorrectedBar() {
+        BaseBarSeries barSeries = new MockBarSeries(numFunction, 1, 2, 3, 4, 5, 6);
+        SMAIndicator sma = new SMAIndicator(new ClosePriceIndicator(barSeries), 2);
+        assertNumEquals(2.5, sma.getValue(2));
+        assertNumEquals(4.5, sma.getValue(4));
+
+        barSeries.replaceBar(3, new MockBar(barSeries.getBar(3).getEndTime(), 10, numFunction));
+        assertNumEquals(2.5, sma.getValue(2));
+        assertNumEquals(6.5, sma.getValue(3));
+        assertNumEquals(7.5, sma.getValue(4));
+    }
+
+    @Test
+    public void invalidateFromBarChangedInPlace() {
+        BaseBarSeries barSeries = new MockBarSeries(numFunction);
+        ClosePriceIndicator closePrice = new ClosePriceIndicator(barSeries);
+        closePrice.setCachePolicy(CachePolicy.full());
+        assertNumEquals(2, closePrice.getValue(1));
+        barSeries.getBar(1).addTrade(numOf(10), numOf(5));
+        assertNumEquals(2, closePrice.getValue(1));
+        barSeries.barChanged(1);
+        assertNumEquals(5, closePrice.getValue(1));
+    }
+
+    @Test
+    public void invalidateFromIndex() {
+        BarSeries barSeries = new MockBarSeries(numFunction, 1, 2, 3, 4, 5, 6);
+        ClosePriceIndicator closePrice = new ClosePriceIndicator(barSeries);
+        closePrice.setCachePolicy(CachePolicy.full());
+        assertNumEquals(2, closePrice.getValue(1));
+        assertNumEquals(4, closePrice.getValue(3));
+        barSeries.getBar(3).addPrice(numOf(8));
+        barSeries.getBar(1).addPrice(numOf(7));
+        closePrice.invalidateFrom(2);
+        assertNumEquals(2, closePrice.getValue(1));
+        assertNumEquals(8, closePrice.getValue(3));
+        assertEquals(3, closePrice.highestResultIndex);
+        closePrice.invalidateFrom(0);
+        assertEquals(-1, closePrice.highestResultIndex);
+        assertNumEquals(7, closePrice.getValue(1));
+    }
+
+    @Test
+    public void invalidateRecursiveIndicatorFromCorrectedBar() {
+        double[] data = new double[500];
+        Arrays.fill(data, 10);
+        BaseBarSeries barSeries = new MockBarSeries(numFunction, data);
+        EMAIndicator ema = new EMAIndicator(new ClosePriceIndicator(barSeries), 10);
+        assertNumEquals(10, ema.getValue(498));
+
+        barSeries.replaceBar(5, new MockBar(barSeries.getBar(5).getEndTime(), 20, numFunction));
+        Num corrected = ema.getValue(498);
+        Num expected = new EMAIndicator(new ClosePriceIndicator(barSeries), 10).getValue(498);
+        assertNumEquals(expected, corrected);
+        assertNumEquals(10, ema.getValue(4));
+        assertTrue(ema.getValue(5).isGreaterThan(numOf(10)));
+    }
+
 }
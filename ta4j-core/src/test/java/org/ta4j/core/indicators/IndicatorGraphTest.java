@@ -0,0 +1,135 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.indicators;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.BaseStrategy;
+import org.ta4j.core.Indicator;
+import org.ta4j.core.Strategy;
+import org.ta4j.core.indicators.helpers.ClosePriceIndicator;
+import org.ta4j.core.indicators.helpers.DifferenceIndicator;
+import org.ta4j.core.mocks.MockBarSeries;
+import org.ta4j.core.num.Num;
+import org.ta4j.core.trading.rules.CrossedUpIndicatorRule;
+import org.ta4j.core.trading.rules.UnderIndicatorRule;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.ta4j.core.TestUtils.assertNumEquals;
+
+public class IndicatorGraphTest extends AbstractIndicatorTest<Indicator<Num>, Num> {
+
+    private BarSeries series;
+
+    private ClosePriceIndicator closePrice;
+
+    private SMAIndicator sma;
+
+    private EMAIndicator ema;
+
+    public IndicatorGraphTest(Function<Number, Num> numFunction) {
+        super(numFunction);
+    }
+
+    @Before
+    public void setUp() {
+        series = new MockBarSeries(numFunction, 1, 2, 3, 4, 3, 4, 5, 4, 3, 3, 4, 3, 2);
+        closePrice = new ClosePriceIndicator(series);
+        sma = new SMAIndicator(closePrice, 3);
+        ema = new EMAIndicator(sma, 5);
+    }
+
+    @Test
+    public void inputs() {
+        assertTrue(closePrice.getInputs().isEmpty());
+        assertEquals(Arrays.asList(closePrice), sma.getInputs());
+        assertEquals(Arrays.asList(sma), ema.getInputs());
+
+        DifferenceIndicator difference = new DifferenceIndicator(closePrice, closePrice);
+        assertEquals(Arrays.asList(closePrice), difference.getInputs());
+    }
+
+    @Test
+    public void topologicalOrderOfStrategy() {
+        DifferenceIndicator difference = new DifferenceIndicator(ema, sma);
+        Strategy strategy = new BaseStrategy(new CrossedUpIndicatorRule(closePrice, ema),
+                new UnderIndicatorRule(difference, numOf(0)));
+        IndicatorGraph graph = IndicatorGraph.of(strategy);
+
+        List<Indicator<?>> indicators = graph.getIndicators();
+        assertTrue(graph.contains(closePrice));
+        assertTrue(graph.contains(sma));
+        assertTrue(graph.contains(ema));
+        assertTrue(graph.contains(difference));
+        for (Indicator<?> indicator : indicators) {
+            for (Indicator<?> input : graph.getInputs(indicator)) {
+                assertTrue(indicators.indexOf(input) < indicators.indexOf(indicator));
+            }
+        }
+        assertEquals(graph.size(), indicators.size());
+        assertEquals(indicators.size(), indicators.stream().distinct().count());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownIndicator() {
+        IndicatorGraph.of(sma).getInputs(ema);
+    }
+
+    @Test
+    public void evaluate() {
+        IndicatorGraph graph = IndicatorGraph.of(ema);
+        IndicatorGraphEvaluator.Result result = new IndicatorGraphEvaluator(graph, series).evaluate();
+
+        SMAIndicator expectedSma = new SMAIndicator(new ClosePriceIndicator(series), 3);
+        EMAIndicator expectedEma = new EMAIndicator(expectedSma, 5);
+        assertEquals(series.getBarCount(), result.getBarCount());
+        for (int i = series.getBeginIndex(); i <= series.getEndIndex(); i++) {
+            assertNumEquals(expectedSma.getValue(i), result.getValue(sma, i));
+            assertNumEquals(expectedEma.getValue(i), result.getValue(ema, i));
+        }
+    }
+
+    @Test
+    public void evaluateLongSeries() {
+        double[] prices = new double[20000];
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = 100 + Math.sin(i / 10d);
+        }
+        BarSeries longSeries = new MockBarSeries(numFunction, prices);
+        EMAIndicator longEma = new EMAIndicator(new ClosePriceIndicator(longSeries), 10);
+
+        IndicatorGraphEvaluator evaluator = new IndicatorGraphEvaluator(IndicatorGraph.of(longEma), longSeries);
+        IndicatorGraphEvaluator.Result result = evaluator.evaluate();
+        assertSame(longEma, evaluator.getEvaluatedIndicators().get(1));
+        assertNumEquals(longEma.getValue(longSeries.getEndIndex()),
+                result.getValue(longEma, longSeries.getEndIndex()));
+    }
+}
@@ -0,0 +1,171 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.indicators;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ta4j.core.Bar;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.Indicator;
+import org.ta4j.core.indicators.helpers.ClosePriceIndicator;
+import org.ta4j.core.indicators.helpers.DifferenceIndicator;
+import org.ta4j.core.indicators.helpers.GainIndicator;
+import org.ta4j.core.indicators.helpers.HighestValueIndicator;
+import org.ta4j.core.indicators.helpers.LossIndicator;
+import org.ta4j.core.indicators.statistics.PearsonCorrelationIndicator;
+import org.ta4j.core.indicators.statistics.StandardErrorIndicator;
+import org.ta4j.core.indicators.volume.OnBalanceVolumeIndicator;
+import org.ta4j.core.mocks.MockBar;
+import org.ta4j.core.mocks.MockBarSeries;
+import org.ta4j.core.num.Num;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.ta4j.core.TestUtils.assertNumEquals;
+
+public class LookbackTest extends AbstractIndicatorTest<Indicator<Num>, Num> {
+
+    private BarSeries series;
+
+    public LookbackTest(Function<Number, Num> numFunction) {
+        super(numFunction);
+    }
+
+    @Before
+    public void setUp() {
+        double[] prices = new double[3000];
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = 100 + 10 * Math.sin(i / 7d) + i % 5;
+        }
+        series = new MockBarSeries(numFunction, prices);
+    }
+
+    @Test
+    public void composition() {
+        ClosePriceIndicator closePrice = new ClosePriceIndicator(series);
+        assertEquals(0, closePrice.getLookback());
+
+        SMAIndicator sma = new SMAIndicator(closePrice, 5);
+        assertEquals(4, sma.getLookback());
+        HighestValueIndicator highest = new HighestValueIndicator(sma, 10);
+        assertEquals(13, highest.getLookback());
+        assertEquals(13, new DifferenceIndicator(highest, closePrice).getLookback());
+        assertEquals(1, new GainIndicator(closePrice).getLookback());
+        assertEquals(5, new LossIndicator(sma).getLookback());
+
+        EMAIndicator ema = new EMAIndicator(closePrice, 20);
+        assertEquals(Lookback.convergence(1 - 2d / 21, Lookback.DEFAULT_EPSILON), ema.getLookback());
+        assertEquals(Lookback.plus(ema.getLookback(), 4), new EMAIndicator(sma, 20).getLookback());
+
+        assertEquals(Lookback.UNBOUNDED, new OnBalanceVolumeIndicator(series).getLookback());
+        assertEquals(Lookback.UNBOUNDED, new SMAIndicator(new OnBalanceVolumeIndicator(series), 3).getLookback());
+    }
+
+    @Test
+    public void resumed() {
+        ClosePriceIndicator closePrice = new ClosePriceIndicator(series);
+        SMAIndicator sma = new SMAIndicator(closePrice, 5);
+        assertEquals(4, Lookback.resumed(sma));
+        // Recursive indicators resume from their previous (cached) value
+        assertEquals(4, Lookback.resumed(new EMAIndicator(sma, 20)));
+        assertEquals(10, Lookback.resumed(new KAMAIndicator(closePrice, 10, 2, 30)));
+        assertEquals(2, Lookback.resumed(new SMAIndicator(new OnBalanceVolumeIndicator(series), 3)));
+    }
+
+    @Test
+    public void convergence() {
+        assertEquals(0, Lookback.convergence(0, 1e-6));
+        assertEquals(Lookback.UNBOUNDED, Lookback.convergence(1, 1e-6));
+        int bars = Lookback.convergence(0.5, 1e-3);
+        assertEquals(10, bars);
+        assertTrue(Math.pow(0.5, bars) <= 1e-3);
+        assertEquals(Lookback.UNBOUNDED, Lookback.plus(Lookback.UNBOUNDED, 1));
+        assertEquals(0, Lookback.startIndex(5, Lookback.UNBOUNDED));
+        assertEquals(3, Lookback.startIndex(5, 2));
+    }
+
+    @Test
+    public void evaluatePartial() {
+        ClosePriceIndicator closePrice = new ClosePriceIndicator(series);
+        EMAIndicator ema = new EMAIndicator(new SMAIndicator(closePrice, 5), 20);
+        MACDIndicator macd = new MACDIndicator(closePrice, 12, 26);
+        OnBalanceVolumeIndicator obv = new OnBalanceVolumeIndicator(series);
+        IndicatorGraphEvaluator evaluator = new IndicatorGraphEvaluator(IndicatorGraph.of(ema, macd, obv), series);
+
+        IndicatorGraphEvaluator.Result partial = evaluator.evaluateLast(3);
+        assertEquals(3, partial.getBarCount());
+
+        ClosePriceIndicator expectedClosePrice = new ClosePriceIndicator(series);
+        EMAIndicator expectedEma = new EMAIndicator(new SMAIndicator(expectedClosePrice, 5), 20);
+        MACDIndicator expectedMacd = new MACDIndicator(expectedClosePrice, 12, 26);
+        OnBalanceVolumeIndicator expectedObv = new OnBalanceVolumeIndicator(series);
+        for (int i = series.getEndIndex() - 2; i <= series.getEndIndex(); i++) {
+            assertEquals(expectedEma.getValue(i).doubleValue(), partial.getValue(ema, i).doubleValue(), 1e-4);
+            assertEquals(expectedMacd.getValue(i).doubleValue(), partial.getValue(macd, i).doubleValue(), 1e-4);
+            assertNumEquals(expectedObv.getValue(i), partial.getValue(obv, i));
+        }
+
+        // The start indexes are restored and the warm-up values are not cached
+        assertEquals(0, ema.getStartIndex());
+        assertNumEquals(expectedEma.getValue(100), ema.getValue(100));
+
+        IndicatorGraphEvaluator.Result full = evaluator.evaluate();
+        assertEquals(0, ema.getStartIndex());
+        assertNumEquals(expectedEma.getValue(100), full.getValue(ema, 100));
+        assertNumEquals(expectedEma.getValue(series.getEndIndex()), ema.getValue(series.getEndIndex()));
+    }
+
+    @Test
+    public void evaluatePartialOfWindowsOverRecursiveInputs() {
+        List<Bar> bars = new ArrayList<>();
+        ZonedDateTime start = ZonedDateTime.of(2020, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+        for (int i = 0; i < 3000; i++) {
+            double close = 100 + 10 * Math.sin(i / 7d) + i % 5;
+            bars.add(new MockBar(start.plusDays(i), close - 1, close, close + 1 + i % 3, close - 2 - i % 4, 0, 1, 1,
+                    numFunction));
+        }
+        BarSeries barSeries = new MockBarSeries(bars);
+        ClosePriceIndicator closePrice = new ClosePriceIndicator(barSeries);
+        EMAIndicator ema = new EMAIndicator(closePrice, 10);
+        Indicator<?>[] indicators = { new MassIndexIndicator(barSeries, 9, 25), new ChopIndicator(barSeries, 14, 100),
+                new PearsonCorrelationIndicator(ema, new SMAIndicator(closePrice, 5), 20),
+                new StandardErrorIndicator(ema, 20) };
+        IndicatorGraphEvaluator.Result partial = new IndicatorGraphEvaluator(IndicatorGraph.of(indicators), barSeries)
+                .evaluateLast(3);
+        IndicatorGraphEvaluator.Result full = new IndicatorGraphEvaluator(IndicatorGraph.of(indicators), barSeries)
+                .evaluate();
+        for (Indicator<?> indicator : indicators) {
+            for (int i = barSeries.getEndIndex() - 2; i <= barSeries.getEndIndex(); i++) {
+                assertEquals(((Num) full.getValue(indicator, i)).doubleValue(),
+                        ((Num) partial.getValue(indicator, i)).doubleValue(), 1e-6);
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.indicators.cache;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.Indicator;
+import org.ta4j.core.indicators.AbstractIndicatorTest;
+import org.ta4j.core.indicators.CachedIndicator;
+import org.ta4j.core.indicators.EMAIndicator;
+import org.ta4j.core.indicators.SMAIndicator;
+import org.ta4j.core.indicators.helpers.ClosePriceIndicator;
+import org.ta4j.core.mocks.MockBarSeries;
+import org.ta4j.core.num.Num;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.ta4j.core.TestUtils.assertNumEquals;
+
+public class CacheManagerTest extends AbstractIndicatorTest<Indicator<Num>, Num> {
+
+    private BarSeries series;
+
+    public CacheManagerTest(Function<Number, Num> numFunction) {
+        super(numFunction);
+    }
+
+    @Before
+    public void setUp() {
+        double[] prices = new double[2000];
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = 50 + (i * 11) % 17;
+        }
+        series = new MockBarSeries(numFunction, prices);
+    }
+
+    @After
+    public void tearDown() {
+        CachedIndicator.setCacheManager(null);
+    }
+
+    @Test
+    public void tracksMemory() {
+        CacheManager manager = new CacheManager(Long.MAX_VALUE);
+        CachedIndicator.setCacheManager(manager);
+        SMAIndicator sma = new SMAIndicator(new ClosePriceIndicator(series), 5);
+        for (int i = 0; i < 100; i++) {
+            sma.getValue(i);
+        }
+        // The close price indicator is not cached
+        assertEquals(1, manager.getCacheCount());
+        assertTrue(manager.getUsedBytes() >= 100 * ResultCache.RESULT_BYTES);
+        assertEquals(manager.getUsedBytes(), manager.getPeakBytes());
+        assertEquals(0, manager.getEvictionCount());
+
+        manager.evictAll();
+        assertEquals(0, manager.getUsedBytes());
+        assertEquals(0, sma.getCachedResultCount());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedCaches() {
+        long budget = 40_000;
+        CacheManager manager = new CacheManager(budget);
+        CachedIndicator.setCacheManager(manager);
+
+        List<SMAIndicator> smas = new ArrayList<>();
+        for (int barCount = 2; barCount < 12; barCount++) {
+            SMAIndicator sma = new SMAIndicator(new ClosePriceIndicator(series), barCount);
+            for (int i = 0; i < 500; i++) {
+                sma.getValue(i);
+            }
+            smas.add(sma);
+        }
+        assertTrue(manager.getEvictionCount() > 0);
+        assertTrue(manager.getUsedBytes() <= budget);
+        assertTrue(manager.getPeakBytes() > manager.getUsedBytes());
+        // The last used cache is kept
+        assertEquals(500, smas.get(smas.size() - 1).getCachedResultCount());
+        assertEquals(0, smas.get(0).getCachedResultCount());
+
+        // Evicted results are computed again
+        CachedIndicator.setCacheManager(null);
+        SMAIndicator expected = new SMAIndicator(new ClosePriceIndicator(series), 2);
+        assertNumEquals(expected.getValue(321), smas.get(0).getValue(321));
+    }
+
+    @Test
+    public void recursiveIndicatorsSurviveEvictions() {
+        CacheManager manager = new CacheManager(20_000);
+        CachedIndicator.setCacheManager(manager);
+        EMAIndicator ema = new EMAIndicator(new SMAIndicator(new ClosePriceIndicator(series), 3), 10);
+        Num value = ema.getValue(series.getEndIndex() - 1);
+        manager.evictAll();
+        assertNumEquals(value, ema.getValue(series.getEndIndex() - 1));
+
+        CachedIndicator.setCacheManager(null);
+        EMAIndicator expected = new EMAIndicator(new SMAIndicator(new ClosePriceIndicator(series), 3), 10);
+        assertNumEquals(expected.getValue(series.getEndIndex() - 1), value);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void budgetMustBePositive() {
+        new CacheManager(0);
+    }
+}
@@ -0,0 +1,177 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.indicators.cache;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.Indicator;
+import org.ta4j.core.indicators.AbstractIndicatorTest;
+import org.ta4j.core.indicators.CachedIndicator;
+import org.ta4j.core.indicators.EMAIndicator;
+import org.ta4j.core.indicators.SMAIndicator;
+import org.ta4j.core.indicators.helpers.ClosePriceIndicator;
+import org.ta4j.core.mocks.MockBarSeries;
+import org.ta4j.core.num.Num;
+
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.ta4j.core.TestUtils.assertNumEquals;
+
+public class CachePolicyTest extends AbstractIndicatorTest<Indicator<Num>, Num> {
+
+    private BarSeries series;
+
+    public CachePolicyTest(Function<Number, Num> numFunction) {
+        super(numFunction);
+    }
+
+    @Before
+    public void setUp() {
+        double[] prices = new double[300];
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = 10 + (i * 7) % 13;
+        }
+        series = new MockBarSeries(numFunction, prices);
+    }
+
+    @After
+    public void tearDown() {
+        CachedIndicator.setGlobalCachePolicy(null);
+    }
+
+    @Test
+    public void defaultPolicies() {
+        ClosePriceIndicator closePrice = new ClosePriceIndicator(series);
+        SMAIndicator sma = new SMAIndicator(closePrice, 3);
+        assertEquals(CachePolicy.none(), closePrice.getCachePolicy());
+        assertEquals(CachePolicy.full(), sma.getCachePolicy());
+
+        for (int i = 0; i <= 100; i++) {
+            sma.getValue(i);
+        }
+        assertEquals(0, closePrice.getCachedResultCount());
+        assertEquals(101, sma.getCachedResultCount());
+    }
+
+    @Test
+    public void sameValuesWithAllPolicies() {
+        CachePolicy[] policies = { CachePolicy.none(), CachePolicy.full(), CachePolicy.lastN(5), CachePolicy.soft(),
+                CachePolicy.primitive() };
+        SMAIndicator expected = new SMAIndicator(new ClosePriceIndicator(series), 10);
+        for (CachePolicy policy : policies) {
+            SMAIndicator sma = new SMAIndicator(new ClosePriceIndicator(series), 10);
+            sma.setCachePolicy(policy);
+            for (int i = 0; i <= series.getEndIndex(); i++) {
+                assertNumEquals(expected.getValue(i), sma.getValue(i));
+            }
+            // Read again from the cache
+            for (int i = series.getEndIndex(); i >= 0; i--) {
+                assertNumEquals(expected.getValue(i), sma.getValue(i));
+            }
+        }
+    }
+
+    @Test
+    public void lastNKeepsLastResults() {
+        EMAIndicator ema = new EMAIndicator(new ClosePriceIndicator(series), 10);
+        ema.setCachePolicy(CachePolicy.lastN(4));
+        EMAIndicator expected = new EMAIndicator(new ClosePriceIndicator(series), 10);
+        assertNumEquals(expected.getValue(250), ema.getValue(250));
+        assertEquals(4, ema.getCachedResultCount());
+        assertNumEquals(expected.getValue(20), ema.getValue(20));
+    }
+
+    @Test
+    public void globalPolicy() {
+        CachedIndicator.setGlobalCachePolicy(CachePolicy.none());
+        SMAIndicator sma = new SMAIndicator(new ClosePriceIndicator(series), 3);
+        EMAIndicator ema = new EMAIndicator(sma, 3);
+        assertEquals(CachePolicy.none(), sma.getCachePolicy());
+        // Recursive indicators need a cache
+        assertEquals(CachePolicy.full(), ema.getCachePolicy());
+        ema.getValue(200);
+        assertEquals(0, sma.getCachedResultCount());
+
+        sma.setCachePolicy(CachePolicy.primitive());
+        assertEquals(CachePolicy.primitive(), sma.getCachePolicy());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void recursiveIndicatorRejectsNoCache() {
+        new EMAIndicator(new ClosePriceIndicator(series), 3).setCachePolicy(CachePolicy.none());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void lastNRejectsNonPositiveCount() {
+        CachePolicy.lastN(0);
+    }
+
+    @Test
+    public void ringCache() {
+        ResultCache<Num> cache = new WindowResultCache<>(20);
+        for (int i = 0; i < 50; i++) {
+            cache.put(i, numOf(i), Integer.MAX_VALUE);
+        }
+        assertEquals(49, cache.getHighestIndex());
+        assertEquals(20, cache.size());
+        assertNull(cache.get(29));
+        assertNumEquals(30, cache.get(30));
+        assertNumEquals(49, cache.get(49));
+
+        cache.invalidateFrom(40);
+        assertEquals(39, cache.getHighestIndex());
+        assertNull(cache.get(40));
+        cache.put(45, numOf(45), Integer.MAX_VALUE);
+        assertNull(cache.get(42));
+        assertNumEquals(45, cache.get(45));
+        assertNumEquals(30, cache.get(30));
+
+        // Maximum result count lower than the capacity
+        cache.put(46, numOf(46), 3);
+        assertEquals(3, cache.size());
+        assertNull(cache.get(43));
+
+        cache.clear();
+        assertEquals(-1, cache.getHighestIndex());
+        assertNull(cache.get(45));
+    }
+
+    @Test
+    public void primitiveCache() {
+        ResultCache<Object> cache = new PrimitiveResultCache<>();
+        cache.put(0, numOf(1.5), Integer.MAX_VALUE);
+        cache.put(1, Boolean.TRUE, Integer.MAX_VALUE);
+        cache.put(40, numOf(2.5), Integer.MAX_VALUE);
+        assertNumEquals(1.5, (Num) cache.get(0));
+        assertEquals(Boolean.TRUE, cache.get(1));
+        assertNull(cache.get(2));
+        assertNumEquals(2.5, (Num) cache.get(40));
+        assertTrue(cache.size() >= 41);
+    }
+}
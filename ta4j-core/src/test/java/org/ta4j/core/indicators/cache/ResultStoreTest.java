@@ -0,0 +1,239 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.indicators.cache;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.Indicator;
+import org.ta4j.core.indicators.AbstractIndicatorTest;
+import org.ta4j.core.indicators.CachedIndicator;
+import org.ta4j.core.indicators.EMAIndicator;
+import org.ta4j.core.indicators.SMAIndicator;
+import org.ta4j.core.indicators.helpers.ClosePriceIndicator;
+import org.ta4j.core.indicators.helpers.CrossIndicator;
+import org.ta4j.core.metrics.Metrics;
+import org.ta4j.core.metrics.ProfilingMetricsCollector;
+import org.ta4j.core.mocks.MockBarSeries;
+import org.ta4j.core.num.Num;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.ta4j.core.TestUtils.assertNumEquals;
+
+public class ResultStoreTest extends AbstractIndicatorTest<Indicator<Num>, Num> {
+
+    private static final int BAR_COUNT = 300;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    public ResultStoreTest(Function<Number, Num> numFunction) {
+        super(numFunction);
+    }
+
+    @After
+    public void tearDown() {
+        CachedIndicator.setResultStore(null);
+        Metrics.setCollector(null);
+    }
+
+    private BarSeries newSeries() {
+        double[] prices = new double[BAR_COUNT];
+        ZonedDateTime[] times = new ZonedDateTime[BAR_COUNT];
+        ZonedDateTime start = ZonedDateTime.of(2020, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+        for (int i = 0; i < BAR_COUNT; i++) {
+            prices[i] = 100 + 10 * Math.sin(i / 7d);
+            times[i] = start.plusDays(i);
+        }
+        return new MockBarSeries(numFunction, prices, times);
+    }
+
+    private static long fileCount(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    public void secondRunReadsStoredResults() throws IOException {
+        Path directory = folder.newFolder().toPath();
+        BarSeries series = newSeries();
+        EMAIndicator ema = new EMAIndicator(new ClosePriceIndicator(series), 10);
+        SMAIndicator sma = new SMAIndicator(new ClosePriceIndicator(series), 10);
+        CrossIndicator cross = new CrossIndicator(ema, sma);
+
+        try (ResultStore store = new ResultStore(directory)) {
+            CachedIndicator.setResultStore(store);
+            for (int i = 0; i < BAR_COUNT; i++) {
+                cross.getValue(i);
+            }
+            // The last bar is never cached
+            assertEquals(3 * (BAR_COUNT - 1), store.getUnflushedCount());
+        }
+        // Close prices are not cached, hence not stored
+        assertEquals(3, fileCount(directory));
+
+        // Identical content, new series and indicators
+        BarSeries sameSeries = newSeries();
+        EMAIndicator storedEma = new EMAIndicator(new ClosePriceIndicator(sameSeries), 10);
+        SMAIndicator storedSma = new SMAIndicator(new ClosePriceIndicator(sameSeries), 10);
+        CrossIndicator storedCross = new CrossIndicator(storedEma, storedSma);
+        ProfilingMetricsCollector profiler = new ProfilingMetricsCollector();
+        Metrics.setCollector(profiler);
+        try (ResultStore store = new ResultStore(directory)) {
+            CachedIndicator.setResultStore(store);
+            for (int i = 0; i < BAR_COUNT; i++) {
+                assertNumEquals(ema.getValue(i), storedEma.getValue(i));
+                assertNumEquals(sma.getValue(i), storedSma.getValue(i));
+                assertEquals(cross.getValue(i), storedCross.getValue(i));
+            }
+            assertEquals(0, store.getUnflushedCount());
+        }
+        // Only the (never cached) last bar is computed
+        assertEquals(0, profiler.getProfile(storedEma).getCacheMisses());
+        assertEquals(0, profiler.getProfile(storedSma).getCacheMisses());
+        assertEquals(0, profiler.getProfile(storedCross).getCacheMisses());
+        assertEquals(1, profiler.getProfile(storedCross).getCalculations());
+        assertEquals(3, fileCount(directory));
+    }
+
+    @Test
+    public void storedResultsAreMerged() throws IOException {
+        Path directory = folder.newFolder().toPath();
+        try (ResultStore store = new ResultStore(directory)) {
+            CachedIndicator.setResultStore(store);
+            SMAIndicator sma = new SMAIndicator(new ClosePriceIndicator(newSeries()), 5);
+            for (int i = 0; i < 100; i++) {
+                sma.getValue(i);
+            }
+            store.flush();
+            sma = new SMAIndicator(new ClosePriceIndicator(newSeries()), 5);
+            for (int i = 150; i < 200; i++) {
+                sma.getValue(i);
+            }
+        }
+        ProfilingMetricsCollector profiler = new ProfilingMetricsCollector();
+        Metrics.setCollector(profiler);
+        try (ResultStore store = new ResultStore(directory)) {
+            CachedIndicator.setResultStore(store);
+            SMAIndicator sma = new SMAIndicator(new ClosePriceIndicator(newSeries()), 5);
+            for (int i = 0; i < 200; i++) {
+                sma.getValue(i);
+            }
+            // Bars 100 to 149 were not stored
+            assertEquals(50, profiler.getProfile(sma).getCacheMisses());
+            assertEquals(50, store.getUnflushedCount());
+        }
+        assertEquals(1, fileCount(directory));
+    }
+
+    @Test
+    public void unreadableFilesAreIgnoredAndReplaced() throws IOException {
+        Path directory = folder.newFolder().toPath();
+        try (ResultStore store = new ResultStore(directory)) {
+            CachedIndicator.setResultStore(store);
+            SMAIndicator sma = new SMAIndicator(new ClosePriceIndicator(newSeries()), 5);
+            for (int i = 0; i < 100; i++) {
+                sma.getValue(i);
+            }
+        }
+        Path file;
+        try (Stream<Path> files = Files.list(directory)) {
+            file = files.findFirst().get();
+        }
+        byte[] content = Files.readAllBytes(file);
+
+        // Truncated file, then a file which is not a result file
+        byte[][] unreadables = { Arrays.copyOf(content, content.length / 2), "garbage".getBytes("UTF-8") };
+        for (byte[] unreadable : unreadables) {
+            Files.write(file, unreadable);
+            ProfilingMetricsCollector profiler = new ProfilingMetricsCollector();
+            Metrics.setCollector(profiler);
+            try (ResultStore store = new ResultStore(directory)) {
+                CachedIndicator.setResultStore(store);
+                SMAIndicator sma = new SMAIndicator(new ClosePriceIndicator(newSeries()), 5);
+                for (int i = 0; i < 100; i++) {
+                    sma.getValue(i);
+                }
+                assertEquals(100, profiler.getProfile(sma).getCacheMisses());
+            }
+            assertEquals(1, fileCount(directory));
+            assertArrayEquals(content, Files.readAllBytes(file));
+        }
+    }
+
+    @Test
+    public void seriesChangeDetachesStore() throws IOException {
+        Path directory = folder.newFolder().toPath();
+        BarSeries series = newSeries();
+        try (ResultStore store = new ResultStore(directory)) {
+            CachedIndicator.setResultStore(store);
+            SMAIndicator sma = new SMAIndicator(new ClosePriceIndicator(series), 5);
+            sma.getValue(10);
+            series.addBar(series.getLastBar().getEndTime().plusDays(1), 1, 1, 1, 1, 1);
+            sma.getValue(20);
+            assertEquals(1, store.getUnflushedCount());
+        }
+    }
+
+    @Test
+    public void signatures() {
+        BarSeries series = newSeries();
+        ClosePriceIndicator closePrice = new ClosePriceIndicator(series);
+        String signature = IndicatorSignature.of(new SMAIndicator(closePrice, 10));
+        assertNotNull(signature);
+        assertEquals(signature, IndicatorSignature.of(new SMAIndicator(new ClosePriceIndicator(newSeries()), 10)));
+        assertNotEquals(signature, IndicatorSignature.of(new SMAIndicator(closePrice, 20)));
+        assertNotEquals(signature, IndicatorSignature.of(new EMAIndicator(closePrice, 10)));
+        assertEquals(IndicatorSignature.contentHash(series), IndicatorSignature.contentHash(newSeries()));
+
+        series.addBar(series.getLastBar().getEndTime().plusDays(1), 1, 1, 1, 1, 1);
+        assertNotEquals(signature, IndicatorSignature.of(new SMAIndicator(closePrice, 10)));
+
+        // Indicators holding arbitrary objects have no signature
+        assertNull(IndicatorSignature.of(new CachedIndicator<Num>(series) {
+            private final Object state = new Object();
+
+            @Override
+            protected Num calculate(int index) {
+                return numOf(index);
+            }
+        }));
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.indicators.helpers;
+
+import org.junit.Test;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.BaseTradingRecord;
+import org.ta4j.core.Order;
+import org.ta4j.core.TradingRecord;
+import org.ta4j.core.indicators.SMAIndicator;
+import org.ta4j.core.mocks.MockBarSeries;
+import org.ta4j.core.num.DoubleNum;
+import org.ta4j.core.num.PrecisionNum;
+import org.ta4j.core.trading.rules.OverIndicatorRule;
+import org.ta4j.core.trading.rules.StopGainRule;
+import org.ta4j.core.trading.rules.StopLossRule;
+import org.ta4j.core.trading.rules.TrailingStopLossRule;
+import org.ta4j.core.trading.rules.UnderIndicatorRule;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HybridIndicatorTest {
+
+    private static HybridIndicator hybridSma(double... closes) {
+        BarSeries fast = new MockBarSeries(DoubleNum::valueOf, closes);
+        BarSeries exact = new MockBarSeries(PrecisionNum::valueOf, closes);
+        return new HybridIndicator(new SMAIndicator(new ClosePriceIndicator(fast), 2),
+                new SMAIndicator(new ClosePriceIndicator(exact), 2));
+    }
+
+    private static HybridIndicator hybridClosePrice(double... closes) {
+        return new HybridIndicator(new ClosePriceIndicator(new MockBarSeries(DoubleNum::valueOf, closes)),
+                new ClosePriceIndicator(new MockBarSeries(PrecisionNum::valueOf, closes)));
+    }
+
+    @Test
+    public void valuesAreFast() {
+        HybridIndicator sma = hybridSma(0.1, 0.2);
+        assertEquals(0.15000000000000002, sma.getValue(1).doubleValue(), 0);
+        assertEquals(PrecisionNum.valueOf("0.15"), sma.getExactValue(1));
+        assertEquals(PrecisionNum.valueOf("0.15"), sma.toExact(DoubleNum.valueOf(0.15)));
+    }
+
+    @Test
+    public void thresholdRulesAreVerifiedExactly() {
+        HybridIndicator sma = hybridSma(0.1, 0.2);
+        // (0.1 + 0.2) / 2 > 0.15 with doubles
+        assertTrue(new OverIndicatorRule(sma.getFast(), 0.15).isSatisfied(1));
+        assertFalse(new OverIndicatorRule(sma.getExact(), 0.15).isSatisfied(1));
+
+        assertFalse(new OverIndicatorRule(sma, 0.15).isSatisfied(1));
+        assertFalse(new UnderIndicatorRule(sma, 0.15).isSatisfied(1));
+        assertTrue(new OverIndicatorRule(sma, 0.1).isSatisfied(1));
+        assertEquals(2, sma.getVerificationCount());
+    }
+
+    @Test
+    public void crossingsAreVerifiedExactly() {
+        // (0.01 + 0.06) / 2 < 0.035 with doubles
+        HybridIndicator sma = hybridSma(0.1, 0.1, 0.01, 0.06, 0);
+        CrossIndicator fast = new CrossIndicator(sma.getFast(),
+                new ConstantIndicator<>(sma.getFast().getBarSeries(), DoubleNum.valueOf(0.035)));
+        CrossIndicator exact = new CrossIndicator(sma.getExact(),
+                new ConstantIndicator<>(sma.getExact().getBarSeries(), PrecisionNum.valueOf("0.035")));
+        CrossIndicator hybrid = new CrossIndicator(sma,
+                new ConstantIndicator<>(sma.getBarSeries(), DoubleNum.valueOf(0.035)));
+
+        assertTrue(fast.getValue(3));
+        assertFalse(exact.getValue(3));
+        assertTrue(exact.getValue(4));
+        for (int i = 0; i <= 4; i++) {
+            assertEquals(exact.getValue(i), hybrid.getValue(i));
+        }
+    }
+
+    @Test
+    public void stopLevelsAreVerifiedExactly() {
+        // 101.3 * (100 - 1.5) / 100 < 99.7805 with doubles
+        HybridIndicator closePrice = hybridClosePrice(101.3, 100, 99.7805);
+        TradingRecord tradingRecord = new BaseTradingRecord(Order.OrderType.BUY);
+        tradingRecord.enter(0, DoubleNum.valueOf(101.3), DoubleNum.valueOf(1));
+
+        assertFalse(new StopLossRule(new ClosePriceIndicator(closePrice.getFast().getBarSeries()), 1.5)
+                .isSatisfied(2, tradingRecord));
+        assertFalse(new StopLossRule(closePrice, 1.5).isSatisfied(1, tradingRecord));
+        assertTrue(new StopLossRule(closePrice, 1.5).isSatisfied(2, tradingRecord));
+        assertTrue(new TrailingStopLossRule(closePrice, DoubleNum.valueOf(1.5)).isSatisfied(2, tradingRecord));
+
+        // 100 * (100 + 0.7) / 100 > 100.7 with doubles
+        HybridIndicator gainClosePrice = hybridClosePrice(100, 100.7);
+        TradingRecord gainRecord = new BaseTradingRecord(Order.OrderType.BUY);
+        gainRecord.enter(0, DoubleNum.valueOf(100), DoubleNum.valueOf(1));
+        assertFalse(new StopGainRule(new ClosePriceIndicator(gainClosePrice.getFast().getBarSeries()), 0.7)
+                .isSatisfied(1, gainRecord));
+        assertTrue(new StopGainRule(gainClosePrice, 0.7).isSatisfied(1, gainRecord));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void exactIndicatorIsRequired() {
+        new HybridIndicator(new ClosePriceIndicator(new MockBarSeries(DoubleNum::valueOf, 1)), null);
+    }
+}
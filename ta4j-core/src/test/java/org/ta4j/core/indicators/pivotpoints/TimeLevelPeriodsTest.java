@@ -0,0 +1,134 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.indicators.pivotpoints;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.BaseBarSeries;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.ta4j.core.TestUtils.assertNumEquals;
+
+public class TimeLevelPeriodsTest {
+
+    private BarSeries series;
+
+    private ZonedDateTime monday;
+
+    @Before
+    public void setUp() {
+        series = new BaseBarSeries();
+        monday = ZonedDateTime.of(2020, 1, 6, 0, 0, 0, 0, ZoneOffset.UTC);
+    }
+
+    private void addBar(ZonedDateTime endTime, double open, double high, double low, double close) {
+        series.addBar(endTime, open, high, low, close, 1);
+    }
+
+    @Test
+    public void previousDaySkipsWeekend() {
+        // Friday 2020-01-10, two hourly bars
+        addBar(monday.plusDays(4).plusHours(10), 10, 12, 9, 11);
+        addBar(monday.plusDays(4).plusHours(11), 11, 15, 10, 14);
+        // Monday 2020-01-13
+        addBar(monday.plusDays(7).plusHours(10), 14, 14, 13, 13);
+        addBar(monday.plusDays(7).plusHours(11), 13, 16, 12, 15);
+
+        TimeLevelPeriods periods = TimeLevelPeriods.of(series, TimeLevel.DAY);
+        assertNull(periods.getPreviousPeriod(0));
+        assertNull(periods.getPreviousPeriod(1));
+
+        TimeLevelPeriods.Period friday = periods.getPreviousPeriod(3);
+        assertEquals(0, friday.getBeginIndex());
+        assertEquals(1, friday.getEndIndex());
+        assertNumEquals(10, friday.getOpenPrice());
+        assertNumEquals(15, friday.getHighPrice());
+        assertNumEquals(9, friday.getLowPrice());
+        assertNumEquals(14, friday.getClosePrice());
+        assertEquals(Arrays.asList(1, 0), periods.getBarsOfPreviousPeriod(2));
+    }
+
+    @Test
+    public void previousWeekMustBeAdjacent() {
+        addBar(monday.plusHours(12), 1, 2, 1, 2);
+        addBar(monday.plusDays(2).plusHours(12), 2, 3, 1, 3);
+        addBar(monday.plusWeeks(1).plusHours(12), 3, 4, 3, 4);
+        addBar(monday.plusWeeks(3).plusHours(12), 4, 5, 4, 5);
+
+        TimeLevelPeriods periods = TimeLevelPeriods.of(series, TimeLevel.WEEK);
+        TimeLevelPeriods.Period previousWeek = periods.getPreviousPeriod(2);
+        assertEquals(0, previousWeek.getBeginIndex());
+        assertEquals(1, previousWeek.getEndIndex());
+        assertNumEquals(3, previousWeek.getHighPrice());
+        // No bar in the previous calendar week
+        assertNull(periods.getPreviousPeriod(3));
+        assertTrue(periods.getBarsOfPreviousPeriod(3).isEmpty());
+    }
+
+    @Test
+    public void updatedIncrementally() {
+        addBar(monday.plusHours(12), 1, 2, 1, 2);
+        TimeLevelPeriods periods = TimeLevelPeriods.of(series, TimeLevel.DAY);
+        assertNull(periods.getPreviousPeriod(0));
+
+        addBar(monday.plusHours(13), 2, 5, 2, 4);
+        addBar(monday.plusDays(1).plusHours(12), 4, 4, 3, 3);
+        TimeLevelPeriods.Period previousDay = periods.getPreviousPeriod(2);
+        assertEquals(1, previousDay.getEndIndex());
+        assertNumEquals(5, previousDay.getHighPrice());
+        assertNumEquals(4, previousDay.getClosePrice());
+
+        addBar(monday.plusDays(2).plusHours(12), 3, 3, 2, 2);
+        assertEquals(2, periods.getPreviousPeriod(3).getBeginIndex());
+        // Earlier bars keep their own previous period
+        assertEquals(0, periods.getPreviousPeriod(2).getBeginIndex());
+    }
+
+    @Test
+    public void sharedPerSeriesAndTimeLevel() {
+        addBar(monday.plusHours(12), 1, 2, 1, 2);
+        assertSame(TimeLevelPeriods.of(series, TimeLevel.MONTH), TimeLevelPeriods.of(series, TimeLevel.MONTH));
+        PivotPointIndicator pivotPoint = new PivotPointIndicator(series, TimeLevel.MONTH);
+        DeMarkPivotPointIndicator deMarkPivotPoint = new DeMarkPivotPointIndicator(series, TimeLevel.MONTH);
+        assertNull(pivotPoint.getPreviousPeriod(0));
+        assertNull(deMarkPivotPoint.getPreviousPeriod(0));
+    }
+
+    @Test
+    public void barBasedPeriodIsPreviousBar() {
+        addBar(monday.plusHours(12), 1, 2, 1, 2);
+        addBar(monday.plusHours(13), 2, 5, 2, 4);
+        TimeLevelPeriods periods = TimeLevelPeriods.of(series, TimeLevel.BARBASED);
+        assertEquals(0, periods.getPreviousPeriod(1).getBeginIndex());
+        assertNumEquals(2, periods.getPreviousPeriod(1).getClosePrice());
+    }
+}
@@ -0,0 +1,145 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.metrics;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.BarSeriesManager;
+import org.ta4j.core.BaseStrategy;
+import org.ta4j.core.CompactTradingRecord;
+import org.ta4j.core.Indicator;
+import org.ta4j.core.Strategy;
+import org.ta4j.core.TradingRecord;
+import org.ta4j.core.indicators.AbstractIndicatorTest;
+import org.ta4j.core.indicators.EMAIndicator;
+import org.ta4j.core.indicators.SMAIndicator;
+import org.ta4j.core.indicators.cache.CacheManager;
+import org.ta4j.core.indicators.cache.CachePolicy;
+import org.ta4j.core.indicators.cache.ResultCache;
+import org.ta4j.core.indicators.helpers.ClosePriceIndicator;
+import org.ta4j.core.mocks.MockBarSeries;
+import org.ta4j.core.num.DoubleNum;
+import org.ta4j.core.num.Num;
+import org.ta4j.core.trading.rules.OverIndicatorRule;
+import org.ta4j.core.trading.rules.UnderIndicatorRule;
+
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class MemoryFootprintTest extends AbstractIndicatorTest<Indicator<Num>, Num> {
+
+    private BarSeries series;
+
+    private ClosePriceIndicator closePrice;
+
+    private SMAIndicator sma;
+
+    private EMAIndicator ema;
+
+    private Strategy strategy;
+
+    public MemoryFootprintTest(Function<Number, Num> numFunction) {
+        super(numFunction);
+    }
+
+    @Before
+    public void setUp() {
+        double[] prices = new double[1000];
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = 100 + i % 17;
+        }
+        series = new MockBarSeries(numFunction, prices);
+        closePrice = new ClosePriceIndicator(series);
+        sma = new SMAIndicator(closePrice, 10);
+        ema = new EMAIndicator(closePrice, 10);
+        strategy = new BaseStrategy(new OverIndicatorRule(ema, sma), new UnderIndicatorRule(ema, sma));
+    }
+
+    @Test
+    public void estimatedAndActualBytes() {
+        long numBytes = MemoryFootprint.numBytes(series);
+        assertEquals(numFunction.apply(0) instanceof DoubleNum ? MemoryFootprint.DOUBLE_NUM_BYTES
+                : MemoryFootprint.PRECISION_NUM_BYTES, numBytes);
+
+        MemoryFootprint footprint = MemoryFootprint.of(strategy, series);
+        assertEquals(3, footprint.getEntries().size());
+        assertEquals(0, footprint.getActualIndicatorBytes());
+
+        // Close prices are not cached
+        MemoryFootprint.Entry closePriceEntry = footprint.getEntry(closePrice);
+        assertEquals(0, closePriceEntry.getEstimatedBytes());
+        MemoryFootprint.Entry smaEntry = footprint.getEntry(sma);
+        assertEquals(CachePolicy.full(), smaEntry.getCachePolicy());
+        assertEquals(999, smaEntry.getExpectedResultCount());
+        assertEquals(999 * (ResultCache.REFERENCE_BYTES + numBytes), smaEntry.getEstimatedBytes());
+        assertEquals(1000 * (MemoryFootprint.BAR_BYTES + 6 * numBytes), footprint.getBarSeriesBytes());
+        assertEquals(0, footprint.getTradingRecordBytes());
+
+        TradingRecord tradingRecord = new BarSeriesManager(series).run(strategy);
+        footprint = MemoryFootprint.of(strategy, series, tradingRecord);
+        assertEquals(footprint.getEstimatedIndicatorBytes(), footprint.getActualIndicatorBytes());
+        assertEquals(footprint.getEstimatedBytes(), footprint.getActualBytes());
+        assertTrue(footprint.getTradingRecordBytes() > 0);
+        assertTrue(footprint.toString().contains("SMAIndicator"));
+        assertNull(footprint.getEntry(new SMAIndicator(closePrice, 3)));
+    }
+
+    @Test
+    public void cachePolicies() {
+        sma.setCachePolicy(CachePolicy.lastN(20));
+        ema.setCachePolicy(CachePolicy.primitive());
+        MemoryFootprint footprint = MemoryFootprint.of(series, sma, ema);
+        assertEquals(20 * (ResultCache.REFERENCE_BYTES + MemoryFootprint.numBytes(series)),
+                footprint.getEntry(sma).getEstimatedBytes());
+        assertEquals(999 * 9, footprint.getEntry(ema).getEstimatedBytes());
+        sma.setCachePolicy(CachePolicy.none());
+        assertEquals(0, MemoryFootprint.of(series, sma).getEstimatedIndicatorBytes());
+    }
+
+    @Test
+    public void tradingRecords() {
+        CompactTradingRecord compact = new CompactTradingRecord();
+        new BarSeriesManager(series).run(strategy, compact, numOf(1), series.getBeginIndex(), series.getEndIndex());
+        assertTrue(compact.getOrderCount() > 0);
+        assertEquals(compact.getOrderCount() * 20L, MemoryFootprint.estimateTradingRecord(compact));
+        assertEquals(0, MemoryFootprint.estimateTradingRecord(null));
+    }
+
+    @Test
+    public void budgets() {
+        MemoryFootprint footprint = MemoryFootprint.of(strategy, series);
+        long estimated = footprint.getEstimatedBytes();
+        assertTrue(footprint.exceeds(estimated - 1));
+        assertFalse(footprint.exceeds(estimated));
+        assertTrue(footprint.warnIfExceeds(estimated - 1));
+        assertFalse(footprint.warnIfExceeds(estimated));
+        assertTrue(footprint.warnIfExceeds(new CacheManager(footprint.getEstimatedIndicatorBytes() - 1)));
+        assertFalse(footprint.warnIfExceeds(new CacheManager(footprint.getEstimatedIndicatorBytes())));
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2019 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.metrics;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.BarSeriesManager;
+import org.ta4j.core.BaseStrategy;
+import org.ta4j.core.Indicator;
+import org.ta4j.core.Strategy;
+import org.ta4j.core.indicators.AbstractIndicatorTest;
+import org.ta4j.core.indicators.EMAIndicator;
+import org.ta4j.core.indicators.SMAIndicator;
+import org.ta4j.core.indicators.helpers.ClosePriceIndicator;
+import org.ta4j.core.mocks.MockBarSeries;
+import org.ta4j.core.num.Num;
+import org.ta4j.core.trading.rules.CrossedDownIndicatorRule;
+import org.ta4j.core.trading.rules.CrossedUpIndicatorRule;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ProfilingMetricsCollectorTest extends AbstractIndicatorTest<Indicator<Num>, Num> {
+
+    private BarSeries series;
+
+    private ProfilingMetricsCollector profiler;
+
+    public ProfilingMetricsCollectorTest(Function<Number, Num> numFunction) {
+        super(numFunction);
+    }
+
+    @Before
+    public void setUp() {
+        double[] prices = new double[200];
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = 100 + 10 * Math.sin(i / 5d);
+        }
+        series = new MockBarSeries(numFunction, prices);
+        profiler = new ProfilingMetricsCollector();
+        Metrics.setCollector(profiler);
+    }
+
+    @After
+    public void tearDown() {
+        Metrics.setCollector(null);
+    }
+
+    @Test
+    public void profileStrategy() {
+        ClosePriceIndicator closePrice = new ClosePriceIndicator(series);
+        SMAIndicator sma = new SMAIndicator(closePrice, 10);
+        EMAIndicator ema = new EMAIndicator(closePrice, 5);
+        Strategy strategy = new BaseStrategy("crossover", new CrossedUpIndicatorRule(ema, sma),
+                new CrossedDownIndicatorRule(ema, sma));
+        new BarSeriesManager(series).run(strategy);
+
+        ProfilingMetricsCollector.Profile smaProfile = profiler.getProfile(sma);
+        assertNotNull(smaProfile);
+        assertTrue(smaProfile.getCalculations() >= series.getBarCount() - 1);
+        assertTrue(smaProfile.getCacheHits() > 0);
+        assertTrue(smaProfile.getTotalNanos() >= smaProfile.getSelfNanos());
+
+        // Close prices are not cached: every read but the last bar is a miss
+        ProfilingMetricsCollector.Profile closePriceProfile = profiler.getProfile(closePrice);
+        assertEquals(0, closePriceProfile.getCacheHits());
+        assertTrue(closePriceProfile.getCacheMisses() > 0);
+        assertEquals(0, closePriceProfile.getHitRatio(), 0);
+        assertTrue(closePriceProfile.getCalculations() > smaProfile.getCalculations());
+
+        List<ProfilingMetricsCollector.Profile> profiles = profiler.getProfiles(strategy);
+        assertTrue(profiles.stream().anyMatch(p -> p.getSource() == strategy.getEntryRule()));
+        ProfilingMetricsCollector.Profile entryProfile = profiler.getProfile(strategy.getEntryRule());
+        assertTrue(entryProfile.getEvaluations() > 0);
+        for (int i = 1; i < profiles.size(); i++) {
+            assertTrue(profiles.get(i - 1).getSelfNanos() >= profiles.get(i).getSelfNanos());
+        }
+
+        String report = profiler.report(strategy);
+        assertTrue(report.startsWith("Profile of crossover"));
+        assertTrue(report.contains("SMAIndicator"));
+        assertTrue(report.contains("CrossedUpIndicatorRule"));
+    }
+
+    @Test
+    public void recursionDepth() {
+        EMAIndicator ema = new EMAIndicator(new ClosePriceIndicator(series), 5);
+        ema.getValue(50);
+        assertEquals(51, profiler.getProfile(ema).getMaxRecursionDepth());
+        assertEquals(51, profiler.getProfile(ema).getCacheMisses());
+    }
+
+    @Test
+    public void disabled() {
+        assertTrue(Metrics.isEnabled());
+        Metrics.setCollector(null);
+        assertFalse(Metrics.isEnabled());
+        SMAIndicator sma = new SMAIndicator(new ClosePriceIndicator(series), 3);
+        sma.getValue(10);
+        assertNull(profiler.getProfile(sma));
+    }
+}
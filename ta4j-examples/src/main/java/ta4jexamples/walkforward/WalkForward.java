@@ -64,31 +64,21 @@ public class WalkForward {
     public static List<Integer> getSplitBeginIndexes(BarSeries series, Duration splitDuration) {
         ArrayList<Integer> beginIndexes = new ArrayList<>();
 
-        int beginIndex = series.getBeginIndex();
-        int endIndex = series.getEndIndex();
-
         // Adding the first begin index
+        int beginIndex = series.getBeginIndex();
         beginIndexes.add(beginIndex);
 
-        // Building the first interval before next split
-        ZonedDateTime beginInterval = series.getFirstBar().getEndTime();
-        ZonedDateTime endInterval = beginInterval.plus(splitDuration);
-
-        for (int i = beginIndex; i <= endIndex; i++) {
-            // For each bar...
-            ZonedDateTime barTime = series.getBar(i).getEndTime();
-            if (barTime.isBefore(beginInterval) || !barTime.isBefore(endInterval)) {
-                // Bar out of the interval
-                if (!endInterval.isAfter(barTime)) {
-                    // Bar after the interval
-                    // --> Adding a new begin index
-                    beginIndexes.add(i);
-                }
-
-                // Building the new interval before next split
-                beginInterval = endInterval.isBefore(barTime) ? barTime : endInterval;
-                endInterval = beginInterval.plus(splitDuration);
-            }
+        // Building the first interval before next split (epoch nanoseconds)
+        final long splitNanos = splitDuration.toNanos();
+        long endInterval = series.getFirstBar().getEndTimeNanos() + splitNanos;
+
+        // Each split begins at the first bar after the previous interval
+        int splitIndex = series.ceilIndex(endInterval);
+        while (splitIndex > beginIndex) {
+            beginIndexes.add(splitIndex);
+            beginIndex = splitIndex;
+            endInterval = series.getBar(splitIndex).getEndTimeNanos() + splitNanos;
+            splitIndex = series.ceilIndex(endInterval);
         }
         return beginIndexes;
     }
@@ -113,22 +103,7 @@ public class WalkForward {
         ZonedDateTime beginInterval = series.getBar(beginIndex).getEndTime();
         ZonedDateTime endInterval = beginInterval.plus(duration);
 
-        // Checking bars belonging to the sub-series (starting at the provided index)
-        int subseriesNbBars = 0;
-        int endIndex = series.getEndIndex();
-        for (int i = beginIndex; i <= endIndex; i++) {
-            // For each bar...
-            ZonedDateTime barTime = series.getBar(i).getEndTime();
-            if (barTime.isBefore(beginInterval) || !barTime.isBefore(endInterval)) {
-                // Bar out of the interval
-                break;
-            }
-            // Bar in the interval
-            // --> Incrementing the number of bars in the subseries
-            subseriesNbBars++;
-        }
-
-        return series.getSubSeries(beginIndex, beginIndex + subseriesNbBars);
+        return series.getSubSeries(beginInterval.toInstant(), endInterval.toInstant());
     }
 
     /**